@@ -2,11 +2,21 @@ package com.koreplan.area.service;
 
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -19,11 +29,12 @@ import com.koreplan.area.entity.RegionCodeEntity;
 import com.koreplan.area.entity.WardCodeEntity;
 import com.koreplan.area.repository.RegionCodeRepository;
 import com.koreplan.area.repository.WardCodeRepository;
-import com.koreplan.category.service.CategoryService;
-import com.koreplan.data.service.SaveDataService;
-import com.koreplan.service.festival.SaveFestivalService;
+import com.koreplan.common.api.QuotaExceededException;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.job.service.JobContext;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,29 +44,27 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 public class RegionCodeApiService {
+    public static final String JOB_NAME = "region";
+
     private final RegionCodeRepository regionCodeRepository; //시or도 코드 저장
     private final WardCodeRepository wardCodeRepository; // 시or도의 시or구(군) 코드 저장
     private final ObjectMapper objectMapper; // Jackson의 ObjectMapper 주입
-    private final CategoryService categoryService;
-    private final SaveDataService saveDataService;
-    private final SaveFestivalService saveFestivalService;
-    @Value("${publicDataKey}")
-    private String key;
+    private final ServiceKeyScheduler serviceKeyScheduler;
+    private final UpstreamGuard upstreamGuard;
 
-    private String publicDataKey = "8RzX7q7EJdbZwVX%2BT19pP%2B4eG8Omg8zWmGE6VJQsECN5MNrujoaMTY4FkJww6UeJF1fDoNn6UrkmNycG%2FhCxKw%3D%3D";
-    private String apiUrl = "https://apis.data.go.kr/B551011/KorService2/ldongCode2";
+    @Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/ldongCode2")
+    private String apiUrl;
 
-    public ResponseEntity<ResponseDto> requestRegionCodes() throws Exception {
+    public ResponseEntity<ResponseDto> requestRegionCodes(String serviceKey) throws Exception {
     	int rows=100;
-        String fullUrl = apiUrl + "?serviceKey=" + publicDataKey +"&numOfRows="+rows +"&MobileOS=WEB&MobileApp=Koreplan&_type=json&lDongListYn=N";
+        String fullUrl = apiUrl + "?serviceKey=" + serviceKey +"&numOfRows="+rows +"&MobileOS=WEB&MobileApp=Koreplan&_type=json&lDongListYn=N";
         
         URL url = new URL(fullUrl);
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Content-type", "application/json");
-        conn.setConnectTimeout(5000);
-        conn.setReadTimeout(5000);
+        upstreamGuard.applyTimeouts(conn, 5000, 10000);
         
         log.info("Response code: " + conn.getResponseCode());
         
@@ -90,29 +99,28 @@ public class RegionCodeApiService {
         }
     }
     
-    // 특정 지역 코드에 대한 하위 지역 요청 메소드 추가
-    public ResponseEntity<ResponseDto> requestSubRegionCodes(int areaCode) throws Exception {
+    // 특정 지역 코드에 대한 하위 지역 요청 메소드 추가 (서비스키는 ServiceKeyScheduler가 넘겨줌)
+    public ResponseEntity<ResponseDto> requestSubRegionCodes(String serviceKey, int areaCode) throws Exception {
     	int rows=100;
-    	String fullUrl = apiUrl + "?serviceKey=" + publicDataKey 
+    	String fullUrl = apiUrl + "?serviceKey=" + serviceKey 
     		    + "&numOfRows="+rows
     		    + "&pageNo=1"
     		    + "&MobileOS=WEB&MobileApp=Koreplan&_type=json"
     		    + "&lDongRegnCd=" + areaCode;
         URL url = new URL(fullUrl);
-        log.info("요청 URL: {}", url);
+        log.debug("하위 지역 요청: lDongRegnCd={}", areaCode);
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Content-type", "application/json");
-        conn.setConnectTimeout(5000);
-        conn.setReadTimeout(5000);
+        upstreamGuard.applyTimeouts(conn, 5000, 10000);
         
         BufferedReader rd;
         if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
             rd = new BufferedReader(new InputStreamReader(conn.getInputStream()));
         } else {
             rd = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-            throw new RuntimeException("API 호출 실패: " + conn.getResponseMessage());
+            throw new IOException("API 호출 실패: " + conn.getResponseMessage());
         }
         
         StringBuilder sb = new StringBuilder();
@@ -126,87 +134,118 @@ public class RegionCodeApiService {
         
         String responseBody = sb.toString();
         log.debug("하위 지역 API 응답: {}", responseBody);
+        // 호출 한도 초과는 스케줄러가 백오프 후 다른 키로 재시도
+        if (QuotaExceededException.isQuotaError(responseBody)) {
+            throw new QuotaExceededException("API 호출 제한 초과. lDongRegnCd: " + areaCode);
+        }
         
         ResponseDto responseDto = objectMapper.readValue(responseBody, ResponseDto.class);
         return ResponseEntity.ok(responseDto);
     }
-    // 주석 처리 해야 함.
-// 	모든데이터 여기서 저장하게(지역코드를 먼저 받아야하므로)
-    //@PostConstruct
-    public void init() {
-         saveAllDatas();
-         categoryService.savecategory();
-         saveDataService.saveDataService();
-         //saveFestivalService.saveFestival();
-         
-    }
-    public void saveRegionCode(ResponseDto dto) throws Exception {
+    /**
+     * 시/도 목록을 받아 하위 시군구 요청을 동시에 보내고, 시/도 → 시군구 순서로 두 번의 saveAll로 저장
+     * saveAll 한 번이 트랜잭션 하나라 커밋은 두 번이지만, id 가 IDENTITY 라서 INSERT 는 JDBC 배치로 묶이지 않고 행마다 나감
+     * (시/도 17개, 시군구 250여 개 정도라 배치를 위해 id 생성 방식을 바꾸지는 않음)
+     * 재시작 시 이미 저장된 시/도·시군구는 다시 만들지 않고 재사용
+     */
+    public void saveRegionCode(ResponseDto dto, JobContext ctx) throws Exception {
         List<Item> items = dto.getResponse().getBody().getItems().getItem();
+        ctx.setTotal(items.size());
+        if (ctx.getStartCursor() >= items.size()) {
+            return;
+        }
         
-        for (Item item : items) {
-            // 1. 먼저 Region 엔티티 생성 및 저장
-            RegionCodeEntity regionEntity = new RegionCodeEntity();
-            regionEntity.setRegioncode(Long.valueOf(item.getCode()));
-            regionEntity.setName(item.getName());
-            regionEntity.setWardList(new ArrayList<>());
-            
-            // 2. Region 엔티티를 저장하여 ID 생성 및 영속화
-            RegionCodeEntity savedRegion = regionCodeRepository.save(regionEntity);
-            
-            // 3. 이후 Ward 데이터 요청 및 처리
-            ResponseEntity<ResponseDto> wardResponse = requestSubRegionCodes(item.getCode());
-            if (wardResponse != null && wardResponse.getBody() != null) {
-                saveWardCode(wardResponse.getBody(), savedRegion);
+        // 1. 시/도별 하위 시군구 요청을 동시에 (키별 호출 한도는 스케줄러가 관리)
+        Map<Integer, Future<ResponseEntity<ResponseDto>>> wardFutures = new LinkedHashMap<>();
+        Map<Integer, List<Item>> wardItems = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Item item : items) {
+                wardFutures.put(item.getCode(), executor.submit(() -> serviceKeyScheduler.call("ldongCode2",
+                        KeyTraffic.INGESTION, serviceKey -> requestSubRegionCodes(serviceKey, item.getCode()))));
+            }
+            for (Map.Entry<Integer, Future<ResponseEntity<ResponseDto>>> entry : wardFutures.entrySet()) {
+                ResponseEntity<ResponseDto> wardResponse = getResult(entry.getValue());
+                wardItems.put(entry.getKey(), wardResponse == null || wardResponse.getBody() == null
+                        ? List.of()
+                        : wardResponse.getBody().getResponse().getBody().getItems().getItem());
             }
         }
-    }
-
-    public void saveWardCode(ResponseDto dto, RegionCodeEntity regionEntity) {
-        
-        List<Item> items = dto.getResponse().getBody().getItems().getItem();
-        List<WardCodeEntity> entities = new ArrayList<>();
         
+        // 2. 시/도 저장 (이전 실행에서 저장된 시/도는 재사용)
+        Map<Long, RegionCodeEntity> existingRegions = new HashMap<>();
+        for (RegionCodeEntity region : regionCodeRepository.findAll()) {
+            existingRegions.put(region.getRegioncode(), region);
+        }
+        List<RegionCodeEntity> newRegions = new ArrayList<>();
         for (Item item : items) {
-            WardCodeEntity wardEntity = new WardCodeEntity();
-            wardEntity.setWardcode(Long.valueOf(item.getCode()));
-            wardEntity.setName(item.getName());
-            wardEntity.setRegionCodeEntity(regionEntity); // 이미 저장된 Region 엔티티 참조
-            entities.add(wardEntity);
-            log.info("Ward Entity created: {}", wardEntity);
+            if (!existingRegions.containsKey(Long.valueOf(item.getCode()))) {
+                RegionCodeEntity regionEntity = new RegionCodeEntity();
+                regionEntity.setRegioncode(Long.valueOf(item.getCode()));
+                regionEntity.setName(item.getName());
+                regionEntity.setWardList(new ArrayList<>());
+                newRegions.add(regionEntity);
+            }
+        }
+        for (RegionCodeEntity saved : regionCodeRepository.saveAll(newRegions)) {
+            existingRegions.put(saved.getRegioncode(), saved);
         }
         
-        // Ward 엔티티들 저장
-        wardCodeRepository.saveAll(entities);
-    }
-    private void saveAllDatas() {
-    	try {
-            ResponseEntity<ResponseDto> response = requestRegionCodes();
-            ResponseDto dto = response.getBody();
-
-            if (dto == null) {
-                log.warn("API 응답이 null입니다.");
-                return;
+        // 3. 시군구 저장 (이미 저장된 시/도·시군구 조합은 건너뜀)
+        Set<String> existingWards = new HashSet<>();
+        for (WardCodeEntity ward : wardCodeRepository.findAll()) {
+            if (ward.getRegionCodeEntity() != null) {
+                existingWards.add(ward.getRegionCodeEntity().getRegioncode() + "-" + ward.getWardcode());
             }
-
-
-            List<Item> items = dto.getResponse().getBody().getItems().getItem();
-
-            // 예시: 아이템 리스트 출력
-            for (Item item : items) {
-                log.info("####지역 코드: {}, 지역명: {}", item.getCode(), item.getName());
+        }
+        List<WardCodeEntity> newWards = new ArrayList<>();
+        for (Map.Entry<Integer, List<Item>> entry : wardItems.entrySet()) {
+            RegionCodeEntity regionEntity = existingRegions.get(Long.valueOf(entry.getKey()));
+            for (Item item : entry.getValue()) {
+                if (!existingWards.add(regionEntity.getRegioncode() + "-" + item.getCode())) {
+                    continue;
+                }
+                WardCodeEntity wardEntity = new WardCodeEntity();
+                wardEntity.setWardcode(Long.valueOf(item.getCode()));
+                wardEntity.setName(item.getName());
+                wardEntity.setRegionCodeEntity(regionEntity); // 이미 저장된 Region 엔티티 참조
+                newWards.add(wardEntity);
             }
-            saveRegionCode(dto);
+        }
+        wardCodeRepository.saveAll(newWards);
+        
+        log.info("지역 코드 저장 완료: 시/도 {}개(신규 {}), 시군구 신규 {}개", items.size(), newRegions.size(), newWards.size());
+        ctx.checkpoint(items.size());
+    }
 
-            // 여기서 DB 저장 로직 추가 가능
-            // saveAll(items) 등
+    private <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
+    /**
+     * 지역 코드 적재 작업 (시/도 → 시군구)
+     * 오류는 삼키지 않고 던져서 작업 상태(FAILED)에 남긴다.
+     */
+    public void saveAllDatas(JobContext ctx) throws Exception {
+        ResponseEntity<ResponseDto> response = serviceKeyScheduler.call("ldongCode2", KeyTraffic.INGESTION,
+                this::requestRegionCodes);
+        ResponseDto dto = response.getBody();
+
+        if (dto == null) {
+            throw new IllegalStateException("API 응답이 null입니다.");
         }
-    	catch (Exception e) {
-            log.error("지역 코드 초기화 중 오류 발생", e);
+
+        List<Item> items = dto.getResponse().getBody().getItems().getItem();
+        for (Item item : items) {
+            log.info("####지역 코드: {}, 지역명: {}", item.getCode(), item.getName());
         }
+        saveRegionCode(dto, ctx);
     }
-    
-  
-    	
 }
 
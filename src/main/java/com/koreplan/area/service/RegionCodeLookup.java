@@ -0,0 +1,77 @@
+package com.koreplan.area.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.koreplan.area.entity.RegionCodeEntity;
+import com.koreplan.area.entity.WardCodeEntity;
+import com.koreplan.area.repository.RegionCodeRepository;
+import com.koreplan.area.repository.WardCodeRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 적재 작업용 지역/시군구 코드 → 엔티티 조회 테이블
+ * 항목마다 DB를 조회하지 않도록 작업 시작 시 한 번에 메모리로 올려서 사용
+ */
+@Slf4j
+public class RegionCodeLookup {
+
+	private final Map<Long, RegionCodeEntity> regions;
+	private final Map<String, WardCodeEntity> wards;
+
+	private RegionCodeLookup(Map<Long, RegionCodeEntity> regions, Map<String, WardCodeEntity> wards) {
+		this.regions = regions;
+		this.wards = wards;
+	}
+
+	public static RegionCodeLookup load(RegionCodeRepository regionCodeRepository, WardCodeRepository wardCodeRepository) {
+		Map<Long, RegionCodeEntity> regions = new HashMap<>();
+		for (RegionCodeEntity region : regionCodeRepository.findAll()) {
+			regions.put(region.getRegioncode(), region);
+		}
+		Map<String, WardCodeEntity> wards = new HashMap<>();
+		for (WardCodeEntity ward : wardCodeRepository.findAll()) {
+			if (ward.getRegionCodeEntity() != null) {
+				wards.put(wardKey(ward.getRegionCodeEntity().getRegioncode(), ward.getWardcode()), ward);
+			}
+		}
+		return new RegionCodeLookup(regions, wards);
+	}
+
+	private static String wardKey(Long regioncode, Long wardcode) {
+		return regioncode + "-" + wardcode;
+	}
+
+	/**
+	 * API 응답의 lDongRegnCd 문자열로 지역 엔티티 조회 (없거나 잘못된 값이면 null)
+	 */
+	public RegionCodeEntity region(String regioncodeStr) {
+		Long regioncode = parse(regioncodeStr);
+		return regioncode == null ? null : regions.get(regioncode);
+	}
+
+	/**
+	 * lDongRegnCd + lDongSignguCd 문자열로 시군구 엔티티 조회 (없거나 잘못된 값이면 null)
+	 */
+	public WardCodeEntity ward(String regioncodeStr, String wardcodeStr) {
+		Long regioncode = parse(regioncodeStr);
+		Long wardcode = parse(wardcodeStr);
+		if (regioncode == null || wardcode == null) {
+			return null;
+		}
+		return wards.get(wardKey(regioncode, wardcode));
+	}
+
+	private Long parse(String code) {
+		if (code == null || code.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			return Long.valueOf(code.trim());
+		} catch (NumberFormatException e) {
+			log.warn("지역 코드 파싱 오류: '{}'", code);
+			return null;
+		}
+	}
+}
@@ -17,6 +17,10 @@ import com.koreplan.category.dto.ResponseDto;
 import com.koreplan.category.dto.CategoryDto;
 import com.koreplan.category.entity.CategoryEntity;
 import com.koreplan.category.repository.CategoryRepository;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.job.service.JobContext;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -26,24 +30,26 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class CategoryService {
+	public static final String JOB_NAME = "category";
+
 	private final CategoryRepository categoryRepository;
 	private final ObjectMapper objectMapper;
-	@Value("${publicDataKey}")
-	private String key;
+	private final UpstreamGuard upstreamGuard;
+	private final ServiceKeyScheduler serviceKeyScheduler;
 	
-	private String apiUrl = "https://apis.data.go.kr/B551011/KorService2/lclsSystmCode2";
+	@Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/lclsSystmCode2")
+	private String apiUrl;
 	
-	public ResponseEntity<ResponseDto> requestCategoryCodes() throws Exception {
+	public ResponseEntity<ResponseDto> requestCategoryCodes(String serviceKey) throws Exception {
 		int rows=1000;
-		String fullUrl = apiUrl + "?serviceKey=" + key + "&numOfRows=" + rows 
+		String fullUrl = apiUrl + "?serviceKey=" + serviceKey + "&numOfRows=" + rows 
 				+ "&MobileOS=WEB&MobileApp=Koreplan&_type=json&lclsSystmListYn=Y";
 		URL url = new URL(fullUrl);
 
 		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 		conn.setRequestMethod("GET");
 		conn.setRequestProperty("Content-type", "application/json");
-		conn.setConnectTimeout(100000);
-		conn.setReadTimeout(100000);
+		upstreamGuard.applyTimeouts(conn, 10000, 100000);
 		
 		log.info("Response code: " + conn.getResponseCode());
 
@@ -77,28 +83,24 @@ public class CategoryService {
         }
     
 	}
-    public void savecategory() {
-		try {
-            ResponseEntity<ResponseDto> response = requestCategoryCodes();
-            ResponseDto dto = response.getBody();
-
-            if (dto == null) {
-                log.warn("API 응답이 null입니다.");
-                return;
-            }
-
-
-            List<CategoryDto> items = dto.getResponse().getBody().getItems().getItem();
-
-
-            saveCategoryCode(dto);
+    /**
+     * 분류체계 코드 적재 (한 번의 saveAll로 커밋되는 단일 청크 작업)
+     * 실패 시 예외를 그대로 던져서 작업 상태에 기록되게 함
+     */
+    public void savecategory(JobContext ctx) throws Exception {
+        ResponseEntity<ResponseDto> response = serviceKeyScheduler.call("lclsSystmCode2", KeyTraffic.INGESTION,
+        		this::requestCategoryCodes);
+        ResponseDto dto = response.getBody();
+
+        if (dto == null) {
+            throw new IllegalStateException("API 응답이 null입니다.");
+        }
 
-            // 여기서 DB 저장 로직 추가 가능
-            // saveAll(items) 등
+        List<CategoryDto> items = dto.getResponse().getBody().getItems().getItem();
+        ctx.setTotal(items.size());
 
-        } catch (Exception e) {
-            log.error("지역 코드 초기화 중 오류 발생", e);
-        }
+        saveCategoryCode(dto);
+        ctx.checkpoint(items.size());
     }
     
 	public void saveCategoryCode(ResponseDto dto) {
@@ -121,7 +123,7 @@ public class CategoryService {
             categoryEntity.setRnum(item.getRnum());
 
             entities.add(categoryEntity);
-            log.info("Category Entity created: {}", categoryEntity);
+            log.debug("Category Entity created: {}", categoryEntity);
         }
 
         categoryRepository.saveAll(entities);
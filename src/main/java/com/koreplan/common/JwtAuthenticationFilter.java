@@ -83,7 +83,9 @@ import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -121,12 +123,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         "/favicon.ico"
     );
 
+    // 관리자 API는 /api/ 아래에 있지만 JWT 검증 필요 (SecurityConfig 에서 ADMIN 권한 확인)
+    private static final String ADMIN_PATH = "/api/admin/";
+
+    // ADMIN 권한을 줄 이메일 목록 (쉼표 구분, 비어 있으면 관리자 API 사용 불가)
+    @Value("${security.admin-emails:}")
+    private List<String> adminEmails;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String requestURI = request.getRequestURI();
         
         // 제외할 경로들과 매치되는지 확인
-        boolean shouldSkip = excludeUrlPatterns.stream()
+        boolean shouldSkip = !requestURI.startsWith(ADMIN_PATH) && excludeUrlPatterns.stream()
                 .anyMatch(pattern -> requestURI.startsWith(pattern));
         
         if (shouldSkip) {
@@ -164,12 +173,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 
                 // 4. 인증 정보가 없으면 인증 객체 생성 및 SecurityContext에 저장
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // 인증 객체 생성 후 컨텍스트에 저장
+                    // 인증 객체 생성 후 컨텍스트에 저장 (관리자 이메일이면 ADMIN 권한)
+                    List<SimpleGrantedAuthority> authorities = adminEmails.contains(email)
+                            ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                            : Collections.emptyList();
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    new User(email, "", Collections.emptyList()), // UserDetails 대체
+                                    new User(email, "", authorities), // UserDetails 대체
                                     null,
-                                    Collections.emptyList());
+                                    authorities);
                     // 추가 정보 설정
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
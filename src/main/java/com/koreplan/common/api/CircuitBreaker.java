@@ -0,0 +1,181 @@
+package com.koreplan.common.api;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 오류율 기반 서킷 브레이커 (API 하나당 하나)
+ * - CLOSED: 최근 windowSize 건 중 minCalls 건 이상 쌓였고 실패율이 failureRatePercent 이상이면 OPEN
+ * - OPEN: openMillis 동안 호출하지 않고 바로 실패
+ * - HALF_OPEN: 시험 호출 halfOpenCalls 건만 허용, 모두 성공하면 CLOSED / 하나라도 실패하면 다시 OPEN
+ */
+@Slf4j
+class CircuitBreaker {
+
+	enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final String name;
+	private final int minCalls;
+	private final int failureRatePercent;
+	private final long openMillis;
+	private final int halfOpenCalls;
+
+	// 최근 결과 링 버퍼 (true = 실패)
+	private final boolean[] window;
+	private int windowIndex;
+	private int windowCount;
+	private int windowFailures;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	CircuitBreaker(String name, int windowSize, int minCalls, int failureRatePercent, long openMillis, int halfOpenCalls) {
+		this.name = name;
+		this.window = new boolean[windowSize];
+		this.minCalls = minCalls;
+		this.failureRatePercent = failureRatePercent;
+		this.openMillis = openMillis;
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+	/**
+	 * 호출해도 되는지 확인. OPEN 시간이 지났으면 HALF_OPEN 으로 바꾸고 시험 호출 허용
+	 */
+	boolean tryAcquire() {
+		lock.lock();
+		try {
+			if (state == State.OPEN) {
+				if (System.currentTimeMillis() - openedAt < openMillis) {
+					return false;
+				}
+				state = State.HALF_OPEN;
+				halfOpenPermits = halfOpenCalls;
+				halfOpenSuccesses = 0;
+				log.info("[{}] 서킷 HALF_OPEN: 시험 호출 {}건 허용", name, halfOpenCalls);
+			}
+			if (state == State.HALF_OPEN) {
+				if (halfOpenPermits <= 0) {
+					return false;
+				}
+				halfOpenPermits--;
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void onSuccess() {
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN) {
+				if (++halfOpenSuccesses >= halfOpenCalls) {
+					state = State.CLOSED;
+					resetWindow();
+					log.info("[{}] 서킷 CLOSED: 시험 호출 성공", name);
+				}
+				return;
+			}
+			record(false);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void onFailure() {
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN) {
+				open();
+				return;
+			}
+			record(true);
+			if (state == State.CLOSED && windowCount >= minCalls
+					&& windowFailures * 100 >= failureRatePercent * windowCount) {
+				open();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 호출은 허용됐지만 결과를 판단할 수 없을 때(호출 한도 초과 등) HALF_OPEN 시험 호출 자리 반납
+	 */
+	void onIgnored() {
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN) {
+				halfOpenPermits++;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * OPEN 상태가 풀리기까지 남은 시간(초, 최소 1)
+	 */
+	long retryAfterSeconds() {
+		lock.lock();
+		try {
+			long remaining = openMillis - (System.currentTimeMillis() - openedAt);
+			return Math.max(1, (remaining + 999) / 1000);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	State state() {
+		lock.lock();
+		try {
+			return state;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	String stats() {
+		lock.lock();
+		try {
+			return String.format("state=%s, window=%d, failures=%d", state, windowCount, windowFailures);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = System.currentTimeMillis();
+		log.warn("[{}] 서킷 OPEN: 최근 {}건 중 실패 {}건 → {}ms 동안 호출 차단", name, windowCount, windowFailures, openMillis);
+		resetWindow();
+	}
+
+	private void record(boolean failure) {
+		if (windowCount == window.length) {
+			if (window[windowIndex]) {
+				windowFailures--;
+			}
+		} else {
+			windowCount++;
+		}
+		window[windowIndex] = failure;
+		if (failure) {
+			windowFailures++;
+		}
+		windowIndex = (windowIndex + 1) % window.length;
+	}
+
+	private void resetWindow() {
+		windowIndex = 0;
+		windowCount = 0;
+		windowFailures = 0;
+	}
+}
@@ -0,0 +1,304 @@
+package com.koreplan.common.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.common.api.entity.ServiceKeyUsageEntity;
+import com.koreplan.common.api.repository.ServiceKeyUsageRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 공공데이터 서비스키(publicDataKey 1~3) 공용 풀 + 하루 호출 예산
+ * - 키마다 하루 한도(publicData.quota.keyN.daily-limit)를 사용자 요청(SERVING)과 적재(INGESTION) 예산으로 나눔
+ * - 예산 대비 사용 비율이 가장 낮은 키를 먼저 내줌 (한도가 큰 키가 그만큼 더 많이 쓰임)
+ * - 사용량은 주기적으로 DB에 저장해서 재시작해도 오늘 사용량을 이어서 계산
+ * - 한도 초과 응답을 받은 키는 오늘 남은 시간 동안 제외
+ * 공공데이터 호출 한도는 한국 시간 자정에 초기화되므로 날짜도 KST 기준
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KeyQuotaManager {
+
+	private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+	private final ServiceKeyUsageRepository serviceKeyUsageRepository;
+	private final Environment environment;
+
+	@Value("${publicDataKey}")
+	private String serviceKey1;
+
+	@Value("${publicDataKey2:}")
+	private String serviceKey2;
+
+	@Value("${publicDataKey3:}")
+	private String serviceKey3;
+
+	// 키별 초당 호출 수 (data.go.kr 키의 TPS 한도에 맞춰 설정)
+	@Value("${publicData.rate.key1:20}")
+	private double rateKey1;
+
+	@Value("${publicData.rate.key2:20}")
+	private double rateKey2;
+
+	@Value("${publicData.rate.key3:20}")
+	private double rateKey3;
+
+	@Value("${publicData.rate.burst:10}")
+	private int burst;
+
+	// 키별로 덮어쓰지 않았을 때의 하루 한도 (개발계정 기본 1,000건)
+	@Value("${publicData.quota.daily-limit:1000}")
+	private int defaultDailyLimit;
+
+	// 하루 한도 중 사용자 요청 몫 (%)
+	@Value("${publicData.quota.serving-percent:40}")
+	private int servingPercent;
+
+	private final List<ServiceKey> keys = new ArrayList<>();
+	private final AtomicInteger rotation = new AtomicInteger();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+	private final ReentrantLock rolloverLock = new ReentrantLock();
+	private volatile LocalDate day;
+
+	public static final class ServiceKey {
+		private final String alias;
+		private final String value;
+		private final String fingerprint;
+		private final int servingBudget;
+		private final int ingestionBudget;
+		private final TokenBucket bucket;
+		private final AtomicInteger servingUsed = new AtomicInteger();
+		private final AtomicInteger ingestionUsed = new AtomicInteger();
+
+		private ServiceKey(String alias, String value, int dailyLimit, int servingPercent, TokenBucket bucket) {
+			this.alias = alias;
+			this.value = value;
+			this.fingerprint = fingerprint(value);
+			this.servingBudget = (int) ((long) dailyLimit * servingPercent / 100);
+			this.ingestionBudget = dailyLimit - servingBudget;
+			this.bucket = bucket;
+		}
+
+		public String value() {
+			return value;
+		}
+
+		public String alias() {
+			return alias;
+		}
+
+		TokenBucket bucket() {
+			return bucket;
+		}
+
+		private int budget(KeyTraffic traffic) {
+			return traffic == KeyTraffic.SERVING ? servingBudget : ingestionBudget;
+		}
+
+		private AtomicInteger used(KeyTraffic traffic) {
+			return traffic == KeyTraffic.SERVING ? servingUsed : ingestionUsed;
+		}
+
+		private double usageRatio(KeyTraffic traffic) {
+			int budget = budget(traffic);
+			return budget <= 0 ? Double.MAX_VALUE : (double) used(traffic).get() / budget;
+		}
+	}
+
+	public record KeyUsage(String alias, String fingerprint, int servingUsed, int servingBudget,
+			int ingestionUsed, int ingestionBudget) {
+	}
+
+	@PostConstruct
+	public void init() {
+		addKey("key1", serviceKey1, rateKey1);
+		addKey("key2", serviceKey2, rateKey2);
+		addKey("key3", serviceKey3, rateKey3);
+		day = today();
+		load();
+		log.info("서비스키 풀 초기화: 키 {}개, 사용자 요청 몫 {}%", keys.size(), servingPercent);
+	}
+
+	private void addKey(String alias, String value, double ratePerSecond) {
+		if (value == null || value.isBlank()) {
+			return;
+		}
+		int dailyLimit = environment.getProperty("publicData.quota." + alias + ".daily-limit", Integer.class,
+				defaultDailyLimit);
+		keys.add(new ServiceKey(alias, value, dailyLimit, servingPercent, new TokenBucket(ratePerSecond, burst)));
+	}
+
+	public int keyCount() {
+		return keys.size();
+	}
+
+	/**
+	 * 해당 예산이 남은 키 중 사용 비율이 가장 낮은 키를 골라 1건 차감
+	 * @return 모든 키의 예산이 소진됐으면 null
+	 */
+	public ServiceKey acquire(KeyTraffic traffic) {
+		rolloverIfNeeded();
+
+		// 비율이 같으면 돌아가면서 쓰도록 시작 위치를 바꿔 가며 정렬
+		List<ServiceKey> candidates = new ArrayList<>(keys);
+		Collections.rotate(candidates, rotation.getAndIncrement() % Math.max(1, candidates.size()));
+		candidates.sort(Comparator.comparingDouble(key -> key.usageRatio(traffic)));
+
+		for (ServiceKey key : candidates) {
+			AtomicInteger used = key.used(traffic);
+			if (used.incrementAndGet() <= key.budget(traffic)) {
+				dirty.set(true);
+				return key;
+			}
+			used.decrementAndGet();
+		}
+		return null;
+	}
+
+	/**
+	 * acquire()로 차감했지만 실제로 요청을 보내지 않은 1건을 되돌림 (벌크헤드/서킷/마감 시각에 막힌 경우)
+	 */
+	public void release(ServiceKey key, KeyTraffic traffic) {
+		key.used(traffic).updateAndGet(used -> Math.max(0, used - 1));
+		dirty.set(true);
+	}
+
+	/**
+	 * 한도 초과 응답을 받은 키는 오늘 두 예산 모두 소진된 것으로 처리
+	 */
+	public void markExhausted(ServiceKey key) {
+		for (KeyTraffic traffic : KeyTraffic.values()) {
+			key.used(traffic).accumulateAndGet(key.budget(traffic), Math::max);
+		}
+		dirty.set(true);
+		log.warn("서비스키 {}({}) 오늘 호출 한도 소진 → 자정까지 제외", key.alias, ServiceKeyScheduler.mask(key.value));
+	}
+
+	/**
+	 * 다음 한도 초기화(KST 자정)까지 남은 초
+	 */
+	public long secondsUntilReset() {
+		ZonedDateTime now = ZonedDateTime.now(KST);
+		ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(KST);
+		return Math.max(1, Duration.between(now, midnight).getSeconds());
+	}
+
+	public List<KeyUsage> usage() {
+		rolloverIfNeeded();
+		return keys.stream()
+				.map(key -> new KeyUsage(key.alias, key.fingerprint,
+						key.servingUsed.get(), key.servingBudget,
+						key.ingestionUsed.get(), key.ingestionBudget))
+				.toList();
+	}
+
+	@Scheduled(fixedDelayString = "${publicData.quota.flush-interval:PT30S}")
+	public void scheduledFlush() {
+		rolloverIfNeeded();
+		flush();
+	}
+
+	@PreDestroy
+	public void flush() {
+		if (!dirty.getAndSet(false)) {
+			return;
+		}
+		LocalDate flushDay = day;
+		try {
+			List<ServiceKeyUsageEntity> rows = keys.stream()
+					.map(key -> ServiceKeyUsageEntity.builder()
+							.id(key.fingerprint + ":" + flushDay)
+							.keyAlias(key.alias)
+							.keyFingerprint(key.fingerprint)
+							.usageDate(flushDay)
+							.servingCount(key.servingUsed.get())
+							.ingestionCount(key.ingestionUsed.get())
+							.updatedAt(LocalDateTime.now())
+							.build())
+					.toList();
+			serviceKeyUsageRepository.saveAll(rows);
+		} catch (Exception e) {
+			dirty.set(true);
+			log.warn("서비스키 사용량 저장 실패 (다음 주기에 재시도): {}", e.getMessage());
+		}
+	}
+
+	private void load() {
+		try {
+			for (ServiceKeyUsageEntity row : serviceKeyUsageRepository.findByUsageDate(day)) {
+				for (ServiceKey key : keys) {
+					if (key.fingerprint.equals(row.getKeyFingerprint())) {
+						key.servingUsed.accumulateAndGet(row.getServingCount(), Math::max);
+						key.ingestionUsed.accumulateAndGet(row.getIngestionCount(), Math::max);
+						log.info("서비스키 {} 오늘 사용량 복원: 사용자 요청 {}/{}, 적재 {}/{}", key.alias,
+								key.servingUsed.get(), key.servingBudget, key.ingestionUsed.get(), key.ingestionBudget);
+					}
+				}
+			}
+		} catch (Exception e) {
+			log.warn("서비스키 사용량 복원 실패 (0부터 계산): {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 날짜가 바뀌었으면 어제 사용량을 저장하고 카운터 초기화
+	 */
+	private void rolloverIfNeeded() {
+		LocalDate today = today();
+		if (today.equals(day)) {
+			return;
+		}
+		rolloverLock.lock();
+		try {
+			if (today.equals(day)) {
+				return;
+			}
+			flush();
+			for (ServiceKey key : keys) {
+				key.servingUsed.set(0);
+				key.ingestionUsed.set(0);
+			}
+			day = today;
+			log.info("서비스키 하루 사용량 초기화: {}", today);
+		} finally {
+			rolloverLock.unlock();
+		}
+	}
+
+	private static LocalDate today() {
+		return LocalDate.now(KST);
+	}
+
+	private static String fingerprint(String value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash, 0, 8);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
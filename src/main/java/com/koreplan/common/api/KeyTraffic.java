@@ -0,0 +1,11 @@
+package com.koreplan.common.api;
+
+/**
+ * 서비스키 호출 예산 구분
+ * - SERVING: 사용자 요청 처리 (상세정보, 개요, 이미지 등)
+ * - INGESTION: 적재 작업, 미리 불러오기 등 백그라운드 호출
+ * 키마다 하루 한도를 두 예산으로 나눠서 적재 작업이 사용자 요청 몫까지 써버리지 않게 함
+ */
+public enum KeyTraffic {
+	SERVING, INGESTION
+}
@@ -0,0 +1,21 @@
+package com.koreplan.common.api;
+
+/**
+ * 공공데이터 API가 LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR 를 응답했을 때 사용
+ * ServiceKeyScheduler가 이 예외를 받으면 백오프 후 다른 키로 재시도한다.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+	public static final String LIMIT_ERROR_CODE = "LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR";
+
+	public QuotaExceededException(String message) {
+		super(message);
+	}
+
+	/**
+	 * 응답 본문이 호출 한도 초과 에러인지 확인
+	 */
+	public static boolean isQuotaError(String responseBody) {
+		return responseBody != null && responseBody.contains(LIMIT_ERROR_CODE);
+	}
+}
@@ -0,0 +1,83 @@
+package com.koreplan.common.api;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 들어온 요청의 마감 시각 (System.nanoTime 기준)
+ * - RequestDeadlineFilter가 요청 시작 시 설정하고 끝나면 지움
+ * - 요청 스레드에만 저장됨. 다른 스레드에서 외부 API를 호출하면 within()으로 마감 시각을 명시적으로 넘김
+ *   (상속되는 ThreadLocal은 풀 스레드가 처음 만들어질 때의 요청 마감 시각을 계속 들고 있게 됨)
+ * - 마감 시각이 없으면(적재 작업, 스케줄러 등) 제한 없음
+ */
+public final class RequestDeadline {
+
+	private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+	private RequestDeadline() {
+	}
+
+	public static void set(Duration budget) {
+		DEADLINE.set(System.nanoTime() + budget.toNanos());
+	}
+
+	public static void clear() {
+		DEADLINE.remove();
+	}
+
+	public static boolean isSet() {
+		return DEADLINE.get() != null;
+	}
+
+	/**
+	 * 현재 마감 시각과 (지금 + budget) 중 더 이른 쪽으로 좁힘
+	 * @return 적용된 마감 시각 (nanoTime)
+	 */
+	public static long narrow(Duration budget) {
+		long candidate = System.nanoTime() + budget.toNanos();
+		Long current = DEADLINE.get();
+		long deadline = current == null ? candidate : Math.min(current, candidate);
+		DEADLINE.set(deadline);
+		return deadline;
+	}
+
+	/**
+	 * 현재 스레드의 마감 시각 (nanoTime), 없으면 null
+	 */
+	public static Long current() {
+		return DEADLINE.get();
+	}
+
+	/**
+	 * 남은 시간(ms). 마감 시각이 없으면 Long.MAX_VALUE
+	 */
+	public static long remainingMillis() {
+		return remainingMillis(DEADLINE.get());
+	}
+
+	public static long remainingMillis(Long deadline) {
+		if (deadline == null) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+	}
+
+	/**
+	 * 다른 스레드에서 실행할 작업에 마감 시각을 넘김. 실행이 끝나면 그 스레드의 값은 원래대로 되돌림
+	 */
+	public static <T> Callable<T> within(long deadline, Callable<T> call) {
+		return () -> {
+			Long previous = DEADLINE.get();
+			DEADLINE.set(deadline);
+			try {
+				return call.call();
+			} finally {
+				if (previous == null) {
+					DEADLINE.remove();
+				} else {
+					DEADLINE.set(previous);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,65 @@
+package com.koreplan.common.api;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * /api/** 요청마다 마감 시각(RequestDeadline)을 정함
+ * - 기본값은 upstream.deadline.default, GPT 일정 생성(/api/openai/**)은 upstream.deadline.openai
+ * - 클라이언트가 X-Request-Timeout(ms) 헤더를 보내면 그 값과 기본값 중 짧은 쪽 사용
+ */
+@Component
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+	public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+	@Value("${upstream.deadline.default:PT8S}")
+	private Duration defaultBudget;
+
+	@Value("${upstream.deadline.openai:PT90S}")
+	private Duration openAiBudget;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestDeadline.set(budget(request));
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			RequestDeadline.clear();
+		}
+	}
+
+	private Duration budget(HttpServletRequest request) {
+		Duration budget = request.getRequestURI().startsWith("/api/openai/") ? openAiBudget : defaultBudget;
+
+		String header = request.getHeader(TIMEOUT_HEADER);
+		if (header != null && !header.isBlank()) {
+			try {
+				long clientMillis = Long.parseLong(header.trim());
+				if (clientMillis > 0 && clientMillis < budget.toMillis()) {
+					budget = Duration.ofMillis(clientMillis);
+				}
+			} catch (NumberFormatException e) {
+				log.debug("잘못된 {} 헤더 무시: {}", TIMEOUT_HEADER, header);
+			}
+		}
+		return budget;
+	}
+}
@@ -0,0 +1,142 @@
+package com.koreplan.common.api;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.common.api.KeyQuotaManager.ServiceKey;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 공공데이터 서비스키 호출 스케줄러
+ * - KeyQuotaManager에서 하루 예산이 가장 여유 있는 키를 받아 호출 (SERVING/INGESTION 예산 분리)
+ *   UpstreamGuard가 호출을 막아 실제로 보내지 않은 시도는 예산을 되돌림
+ * - 키마다 토큰 버킷을 하나씩 두고 키의 초당 호출 한도를 지킴 (요청 마감 시각 안에 토큰을 못 얻으면 바로 실패)
+ * - 각 시도는 UpstreamGuard(벌크헤드, 서킷 브레이커, 요청 마감 시각)를 거침
+ * - 하루 호출 한도 초과(LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR)면 그 키를 오늘 제외하고 바로 다음 키로 재시도
+ * - 네트워크 오류는 지수 백오프 + 지터 후 재시도
+ * - 서킷 OPEN/벌크헤드 초과는 적재(INGESTION)만 백오프 후 재시도하고, 사용자 요청(SERVING)은 바로 실패
+ *   (회로가 열려 있는 동안 요청 스레드가 마감 시각까지 잠들었다가 결국 실패하는 것을 막음)
+ * - 요청 마감 시각(RequestDeadline)이 지났거나 백오프가 마감 시각을 넘기면 재시도하지 않음
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ServiceKeyScheduler {
+
+	private final KeyQuotaManager keyQuotaManager;
+	private final UpstreamGuard upstreamGuard;
+
+	@Value("${publicData.retry.max-attempts:6}")
+	private int maxAttempts;
+
+	@Value("${publicData.retry.base-delay-ms:500}")
+	private long baseDelayMs;
+
+	@Value("${publicData.retry.max-delay-ms:30000}")
+	private long maxDelayMs;
+
+	@FunctionalInterface
+	public interface KeyedCall<T> {
+		T call(String serviceKey) throws Exception;
+	}
+
+	public int keyCount() {
+		return keyQuotaManager.keyCount();
+	}
+
+	/**
+	 * 예산이 남은 키로 API를 호출하고, 한도 초과/네트워크 오류면 다른 키로 재시도
+	 * 그 외 예외(파싱 오류 등)는 재시도하지 않고 그대로 던진다.
+	 * 모든 키의 예산이 소진됐으면 UpstreamUnavailableException(QUOTA_EXHAUSTED)
+	 */
+	public <T> T call(String apiName, KeyTraffic traffic, KeyedCall<T> call) throws Exception {
+		if (keyQuotaManager.keyCount() == 0) {
+			throw new IllegalStateException("사용 가능한 서비스키가 없습니다.");
+		}
+
+		Exception lastError = null;
+
+		for (int attempt = 0; attempt < maxAttempts; attempt++) {
+			ServiceKey key = keyQuotaManager.acquire(traffic);
+			if (key == null) {
+				log.warn("{} 호출 불가: 오늘 {} 예산을 모든 키에서 소진", apiName, traffic);
+				throw new UpstreamUnavailableException(apiName, UpstreamUnavailableException.Reason.QUOTA_EXHAUSTED,
+						keyQuotaManager.secondsUntilReset());
+			}
+			// 적재 작업과 같은 버킷을 쓰므로 사용자 요청은 마감 시각까지만 기다림 (적재는 마감 시각이 없어 끝까지 기다림)
+			if (!key.bucket().tryAcquire(RequestDeadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+				keyQuotaManager.release(key, traffic);
+				throw new UpstreamUnavailableException(apiName, UpstreamUnavailableException.Reason.DEADLINE_EXCEEDED, 1);
+			}
+
+			try {
+				return upstreamGuard.call(apiName, () -> call.call(key.value()));
+			} catch (QuotaExceededException e) {
+				// 하루 한도 소진 → 기다릴 필요 없이 다른 키로
+				lastError = e;
+				keyQuotaManager.markExhausted(key);
+			} catch (UpstreamUnavailableException | IOException e) {
+				lastError = e;
+				if (e instanceof UpstreamUnavailableException) {
+					// 벌크헤드/서킷/마감 시각에 막혀 요청을 보내지 않았으므로 예산을 되돌림
+					keyQuotaManager.release(key, traffic);
+				}
+				if (!isRetryable(e, traffic)) {
+					throw e;
+				}
+				if (attempt == maxAttempts - 1) {
+					break;
+				}
+				long delay = backoffDelay(attempt);
+				if (delay >= RequestDeadline.remainingMillis()) {
+					// 요청 처리 중이면 마감 시각을 넘겨서까지 기다리지 않음
+					break;
+				}
+				log.warn("{} 호출 실패 (키: {}, 시도 {}/{}): {} → {}ms 후 재시도",
+						apiName, key.alias(), attempt + 1, maxAttempts, e.getMessage(), delay);
+				Thread.sleep(delay);
+			}
+		}
+
+		log.error("{} 호출 재시도 모두 실패", apiName);
+		throw lastError;
+	}
+
+	/**
+	 * 네트워크 오류는 항상 재시도, 마감 시각 초과는 재시도하지 않음
+	 * 서킷 OPEN/벌크헤드 초과는 기다려도 되는 적재 작업만 재시도
+	 */
+	private boolean isRetryable(Exception e, KeyTraffic traffic) {
+		if (!(e instanceof UpstreamUnavailableException unavailable)) {
+			return true;
+		}
+		return switch (unavailable.getReason()) {
+			case CIRCUIT_OPEN, BULKHEAD_FULL -> traffic == KeyTraffic.INGESTION;
+			default -> false;
+		};
+	}
+
+	/**
+	 * 지수 백오프 + 지터: [exp/2, exp] 구간에서 랜덤
+	 */
+	private long backoffDelay(int attempt) {
+		long exp = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 20));
+		return ThreadLocalRandom.current().nextLong(exp / 2, exp + 1);
+	}
+
+	/**
+	 * 로그용 키 마스킹
+	 */
+	public static String mask(String key) {
+		if (key == null) {
+			return "null";
+		}
+		return key.length() > 10 ? key.substring(0, 10) + "..." : key;
+	}
+}
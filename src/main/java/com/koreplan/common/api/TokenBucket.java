@@ -0,0 +1,98 @@
+package com.koreplan.common.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 서비스키 하나의 호출 한도를 표현하는 토큰 버킷
+ * - capacity: 순간적으로 허용되는 최대 호출 수 (버스트)
+ * - ratePerSecond: 초당 채워지는 토큰 수 (키의 TPS 한도)
+ *
+ * 가상 스레드에서 호출되므로 synchronized 대신 ReentrantLock 사용 (캐리어 스레드 고정 방지)
+ */
+public class TokenBucket {
+
+	private final double capacity;
+	private final double tokensPerNano;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private double tokens;
+	private long lastRefillNanos;
+
+	public TokenBucket(double ratePerSecond, double capacity) {
+		if (ratePerSecond <= 0 || capacity < 1) {
+			throw new IllegalArgumentException("ratePerSecond > 0, capacity >= 1 이어야 합니다.");
+		}
+		this.capacity = capacity;
+		this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.tokens = capacity;
+		this.lastRefillNanos = System.nanoTime();
+	}
+
+	/**
+	 * 토큰 1개를 예약하고, 사용 가능해질 때까지 기다려야 하는 시간(ns)을 반환
+	 * 0이면 즉시 사용 가능, maxWaitNanos 보다 오래 기다려야 하면 예약하지 않고 -1
+	 */
+	private long reserve(long maxWaitNanos) {
+		lock.lock();
+		try {
+			refill();
+			if (tokens >= 1) {
+				tokens -= 1;
+				return 0;
+			}
+			long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+			if (waitNanos > maxWaitNanos) {
+				return -1;
+			}
+			tokens -= 1;
+			return waitNanos;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+		tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+		lastRefillNanos = now;
+	}
+
+	/**
+	 * 최대 timeout 만큼만 기다려서 토큰을 얻음 (마감 시각이 없으면 Long.MAX_VALUE 로 끝까지 대기)
+	 * @return 그 안에 얻을 수 없으면 토큰을 쓰지 않고 false
+	 */
+	public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+		long waitNanos = reserve(unit.toNanos(timeout));
+		if (waitNanos < 0) {
+			return false;
+		}
+		park(waitNanos);
+		return true;
+	}
+
+	private static void park(long waitNanos) throws InterruptedException {
+		long deadline = System.nanoTime() + waitNanos;
+		while (waitNanos > 0) {
+			LockSupport.parkNanos(waitNanos);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			waitNanos = deadline - System.nanoTime();
+		}
+	}
+
+	/**
+	 * 현재 남은 토큰 수 (모니터링용)
+	 */
+	public double available() {
+		lock.lock();
+		try {
+			refill();
+			return tokens;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package com.koreplan.common.api;
+
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.common.api.UpstreamUnavailableException.Reason;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 외부 API(공공데이터 KorService2, OpenAI) 호출 보호
+ * - 벌크헤드: API별 동시 호출 수 제한 → 느린 API 하나가 서블릿 스레드를 전부 붙잡지 않게 함
+ * - 서킷 브레이커: 최근 오류율이 높으면 일정 시간 호출하지 않고 바로 실패
+ * - 마감 시각: 요청에 남은 시간보다 긴 타임아웃은 쓰지 않고, 이미 지났으면 호출하지 않음
+ *
+ * 요청 마감 시각 때문에 난 타임아웃(X-Request-Timeout 으로 짧게 잡은 요청 등)은 API 장애가 아니므로
+ * 서킷 브레이커에 실패로 세지 않는다. 그렇지 않으면 짧은 헤더 몇 번으로 모든 사용자의 회로가 열림.
+ *
+ * 바로 실패하면 UpstreamUnavailableException 을 던지므로 캐시(RefreshingCache, DiskPayloadStore)는
+ * 남아 있는 값으로 대신 응답하고, 컨트롤러는 503 으로 응답한다.
+ *
+ * API별 설정은 upstream.<API 이름>.max-concurrent 처럼 덮어쓸 수 있다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UpstreamGuard {
+
+	// 타이머 오차: 타임아웃 직후 마감 시각까지 이만큼 이하로 남았으면 마감 시각 때문에 난 타임아웃으로 봄
+	private static final long DEADLINE_SLACK_MS = 50;
+
+	private final Environment environment;
+
+	@Value("${upstream.bulkhead.max-concurrent:16}")
+	private int defaultMaxConcurrent;
+
+	// 요청 처리 중에는 잠깐만 기다리고, 적재 작업처럼 마감 시각이 없으면 충분히 기다림
+	@Value("${upstream.bulkhead.max-wait:PT0.1S}")
+	private Duration maxWait;
+
+	@Value("${upstream.bulkhead.background-max-wait:PT30S}")
+	private Duration backgroundMaxWait;
+
+	@Value("${upstream.breaker.window-size:20}")
+	private int windowSize;
+
+	@Value("${upstream.breaker.min-calls:10}")
+	private int minCalls;
+
+	@Value("${upstream.breaker.failure-rate-percent:50}")
+	private int failureRatePercent;
+
+	@Value("${upstream.breaker.open-duration:PT30S}")
+	private Duration openDuration;
+
+	@Value("${upstream.breaker.half-open-calls:3}")
+	private int halfOpenCalls;
+
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	private record Endpoint(Semaphore bulkhead, int maxConcurrent, CircuitBreaker breaker) {
+	}
+
+	/**
+	 * 벌크헤드 → 서킷 브레이커 → 마감 시각 확인 후 호출
+	 * 호출 한도 초과(QuotaExceededException), 잘못된 요청(IllegalArgumentException),
+	 * 요청 마감 시각 때문에 난 타임아웃은 API 장애로 보지 않음
+	 */
+	public <T> T call(String endpointName, Callable<T> call) throws Exception {
+		Endpoint endpoint = endpoint(endpointName);
+		Long deadline = RequestDeadline.current();
+		checkDeadline(endpointName, deadline);
+
+		if (!acquire(endpoint.bulkhead())) {
+			log.warn("[{}] 동시 호출 한도({}) 초과 → 바로 실패", endpointName, endpoint.maxConcurrent());
+			throw new UpstreamUnavailableException(endpointName, Reason.BULKHEAD_FULL, 1);
+		}
+		try {
+			CircuitBreaker breaker = endpoint.breaker();
+			if (!breaker.tryAcquire()) {
+				throw new UpstreamUnavailableException(endpointName, Reason.CIRCUIT_OPEN, breaker.retryAfterSeconds());
+			}
+
+			try {
+				T result = call.call();
+				breaker.onSuccess();
+				return result;
+			} catch (Exception e) {
+				if (isUpstreamFault(e, deadline)) {
+					breaker.onFailure();
+				} else {
+					breaker.onIgnored();
+				}
+				throw e;
+			}
+		} finally {
+			endpoint.bulkhead().release();
+		}
+	}
+
+	/**
+	 * call()의 논블로킹 버전 (WebClient 응답을 block 하지 않는 호출용)
+	 * - 벌크헤드는 기다리지 않고 바로 확인 (이벤트 루프/요청 스레드를 세우지 않기 위해)
+	 * - 구독을 취소하면(클라이언트 연결 끊김, 타임아웃) 서킷 브레이커에는 성공/실패로 세지 않고 자리만 반납
+	 */
+	public <T> Mono<T> callAsync(String endpointName, Supplier<Mono<T>> call) {
+		return callStream(endpointName, () -> call.get().flux()).singleOrEmpty();
+	}
+
+	/**
+	 * 스트리밍 응답(SSE 등)용. 스트림이 끝날 때까지 동시 호출 자리를 차지하고,
+	 * 정상 종료/오류/취소 여부로 서킷 브레이커에 기록
+	 */
+	public <T> Flux<T> callStream(String endpointName, Supplier<Flux<T>> call) {
+		// 구독은 다른 스레드(이벤트 루프 등)에서 일어날 수 있으므로 호출한 스레드의 마감 시각을 미리 잡아 둠
+		Long deadline = RequestDeadline.current();
+		return Flux.defer(() -> {
+			Endpoint endpoint = endpoint(endpointName);
+			checkDeadline(endpointName, deadline);
+
+			if (!endpoint.bulkhead().tryAcquire()) {
+				log.warn("[{}] 동시 호출 한도({}) 초과 → 바로 실패", endpointName, endpoint.maxConcurrent());
+				return Flux.error(new UpstreamUnavailableException(endpointName, Reason.BULKHEAD_FULL, 1));
+			}
+			CircuitBreaker breaker = endpoint.breaker();
+			if (!breaker.tryAcquire()) {
+				endpoint.bulkhead().release();
+				return Flux.error(new UpstreamUnavailableException(endpointName, Reason.CIRCUIT_OPEN,
+						breaker.retryAfterSeconds()));
+			}
+
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			Flux<T> source;
+			try {
+				source = call.get();
+			} catch (RuntimeException e) {
+				source = Flux.error(e);
+			}
+			return source
+					.doOnError(error::set)
+					.doFinally(signal -> {
+						try {
+							if (signal == SignalType.ON_ERROR) {
+								if (isUpstreamFault(error.get(), deadline)) {
+									breaker.onFailure();
+								} else {
+									breaker.onIgnored();
+								}
+							} else if (signal == SignalType.CANCEL) {
+								breaker.onIgnored();
+							} else {
+								breaker.onSuccess();
+							}
+						} finally {
+							endpoint.bulkhead().release();
+						}
+					});
+		});
+	}
+
+	/**
+	 * 연결/읽기 타임아웃을 요청에 남은 시간 이하로 맞춰 설정
+	 */
+	public void applyTimeouts(HttpURLConnection conn, int connectTimeoutMs, int readTimeoutMs) {
+		long remaining = RequestDeadline.remainingMillis();
+		if (remaining <= 0) {
+			throw new UpstreamUnavailableException(conn.getURL().getPath(), Reason.DEADLINE_EXCEEDED, 1);
+		}
+		conn.setConnectTimeout((int) Math.min(connectTimeoutMs, remaining));
+		conn.setReadTimeout((int) Math.min(readTimeoutMs, remaining));
+	}
+
+	/**
+	 * WebClient 호출에 쓸 타임아웃 (요청에 남은 시간 이하)
+	 */
+	public Duration timeout(Duration max) {
+		long remaining = RequestDeadline.remainingMillis();
+		return remaining < max.toMillis() ? Duration.ofMillis(remaining) : max;
+	}
+
+	/**
+	 * API별 서킷 상태와 사용 중인 동시 호출 수
+	 */
+	public Map<String, String> stats() {
+		Map<String, String> stats = new LinkedHashMap<>();
+		endpoints.forEach((name, endpoint) -> stats.put(name, String.format("%s, inUse=%d/%d",
+				endpoint.breaker().stats(),
+				endpoint.maxConcurrent() - endpoint.bulkhead().availablePermits(),
+				endpoint.maxConcurrent())));
+		return stats;
+	}
+
+	private Endpoint endpoint(String name) {
+		return endpoints.computeIfAbsent(name, key -> {
+			int maxConcurrent = setting(key, "max-concurrent", Integer.class, defaultMaxConcurrent);
+			CircuitBreaker breaker = new CircuitBreaker(key,
+					setting(key, "window-size", Integer.class, windowSize),
+					setting(key, "min-calls", Integer.class, minCalls),
+					setting(key, "failure-rate-percent", Integer.class, failureRatePercent),
+					setting(key, "open-duration", Duration.class, openDuration).toMillis(),
+					setting(key, "half-open-calls", Integer.class, halfOpenCalls));
+			return new Endpoint(new Semaphore(maxConcurrent, true), maxConcurrent, breaker);
+		});
+	}
+
+	private <T> T setting(String endpoint, String name, Class<T> type, T defaultValue) {
+		return environment.getProperty("upstream." + endpoint + "." + name, type, defaultValue);
+	}
+
+	private void checkDeadline(String endpointName, Long deadline) {
+		if (RequestDeadline.remainingMillis(deadline) <= 0) {
+			throw new UpstreamUnavailableException(endpointName, Reason.DEADLINE_EXCEEDED, 1);
+		}
+	}
+
+	/**
+	 * 서킷 브레이커에 실패로 셀 오류인지
+	 * - 호출 한도 초과, 잘못된 요청은 API 장애가 아님
+	 * - 타임아웃이 났는데 요청 마감 시각도 지났으면, API 가 느려서가 아니라 요청에 남은 시간이 짧아서 난 것
+	 */
+	private boolean isUpstreamFault(Throwable e, Long deadline) {
+		if (e instanceof QuotaExceededException || e instanceof IllegalArgumentException) {
+			return false;
+		}
+		return !(isTimeout(e) && RequestDeadline.remainingMillis(deadline) <= DEADLINE_SLACK_MS);
+	}
+
+	private static boolean isTimeout(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SocketTimeoutException || t instanceof TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean acquire(Semaphore bulkhead) throws InterruptedException {
+		long waitMillis = RequestDeadline.isSet()
+				? Math.min(maxWait.toMillis(), RequestDeadline.remainingMillis())
+				: backgroundMaxWait.toMillis();
+		return bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,39 @@
+package com.koreplan.common.api;
+
+/**
+ * 외부 API를 호출하지 않고 바로 실패시킬 때 사용 (UpstreamGuard)
+ * - CIRCUIT_OPEN: 최근 오류율이 높아 회로가 열린 상태
+ * - BULKHEAD_FULL: 해당 API 동시 호출 수가 가득 참
+ * - DEADLINE_EXCEEDED: 요청 마감 시각이 이미 지남
+ * - QUOTA_EXHAUSTED: 모든 서비스키의 오늘 호출 예산 소진 (KeyQuotaManager)
+ * 컨트롤러는 503 + Retry-After 로 응답하고, 캐시는 남아 있는 값으로 대신 응답한다.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+	public enum Reason {
+		CIRCUIT_OPEN, BULKHEAD_FULL, DEADLINE_EXCEEDED, QUOTA_EXHAUSTED
+	}
+
+	private final String endpoint;
+	private final Reason reason;
+	private final long retryAfterSeconds;
+
+	public UpstreamUnavailableException(String endpoint, Reason reason, long retryAfterSeconds) {
+		super(endpoint + " 호출 불가: " + reason);
+		this.endpoint = endpoint;
+		this.reason = reason;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
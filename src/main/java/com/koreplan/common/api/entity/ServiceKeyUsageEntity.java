@@ -0,0 +1,53 @@
+package com.koreplan.common.api.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 서비스키별 하루 호출 수 (재시작해도 오늘 사용량을 이어서 계산하기 위해 저장)
+ * 키 원문 대신 지문(SHA-256 앞부분)만 저장 → 키를 바꾸면 사용량도 새로 시작
+ */
+@Entity
+@Table(name = "service_key_usage")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class ServiceKeyUsageEntity {
+
+	// 지문 + ":" + 날짜
+	@Id
+	@Column(name = "id", length = 40)
+	private String id;
+
+	@Column(name = "key_alias", length = 20)
+	private String keyAlias;
+
+	@Column(name = "key_fingerprint", length = 16, nullable = false)
+	private String keyFingerprint;
+
+	@Column(name = "usage_date", nullable = false)
+	private LocalDate usageDate;
+
+	@Column(name = "serving_count")
+	private int servingCount;
+
+	@Column(name = "ingestion_count")
+	private int ingestionCount;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.koreplan.common.api.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.koreplan.common.api.entity.ServiceKeyUsageEntity;
+
+public interface ServiceKeyUsageRepository extends JpaRepository<ServiceKeyUsageEntity, String> {
+
+	List<ServiceKeyUsageEntity> findByUsageDate(LocalDate usageDate);
+}
@@ -0,0 +1,356 @@
+package com.koreplan.common.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 공공데이터 API 응답 원문을 디스크에 저장하는 캐시
+ * - 엔드포인트(detailIntro2 등)마다 세그먼트 파일 하나에 레코드를 이어 쓰고, 메모리에는 키 → 위치 색인만 둠
+ * - 색인은 엔드포인트를 처음 쓸 때 파일 헤더만 훑어서 만듦 (재시작 후 API 호출 없이 바로 따뜻한 상태)
+ * - 레코드: [key(UTF)][storedAt(long)][length(int)][gzip payload]
+ * - 정상 응답(resultCode 0000, 항목 있음)만 저장, 만료(max-age)된 레코드는 압축 정리 때 제거
+ */
+@Component
+@Slf4j
+public class DiskPayloadStore {
+
+	@FunctionalInterface
+	public interface Fetcher {
+		String fetch() throws Exception;
+	}
+
+	private record Location(long offset, int length, long storedAt) {
+	}
+
+	@Value("${cache.disk.enabled:true}")
+	private boolean enabled;
+
+	@Value("${cache.disk.dir:./cache/upstream}")
+	private String dir;
+
+	@Value("${cache.disk.max-age:P14D}")
+	private Duration maxAge;
+
+	private static final Pattern RESULT_OK = Pattern.compile("\"resultCode\"\\s*:\\s*\"0000\"");
+	private static final Pattern NO_ITEMS = Pattern.compile("\"totalCount\"\\s*:\\s*0\\b");
+
+	private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+	private final ReentrantLock segmentsLock = new ReentrantLock();
+
+	/**
+	 * 디스크에 freshFor 이내의 응답이 있으면 그것을, 없으면 fetcher로 API를 호출해 저장 후 반환
+	 * API 호출이 실패하면 오래된(최대 max-age) 디스크 응답이라도 반환
+	 */
+	public String fetch(String endpoint, String key, Duration freshFor, Fetcher fetcher) throws Exception {
+		if (!enabled) {
+			return fetcher.fetch();
+		}
+		Segment segment = segment(endpoint);
+		long now = System.currentTimeMillis();
+
+		Location location = segment.index.get(key);
+		if (location != null && now - location.storedAt() < freshFor.toMillis()) {
+			String cached = segment.read(location);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		String body;
+		try {
+			body = fetcher.fetch();
+		} catch (Exception e) {
+			if (location != null && now - location.storedAt() < maxAge.toMillis()) {
+				String cached = segment.read(location);
+				if (cached != null) {
+					log.warn("[{}] API 호출 실패 → 디스크의 이전 응답 사용: key={}, {}", endpoint, key, e.getMessage());
+					return cached;
+				}
+			}
+			throw e;
+		}
+
+		if (isCacheable(body)) {
+			try {
+				segment.append(key, body, now);
+			} catch (IOException e) {
+				log.warn("[{}] 디스크 캐시 저장 실패: key={}, {}", endpoint, key, e.getMessage());
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * 에러 응답(XML, 호출 한도 초과)과 "데이터 없음" 응답은 저장하지 않음
+	 */
+	private boolean isCacheable(String body) {
+		if (body == null) {
+			return false;
+		}
+		String trimmed = body.trim();
+		return trimmed.startsWith("{")
+				&& RESULT_OK.matcher(trimmed).find()
+				&& !NO_ITEMS.matcher(trimmed).find();
+	}
+
+	private Segment segment(String endpoint) throws IOException {
+		Segment segment = segments.get(endpoint);
+		if (segment != null) {
+			return segment;
+		}
+		// 색인 생성은 엔드포인트당 한 번 (처음 쓰는 시점에 지연 로드)
+		segmentsLock.lock();
+		try {
+			segment = segments.get(endpoint);
+			if (segment == null) {
+				segment = new Segment(endpoint, Paths.get(dir, endpoint + ".seg"));
+				segments.put(endpoint, segment);
+			}
+			return segment;
+		} finally {
+			segmentsLock.unlock();
+		}
+	}
+
+	/**
+	 * 덮어쓰기/만료로 죽은 레코드가 절반을 넘는 세그먼트 정리
+	 */
+	@Scheduled(cron = "${cache.disk.compact-cron:0 30 4 * * *}")
+	public void compactAll() {
+		for (Segment segment : segments.values()) {
+			try {
+				segment.compactIfNeeded();
+			} catch (IOException e) {
+				log.warn("[{}] 디스크 캐시 정리 실패: {}", segment.endpoint, e.getMessage());
+			}
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		for (Segment segment : segments.values()) {
+			segment.close();
+		}
+	}
+
+	public String stats() {
+		StringBuilder sb = new StringBuilder();
+		segments.forEach((endpoint, segment) -> sb.append(endpoint).append('=').append(segment.index.size()).append(' '));
+		return sb.toString().trim();
+	}
+
+	private class Segment {
+		private final String endpoint;
+		private final Path path;
+		private final Map<String, Location> index = new ConcurrentHashMap<>();
+		private final ReentrantLock writeLock = new ReentrantLock();
+		private volatile FileChannel channel;
+		private long liveBytes;
+
+		Segment(String endpoint, Path path) throws IOException {
+			this.endpoint = endpoint;
+			this.path = path;
+			Files.createDirectories(path.getParent());
+			this.channel = open(path);
+			long started = System.currentTimeMillis();
+			loadIndex();
+			log.info("[{}] 디스크 캐시 색인 로드: {}개, {}ms", endpoint, index.size(), System.currentTimeMillis() - started);
+		}
+
+		private FileChannel open(Path file) throws IOException {
+			return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+
+		/**
+		 * 헤더만 읽고 본문은 건너뛰며 색인 생성, 중간에 잘린 마지막 레코드는 잘라냄
+		 */
+		private void loadIndex() throws IOException {
+			long size = channel.size();
+			long position = 0;
+			long expireBefore = System.currentTimeMillis() - maxAge.toMillis();
+			ByteBuffer lengthBuffer = ByteBuffer.allocate(2);
+
+			while (position < size) {
+				try {
+					lengthBuffer.clear();
+					readFully(lengthBuffer, position);
+					int keyLength = lengthBuffer.flip().getShort() & 0xFFFF;
+
+					ByteBuffer header = ByteBuffer.allocate(keyLength + Long.BYTES + Integer.BYTES);
+					readFully(header, position + 2);
+					header.flip();
+					byte[] keyBytes = new byte[keyLength];
+					header.get(keyBytes);
+					long storedAt = header.getLong();
+					int length = header.getInt();
+
+					long payloadOffset = position + 2 + header.capacity();
+					if (length < 0 || payloadOffset + length > size) {
+						throw new EOFException();
+					}
+					String key = new String(keyBytes, StandardCharsets.UTF_8);
+					Location previous = index.put(key, new Location(payloadOffset, length, storedAt));
+					liveBytes += length;
+					if (previous != null) {
+						liveBytes -= previous.length();
+					}
+					if (storedAt < expireBefore) {
+						index.remove(key);
+						liveBytes -= length;
+					}
+					position = payloadOffset + length;
+				} catch (EOFException e) {
+					log.warn("[{}] 디스크 캐시 마지막 레코드 손상 → {}바이트 위치에서 잘라냄", endpoint, position);
+					channel.truncate(position);
+					break;
+				}
+			}
+		}
+
+		private void readFully(ByteBuffer buffer, long position) throws IOException {
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, position + buffer.position());
+				if (read < 0) {
+					throw new EOFException();
+				}
+			}
+		}
+
+		String read(Location location) {
+			try {
+				ByteBuffer buffer = ByteBuffer.allocate(location.length());
+				readFully(buffer, location.offset());
+				try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+					return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+				}
+			} catch (IOException e) {
+				log.warn("[{}] 디스크 캐시 읽기 실패: {}", endpoint, e.getMessage());
+				return null;
+			}
+		}
+
+		void append(String key, String body, long storedAt) throws IOException {
+			byte[] record = encode(key, body, storedAt);
+			writeLock.lock();
+			try {
+				long position = channel.size();
+				ByteBuffer buffer = ByteBuffer.wrap(record);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer, position + buffer.position());
+				}
+				int headerLength = 2 + key.getBytes(StandardCharsets.UTF_8).length + Long.BYTES + Integer.BYTES;
+				long payloadOffset = position + headerLength;
+				int length = record.length - headerLength;
+				Location previous = index.put(key, new Location(payloadOffset, length, storedAt));
+				liveBytes += length;
+				if (previous != null) {
+					liveBytes -= previous.length();
+				}
+			} finally {
+				writeLock.unlock();
+			}
+		}
+
+		private byte[] encode(String key, String body, long storedAt) throws IOException {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length() / 4 + 64);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+				gzip.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.size() + keyBytes.length + 16);
+			try (DataOutputStream data = new DataOutputStream(out)) {
+				data.writeShort(keyBytes.length);
+				data.write(keyBytes);
+				data.writeLong(storedAt);
+				data.writeInt(compressed.size());
+				compressed.writeTo(data);
+			}
+			return out.toByteArray();
+		}
+
+		void compactIfNeeded() throws IOException {
+			writeLock.lock();
+			try {
+				long expireBefore = System.currentTimeMillis() - maxAge.toMillis();
+				index.entrySet().removeIf(entry -> {
+					if (entry.getValue().storedAt() < expireBefore) {
+						liveBytes -= entry.getValue().length();
+						return true;
+					}
+					return false;
+				});
+				long size = channel.size();
+				if (size == 0 || liveBytes * 2 > size) {
+					return;
+				}
+
+				Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+				Map<String, Location> newIndex = new ConcurrentHashMap<>();
+				long newLive = 0;
+				try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+					long position = 0;
+					for (Map.Entry<String, Location> entry : index.entrySet()) {
+						Location location = entry.getValue();
+						ByteBuffer payload = ByteBuffer.allocate(location.length());
+						readFully(payload, location.offset());
+						byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+						ByteBuffer record = ByteBuffer.allocate(2 + keyBytes.length + Long.BYTES + Integer.BYTES + location.length());
+						record.putShort((short) keyBytes.length).put(keyBytes)
+								.putLong(location.storedAt()).putInt(location.length()).put(payload.flip());
+						record.flip();
+						while (record.hasRemaining()) {
+							position += out.write(record);
+						}
+						newIndex.put(entry.getKey(), new Location(position - location.length(), location.length(), location.storedAt()));
+						newLive += location.length();
+					}
+					out.force(true);
+				}
+
+				channel.close();
+				Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				channel = open(path);
+				index.clear();
+				index.putAll(newIndex);
+				liveBytes = newLive;
+				log.info("[{}] 디스크 캐시 정리: {} → {}바이트, {}개", endpoint, size, channel.size(), index.size());
+			} finally {
+				writeLock.unlock();
+			}
+		}
+
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.debug("[{}] 디스크 캐시 닫기 실패: {}", endpoint, e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.koreplan.common.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 크기 제한(LRU) + TTL + stale-while-revalidate 캐시
+ * - ttl 안: 캐시 값 그대로 반환
+ * - ttl 지남 ~ maxStale 안: 오래된 값을 바로 반환하고 백그라운드에서 새로 고침
+ * - maxStale 지남/없음: 호출한 스레드에서 로드 (같은 키 동시 요청은 한 번만 로드)
+ * - "데이터 없음" 응답(null 또는 isNegative)은 negativeTtl 동안만 캐시
+ * - 로드 실패 시 남아 있는 값이 있으면 그 값을 대신 반환 (공공 API 장애 시 상세 페이지 유지)
+ *
+ * 가상 스레드에서 쓰이므로 synchronized 대신 ReentrantLock 사용
+ */
+@Slf4j
+public class RefreshingCache<K, V> {
+
+	@FunctionalInterface
+	public interface Loader<V> {
+		V load() throws Exception;
+	}
+
+	private record Entry<V>(V value, long expiresAt, long staleUntil) {
+	}
+
+	private final String name;
+	private final int maxSize;
+	private final long ttlMillis;
+	private final long maxStaleMillis;
+	private final long negativeTtlMillis;
+	private final Predicate<V> isNegative;
+
+	// accessOrder=true → 가장 오래 안 쓴 항목부터 제거
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(256, 0.75f, true);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong staleHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong loadFailures = new AtomicLong();
+
+	public RefreshingCache(String name, int maxSize, Duration ttl, Duration maxStale, Duration negativeTtl,
+			Predicate<V> isNegative) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.ttlMillis = ttl.toMillis();
+		this.maxStaleMillis = maxStale.toMillis();
+		this.negativeTtlMillis = negativeTtl.toMillis();
+		this.isNegative = isNegative;
+	}
+
+	public V get(K key, Loader<V> loader) throws Exception {
+		Entry<V> entry = read(key);
+		long now = System.currentTimeMillis();
+
+		if (entry != null) {
+			if (now < entry.expiresAt()) {
+				hits.incrementAndGet();
+				return entry.value();
+			}
+			if (now < entry.staleUntil()) {
+				staleHits.incrementAndGet();
+				refreshAsync(key, loader);
+				return entry.value();
+			}
+		}
+
+		misses.incrementAndGet();
+		try {
+			return load(key, loader);
+		} catch (Exception e) {
+			if (entry != null) {
+				log.warn("[{}] 로드 실패 → 만료된 값 반환: key={}, {}", name, key, e.getMessage());
+				return entry.value();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * 만료 여부와 관계없이 지금 다시 로드해서 저장 (미리 불러오기용)
+	 */
+	public V refresh(K key, Loader<V> loader) throws Exception {
+		return load(key, loader);
+	}
+
+	/**
+	 * 캐시에 있는 값만 조회 (만료 여부 무관, 없으면 null)
+	 */
+	public V peek(K key) {
+		Entry<V> entry = read(key);
+		return entry == null ? null : entry.value();
+	}
+
+	public boolean isFresh(K key) {
+		Entry<V> entry = read(key);
+		return entry != null && System.currentTimeMillis() < entry.expiresAt();
+	}
+
+	public void put(K key, V value) {
+		long now = System.currentTimeMillis();
+		boolean negative = value == null || (isNegative != null && isNegative.test(value));
+		long expiresAt = now + (negative ? negativeTtlMillis : ttlMillis);
+		// "데이터 없음"은 stale 구간 없이 만료되면 바로 다시 로드
+		long staleUntil = negative ? expiresAt : expiresAt + maxStaleMillis;
+
+		lock.lock();
+		try {
+			entries.put(key, new Entry<>(value, expiresAt, staleUntil));
+			if (entries.size() > maxSize) {
+				Iterator<K> eldest = entries.keySet().iterator();
+				while (entries.size() > maxSize && eldest.hasNext()) {
+					eldest.next();
+					eldest.remove();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void invalidate(K key) {
+		lock.lock();
+		try {
+			entries.remove(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public String stats() {
+		return String.format("%s: size=%d, hit=%d, staleHit=%d, miss=%d, loadFail=%d",
+				name, size(), hits.get(), staleHits.get(), misses.get(), loadFailures.get());
+	}
+
+	private Entry<V> read(K key) {
+		lock.lock();
+		try {
+			return entries.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 같은 키에 대한 동시 로드는 하나로 합침
+	 */
+	private V load(K key, Loader<V> loader) throws Exception {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			try {
+				return running.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Exception cause) {
+					throw cause;
+				}
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw e;
+			}
+		}
+
+		try {
+			V value = loader.load();
+			put(key, value);
+			mine.complete(value);
+			return value;
+		} catch (Exception e) {
+			loadFailures.incrementAndGet();
+			mine.completeExceptionally(e);
+			throw e;
+		} catch (Error e) {
+			// OOM 등 Error 도 완료시켜야 이 로드를 기다리는 스레드가 멈춰 있지 않음
+			loadFailures.incrementAndGet();
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private void refreshAsync(K key, Loader<V> loader) {
+		if (inFlight.containsKey(key)) {
+			return;
+		}
+		// 요청 스레드의 마감 시각은 넘기지 않음 (응답 후에도 갱신은 끝까지 진행)
+		refreshExecutor.execute(() -> {
+			try {
+				load(key, loader);
+			} catch (Exception e) {
+				log.warn("[{}] 백그라운드 갱신 실패 (기존 값 유지): key={}, {}", name, key, e.getMessage());
+			}
+		});
+	}
+}
@@ -0,0 +1,243 @@
+package com.koreplan.common.route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 여러 날 일정의 장소를 날짜별로 나누기 (날짜별 장소 수를 지키는 k-means)
+ * 1. 위경도를 km 평면으로 바꿈 (일정 범위 안에서는 등장방형 근사로 충분)
+ * 2. 날짜 중심 초기값: 지금 날짜 배정이 있으면 날짜별 중심, 없으면 첫 장소부터 서로 가장 먼 장소들
+ * 3. 배정: 가장 가까운 중심과 두 번째 중심의 거리 차이가 큰 장소(다른 날로 가면 손해가 큰 장소)부터
+ *    자리가 남은 가장 가까운 날짜로 → 중심 다시 계산, 배정이 바뀌지 않을 때까지 반복
+ * 4. 서로 다른 날짜의 두 장소를 바꿔서 중심까지 거리 제곱 합이 줄면 교환 (장소 수는 그대로)
+ *
+ * 결과 index d 의 날짜는 capacity[d] 개 (초기 배정이 있으면 그 날짜에 가장 가까운 묶음이 그대로 d)
+ * 상태가 없으므로 여러 스레드에서 같이 써도 됨
+ */
+@Component
+public class DayClusterer {
+
+	private static final int MAX_ITERATIONS = 20;
+	private static final int MAX_SWAP_PASSES = 10;
+
+	/**
+	 * 장소 수를 최대한 고르게 (앞 날짜가 하나씩 더 많게)
+	 */
+	public static int[] balanced(int stops, int days) {
+		int[] capacity = new int[days];
+		for (int d = 0; d < days; d++) {
+			capacity[d] = stops / days + (d < stops % days ? 1 : 0);
+		}
+		return capacity;
+	}
+
+	/**
+	 * 초기 배정 없이 나누기
+	 * @param capacity 날짜별 장소 수 (합이 stops 수와 같아야 함)
+	 */
+	public <T> List<List<T>> cluster(List<T> stops, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat, int[] capacity) {
+		return cluster(stops, lon, lat, capacity, null);
+	}
+
+	/**
+	 * @param initialDay 장소별 지금 날짜 index (0부터, null 이면 없음) → 날짜별 중심을 초기값으로 써서 이미 모여 있는 날짜는 그대로 유지
+	 */
+	public <T> List<List<T>> cluster(List<T> stops, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat, int[] capacity,
+			int[] initialDay) {
+		int n = stops.size();
+		int k = capacity.length;
+		if (Arrays.stream(capacity).sum() != n) {
+			throw new IllegalArgumentException("날짜별 장소 수 합(" + Arrays.stream(capacity).sum() + ")이 장소 수(" + n + ")와 다릅니다.");
+		}
+
+		// km 평면 좌표
+		double meanLat = 0;
+		for (T stop : stops) meanLat += lat.applyAsDouble(stop);
+		GeoUtils.Projection projection = GeoUtils.Projection.around(n == 0 ? 0 : meanLat / n);
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = projection.x(lon.applyAsDouble(stops.get(i)));
+			ys[i] = projection.y(lat.applyAsDouble(stops.get(i)));
+		}
+
+		int[] assignment = assign(xs, ys, capacity, initialDay);
+
+		List<List<T>> result = new ArrayList<>(k);
+		for (int d = 0; d < k; d++) {
+			result.add(new ArrayList<>(capacity[d]));
+		}
+		for (int i = 0; i < n; i++) {
+			result.get(assignment[i]).add(stops.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * 장소별 날짜 index
+	 */
+	static int[] assign(double[] xs, double[] ys, int[] capacity, int[] initialDay) {
+		int n = xs.length;
+		int k = capacity.length;
+		double[] cx = new double[k];
+		double[] cy = new double[k];
+		if (initialDay != null && hasAllDays(initialDay, capacity)) {
+			centroids(xs, ys, initialDay, cx, cy);
+		} else {
+			farthestSeeds(xs, ys, capacity, cx, cy);
+		}
+
+		int[] assignment = null;
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			int[] next = capacitatedAssignment(xs, ys, cx, cy, capacity);
+			if (Arrays.equals(next, assignment)) break;
+			assignment = next;
+			centroids(xs, ys, assignment, cx, cy);
+		}
+		if (assignment == null) {
+			assignment = new int[n];
+		}
+
+		improveBySwaps(xs, ys, assignment, cx, cy);
+		return assignment;
+	}
+
+	// 초기 배정이 자리가 있는 모든 날짜를 쓰고 있어야 날짜별 중심을 구할 수 있음
+	private static boolean hasAllDays(int[] initialDay, int[] capacity) {
+		boolean[] seen = new boolean[capacity.length];
+		for (int day : initialDay) {
+			if (day < 0 || day >= capacity.length) return false;
+			seen[day] = true;
+		}
+		for (int d = 0; d < capacity.length; d++) {
+			if (capacity[d] > 0 && !seen[d]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 첫 장소(호출 측의 우선순위 1등)부터 이미 고른 중심들과 가장 먼 장소를 차례로 중심으로
+	 */
+	private static void farthestSeeds(double[] xs, double[] ys, int[] capacity, double[] cx, double[] cy) {
+		int n = xs.length;
+		int k = capacity.length;
+		boolean[] chosen = new boolean[n];
+		double[] nearest = new double[n];
+		Arrays.fill(nearest, Double.MAX_VALUE);
+		int seed = 0;
+		for (int d = 0; d < k; d++) {
+			if (n == 0) break;
+			chosen[seed] = true;
+			cx[d] = xs[seed];
+			cy[d] = ys[seed];
+			int farthest = -1;
+			for (int i = 0; i < n; i++) {
+				nearest[i] = Math.min(nearest[i], squared(xs[i] - cx[d], ys[i] - cy[d]));
+				if (!chosen[i] && (farthest < 0 || nearest[i] > nearest[farthest])) {
+					farthest = i;
+				}
+			}
+			if (farthest < 0) break;
+			seed = farthest;
+		}
+	}
+
+	/**
+	 * 손해(두 번째 중심 거리 - 가장 가까운 중심 거리)가 큰 장소부터 자리가 남은 가장 가까운 날짜로
+	 */
+	private static int[] capacitatedAssignment(double[] xs, double[] ys, double[] cx, double[] cy, int[] capacity) {
+		int n = xs.length;
+		int k = capacity.length;
+		double[] regret = new double[n];
+		Integer[] byRegret = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			double first = Double.MAX_VALUE;
+			double second = Double.MAX_VALUE;
+			for (int d = 0; d < k; d++) {
+				if (capacity[d] == 0) continue;
+				double dist = squared(xs[i] - cx[d], ys[i] - cy[d]);
+				if (dist < first) {
+					second = first;
+					first = dist;
+				} else if (dist < second) {
+					second = dist;
+				}
+			}
+			regret[i] = second == Double.MAX_VALUE ? 0 : Math.sqrt(second) - Math.sqrt(first);
+			byRegret[i] = i;
+		}
+		// 손해가 같으면 앞 장소 먼저 (결과가 항상 같도록)
+		Arrays.sort(byRegret, (a, b) -> regret[a] != regret[b] ? Double.compare(regret[b], regret[a]) : Integer.compare(a, b));
+
+		int[] remaining = capacity.clone();
+		int[] assignment = new int[n];
+		for (int i : byRegret) {
+			int best = -1;
+			double bestDist = Double.MAX_VALUE;
+			for (int d = 0; d < k; d++) {
+				if (remaining[d] <= 0) continue;
+				double dist = squared(xs[i] - cx[d], ys[i] - cy[d]);
+				if (dist < bestDist) {
+					bestDist = dist;
+					best = d;
+				}
+			}
+			remaining[best]--;
+			assignment[i] = best;
+		}
+		return assignment;
+	}
+
+	/**
+	 * 날짜가 다른 두 장소를 바꿔서 (중심 고정 기준) 거리 제곱 합이 줄면 교환, 교환 후 중심 다시 계산
+	 */
+	private static void improveBySwaps(double[] xs, double[] ys, int[] assignment, double[] cx, double[] cy) {
+		int n = xs.length;
+		for (int pass = 0; pass < MAX_SWAP_PASSES; pass++) {
+			boolean swapped = false;
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					int a = assignment[i];
+					int b = assignment[j];
+					if (a == b) continue;
+					double before = squared(xs[i] - cx[a], ys[i] - cy[a]) + squared(xs[j] - cx[b], ys[j] - cy[b]);
+					double after = squared(xs[i] - cx[b], ys[i] - cy[b]) + squared(xs[j] - cx[a], ys[j] - cy[a]);
+					if (after < before - 1e-9) {
+						assignment[i] = b;
+						assignment[j] = a;
+						swapped = true;
+					}
+				}
+			}
+			if (!swapped) break;
+			centroids(xs, ys, assignment, cx, cy);
+		}
+	}
+
+	private static void centroids(double[] xs, double[] ys, int[] assignment, double[] cx, double[] cy) {
+		int k = cx.length;
+		double[] sx = new double[k];
+		double[] sy = new double[k];
+		int[] count = new int[k];
+		for (int i = 0; i < xs.length; i++) {
+			sx[assignment[i]] += xs[i];
+			sy[assignment[i]] += ys[i];
+			count[assignment[i]]++;
+		}
+		for (int d = 0; d < k; d++) {
+			// 빈 날짜는 이전 중심 유지
+			if (count[d] > 0) {
+				cx[d] = sx[d] / count[d];
+				cy[d] = sy[d] / count[d];
+			}
+		}
+	}
+
+	private static double squared(double dx, double dy) {
+		return dx * dx + dy * dy;
+	}
+}
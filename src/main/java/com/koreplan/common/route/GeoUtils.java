@@ -0,0 +1,46 @@
+package com.koreplan.common.route;
+
+/**
+ * 위경도 거리 계산 모음 (RouteOptimizer, DayClusterer, NearestIndex, OpenAiService 공용)
+ * - haversine: 두 좌표 사이 실제 거리 (km)
+ * - Projection: 위경도 → km 평면 (등장방형 근사). 지역 하나 범위에서는 오차가 작아 k-means/k-d 트리 좌표로 사용
+ */
+public final class GeoUtils {
+
+	private static final double EARTH_RADIUS_KM = 6371;
+	private static final double KM_PER_DEGREE_LAT = 110.574;
+	private static final double KM_PER_DEGREE_LON_AT_EQUATOR = 111.320;
+
+	private GeoUtils() {
+	}
+
+	/**
+	 * 하버사인 거리 (km)
+	 */
+	public static double haversine(double lon1, double lat1, double lon2, double lat2) {
+		double dLat = Math.toRadians(lat2 - lat1);
+		double dLon = Math.toRadians(lon2 - lon1);
+		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+				+ Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+				* Math.sin(dLon / 2) * Math.sin(dLon / 2);
+		return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+	}
+
+	/**
+	 * 기준 위도(보통 장소들의 평균 위도)에서 경도 1도 길이를 고정한 km 평면
+	 */
+	public record Projection(double kmPerLon) {
+
+		public static Projection around(double meanLat) {
+			return new Projection(KM_PER_DEGREE_LON_AT_EQUATOR * Math.cos(Math.toRadians(meanLat)));
+		}
+
+		public double x(double lon) {
+			return lon * kmPerLon;
+		}
+
+		public double y(double lat) {
+			return lat * KM_PER_DEGREE_LAT;
+		}
+	}
+}
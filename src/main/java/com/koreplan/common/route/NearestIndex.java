@@ -0,0 +1,137 @@
+package com.koreplan.common.route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 좌표 가까운 순 k개 조회 (k-d 트리, 만든 뒤에는 바뀌지 않음)
+ * - 위경도를 km 평면으로 바꿔서 저장 (GeoUtils.Projection, 지역 하나 범위에서는 충분)
+ * - 조회 시 조건(평점 등)에 맞는 항목만 세고, 지금 k번째보다 먼 칸은 건너뜀 → 전체를 훑지 않음
+ * - 좌표가 없는(NaN) 항목은 넣지 않음
+ * 읽기만 하므로 여러 스레드에서 같이 써도 됨
+ */
+public class NearestIndex<T> {
+
+	private final List<T> items;
+	// 트리 순서로 정렬된 항목 index 와 km 좌표 (구간 [lo, hi) 의 가운데가 노드, 깊이에 따라 x/y 번갈아 기준)
+	private final int[] order;
+	private final double[] xs;
+	private final double[] ys;
+	private final GeoUtils.Projection projection;
+
+	private record Hit(int index, double distance) {
+	}
+
+	public NearestIndex(List<T> items, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat) {
+		List<T> located = new ArrayList<>(items.size());
+		double latSum = 0;
+		for (T item : items) {
+			double x = lon.applyAsDouble(item);
+			double y = lat.applyAsDouble(item);
+			if (Double.isNaN(x) || Double.isNaN(y)) continue;
+			located.add(item);
+			latSum += y;
+		}
+		int n = located.size();
+		this.items = List.copyOf(located);
+		this.projection = GeoUtils.Projection.around(n == 0 ? 0 : latSum / n);
+		this.xs = new double[n];
+		this.ys = new double[n];
+		this.order = new int[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = projection.x(lon.applyAsDouble(located.get(i)));
+			ys[i] = projection.y(lat.applyAsDouble(located.get(i)));
+			order[i] = i;
+		}
+		build(0, n, 0);
+	}
+
+	public int size() {
+		return items.size();
+	}
+
+	/**
+	 * (lon, lat) 에서 가까운 순으로 조건에 맞는 항목 최대 k개
+	 */
+	public List<T> nearest(double lon, double lat, int k, Predicate<T> filter) {
+		if (k <= 0 || items.isEmpty()) {
+			return List.of();
+		}
+		// 가장 먼 항목이 맨 앞 (k개가 차면 더 가까운 것만 교체)
+		PriorityQueue<Hit> best = new PriorityQueue<>(k, Comparator.comparingDouble(Hit::distance).reversed());
+		search(0, order.length, 0, projection.x(lon), projection.y(lat), k, filter, best);
+
+		List<Hit> hits = new ArrayList<>(best);
+		hits.sort(Comparator.comparingDouble(Hit::distance).thenComparingInt(Hit::index));
+		List<T> result = new ArrayList<>(hits.size());
+		for (Hit hit : hits) {
+			result.add(items.get(hit.index()));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * 가운데 값을 기준으로 나눔 (가운데 왼쪽은 기준 좌표 이하, 오른쪽은 이상)
+	 */
+	private void build(int lo, int hi, int depth) {
+		if (hi - lo <= 1) return;
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+		build(lo, mid, depth + 1);
+		build(mid + 1, hi, depth + 1);
+	}
+
+	// order[left..right] 에서 k번째 (quickselect, 같은 입력이면 항상 같은 트리)
+	private void select(int left, int right, int k, double[] axis) {
+		while (left < right) {
+			double pivot = axis[order[(left + right) >>> 1]];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (axis[order[i]] < pivot) i++;
+				while (axis[order[j]] > pivot) j--;
+				if (i <= j) {
+					int swap = order[i];
+					order[i++] = order[j];
+					order[j--] = swap;
+				}
+			}
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void search(int lo, int hi, int depth, double x, double y, int k, Predicate<T> filter, PriorityQueue<Hit> best) {
+		if (lo >= hi) return;
+		int mid = (lo + hi) >>> 1;
+		int index = order[mid];
+
+		if (filter == null || filter.test(items.get(index))) {
+			double distance = Math.hypot(xs[index] - x, ys[index] - y);
+			if (best.size() < k) {
+				best.add(new Hit(index, distance));
+			} else if (distance < best.peek().distance()) {
+				best.poll();
+				best.add(new Hit(index, distance));
+			}
+		}
+
+		double diff = depth % 2 == 0 ? x - xs[index] : y - ys[index];
+		boolean leftFirst = diff < 0;
+		search(leftFirst ? lo : mid + 1, leftFirst ? mid : hi, depth + 1, x, y, k, filter, best);
+		// 기준선까지 거리가 지금 k번째보다 가까우면 반대쪽도 확인
+		if (best.size() < k || Math.abs(diff) < best.peek().distance()) {
+			search(leftFirst ? mid + 1 : lo, leftFirst ? hi : mid, depth + 1, x, y, k, filter, best);
+		}
+	}
+}
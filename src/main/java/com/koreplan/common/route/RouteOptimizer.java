@@ -0,0 +1,276 @@
+package com.koreplan.common.route;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 하루 방문 순서 최적화 (열린 경로: 돌아오지 않음)
+ * 1. 장소 간 거리(하버사인 km)를 double 행렬로 한 번만 계산
+ * 2. 최근접 이웃으로 초기 경로 (시작이 자유면 모든 장소에서 시작해 보고 가장 짧은 것)
+ * 3. 2-opt(구간 뒤집기) + Or-opt(1~3개 구간을 다른 자리로 옮기기)로 더 줄어들지 않을 때까지 또는 시간 예산까지 개선
+ *
+ * 시작/끝 고정: 전날 숙소에서 출발(start), 오늘 숙소로 복귀(end) 같은 기준점을 경로 밖에서 지정
+ * → 기준점은 결과에 포함되지 않고 거리 계산에만 쓰임
+ * 상태가 없으므로 여러 스레드에서 같이 써도 됨
+ */
+@Component
+public class RouteOptimizer {
+
+	private static final double EPSILON = 1e-9;
+	private static final int MAX_SEGMENT = 3;
+
+	private final long budgetNanos;
+
+	public RouteOptimizer(@Value("${route.optimizer.time-budget:PT0.005S}") Duration timeBudget) {
+		this.budgetNanos = timeBudget.toNanos();
+	}
+
+	/**
+	 * stops 방문 순서 (start/end 는 고정 기준점, 없으면 null)
+	 * @param lon 경도(mapx), lat 위도(mapy)
+	 */
+	public <T> List<T> order(List<T> stops, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat, T start, T end) {
+		if (stops.size() <= 1 && (start == null || end == null || stops.isEmpty())) {
+			return new ArrayList<>(stops);
+		}
+
+		List<T> nodes = new ArrayList<>(stops.size() + 2);
+		if (start != null) nodes.add(start);
+		nodes.addAll(stops);
+		if (end != null) nodes.add(end);
+
+		int n = nodes.size();
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = lon.applyAsDouble(nodes.get(i));
+			ys[i] = lat.applyAsDouble(nodes.get(i));
+		}
+
+		int[] path = optimize(distanceMatrix(xs, ys), start != null, end != null, System.nanoTime() + budgetNanos);
+
+		List<T> ordered = new ArrayList<>(stops.size());
+		int from = start != null ? 1 : 0;
+		int to = end != null ? n - 1 : n;
+		for (int i = from; i < to; i++) {
+			ordered.add(nodes.get(path[i]));
+		}
+		return ordered;
+	}
+
+	/**
+	 * 여러 날 일정의 날짜별 방문 순서 (days 는 날짜 순, 각 날짜는 지금 순서)
+	 * - 그날 마지막이 숙소면 끝으로 고정, 전날 마지막 숙소에서 출발
+	 * - 좌표가 없는(NaN) 장소가 있는 날은 그대로 둠
+	 */
+	public <T> List<List<T>> orderDays(List<List<T>> days, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat,
+			Predicate<T> isLodging) {
+		List<List<T>> result = new ArrayList<>(days.size());
+		T previousLodging = null;
+		for (List<T> day : days) {
+			T lodging = !day.isEmpty() && isLodging.test(day.get(day.size() - 1)) ? day.get(day.size() - 1) : null;
+			boolean located = day.stream().allMatch(stop -> !Double.isNaN(lon.applyAsDouble(stop)) && !Double.isNaN(lat.applyAsDouble(stop)));
+			if (!located) {
+				result.add(new ArrayList<>(day));
+			} else {
+				List<T> ordered = order(lodging != null ? day.subList(0, day.size() - 1) : day, lon, lat, previousLodging, lodging);
+				if (lodging != null) ordered.add(lodging);
+				result.add(ordered);
+			}
+			previousLodging = located ? lodging : null;
+		}
+		return result;
+	}
+
+	/**
+	 * 경로 길이 (km, 순서대로)
+	 */
+	public static <T> double length(List<T> route, ToDoubleFunction<T> lon, ToDoubleFunction<T> lat) {
+		double total = 0;
+		for (int i = 1; i < route.size(); i++) {
+			total += GeoUtils.haversine(lon.applyAsDouble(route.get(i - 1)), lat.applyAsDouble(route.get(i - 1)),
+					lon.applyAsDouble(route.get(i)), lat.applyAsDouble(route.get(i)));
+		}
+		return total;
+	}
+
+	/**
+	 * 노드 index 경로 (fixStart 면 0번이 처음, fixEnd 면 n-1번이 마지막)
+	 * @param deadline System.nanoTime() 기준 개선 중단 시각
+	 */
+	static int[] optimize(double[][] dist, boolean fixStart, boolean fixEnd, long deadline) {
+		int n = dist.length;
+		int[] path = nearestNeighbour(dist, fixStart, fixEnd);
+		if (n < 3) {
+			return path;
+		}
+
+		// 움직일 수 있는 위치 범위
+		int lo = fixStart ? 1 : 0;
+		int hi = fixEnd ? n - 2 : n - 1;
+
+		boolean improved = true;
+		while (improved && System.nanoTime() < deadline) {
+			improved = twoOpt(dist, path, lo, hi) | orOpt(dist, path, lo, hi);
+		}
+		return path;
+	}
+
+	/**
+	 * 최근접 이웃 경로 (시작이 자유면 모든 시작점 중 가장 짧은 경로, 끝 고정이면 끝 노드는 마지막에)
+	 */
+	private static int[] nearestNeighbour(double[][] dist, boolean fixStart, boolean fixEnd) {
+		int n = dist.length;
+		int last = fixEnd ? n - 1 : -1;
+
+		int[] best = null;
+		double bestLength = Double.MAX_VALUE;
+		int[] path = new int[n];
+		boolean[] visited = new boolean[n];
+		for (int first = 0; first < n; first++) {
+			if ((fixStart && first != 0) || (first == last && n > 1)) continue;
+
+			Arrays.fill(visited, false);
+			path[0] = first;
+			visited[first] = true;
+			double length = 0;
+			for (int k = 1; k < n; k++) {
+				int from = path[k - 1];
+				int next = -1;
+				for (int j = 0; j < n; j++) {
+					if (visited[j] || (j == last && k < n - 1)) continue;
+					if (next < 0 || dist[from][j] < dist[from][next]) {
+						next = j;
+					}
+				}
+				path[k] = next;
+				visited[next] = true;
+				length += dist[from][next];
+			}
+			if (length < bestLength) {
+				bestLength = length;
+				best = path.clone();
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * path[i..j] 뒤집기로 줄어드는 경우 적용 (열린 경로: 양 끝 바깥은 거리 0)
+	 */
+	private static boolean twoOpt(double[][] dist, int[] path, int lo, int hi) {
+		boolean improved = false;
+		for (int i = lo; i < hi; i++) {
+			for (int j = i + 1; j <= hi; j++) {
+				double delta = edge(dist, path, i - 1, j) + edge(dist, path, i, j + 1)
+						- edge(dist, path, i - 1, i) - edge(dist, path, j, j + 1);
+				if (delta < -EPSILON) {
+					reverse(path, i, j);
+					improved = true;
+				}
+			}
+		}
+		return improved;
+	}
+
+	/**
+	 * 길이 1~3 구간을 다른 두 장소 사이로 옮기기 (정방향/역방향)
+	 */
+	private static boolean orOpt(double[][] dist, int[] path, int lo, int hi) {
+		int n = path.length;
+		boolean improved = false;
+		for (int length = 1; length <= MAX_SEGMENT; length++) {
+			for (int i = lo; i + length - 1 <= hi; i++) {
+				int j = i + length - 1;
+				int first = path[i];
+				int lastNode = path[j];
+				double removeGain = edge(dist, path, i - 1, i) + edge(dist, path, j, j + 1) - edge(dist, path, i - 1, j + 1);
+				if (removeGain <= EPSILON) continue;
+
+				// 구간을 뺀 경로에서 k 와 k+1 사이 (k = lo-1 이면 맨 앞, k = hi 면 맨 뒤)
+				int bestK = Integer.MIN_VALUE;
+				boolean bestReversed = false;
+				double bestGain = EPSILON;
+				for (int k = lo - 1; k <= hi; k++) {
+					if (k >= i - 1 && k <= j) continue;
+					int a = k < 0 ? -1 : path[k];
+					int b = k + 1 >= n ? -1 : path[k + 1];
+					double base = d(dist, a, b);
+					double forward = removeGain - (d(dist, a, first) + d(dist, lastNode, b) - base);
+					double reversed = removeGain - (d(dist, a, lastNode) + d(dist, first, b) - base);
+					if (forward > bestGain) {
+						bestGain = forward;
+						bestK = k;
+						bestReversed = false;
+					}
+					if (reversed > bestGain) {
+						bestGain = reversed;
+						bestK = k;
+						bestReversed = true;
+					}
+				}
+				if (bestK != Integer.MIN_VALUE) {
+					move(path, i, j, bestK, bestReversed);
+					improved = true;
+				}
+			}
+		}
+		return improved;
+	}
+
+	/**
+	 * path[i..j] 를 k 뒤로 옮김 (k 는 옮기기 전 기준 위치)
+	 */
+	private static void move(int[] path, int i, int j, int k, boolean reversed) {
+		int length = j - i + 1;
+		int[] segment = new int[length];
+		for (int s = 0; s < length; s++) {
+			segment[s] = path[reversed ? j - s : i + s];
+		}
+		if (k < i) {
+			// 앞으로: path[k+1..i-1] 를 뒤로 밀기
+			System.arraycopy(path, k + 1, path, k + 1 + length, i - k - 1);
+			System.arraycopy(segment, 0, path, k + 1, length);
+		} else {
+			// 뒤로: path[j+1..k] 를 앞으로 당기기
+			System.arraycopy(path, j + 1, path, i, k - j);
+			System.arraycopy(segment, 0, path, k - length + 1, length);
+		}
+	}
+
+	private static void reverse(int[] path, int i, int j) {
+		while (i < j) {
+			int swap = path[i];
+			path[i++] = path[j];
+			path[j--] = swap;
+		}
+	}
+
+	// path 위치 p, q 사이 거리 (경로 밖이면 0)
+	private static double edge(double[][] dist, int[] path, int p, int q) {
+		if (p < 0 || q < 0 || p >= path.length || q >= path.length) return 0;
+		return dist[path[p]][path[q]];
+	}
+
+	private static double d(double[][] dist, int a, int b) {
+		return a < 0 || b < 0 ? 0 : dist[a][b];
+	}
+
+	static double[][] distanceMatrix(double[] xs, double[] ys) {
+		int n = xs.length;
+		double[][] dist = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				dist[i][j] = dist[j][i] = GeoUtils.haversine(xs[i], ys[i], xs[j], ys[j]);
+			}
+		}
+		return dist;
+	}
+}
@@ -0,0 +1,34 @@
+package com.koreplan.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * AI 일정 생성(/api/openai/ask)의 DB 매칭 전용 스레드 풀
+ * - GPT 응답 대기는 논블로킹이라 스레드를 쓰지 않고, 응답 후 DB 매칭(getFilteredAndFilledPlaces)만 이 풀에서 실행
+ * - 풀 크기를 DB 커넥션 풀보다 작게 잡아서 일정 생성이 몰려도 다른 API가 쓸 커넥션/스레드를 남겨 둠
+ * - 큐가 가득 차면 RejectedExecutionException → 컨트롤러에서 503
+ */
+@Configuration
+public class ItineraryExecutorConfig {
+
+	@Value("${openai.matching.pool-size:4}")
+	private int poolSize;
+
+	@Value("${openai.matching.queue-capacity:32}")
+	private int queueCapacity;
+
+	@Bean(name = "itineraryMatchingExecutor")
+	public ThreadPoolTaskExecutor itineraryMatchingExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("itinerary-match-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		executor.initialize();
+		return executor;
+	}
+}
@@ -38,6 +38,8 @@ public class SecurityConfig {
            .sessionManagement(session ->
                session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
            .authorizeHttpRequests(authz -> authz
+               // 수집 작업 실행/초기화, 외부 API 상태 (application.properties 의 security.admin-emails)
+               .requestMatchers("/api/admin/**").hasRole("ADMIN")
                .requestMatchers(
                    "/signIn",
                    "/signup", 
@@ -54,12 +56,17 @@ public class SecurityConfig {
                .permitAll()
                .anyRequest().authenticated()
            )
-           .exceptionHandling(exception -> 
-               exception.authenticationEntryPoint((request, response, authException) -> {
+           .exceptionHandling(exception -> exception
+               .authenticationEntryPoint((request, response, authException) -> {
                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                    response.setContentType("application/json");
                    response.getWriter().write("{\"error\": \"Unauthorized\"}");
                })
+               .accessDeniedHandler((request, response, accessDeniedException) -> {
+                   response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                   response.setContentType("application/json");
+                   response.getWriter().write("{\"error\": \"Forbidden\"}");
+               })
            )
            .oauth2Login(oauth2 -> oauth2
                .userInfoEndpoint(userInfo -> 
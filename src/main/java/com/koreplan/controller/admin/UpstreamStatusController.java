@@ -0,0 +1,44 @@
+package com.koreplan.controller.admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.koreplan.common.api.KeyQuotaManager;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.openAi.UsageTracker;
+import com.koreplan.openAi.service.ItineraryAdmission;
+import com.koreplan.openAi.service.ItineraryCache;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/upstream")
+@RequiredArgsConstructor
+public class UpstreamStatusController {
+
+	private final KeyQuotaManager keyQuotaManager;
+	private final UpstreamGuard upstreamGuard;
+	private final ItineraryCache itineraryCache;
+	private final UsageTracker usageTracker;
+	private final ItineraryAdmission itineraryAdmission;
+
+	/**
+	 * 서비스키별 오늘 사용량/예산, API별 서킷·동시 호출 상태, AI 일정 캐시/대기열 현황, 이번 달 OpenAI 사용 요금
+	 * GET /api/admin/upstream
+	 */
+	@GetMapping
+	public Map<String, Object> getStatus() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("keys", keyQuotaManager.usage());
+		status.put("resetInSeconds", keyQuotaManager.secondsUntilReset());
+		status.put("endpoints", upstreamGuard.stats());
+		status.put("itineraryCache", itineraryCache.stats());
+		status.put("itineraryAdmission", itineraryAdmission.stats());
+		status.put("openaiUsage", usageTracker.summary());
+		return status;
+	}
+}
@@ -1,6 +1,8 @@
 package com.koreplan.controller.comment;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.koreplan.common.api.UpstreamUnavailableException;
 import com.koreplan.dto.comment.CommentResponseDto;
 import com.koreplan.service.comment.CommentService;
 
@@ -32,6 +35,11 @@ public class CommentRestController {
 		try {
 			CommentResponseDto comment =commentService.getInfomation(contentId);
 			 return ResponseEntity.ok(comment);
+		}catch (UpstreamUnavailableException e) {
+			log.warn("개요 API 일시 차단: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+					.body("외부 API 응답이 지연되고 있습니다. 잠시 후 다시 시도해주세요.");
 		}catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
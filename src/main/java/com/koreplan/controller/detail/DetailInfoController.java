@@ -1,5 +1,7 @@
 package com.koreplan.controller.detail;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,7 +10,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.koreplan.common.api.UpstreamUnavailableException;
 import com.koreplan.service.detail.DetailInfoService;
+import com.koreplan.service.detail.PlaceDetailService;
 import com.koreplan.service.festival.DetailFestivalService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +28,7 @@ public class DetailInfoController {
 
 	private final DetailInfoService detailInfoService;
 	private final DetailFestivalService detailFestivalService;
+	private final PlaceDetailService placeDetailService;
 
 	@GetMapping("/{contentId}/festival")
 	@Operation(summary = "축제 전용 상세정보 api",description = "축제의 행사 내용,정보 가지고 오는 7번 api"  )
@@ -35,6 +40,12 @@ public class DetailInfoController {
 			ResponseEntity<Object> detailInfo = detailFestivalService.getDetailIntro(contentId);
 			return detailInfo;
 
+		} catch (UpstreamUnavailableException e) {
+			log.warn("상세정보 API 일시 차단: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+					.body("외부 API 응답이 지연되고 있습니다. 잠시 후 다시 시도해주세요.");
+
 		} catch (Exception e) {
 			log.error("상세정보 조회 중 오류 발생", e);
 			return ResponseEntity.status(500).body("서버 오류가 발생했습니다: " + e.getMessage());
@@ -67,12 +78,32 @@ public class DetailInfoController {
 			log.warn("잘못된 contentTypeId: {}", contentTypeId);
 			return ResponseEntity.badRequest().body("지원하지 않는 contentTypeId입니다: " + contentTypeId);
 
+		} catch (UpstreamUnavailableException e) {
+			log.warn("상세정보 API 일시 차단: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+					.body("외부 API 응답이 지연되고 있습니다. 잠시 후 다시 시도해주세요.");
+
 		} catch (Exception e) {
 			log.error("상세정보 조회 중 오류 발생", e);
 			return ResponseEntity.status(500).body("서버 오류가 발생했습니다: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * 상세 페이지 데이터 한 번에 조회
+	 * GET /api/detail/{contentId}/all?contentTypeId= (생략하면 DB의 테마 사용)
+	 */
+	@Operation(summary = "상세 페이지 통합 api", description = "기본정보, 상세정보, 이미지, 개요, 리뷰 통계를 동시에 조회해 한 번에 반환 (실패한 항목은 missing에 표시)")
+	@GetMapping("/{contentId}/all")
+	public ResponseEntity<?> getPlaceDetail(@PathVariable String contentId,
+			@RequestParam(required = false) String contentTypeId) {
+		if (contentId == null || contentId.trim().isEmpty()) {
+			return ResponseEntity.badRequest().body("contentId가 필요합니다.");
+		}
+		return ResponseEntity.ok(placeDetailService.getPlaceDetail(contentId, contentTypeId));
+	}
+
 	/**
 	 * 테스트용 API
 	 */
@@ -1,6 +1,8 @@
 package com.koreplan.controller.image;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.koreplan.common.api.UpstreamUnavailableException;
 import com.koreplan.dto.image.ErrorResponse;
 import com.koreplan.dto.image.ImageApiResponseDto;
 import com.koreplan.dto.image.NoImagesResponse;
@@ -55,6 +58,13 @@ public class ImageController {
             log.warn("유효성 검사 실패: contentId={}, error={}", contentId, e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse("VALIDATION_ERROR", e.getMessage()));
             
+        } catch (UpstreamUnavailableException e) {
+            // 서킷 OPEN / 동시 호출 초과 / 마감 시각 초과 → 캐시도 없으면 바로 503
+            log.warn("이미지 API 일시 차단: contentId={}, {}", contentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse("UPSTREAM_UNAVAILABLE", "외부 API 응답이 지연되고 있습니다"));
+            
         } catch (RuntimeException e) {
             // API 호출 실패 또는 파싱 실패
             log.error("이미지 로드 실패: contentId={}, error={}", contentId, e.getMessage());
@@ -159,6 +159,23 @@ public class TravelListRestController {
     
     
     
+    // 수정페이지에서 동선 최적화 (날짜별 방문 순서 재배치 후 저장, 바뀐 상세 정보 반환)
+    // regroup=true 면 장소를 위치 기준으로 날짜별로 다시 나눈 뒤 순서 재배치
+    @PutMapping("/optimize/{planId}")
+    public ResponseEntity<Map<String, Object>> optimizePlanRoute(
+            @PathVariable Long planId,
+            @RequestParam(defaultValue = "false") boolean regroup,
+            @RequestHeader("userId") Integer userId) {
+
+        SendTravelPlanDto planDetail = travelPlanService.optimizePlanRoute(userId, planId, regroup);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", 200);
+        response.put("message", "동선 최적화 성공");
+        response.put("result", planDetail);
+        return ResponseEntity.ok(response);
+    }
+    
     // 리스트 전체 삭제
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Map<String, Object>> deletePlan(@PathVariable Long id) {
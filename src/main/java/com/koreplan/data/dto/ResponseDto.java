@@ -24,6 +24,9 @@ public class ResponseDto {
     @Data
     public static class Body {
         private Items items;
+        private int numOfRows;
+        private int pageNo;
+        private int totalCount;
     }
 
     @Data
@@ -71,6 +71,47 @@ public interface DataRepository extends JpaRepository<DataEntity,Long> {
     	    @Param("themeIds") List<Integer> themeIds,
     	    Pageable pageable
     	);
+
+    // AI 일정 후보 (CandidatePool): 관련 구 전체 + 테마를 한 번에, 지역/구까지 같이 로딩
+    @Query("SELECT d FROM DataEntity d " +
+           "LEFT JOIN FETCH d.regionCodeEntity " +
+           "LEFT JOIN FETCH d.wardCodeEntity " +
+           "WHERE d.regionCodeEntity = :region " +
+           "AND d.wardCodeEntity IN :wards " +
+           "AND d.theme IN :themeIds")
+    List<DataEntity> findCandidatesForAI(
+        @Param("region") RegionCodeEntity region,
+        @Param("wards") List<WardCodeEntity> wards,
+        @Param("themeIds") List<Integer> themeIds
+    );
+
+    // AI 일정 후보 (CandidatePool): 지역 전체에서 score 상위 (광역시 숙소, GROUNDED 후보 목록) - 동점은 id 순으로 고정
+    @Query("SELECT d FROM DataEntity d " +
+           "LEFT JOIN FETCH d.regionCodeEntity " +
+           "LEFT JOIN FETCH d.wardCodeEntity " +
+           "WHERE d.regionCodeEntity = :region " +
+           "AND d.theme IN :themeIds " +
+           "ORDER BY d.score DESC, d.id ASC")
+    List<DataEntity> findTopCandidatesForAI(
+        @Param("region") RegionCodeEntity region,
+        @Param("themeIds") List<Integer> themeIds,
+        Pageable pageable
+    );
+
+    // AI 일정 숙소 가까운 순 조회 (CandidatePool): 지역 전체에서 평점 기준 이상 + 좌표 있는 숙소, 지역/구까지 같이 로딩
+    @Query("SELECT d FROM DataEntity d " +
+           "LEFT JOIN FETCH d.regionCodeEntity " +
+           "LEFT JOIN FETCH d.wardCodeEntity " +
+           "WHERE d.regionCodeEntity = :region " +
+           "AND d.theme = :theme " +
+           "AND d.rating >= :minRating " +
+           "AND d.mapx IS NOT NULL AND d.mapy IS NOT NULL")
+    List<DataEntity> findRatedCandidatesForAI(
+        @Param("region") RegionCodeEntity region,
+        @Param("theme") int theme,
+        @Param("minRating") double minRating
+    );
+
     // 숙소 하나 추가하기
     // DataEntity
     List<DataEntity> findByRegionCodeEntityAndWardCodeEntityAndC1CodeOrderByViewCountDesc(RegionCodeEntity region, WardCodeEntity ward, String c1Code);
@@ -96,7 +137,16 @@ public interface DataRepository extends JpaRepository<DataEntity,Long> {
 	boolean existsByContentId(String contentId);
 	//여러 컨텐츠아이디로 조회하는 기능
 	List<DataEntity> findByContentIdIn(List<String> contentIds);
-	
+	//적재 작업 재시작 시 이미 저장된 컨텐츠아이디만 조회 (중복 저장 방지)
+	@Query("SELECT d.contentId FROM DataEntity d WHERE d.contentId IN :contentIds")
+	List<String> findExistingContentIds(@Param("contentIds") List<String> contentIds);
+	//전체 컨텐츠아이디 (이미지 조회 시 존재 여부 확인용 메모리 목록)
+	@Query("SELECT d.contentId FROM DataEntity d")
+	List<String> findAllContentIds();
+	//통합점수 상위 N개 컨텐츠아이디 (이미지 미리 불러오기용)
+	@Query("SELECT d.contentId FROM DataEntity d ORDER BY d.score DESC")
+	List<String> findContentIdsOrderByScoreDesc(Pageable pageable);
+
 
 	//상위 5개 통합점수로 조회
 	List<DataEntity> findTop5ByOrderByScoreDesc();
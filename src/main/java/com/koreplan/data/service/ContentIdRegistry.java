@@ -0,0 +1,134 @@
+package com.koreplan.data.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.data.repository.DataRepository;
+import com.koreplan.repository.festival.FestivalRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여행지/축제 contentId 목록을 메모리에 들고 있는 존재 여부 확인용 레지스트리
+ * - 이미지 조회마다 data/festival 테이블을 두 번 조회하던 것을 대체
+ * - 목록에 없으면 DB를 한 번 확인하고, 있으면 목록에 추가 (적재 직후 새 데이터 대응)
+ * - DB에도 없는 contentId 는 잠시 기억해서(개수 제한, LRU) 같은 잘못된 요청마다 DB를 조회하지 않음
+ * - 주기적으로 전체 목록을 다시 읽음 (이때 없는 contentId 기록도 비움)
+ *
+ * 가상 스레드에서도 쓰이므로 synchronized 대신 ReentrantLock 사용
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ContentIdRegistry {
+
+	private final DataRepository dataRepository;
+	private final FestivalRepository festivalRepository;
+
+	@Value("${registry.content-id.negative-ttl:PT10M}")
+	private Duration negativeTtl;
+
+	@Value("${registry.content-id.negative-max-size:10000}")
+	private int negativeMaxSize;
+
+	private volatile Set<String> contentIds = ConcurrentHashMap.newKeySet();
+	private volatile boolean loaded;
+
+	// DB에 없던 contentId → 만료 시각(ms). accessOrder=true → 가장 오래 안 쓴 항목부터 제거
+	private final LinkedHashMap<String, Long> missing = new LinkedHashMap<>(64, 0.75f, true);
+	private final ReentrantLock missingLock = new ReentrantLock();
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${registry.content-id.reload-interval:PT1H}",
+			fixedDelayString = "${registry.content-id.reload-interval:PT1H}")
+	public void reload() {
+		try {
+			Set<String> ids = ConcurrentHashMap.newKeySet();
+			ids.addAll(dataRepository.findAllContentIds());
+			ids.addAll(festivalRepository.findAllContentIds());
+			contentIds = ids;
+			loaded = true;
+			clearMissing();
+			log.info("contentId 목록 로드: {}개", ids.size());
+		} catch (Exception e) {
+			log.warn("contentId 목록 로드 실패 (DB 조회로 대체): {}", e.getMessage());
+		}
+	}
+
+	public boolean exists(String contentId) {
+		if (contentIds.contains(contentId)) {
+			return true;
+		}
+		if (isKnownMissing(contentId)) {
+			return false;
+		}
+		// 목록에 아직 없는 새 데이터일 수 있으니 DB 확인
+		boolean exists = dataRepository.existsByContentId(contentId)
+				|| festivalRepository.existsByContentId(contentId);
+		if (exists) {
+			contentIds.add(contentId);
+		} else {
+			rememberMissing(contentId);
+		}
+		return exists;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public int size() {
+		return contentIds.size();
+	}
+
+	private boolean isKnownMissing(String contentId) {
+		missingLock.lock();
+		try {
+			Long expiresAt = missing.get(contentId);
+			if (expiresAt == null) {
+				return false;
+			}
+			if (System.currentTimeMillis() >= expiresAt) {
+				missing.remove(contentId);
+				return false;
+			}
+			return true;
+		} finally {
+			missingLock.unlock();
+		}
+	}
+
+	private void rememberMissing(String contentId) {
+		missingLock.lock();
+		try {
+			missing.put(contentId, System.currentTimeMillis() + negativeTtl.toMillis());
+			Iterator<String> iterator = missing.keySet().iterator();
+			while (missing.size() > negativeMaxSize && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		} finally {
+			missingLock.unlock();
+		}
+	}
+
+	private void clearMissing() {
+		missingLock.lock();
+		try {
+			missing.clear();
+		} finally {
+			missingLock.unlock();
+		}
+	}
+}
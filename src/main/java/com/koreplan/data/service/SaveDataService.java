@@ -1,11 +1,22 @@
 package com.koreplan.data.service;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,14 +25,19 @@ import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.koreplan.area.entity.RegionCodeEntity;
-import com.koreplan.area.entity.WardCodeEntity;
 import com.koreplan.area.repository.RegionCodeRepository;
 import com.koreplan.area.repository.WardCodeRepository;
+import com.koreplan.area.service.RegionCodeLookup;
 import com.koreplan.category.repository.CategoryRepository;
+import com.koreplan.common.api.QuotaExceededException;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
 import com.koreplan.data.dto.DataDto;
 import com.koreplan.data.dto.ResponseDto;
 import com.koreplan.data.entity.DataEntity;
 import com.koreplan.data.repository.DataRepository;
+import com.koreplan.job.service.JobContext;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,32 +47,47 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SaveDataService {
 
+	public static final String JOB_NAME = "data";
+	public static final String PARTITIONED_JOB_NAME = "data-by-region";
+
 	private final DataRepository dataRepository;
 	private final ObjectMapper objectMapper;
 	
 	private final RegionCodeRepository regionCodeRepository;
 	private final WardCodeRepository wardCodeRepository;
 	private final CategoryRepository categoryRepository;
+	private final ServiceKeyScheduler serviceKeyScheduler;
+	private final UpstreamGuard upstreamGuard;
 	
 	
 	
-	@Value("${publicDataKey}")
-	private String key;
 
-	private String apiUrl = "https://apis.data.go.kr/B551011/KorService2/areaBasedList2";
+	// 한 번에 커밋하는 건수 (체크포인트 단위)
+	@Value("${data.ingest.chunk-size:1000}")
+	private int chunkSize;
+
+	// 지역별 분할 적재: 동시에 받는 지역 수 / 페이지당 건수
+	@Value("${data.ingest.partition-concurrency:6}")
+	private int partitionConcurrency;
+
+	@Value("${data.ingest.page-size:1000}")
+	private int pageSize;
+
+	@Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/areaBasedList2")
+	private String apiUrl;
 
-	public ResponseEntity<ResponseDto> requestData() throws Exception {
+	public ResponseEntity<ResponseDto> requestData(String serviceKey) throws Exception {
 
 		int rows = 100000;
-		String fullUrl = apiUrl + "?serviceKey=" + key + "&numOfRows=" + rows
+		String fullUrl = apiUrl + "?serviceKey=" + serviceKey + "&numOfRows=" + rows
 				+ "&MobileOS=WEB&MobileApp=Koreplan&_type=json";
 		URL url = new URL(fullUrl);
 
 		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 		conn.setRequestMethod("GET");
 		conn.setRequestProperty("Content-type", "application/json");
-		conn.setConnectTimeout(1000000000);
-		conn.setReadTimeout(1000000000);
+		// 전체 목록을 한 번에 받으므로 읽기 타임아웃은 넉넉히 (무제한 대기는 하지 않음)
+		upstreamGuard.applyTimeouts(conn, 10000, 300000);
 
 		BufferedReader rd;
 		if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -84,34 +115,84 @@ public class SaveDataService {
 		}
 	}
 
-	public void saveDataService() {
-		try {
-			ResponseEntity<ResponseDto> response = requestData();
-			ResponseDto dto = response.getBody();
+	/**
+	 * 지역(lDongRegnCd) 하나의 한 페이지 조회 (지역별 분할 적재용)
+	 * 호출 한도 초과 응답은 QuotaExceededException → 스케줄러가 다른 키로 재시도
+	 */
+	public ResponseDto requestDataPage(String serviceKey, Long regioncode, int pageNo, int rows) throws Exception {
+		String fullUrl = apiUrl + "?serviceKey=" + serviceKey + "&numOfRows=" + rows + "&pageNo=" + pageNo
+				+ "&MobileOS=WEB&MobileApp=Koreplan&_type=json&lDongRegnCd=" + regioncode;
+		URL url = new URL(fullUrl);
 
-			if (dto == null) {
-				log.warn("API 응답이 null입니다.");
-				return;
+		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+		conn.setRequestMethod("GET");
+		conn.setRequestProperty("Content-type", "application/json");
+		upstreamGuard.applyTimeouts(conn, 10000, 60000);
+
+		BufferedReader rd;
+		if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
+			rd = new BufferedReader(new InputStreamReader(conn.getInputStream()));
+		} else {
+			rd = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
+			throw new IOException("API 호출 실패: " + conn.getResponseCode() + " " + conn.getResponseMessage());
+		}
+
+		StringBuilder sb = new StringBuilder();
+		String line;
+		while ((line = rd.readLine()) != null) {
+			sb.append(line);
+		}
+		rd.close();
+		conn.disconnect();
+		String responseBody = sb.toString();
+
+		if (responseBody.trim().startsWith("<")) {
+			if (QuotaExceededException.isQuotaError(responseBody)) {
+				throw new QuotaExceededException("API 호출 제한 초과. region: " + regioncode + ", page: " + pageNo);
 			}
+			throw new IllegalStateException("API에서 XML 에러 응답 수신: " + responseBody);
+		}
+		// 결과가 없는 지역/페이지는 items가 빈 문자열로 내려옴
+		if (responseBody.contains("\"totalCount\":0")) {
+			return null;
+		}
+		return objectMapper.readValue(responseBody, ResponseDto.class);
+	}
+
+	/**
+	 * 관광지 데이터 적재 (체크포인트 지원)
+	 * - 청크 단위로 저장하고 청크가 커밋될 때마다 커서를 기록
+	 * - 실패/중단 후 재실행하면 마지막으로 커밋된 청크 다음부터 이어서 처리
+	 * - 이미 저장된 contentId는 건너뛰므로 같은 구간을 다시 처리해도 중복 저장되지 않음
+	 */
+	public void saveDataService(JobContext ctx) throws Exception {
+		ResponseEntity<ResponseDto> response = serviceKeyScheduler.call("areaBasedList2", KeyTraffic.INGESTION, this::requestData);
+		ResponseDto dto = response.getBody();
 
-			List<DataDto> items = dto.getResponse().getBody().getItems().getItem();
+		if (dto == null) {
+			throw new IllegalStateException("API 응답이 null입니다.");
+		}
 
-			saveData(dto);
+		List<DataDto> items = dto.getResponse().getBody().getItems().getItem();
+		ctx.setTotal(items.size());
 
-			// 여기서 DB 저장 로직 추가 가능
-			// saveAll(items) 등
+		RegionCodeLookup regionLookup = RegionCodeLookup.load(regionCodeRepository, wardCodeRepository);
 
-		} catch (Exception e) {
-			log.error("지역 코드 초기화 중 오류 발생", e);
+		int saved = 0;
+		for (int from = ctx.getStartCursor(); from < items.size(); from += chunkSize) {
+			int to = Math.min(from + chunkSize, items.size());
+			saved += saveData(items.subList(from, to), regionLookup);
+			ctx.checkpoint(to);
+			log.info("관광지 데이터 적재 진행: {}/{} (이번 실행 저장 {}건)", to, items.size(), saved);
 		}
 	}
 
-	public void saveData(ResponseDto dto) {
-		
-	    List<DataDto> items = dto.getResponse()
-	                              .getBody()
-	                              .getItems()
-	                              .getItem();
+	/**
+	 * 청크 하나를 저장하고 실제로 저장한 건수를 반환
+	 */
+	private int saveData(List<DataDto> items, RegionCodeLookup regionLookup) {
+		List<String> contentIds = items.stream().map(DataDto::getContentid).toList();
+		Set<String> existing = new HashSet<>(dataRepository.findExistingContentIds(contentIds));
 
 	    List<DataEntity> entities = new ArrayList<>();
 	    
@@ -119,6 +200,10 @@ public class SaveDataService {
 	    	//여행코스랑 축제는 저장하지 않게 막기.(여행코스는 사용하지 않을 데이터, 축제는 다른 엔티티에 저장할 것임)
 	    	if(item.getContenttypeid()==25||item.getContenttypeid()==15) {
 	    		continue;
+	    	}
+	    	//이전 실행에서 이미 저장된 데이터
+	    	if (!existing.add(item.getContentid())) {
+	    		continue;
 	    	}
 			DataEntity entity = new DataEntity();
 			entity.setContentId(item.getContentid());
@@ -143,34 +228,136 @@ public class SaveDataService {
 	        String regioncodeStr = item.getLDongRegnCd();
 	        String wardcodeStr = item.getLDongSignguCd();
 	        
-	        RegionCodeEntity regionEntity = null;
-	        WardCodeEntity wardEntity = null;
-
-	        if (regioncodeStr != null && !regioncodeStr.trim().isEmpty()) {
-	            try {
-	                Long regioncode = Long.valueOf(regioncodeStr);
-	                regionEntity = regionCodeRepository.findByRegioncode(regioncode).orElse(null);
-
-	                if (wardcodeStr != null && !wardcodeStr.trim().isEmpty()) {
-	                    Long wardcode = Long.valueOf(wardcodeStr);
-	                    wardEntity = wardCodeRepository.findByWardcodeAndRegionCodeEntity_Regioncode(wardcode, regioncode).orElse(null);
-	                }
-	            } catch (NumberFormatException e) {
-	                log.warn("지역 코드 또는 시군구 코드 파싱 오류: region='{}', ward='{}'", regioncodeStr, wardcodeStr);
-	            }
-	        } else {
+	        if (regioncodeStr == null || regioncodeStr.trim().isEmpty()) {
 	            log.warn("빈 지역코드 또는 잘못된 값: region='{}', ward='{}'", regioncodeStr, wardcodeStr);
 	        }
 
-	        entity.setRegionCodeEntity(regionEntity);
-	        entity.setWardCodeEntity(wardEntity);
-
+	        entity.setRegionCodeEntity(regionLookup.region(regioncodeStr));
+	        entity.setWardCodeEntity(regionLookup.ward(regioncodeStr, wardcodeStr));
 
 	        entities.add(entity);
 	        
-	        log.info("DataEntity created: {}", entity);
+	        log.debug("DataEntity created: {}", entity);
 	    }
 	    dataRepository.saveAll(entities);
-	    
+	    return entities.size();
+	}
+
+	// 지역 하나의 페이지 묶음 (last=true 면 해당 지역 조회 완료)
+	private record RegionPage(int regionIndex, List<DataDto> items, boolean last) {
+	}
+
+	/**
+	 * 지역별 분할 적재
+	 * - 시/도마다 페이지 단위 조회를 하나씩 띄워 제한된 개수(data.ingest.partition-concurrency)만큼 동시에 받고
+	 *   결과는 이 스레드의 청크 writer 하나로 모아서 저장
+	 * - 키별 호출 한도는 ServiceKeyScheduler의 토큰 버킷이 전체 스트림에 걸쳐 지킴
+	 * - 커서는 "앞에서부터 연속으로 저장이 끝난 지역 수" → 재시작 시 그 다음 지역부터 다시 받음
+	 *   (완료 순서가 뒤섞여 일부 지역을 다시 받더라도 contentId 중복 검사로 중복 저장되지 않음)
+	 */
+	public void saveDataByRegion(JobContext ctx) throws Exception {
+		List<RegionCodeEntity> regions = regionCodeRepository.findAll().stream()
+				.sorted(Comparator.comparing(RegionCodeEntity::getRegioncode))
+				.toList();
+		if (regions.isEmpty()) {
+			throw new IllegalStateException("지역 코드가 없습니다. region 작업을 먼저 실행하세요.");
+		}
+		ctx.setTotal(regions.size());
+
+		RegionCodeLookup regionLookup = RegionCodeLookup.load(regionCodeRepository, wardCodeRepository);
+		long startedAt = System.currentTimeMillis();
+
+		// 조회 스트림이 writer보다 너무 앞서가지 않도록 큐 크기 제한
+		BlockingQueue<RegionPage> pages = new LinkedBlockingQueue<>(partitionConcurrency * 2);
+		boolean[] done = new boolean[regions.size()];
+		int committed = ctx.getStartCursor();
+		int remaining = regions.size() - committed;
+		int saved = 0;
+		List<DataDto> buffer = new ArrayList<>();
+		List<Future<?>> streams = new ArrayList<>();
+
+		ExecutorService executor = Executors.newFixedThreadPool(partitionConcurrency,
+				Thread.ofVirtual().name("catalog-region-", 0).factory());
+		try {
+			for (int i = committed; i < regions.size(); i++) {
+				int regionIndex = i;
+				RegionCodeEntity region = regions.get(i);
+				streams.add(executor.submit(() -> {
+					fetchRegion(regionIndex, region, pages);
+					return null;
+				}));
+			}
+
+			while (remaining > 0) {
+				RegionPage page = pages.poll(1, TimeUnit.SECONDS);
+				if (page == null) {
+					throwIfFailed(streams);
+					continue;
+				}
+				buffer.addAll(page.items());
+				if (buffer.size() >= chunkSize || page.last()) {
+					saved += saveData(buffer, regionLookup);
+					buffer.clear();
+				}
+				if (page.last()) {
+					done[page.regionIndex()] = true;
+					remaining--;
+					while (committed < regions.size() && done[committed]) {
+						committed++;
+					}
+					ctx.checkpoint(committed);
+					log.info("지역 {} 적재 완료 ({}/{}), 이번 실행 저장 {}건, 소요 {}초",
+							regions.get(page.regionIndex()).getName(), regions.size() - remaining,
+							regions.size(), saved, (System.currentTimeMillis() - startedAt) / 1000);
+				}
+			}
+		} finally {
+			// 실패 시 남은 스트림은 중단 (큐에서 대기 중인 스레드도 인터럽트)
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 지역 하나의 모든 페이지를 순서대로 받아 큐에 넣음
+	 */
+	private void fetchRegion(int regionIndex, RegionCodeEntity region, BlockingQueue<RegionPage> pages) throws Exception {
+		Long regioncode = region.getRegioncode();
+		int pageNo = 1;
+		int fetched = 0;
+		while (true) {
+			int currentPage = pageNo;
+			ResponseDto dto = serviceKeyScheduler.call("areaBasedList2", KeyTraffic.INGESTION,
+					serviceKey -> requestDataPage(serviceKey, regioncode, currentPage, pageSize));
+
+			List<DataDto> items = dto == null || dto.getResponse().getBody().getItems() == null
+					? List.of()
+					: dto.getResponse().getBody().getItems().getItem();
+			int totalCount = dto == null ? 0 : dto.getResponse().getBody().getTotalCount();
+			fetched += items.size();
+
+			boolean last = items.isEmpty() || fetched >= totalCount;
+			pages.put(new RegionPage(regionIndex, items, last));
+			if (last) {
+				log.debug("지역 {} 조회 완료: {}건, {}페이지", region.getName(), fetched, pageNo);
+				return;
+			}
+			pageNo++;
+		}
+	}
+
+	private void throwIfFailed(List<Future<?>> streams) throws Exception {
+		for (Future<?> stream : streams) {
+			if (!stream.isDone()) {
+				continue;
+			}
+			try {
+				stream.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Exception cause) {
+					throw cause;
+				}
+				throw e;
+			}
+		}
 	}
 }
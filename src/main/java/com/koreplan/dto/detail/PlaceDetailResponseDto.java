@@ -0,0 +1,26 @@
+package com.koreplan.dto.detail;
+
+import java.util.List;
+
+import com.koreplan.dto.comment.CommentResponseDto;
+import com.koreplan.dto.image.ImageApiResponseDto;
+import com.koreplan.dto.search.DataResponseDto;
+import com.koreplan.service.review.ReviewService.ReviewStats;
+
+import lombok.Builder;
+import lombok.Data;
+
+// 상세 페이지 한 번에 조회 응답 (가져오지 못한 항목은 null + missing에 이름 기록)
+@Data
+@Builder
+public class PlaceDetailResponseDto {
+	private String contentId;
+	private String contentTypeId;
+	private DataResponseDto data;         // /api/region-list/{contentId}/one-data
+	private Object intro;                 // /api/detail/{contentId}/intro
+	private ImageApiResponseDto images;   // /api/spots/{contentId}/images
+	private CommentResponseDto comment;   // /api/spot/{contentId}/comment
+	private ReviewStats reviewStats;      // /api/reviews/stats/{dataId}
+	private List<String> missing;         // 실패/시간 초과로 빠진 항목
+	private long elapsedMs;
+}
@@ -0,0 +1,96 @@
+package com.koreplan.job.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.koreplan.job.dto.IngestionJobStatusDto;
+import com.koreplan.job.service.IngestionJobLauncher;
+import com.koreplan.job.service.IngestionJobService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionJobController {
+
+	private final IngestionJobService ingestionJobService;
+	private final IngestionJobLauncher ingestionJobLauncher;
+
+	/**
+	 * 전체 작업 진행 상태
+	 * GET /api/admin/jobs
+	 */
+	@GetMapping
+	public List<IngestionJobStatusDto> getAllStatus() {
+		return ingestionJobLauncher.jobNames().stream()
+				.map(ingestionJobService::getStatus)
+				.toList();
+	}
+
+	/**
+	 * 작업 하나의 진행 상태 (진행률, 처리량, 남은 시간)
+	 * GET /api/admin/jobs/{jobName}
+	 */
+	@GetMapping("/{jobName}")
+	public ResponseEntity<IngestionJobStatusDto> getStatus(@PathVariable String jobName) {
+		if (!ingestionJobLauncher.exists(jobName)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(ingestionJobService.getStatus(jobName));
+	}
+
+	/**
+	 * 전체 작업 순서대로 실행 (완료된 작업은 건너뜀)
+	 * POST /api/admin/jobs/run
+	 */
+	@PostMapping("/run")
+	public ResponseEntity<String> runAll() {
+		ingestionJobLauncher.startAll();
+		return ResponseEntity.accepted().body("전체 적재 작업을 시작했습니다.");
+	}
+
+	/**
+	 * 작업 실행 (마지막 체크포인트부터 이어서, restart=true 면 처음부터)
+	 * POST /api/admin/jobs/{jobName}/run
+	 */
+	@PostMapping("/{jobName}/run")
+	public ResponseEntity<String> run(@PathVariable String jobName,
+			@RequestParam(name = "restart", defaultValue = "false") boolean restart) {
+		if (!ingestionJobLauncher.exists(jobName)) {
+			return ResponseEntity.notFound().build();
+		}
+		if (!ingestionJobLauncher.start(jobName, restart)) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 실행 중인 작업입니다: " + jobName);
+		}
+		log.info("적재 작업 실행 요청: {} (restart={})", jobName, restart);
+		return ResponseEntity.accepted().body("적재 작업을 시작했습니다: " + jobName);
+	}
+
+	/**
+	 * 작업 커서 초기화
+	 * POST /api/admin/jobs/{jobName}/reset
+	 */
+	@PostMapping("/{jobName}/reset")
+	public ResponseEntity<String> reset(@PathVariable String jobName) {
+		if (!ingestionJobLauncher.exists(jobName)) {
+			return ResponseEntity.notFound().build();
+		}
+		try {
+			ingestionJobService.reset(jobName);
+			return ResponseEntity.ok("작업을 초기화했습니다: " + jobName);
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+}
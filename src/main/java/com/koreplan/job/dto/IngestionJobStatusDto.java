@@ -0,0 +1,25 @@
+package com.koreplan.job.dto;
+
+import java.time.LocalDateTime;
+
+import com.koreplan.job.entity.JobStatus;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class IngestionJobStatusDto {
+	private String jobName;              // 작업 이름
+	private JobStatus status;            // 상태
+	private int cursor;                  // 커밋된 처리 위치
+	private int totalCount;              // 전체 건수
+	private double progressPercent;      // 진행률 (%)
+	private double throughputPerSecond;  // 이번 실행의 초당 처리 건수
+	private Long etaSeconds;             // 남은 예상 시간 (초), 계산 불가면 null
+	private LocalDateTime runStartedAt;  // 이번 실행 시작 시각
+	private LocalDateTime updatedAt;     // 마지막 체크포인트 시각
+	private LocalDateTime finishedAt;    // 완료/실패 시각
+	private String lastError;            // 마지막 오류 메시지
+	private LocalDateTime resumeAt;      // 일시 정지된 작업의 자동 재개 시각
+}
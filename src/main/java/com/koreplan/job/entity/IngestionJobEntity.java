@@ -0,0 +1,66 @@
+package com.koreplan.job.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 데이터 적재 작업(region, category, data, festival)의 진행 상태
+ * cursor는 마지막으로 커밋된 청크의 다음 인덱스 → 재시작 시 이 위치부터 이어서 처리
+ */
+@Entity
+@Table(name = "ingestion_job")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class IngestionJobEntity {
+
+	@Id
+	@Column(name = "job_name", length = 50)
+	private String jobName;
+
+	// 상태가 추가돼도 ddl-auto=update 로 쓸 수 있도록 DB enum/체크 제약 대신 varchar
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 20, nullable = false, columnDefinition = "varchar(20)")
+	private JobStatus status;
+
+	@Column(name = "cursor_index")
+	private int cursor;
+
+	@Column(name = "total_count")
+	private int totalCount;
+
+	// 이번 실행이 시작된 시점의 커서 (처리량 계산용)
+	@Column(name = "run_start_cursor")
+	private int runStartCursor;
+
+	@Column(name = "run_started_at")
+	private LocalDateTime runStartedAt;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+
+	@Column(name = "last_error", columnDefinition = "TEXT")
+	private String lastError;
+
+	// PAUSED 작업을 다시 실행할 시각 (호출 한도 초기화 이후)
+	@Column(name = "resume_at")
+	private LocalDateTime resumeAt;
+}
@@ -0,0 +1,10 @@
+package com.koreplan.job.entity;
+
+public enum JobStatus {
+	IDLE,        // 아직 실행 전 (또는 초기화됨)
+	RUNNING,     // 실행 중
+	COMPLETED,   // 완료
+	FAILED,      // 예외로 실패 (커서부터 재시작 가능)
+	INTERRUPTED, // 서버 재시작 등으로 중단됨 (커서부터 재시작 가능)
+	PAUSED       // 서비스키 하루 예산 소진으로 일시 정지 (resumeAt 이후 커서부터 자동 재개)
+}
@@ -0,0 +1,16 @@
+package com.koreplan.job.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.koreplan.job.entity.IngestionJobEntity;
+import com.koreplan.job.entity.JobStatus;
+
+public interface IngestionJobRepository extends JpaRepository<IngestionJobEntity, String> {
+
+	List<IngestionJobEntity> findByStatus(JobStatus status);
+
+	List<IngestionJobEntity> findByStatusAndResumeAtBefore(JobStatus status, LocalDateTime time);
+}
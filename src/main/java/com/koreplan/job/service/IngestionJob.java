@@ -0,0 +1,10 @@
+package com.koreplan.job.service;
+
+/**
+ * 체크포인트를 지원하는 적재 작업
+ * ctx.getStartCursor()부터 처리하고, 청크를 커밋할 때마다 ctx.checkpoint()를 호출한다.
+ */
+@FunctionalInterface
+public interface IngestionJob {
+	void run(JobContext ctx) throws Exception;
+}
@@ -0,0 +1,127 @@
+package com.koreplan.job.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.koreplan.area.service.RegionCodeApiService;
+import com.koreplan.category.service.CategoryService;
+import com.koreplan.data.service.SaveDataService;
+import com.koreplan.service.festival.SaveFestivalService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 적재 작업 실행기
+ * region → category → data(또는 data-by-region) → festival 순서로 실행 (지역 코드를 먼저 받아야 하므로)
+ * 앞 작업이 실패하면 뒤 작업은 실행하지 않음
+ * 서비스키 예산 소진으로 멈춘(PAUSED) 작업은 한도 초기화 후 주기 점검에서 이어서 실행
+ */
+@Service
+@Slf4j
+public class IngestionJobLauncher {
+
+	private final IngestionJobService ingestionJobService;
+	private final Map<String, IngestionJob> jobs = new LinkedHashMap<>();
+	private final List<String> chain;
+
+	// 서버 시작 시 미완료 작업 자동 실행 여부 (기존 @PostConstruct init() 대체, 기본은 끔)
+	@Value("${ingestion.run-on-startup:false}")
+	private boolean runOnStartup;
+
+	public IngestionJobLauncher(IngestionJobService ingestionJobService,
+			RegionCodeApiService regionCodeApiService,
+			CategoryService categoryService,
+			SaveDataService saveDataService,
+			SaveFestivalService saveFestivalService,
+			@Value("${data.ingest.partitioned:true}") boolean partitioned) {
+		this.ingestionJobService = ingestionJobService;
+		jobs.put(RegionCodeApiService.JOB_NAME, regionCodeApiService::saveAllDatas);
+		jobs.put(CategoryService.JOB_NAME, categoryService::savecategory);
+		jobs.put(SaveDataService.JOB_NAME, saveDataService::saveDataService);
+		jobs.put(SaveDataService.PARTITIONED_JOB_NAME, saveDataService::saveDataByRegion);
+		jobs.put(SaveFestivalService.JOB_NAME, saveFestivalService::saveFestival);
+
+		// 관광지 데이터는 지역별 분할 적재(기본) 또는 단일 요청 적재 중 하나만 전체 실행에 포함
+		String dataJob = partitioned ? SaveDataService.PARTITIONED_JOB_NAME : SaveDataService.JOB_NAME;
+		chain = List.of(RegionCodeApiService.JOB_NAME, CategoryService.JOB_NAME, dataJob, SaveFestivalService.JOB_NAME);
+	}
+
+	public Set<String> jobNames() {
+		return jobs.keySet();
+	}
+
+	public boolean exists(String jobName) {
+		return jobs.containsKey(jobName);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void runOnStartup() {
+		if (runOnStartup) {
+			startAll();
+		}
+	}
+
+	/**
+	 * 전체 작업을 순서대로 백그라운드 실행 (완료된 작업은 건너뜀)
+	 */
+	public void startAll() {
+		startChain(0);
+	}
+
+	/**
+	 * 실행 순서의 fromIndex 번째 작업부터 끝까지 백그라운드 실행
+	 */
+	private void startChain(int fromIndex) {
+		Thread.ofVirtual().name("ingestion-all").start(() -> {
+			for (String jobName : chain.subList(fromIndex, chain.size())) {
+				if (!ingestionJobService.run(jobName, jobs.get(jobName))) {
+					log.error("적재 작업 {} 이(가) 완료되지 않아 이후 작업을 중단합니다.", jobName);
+					return;
+				}
+			}
+		});
+	}
+
+	/**
+	 * 재개 시각이 지난 PAUSED 작업을 다시 실행
+	 * 전체 실행 순서에 속한 작업이면 그 작업부터 뒤 작업까지 이어서, 아니면 그 작업만
+	 */
+	@Scheduled(fixedDelayString = "${ingestion.resume-check-interval:PT5M}")
+	public void resumePausedJobs() {
+		List<String> resumable = ingestionJobService.findResumableJobs();
+		if (resumable.isEmpty()) {
+			return;
+		}
+		log.info("일시 정지된 적재 작업 재개: {}", resumable);
+		resumable.stream()
+				.mapToInt(chain::indexOf)
+				.filter(index -> index >= 0)
+				.min()
+				.ifPresent(this::startChain);
+		for (String jobName : resumable) {
+			if (!chain.contains(jobName) && exists(jobName)) {
+				start(jobName, false);
+			}
+		}
+	}
+
+	/**
+	 * 작업 하나를 백그라운드 실행. restart=true 면 커서를 초기화하고 처음부터 실행
+	 * 이미 실행 중이면 false
+	 */
+	public boolean start(String jobName, boolean restart) {
+		IngestionJob job = jobs.get(jobName);
+		if (job == null) {
+			throw new IllegalArgumentException("알 수 없는 작업: " + jobName);
+		}
+		return ingestionJobService.start(jobName, job, restart);
+	}
+}
@@ -0,0 +1,289 @@
+package com.koreplan.job.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.koreplan.common.api.UpstreamUnavailableException;
+import com.koreplan.job.dto.IngestionJobStatusDto;
+import com.koreplan.job.entity.IngestionJobEntity;
+import com.koreplan.job.entity.JobStatus;
+import com.koreplan.job.repository.IngestionJobRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 적재 작업 실행/체크포인트/상태 조회
+ * - 작업별 커서를 DB에 저장하고, 실패·중단된 작업은 마지막 커밋 위치부터 재시작
+ * - 예외를 삼키지 않고 FAILED + lastError 로 기록한 뒤 호출자에게 실패를 알림
+ * - 서비스키 하루 예산 소진(QUOTA_EXHAUSTED)은 실패가 아니라 PAUSED 로 두고 한도 초기화 후 재개
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class IngestionJobService {
+
+	private final IngestionJobRepository ingestionJobRepository;
+
+	// 한도 초기화 시각과 공공데이터 서버 시계 차이를 감안한 재개 여유 시간
+	private static final long RESUME_MARGIN_SECONDS = 60;
+
+	// 현재 JVM에서 실행 중이거나 초기화 중인 작업 (add 성공한 쪽만 실행/초기화 → 중복 실행 방지)
+	private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 서버가 작업 도중 내려갔다면 RUNNING 으로 남아 있으므로 INTERRUPTED 로 바꿔 둔다.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void markInterruptedJobs() {
+		List<IngestionJobEntity> leftovers = ingestionJobRepository.findByStatus(JobStatus.RUNNING);
+		for (IngestionJobEntity job : leftovers) {
+			job.setStatus(JobStatus.INTERRUPTED);
+			job.setUpdatedAt(LocalDateTime.now());
+			log.warn("중단된 적재 작업 발견: {} (커서 {}/{})", job.getJobName(), job.getCursor(), job.getTotalCount());
+		}
+		ingestionJobRepository.saveAll(leftovers);
+	}
+
+	/**
+	 * 작업 실행. 이미 완료된 작업은 건너뛰고(true), 실패하면 false.
+	 * 이전 실행이 실패/중단됐다면 저장된 커서부터 이어서 실행한다.
+	 */
+	public boolean run(String jobName, IngestionJob job) {
+		if (!running.add(jobName)) {
+			log.warn("적재 작업 {} 이(가) 이미 실행 중입니다.", jobName);
+			return false;
+		}
+
+		try {
+			return execute(jobName, job);
+		} finally {
+			running.remove(jobName);
+		}
+	}
+
+	/**
+	 * 작업을 백그라운드로 실행. 실행 중 표시를 먼저 잡은 뒤 초기화/실행하므로
+	 * 동시에 들어온 start/reset 중 하나만 진행된다. 이미 실행 중이면 false
+	 */
+	public boolean start(String jobName, IngestionJob job, boolean restart) {
+		if (!running.add(jobName)) {
+			return false;
+		}
+
+		try {
+			if (restart) {
+				resetCursor(jobName);
+			}
+			Thread.ofVirtual().name("ingestion-" + jobName).start(() -> {
+				try {
+					execute(jobName, job);
+				} finally {
+					running.remove(jobName);
+				}
+			});
+			return true;
+		} catch (RuntimeException e) {
+			running.remove(jobName);
+			throw e;
+		}
+	}
+
+	private boolean execute(String jobName, IngestionJob job) {
+		IngestionJobEntity entity = ingestionJobRepository.findById(jobName)
+				.orElseGet(() -> IngestionJobEntity.builder()
+						.jobName(jobName)
+						.status(JobStatus.IDLE)
+						.build());
+
+		if (entity.getStatus() == JobStatus.COMPLETED) {
+			log.info("적재 작업 {} 은(는) 이미 완료됨 → 건너뜀", jobName);
+			return true;
+		}
+
+		int startCursor = entity.getCursor();
+		entity.setStatus(JobStatus.RUNNING);
+		entity.setRunStartCursor(startCursor);
+		entity.setRunStartedAt(LocalDateTime.now());
+		entity.setUpdatedAt(LocalDateTime.now());
+		entity.setFinishedAt(null);
+		entity.setLastError(null);
+		entity.setResumeAt(null);
+		ingestionJobRepository.save(entity);
+
+		log.info("적재 작업 {} 시작 (커서 {}부터)", jobName, startCursor);
+
+		try {
+			job.run(new JobContext(this, jobName, startCursor));
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			UpstreamUnavailableException quota = quotaExhausted(e);
+			if (quota != null) {
+				pause(jobName, quota);
+				return false;
+			}
+			log.error("적재 작업 {} 실패", jobName, e);
+			finish(jobName, JobStatus.FAILED, e.getClass().getSimpleName() + ": " + e.getMessage());
+			return false;
+		}
+
+		finish(jobName, JobStatus.COMPLETED, null);
+		log.info("적재 작업 {} 완료", jobName);
+		return true;
+	}
+
+	void updateTotal(String jobName, int totalCount) {
+		ingestionJobRepository.findById(jobName).ifPresent(entity -> {
+			entity.setTotalCount(totalCount);
+			entity.setUpdatedAt(LocalDateTime.now());
+			ingestionJobRepository.save(entity);
+		});
+	}
+
+	void checkpoint(String jobName, int cursor) {
+		ingestionJobRepository.findById(jobName).ifPresent(entity -> {
+			entity.setCursor(cursor);
+			entity.setUpdatedAt(LocalDateTime.now());
+			ingestionJobRepository.save(entity);
+		});
+	}
+
+	/**
+	 * 예외(원인 포함)가 서비스키 예산 소진이면 해당 예외, 아니면 null
+	 */
+	private UpstreamUnavailableException quotaExhausted(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof UpstreamUnavailableException unavailable
+					&& unavailable.getReason() == UpstreamUnavailableException.Reason.QUOTA_EXHAUSTED) {
+				return unavailable;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 예산 소진 → 커서는 그대로 두고 한도 초기화(KST 자정) 이후 재개하도록 PAUSED 로 기록
+	 */
+	private void pause(String jobName, UpstreamUnavailableException e) {
+		LocalDateTime resumeAt = LocalDateTime.now().plusSeconds(e.getRetryAfterSeconds() + RESUME_MARGIN_SECONDS);
+		ingestionJobRepository.findById(jobName).ifPresent(entity -> {
+			entity.setStatus(JobStatus.PAUSED);
+			entity.setLastError(e.getMessage());
+			entity.setResumeAt(resumeAt);
+			entity.setUpdatedAt(LocalDateTime.now());
+			entity.setFinishedAt(LocalDateTime.now());
+			ingestionJobRepository.save(entity);
+		});
+		log.warn("적재 작업 {} 일시 정지: 서비스키 오늘 예산 소진 → {} 이후 재개", jobName, resumeAt);
+	}
+
+	/**
+	 * 재개 시각이 지난 PAUSED 작업 이름
+	 */
+	public List<String> findResumableJobs() {
+		return ingestionJobRepository.findByStatusAndResumeAtBefore(JobStatus.PAUSED, LocalDateTime.now()).stream()
+				.map(IngestionJobEntity::getJobName)
+				.toList();
+	}
+
+	private void finish(String jobName, JobStatus status, String error) {
+		ingestionJobRepository.findById(jobName).ifPresent(entity -> {
+			entity.setStatus(status);
+			entity.setLastError(error);
+			if (status == JobStatus.COMPLETED) {
+				entity.setCursor(Math.max(entity.getCursor(), entity.getTotalCount()));
+			}
+			entity.setUpdatedAt(LocalDateTime.now());
+			entity.setFinishedAt(LocalDateTime.now());
+			ingestionJobRepository.save(entity);
+		});
+	}
+
+	/**
+	 * 커서를 0으로 되돌려 처음부터 다시 실행할 수 있게 함
+	 */
+	public void reset(String jobName) {
+		if (!running.add(jobName)) {
+			throw new IllegalStateException("실행 중인 작업은 초기화할 수 없습니다: " + jobName);
+		}
+		try {
+			resetCursor(jobName);
+		} finally {
+			running.remove(jobName);
+		}
+	}
+
+	private void resetCursor(String jobName) {
+		IngestionJobEntity entity = ingestionJobRepository.findById(jobName)
+				.orElseGet(() -> IngestionJobEntity.builder().jobName(jobName).build());
+		entity.setStatus(JobStatus.IDLE);
+		entity.setCursor(0);
+		entity.setTotalCount(0);
+		entity.setRunStartCursor(0);
+		entity.setRunStartedAt(null);
+		entity.setFinishedAt(null);
+		entity.setLastError(null);
+		entity.setResumeAt(null);
+		entity.setUpdatedAt(LocalDateTime.now());
+		ingestionJobRepository.save(entity);
+	}
+
+	public IngestionJobStatusDto getStatus(String jobName) {
+		return ingestionJobRepository.findById(jobName)
+				.map(this::toStatusDto)
+				.orElseGet(() -> IngestionJobStatusDto.builder()
+						.jobName(jobName)
+						.status(JobStatus.IDLE)
+						.build());
+	}
+
+	/**
+	 * 진행률, 이번 실행의 처리량, 남은 시간 계산
+	 */
+	private IngestionJobStatusDto toStatusDto(IngestionJobEntity entity) {
+		int total = entity.getTotalCount();
+		int cursor = entity.getCursor();
+
+		double progress = total > 0 ? Math.min(100.0, cursor * 100.0 / total) : 0.0;
+
+		double throughput = 0.0;
+		Long eta = null;
+		if (entity.getRunStartedAt() != null) {
+			LocalDateTime end = entity.getStatus() == JobStatus.RUNNING || entity.getFinishedAt() == null
+					? LocalDateTime.now()
+					: entity.getFinishedAt();
+			double seconds = Duration.between(entity.getRunStartedAt(), end).toMillis() / 1000.0;
+			int processed = cursor - entity.getRunStartCursor();
+			if (seconds > 0 && processed > 0) {
+				throughput = processed / seconds;
+				if (entity.getStatus() == JobStatus.RUNNING && total > cursor) {
+					eta = (long) Math.ceil((total - cursor) / throughput);
+				}
+			}
+		}
+
+		return IngestionJobStatusDto.builder()
+				.jobName(entity.getJobName())
+				.status(entity.getStatus())
+				.cursor(cursor)
+				.totalCount(total)
+				.progressPercent(Math.round(progress * 10) / 10.0)
+				.throughputPerSecond(Math.round(throughput * 10) / 10.0)
+				.etaSeconds(eta)
+				.runStartedAt(entity.getRunStartedAt())
+				.updatedAt(entity.getUpdatedAt())
+				.finishedAt(entity.getFinishedAt())
+				.lastError(entity.getLastError())
+				.resumeAt(entity.getResumeAt())
+				.build();
+	}
+}
@@ -0,0 +1,35 @@
+package com.koreplan.job.service;
+
+/**
+ * 실행 중인 작업에 전달되는 컨텍스트 (시작 커서, 전체 건수, 체크포인트)
+ */
+public class JobContext {
+
+	private final IngestionJobService jobService;
+	private final String jobName;
+	private final int startCursor;
+
+	JobContext(IngestionJobService jobService, String jobName, int startCursor) {
+		this.jobService = jobService;
+		this.jobName = jobName;
+		this.startCursor = startCursor;
+	}
+
+	public String getJobName() {
+		return jobName;
+	}
+
+	// 이전 실행에서 커밋된 다음 위치 (처음이면 0)
+	public int getStartCursor() {
+		return startCursor;
+	}
+
+	public void setTotal(int totalCount) {
+		jobService.updateTotal(jobName, totalCount);
+	}
+
+	// 청크 저장이 끝난 뒤 호출 → 다음 재시작은 cursor부터
+	public void checkpoint(int cursor) {
+		jobService.checkpoint(jobName, cursor);
+	}
+}
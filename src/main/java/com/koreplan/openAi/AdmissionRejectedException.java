@@ -0,0 +1,19 @@
+package com.koreplan.openAi;
+
+/**
+ * AI 일정 생성 대기열(ItineraryAdmission)이 가득 찼거나 대기 시간이 max-wait 를 넘었을 때
+ * 컨트롤러는 429 + Retry-After 로 응답한다.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public AdmissionRejectedException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
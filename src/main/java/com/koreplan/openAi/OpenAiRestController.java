@@ -1,21 +1,46 @@
 package com.koreplan.openAi;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koreplan.common.api.RequestDeadline;
+import com.koreplan.common.api.UpstreamUnavailableException;
 import com.koreplan.entity.theme.ThemeEntity;
+import com.koreplan.openAi.service.CandidatePool;
+import com.koreplan.openAi.service.CandidateShortlist;
+import com.koreplan.openAi.service.ItineraryAdmission;
+import com.koreplan.openAi.service.ItineraryCache;
+import com.koreplan.openAi.service.ItineraryStreamService;
+import com.koreplan.openAi.service.LocalItineraryPlanner;
 import com.koreplan.openAi.service.OpenAiService;
+import com.koreplan.openAi.service.PlannerMode;
 import com.koreplan.repository.theme.ThemeRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -24,78 +49,397 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/openai")
 @RequiredArgsConstructor  // final 필드 자동 생성자 주입
 public class OpenAiRestController {
-	
+
 	private final OpenAiService openAiService;
+	private final UsageTracker usageTracker;
     private final ObjectMapper mapper = new ObjectMapper();
-    
+
+    // GPT 대신 로컬 일정으로 응답했을 때 표시
+    private static final String PLANNER_HEADER = "X-Planner";
+
     @Autowired
     private ThemeRepository themeRepository;
-	
+
+    // GPT 응답 이후 DB 매칭만 실행하는 전용 풀 (ItineraryExecutorConfig)
+    @Autowired
+    @Qualifier("itineraryMatchingExecutor")
+    private ThreadPoolTaskExecutor matchingExecutor;
+
+    @Autowired
+    private ItineraryStreamService itineraryStreamService;
+
+    @Autowired
+    private ItineraryCache itineraryCache;
+
+    @Autowired
+    private ItineraryAdmission itineraryAdmission;
+
+    @Autowired
+    private LocalItineraryPlanner localItineraryPlanner;
+
+    @Value("${openai.ask.timeout:PT90S}")
+    private Duration askTimeout;
+
     /**
      * GPT에 질문을 보내고,
      * JSON 배열 형태로 응답받아 DB 필터링 및 보완 후 반환
+     * - planner: "free"(기본, GPT가 장소 이름 생성) / "grounded"(DB 후보 번호 중에서 선택) / "local"(GPT 없이 DB 장소로 바로)
+     * - GPT 호출이 사용량 한도/장애/시간 초과로 실패하면 local 일정으로 대신 응답 (X-Planner: local)
+     * - 동시에 생성하는 일정 수를 제한 (ItineraryAdmission, 차례를 기다리다 대기열이 차거나 오래 걸리면 429)
+     * - GPT 응답을 기다리는 동안 서블릿 스레드를 반납 (DeferredResult + 논블로킹 WebClient)
+     * - DB 매칭은 전용 풀에서 실행해서 일정 생성이 몰려도 다른 API를 굶기지 않음
+     * - 시간 초과나 클라이언트 연결 끊김 시 GPT 요청과 매칭 작업을 함께 취소
      */
 	@PostMapping("/ask")
-    public ResponseEntity<?> askToGpt(@RequestBody Map<String, Object> request) {
+    public DeferredResult<ResponseEntity<?>> askToGpt(@RequestBody Map<String, Object> request) {
+    	long start = System.currentTimeMillis();
+
+    	// 요청 마감 시각(RequestDeadlineFilter)은 이 스레드에만 있으므로 남은 시간을 여기서 계산해서 넘김
+    	long timeoutMillis = Math.max(1, Math.min(askTimeout.toMillis(), RequestDeadline.remainingMillis()));
+    	DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMillis);
+
         try {
-        	long start = System.currentTimeMillis();
-        	
             // 필수값 검증
             if (!request.containsKey("preferences")) {
-                return ResponseEntity.badRequest().body("preferences 값이 누락되었습니다.");
+            	result.setResult(ResponseEntity.badRequest().body("preferences 값이 누락되었습니다."));
+            	return result;
             }
 
             // preferences는 쉼표로 구분된 문자열 (예: "관광지, 문화시설")
             String preferencesStr = request.get("preferences").toString();
-            String[] themeNames = preferencesStr.split("\\s*,\\s*"); // 공백 제거 후 분할
-
-            long beforeThemeQuery = System.currentTimeMillis();
-            // themeName들로 ThemeEntity의 contentTypeId 리스트 가져오기
-            List<Integer> themeIds = themeRepository.findByThemeNameIn(List.of(themeNames)).stream()
-                .map(ThemeEntity::getContentTypeId)
-                .collect(Collectors.toList());
-            long afterThemeQuery = System.currentTimeMillis();
-            System.out.println("Theme 쿼리 소요 시간: " + (afterThemeQuery - beforeThemeQuery) + "ms");
-            
+            List<Integer> themeIds = resolveThemeIds(preferencesStr);
+
             if (themeIds.isEmpty()) {
-                return ResponseEntity.badRequest().body("유효한 테마가 없습니다: " + preferencesStr);
+            	result.setResult(ResponseEntity.badRequest().body("유효한 테마가 없습니다: " + preferencesStr));
+            	return result;
             }
-            
+
             // 요청 맵을 JSON 문자열로 변환
             String jsonInput = mapper.writeValueAsString(request);
 
-            // OpenAiService를 통해 GPT 호출
-            long beforeGptCall = System.currentTimeMillis();
-            String gptResponse = openAiService.chatWithGpt(jsonInput);
-            long afterGptCall = System.currentTimeMillis();
-            System.out.println("GPT 호출 소요 시간: " + (afterGptCall - beforeGptCall) + "ms");
-
-
-            // GPT 응답 JSON 파싱
-            JsonNode gptJsonArray = mapper.readTree(gptResponse);
-            
-            // 배열 여부 확인
-            if (!gptJsonArray.isArray()) {
-                return ResponseEntity.badRequest()
-                		.body("GPT 응답이 배열이 아닙니다: " + gptResponse);
+            // LOCAL: GPT 호출이 없으므로 차례를 기다리지 않고 바로 응답
+            if (openAiService.plannerMode(request.get("planner")) == PlannerMode.LOCAL) {
+            	result.setResult(localPlan(jsonInput, themeIds));
+            	System.out.println("전체 처리 시간: " + (System.currentTimeMillis() - start) + "ms");
+            	return result;
+            }
+
+            // 로그인 정보/접속 IP는 요청 스레드에서만 읽을 수 있으므로 미리 구함
+            String usageKey = usageTracker.currentUserKey();
+
+            // 차례를 기다리는 중이거나 생성 중인 작업 (시간 초과/연결 끊김 시 취소)
+            CompletableFuture<ItineraryAdmission.Permit> admission = itineraryAdmission.acquire();
+            AtomicReference<ItineraryAdmission.Permit> permit = new AtomicReference<>();
+            AtomicReference<CompletableFuture<String>> gptCall = new AtomicReference<>();
+            AtomicReference<Future<?>> matching = new AtomicReference<>();
+
+            // 시간 초과/연결 끊김 → 대기열에서 빠지고 GPT 요청 구독 취소 + 매칭 작업 중단
+            // (같은 GPT 호출에 합류한 다른 요청이 남아 있으면 호출은 계속되고, 마지막 요청이 떠나면 OpenAI 요청도 취소)
+            Runnable cancel = () -> {
+            	admission.cancel(false);
+            	CompletableFuture<String> call = gptCall.get();
+            	if (call != null) {
+            		call.cancel(true);
+            	}
+            	Future<?> task = matching.get();
+            	if (task != null) {
+            		task.cancel(true);
+            	}
+            };
+            result.onTimeout(() -> {
+            	System.out.println("⏱️ AI 일정 생성 시간 초과 (" + timeoutMillis + "ms) → 작업 취소");
+            	cancel.run();
+            	result.setErrorResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+            			.body("AI 일정 생성 시간이 초과되었습니다. 잠시 후 다시 시도해주세요."));
+            });
+            result.onError(error -> {
+            	System.out.println("🔌 AI 일정 생성 중 연결 종료 → 작업 취소: " + error.getMessage());
+            	cancel.run();
+            });
+            // 응답이 끝나면(성공/오류/시간 초과) 자리 반납. 차례가 응답 뒤에 와도 아래에서 바로 반납
+            AtomicBoolean finished = new AtomicBoolean();
+            result.onCompletion(() -> {
+            	finished.set(true);
+            	ItineraryAdmission.Permit held = permit.get();
+            	if (held != null) {
+            		held.release();
+            	}
+            });
+
+            Runnable generate = () -> generate(result, jsonInput, request.get("planner"), themeIds, usageKey, start, gptCall, matching);
+            if (admission.isDone() && !admission.isCompletedExceptionally()) {
+            	// 바로 들어온 요청은 지금 스레드에서 시작 (기존과 동일)
+            	permit.set(admission.join());
+            	generate.run();
+            	return result;
             }
-            
-            // GPT가 추천해준 갯수대로
-            int gptCount = gptJsonArray.size();
-            
-            // GPT 추천장소 DB 필터링 + 부족하면 보완까지 한번에
-            long beforeFilter = System.currentTimeMillis();
-            List<JsonNode> finalPlaces = openAiService.getFilteredAndFilledPlaces(gptJsonArray, gptCount, themeIds);
-            long afterFilter = System.currentTimeMillis();
-            System.out.println("필터링 및 보완 소요 시간: " + (afterFilter - beforeFilter) + "ms");
-            
-            long end = System.currentTimeMillis();
-            System.out.println("전체 처리 시간: " + (end - start) + "ms");
-            
-            return ResponseEntity.ok(finalPlaces);
+
+            admission.whenComplete((admitted, error) -> {
+            	if (error != null) {
+            		if (!(error instanceof CancellationException)) {
+            			result.setErrorResult(toErrorResponse(error));
+            		}
+            		return;
+            	}
+            	permit.set(admitted);
+            	if (finished.get() || result.isSetOrExpired()) {
+            		admitted.release();
+            		return;
+            	}
+            	// 차례를 넘겨준 스레드(다른 요청의 매칭/네트워크 스레드)를 붙잡지 않도록 후보 조회부터 매칭 풀에서
+            	try {
+            		matchingExecutor.execute(generate);
+            	} catch (RejectedExecutionException e) {
+            		result.setErrorResult(busyResponse());
+            	}
+            });
+            return result;
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("GPT 응답 처리 오류: " + e.getMessage());
+        	result.setErrorResult(toErrorResponse(e));
+        	return result;
         }
     }
+
+    /**
+     * 차례가 된 /ask 요청: 후보 목록(GROUNDED) → GPT 호출(캐시) → DB 매칭
+     */
+    private void generate(DeferredResult<ResponseEntity<?>> result, String jsonInput, Object plannerValue,
+    		List<Integer> themeIds, String usageKey, long start,
+    		AtomicReference<CompletableFuture<String>> gptCallRef, AtomicReference<Future<?>> matching) {
+    	try {
+            // 일정 생성 방식: GROUNDED 면 DB 후보 목록을 먼저 만들어 프롬프트에 넣음 (후보는 매칭 단계에서 재사용)
+            CandidatePool pool = openAiService.newCandidatePool();
+            PlannerMode planner = openAiService.plannerMode(plannerValue);
+            CandidateShortlist shortlist = planner == PlannerMode.GROUNDED
+            		? openAiService.buildShortlist(jsonInput, themeIds, pool) : null;
+            if (shortlist == null) {
+            	planner = PlannerMode.FREE;
+            }
+
+            // OpenAiService를 통해 GPT 호출 (응답이 오면 콜백으로 이어서 처리)
+            // 같은 조건의 일정은 캐시된 GPT 응답을 쓰거나 진행 중인 호출에 합류 (DB 매칭은 매번 새로)
+            long beforeGptCall = System.currentTimeMillis();
+            ItineraryCache.ItineraryKey cacheKey = openAiService.itineraryKey(jsonInput, themeIds, planner);
+            CompletableFuture<String> gptCall = itineraryCache
+            		.get(cacheKey, usageKey, party -> openAiService.chatWithGpt(jsonInput, shortlist, party))
+            		.toFuture();
+            gptCallRef.set(gptCall);
+            if (result.isSetOrExpired()) {
+            	gptCall.cancel(true);
+            	return;
+            }
+
+            gptCall.whenComplete((gptResponse, error) -> {
+            	if (error != null) {
+            		if (localItineraryPlanner.canReplace(error) && !result.isSetOrExpired()) {
+            			replaceWithLocalPlan(result, jsonInput, themeIds, error, matching);
+            		} else {
+            			result.setErrorResult(toErrorResponse(error));
+            		}
+            		return;
+            	}
+            	long afterGptCall = System.currentTimeMillis();
+            	System.out.println("GPT 호출 소요 시간: " + (afterGptCall - beforeGptCall) + "ms");
+
+            	// GPT 응답 콜백은 네트워크 스레드에서 오므로 DB 작업은 매칭 풀로 넘김
+            	if (result.isSetOrExpired()) {
+            		return;
+            	}
+            	try {
+            		matching.set(matchingExecutor.submit(() -> {
+            			try {
+            				result.setResult(matchPlaces(gptResponse, themeIds, pool));
+            			} catch (Exception e) {
+            				result.setErrorResult(toErrorResponse(e));
+            			}
+            			long end = System.currentTimeMillis();
+            			System.out.println("전체 처리 시간: " + (end - start) + "ms");
+            		}));
+            	} catch (RejectedExecutionException e) {
+            		System.out.println("⏳ 일정 매칭 대기열 가득 참 → 거절");
+            		result.setErrorResult(busyResponse());
+            	}
+            });
+    	} catch (Exception e) {
+    		result.setErrorResult(toErrorResponse(e));
+    	}
+    }
+
+    /**
+     * GPT 호출 실패 → 로컬 일정으로 대신 응답 (DB 조회이므로 매칭 풀에서)
+     */
+    private void replaceWithLocalPlan(DeferredResult<ResponseEntity<?>> result, String jsonInput, List<Integer> themeIds,
+    		Throwable error, AtomicReference<Future<?>> matching) {
+    	Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    	System.out.println("🧭 GPT 일정 생성 실패 → 로컬 일정으로 대체: " + cause);
+    	try {
+    		matching.set(matchingExecutor.submit(() -> {
+    			try {
+    				result.setResult(localPlan(jsonInput, themeIds));
+    			} catch (Exception e) {
+    				result.setErrorResult(toErrorResponse(error));
+    			}
+    		}));
+    	} catch (RejectedExecutionException e) {
+    		result.setErrorResult(toErrorResponse(error));
+    	}
+    }
+
+    /**
+     * GPT 없이 DB 장소만으로 만든 일정 (응답 헤더 X-Planner: local)
+     */
+    private ResponseEntity<?> localPlan(String jsonInput, List<Integer> themeIds) throws Exception {
+    	List<JsonNode> places = localItineraryPlanner.plan(jsonInput, themeIds);
+    	if (places.isEmpty()) {
+    		return ResponseEntity.badRequest().body("일정을 만들 장소를 찾지 못했습니다.");
+    	}
+    	return ResponseEntity.ok().header(PLANNER_HEADER, "local").body(places);
+    }
+
+    private ResponseEntity<?> busyResponse() {
+    	return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+    			.header(HttpHeaders.RETRY_AFTER, "5")
+    			.body("AI 일정 생성 요청이 많아 잠시 후 다시 시도해주세요.");
+    }
+
+    /**
+     * /ask 의 스트리밍 버전 (Server-Sent Events)
+     * GPT가 장소를 하나 생성할 때마다 DB 매칭해서 place 이벤트로 보내고,
+     * 마지막에 숙소 배치/보완까지 끝난 최종 일정을 complete 이벤트로 보냄 (ItineraryStreamService)
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAskToGpt(@RequestBody Map<String, Object> request) {
+    	// SseEmitter 반환 핸들러는 ResponseEntity<SseEmitter> 타입만 인식하므로 오류도 error 이벤트로 보냄
+    	try {
+    		if (!request.containsKey("preferences")) {
+    			return errorEmitter(HttpStatus.BAD_REQUEST, "preferences 값이 누락되었습니다.");
+    		}
+
+    		String preferencesStr = request.get("preferences").toString();
+    		List<Integer> themeIds = resolveThemeIds(preferencesStr);
+    		if (themeIds.isEmpty()) {
+    			return errorEmitter(HttpStatus.BAD_REQUEST, "유효한 테마가 없습니다: " + preferencesStr);
+    		}
+
+    		// LOCAL: 차례를 기다리지 않고 complete 이벤트 하나로 바로 응답
+    		PlannerMode planner = openAiService.plannerMode(request.get("planner"));
+    		if (planner == PlannerMode.LOCAL) {
+    			SseEmitter emitter = new SseEmitter();
+    			itineraryStreamService.streamLocal(emitter, mapper.writeValueAsString(request), themeIds);
+    			return ResponseEntity.ok(emitter);
+    		}
+
+    		// 대기열까지 가득 찼으면 스트림을 열지 않고 429 + Retry-After
+    		CompletableFuture<ItineraryAdmission.Permit> admission = itineraryAdmission.acquire();
+    		if (admission.isCompletedExceptionally()) {
+    			try {
+    				admission.join();
+    			} catch (CompletionException e) {
+    				if (e.getCause() instanceof AdmissionRejectedException rejected) {
+    					return errorEmitter(HttpStatus.TOO_MANY_REQUESTS, rejected.getMessage(), rejected.getRetryAfterSeconds());
+    				}
+    				throw e;
+    			}
+    		}
+
+    		long timeoutMillis = Math.max(1, Math.min(askTimeout.toMillis(), RequestDeadline.remainingMillis()));
+    		SseEmitter emitter = new SseEmitter(timeoutMillis);
+    		itineraryStreamService.stream(emitter, mapper.writeValueAsString(request), themeIds,
+    				planner, usageTracker.currentUserKey(), admission);
+    		return ResponseEntity.ok(emitter);
+    	} catch (Exception e) {
+    		return errorEmitter(HttpStatus.INTERNAL_SERVER_ERROR, "GPT 응답 처리 오류: " + e.getMessage());
+    	}
+    }
+
+    /**
+     * 스트리밍 시작 전 오류 → error 이벤트 하나만 보내고 종료
+     */
+    private ResponseEntity<SseEmitter> errorEmitter(HttpStatus status, String message) {
+    	return errorEmitter(status, message, 0);
+    }
+
+    /**
+     * @param retryAfterSeconds 0보다 크면 Retry-After 헤더 추가
+     */
+    private ResponseEntity<SseEmitter> errorEmitter(HttpStatus status, String message, long retryAfterSeconds) {
+    	SseEmitter emitter = new SseEmitter();
+    	try {
+    		emitter.send(SseEmitter.event().name("error")
+    				.data(Map.of("status", status.value(), "message", message), MediaType.APPLICATION_JSON));
+    		emitter.complete();
+    	} catch (Exception e) {
+    		emitter.completeWithError(e);
+    	}
+    	ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+    	if (retryAfterSeconds > 0) {
+    		response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    	}
+    	return response.body(emitter);
+    }
+
+    /**
+     * themeName들로 ThemeEntity의 contentTypeId 리스트 가져오기
+     */
+    private List<Integer> resolveThemeIds(String preferencesStr) {
+    	String[] themeNames = preferencesStr.split("\\s*,\\s*"); // 공백 제거 후 분할
+
+    	long beforeThemeQuery = System.currentTimeMillis();
+    	List<Integer> themeIds = themeRepository.findByThemeNameIn(List.of(themeNames)).stream()
+    			.map(ThemeEntity::getContentTypeId)
+    			.collect(Collectors.toList());
+    	long afterThemeQuery = System.currentTimeMillis();
+    	System.out.println("Theme 쿼리 소요 시간: " + (afterThemeQuery - beforeThemeQuery) + "ms");
+    	return themeIds;
+    }
+
+	/**
+	 * GPT 응답 파싱 → DB 필터링 + 부족하면 보완 (매칭 풀에서 실행)
+	 */
+	private ResponseEntity<?> matchPlaces(String gptResponse, List<Integer> themeIds, CandidatePool pool) throws Exception {
+		// GPT 응답 JSON 파싱
+        JsonNode gptJsonArray = mapper.readTree(gptResponse);
+
+        // 배열 여부 확인
+        if (!gptJsonArray.isArray()) {
+            return ResponseEntity.badRequest()
+            		.body("GPT 응답이 배열이 아닙니다: " + gptResponse);
+        }
+
+        // GPT가 추천해준 갯수대로
+        int gptCount = gptJsonArray.size();
+
+        // GPT 추천장소 DB 필터링 + 부족하면 보완까지 한번에
+        long beforeFilter = System.currentTimeMillis();
+        List<JsonNode> finalPlaces = openAiService.getFilteredAndFilledPlaces(gptJsonArray, gptCount, themeIds, pool);
+        long afterFilter = System.currentTimeMillis();
+        System.out.println("필터링 및 보완 소요 시간: " + (afterFilter - beforeFilter) + "ms");
+
+        return ResponseEntity.ok(finalPlaces);
+	}
+
+	private ResponseEntity<?> toErrorResponse(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+		if (cause instanceof UpstreamUnavailableException unavailable) {
+			System.out.println("⏳ OpenAI 호출 생략: " + unavailable.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(unavailable.getRetryAfterSeconds()))
+					.body("AI 일정 생성 요청이 많아 잠시 후 다시 시도해주세요.");
+		}
+		if (cause instanceof UsageLimitExceededException) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(cause.getMessage());
+		}
+		if (cause instanceof AdmissionRejectedException rejected) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()))
+					.body(rejected.getMessage());
+		}
+		if (cause instanceof TimeoutException) {
+			return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+					.body("AI 일정 생성 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+		}
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("GPT 응답 처리 오류: " + cause.getMessage());
+	}
 }
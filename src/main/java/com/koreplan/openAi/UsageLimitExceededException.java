@@ -0,0 +1,12 @@
+package com.koreplan.openAi;
+
+/**
+ * OpenAI 사용 예산(UsageTracker)을 넘어서 GPT를 호출하지 않을 때
+ * 컨트롤러는 429 로 응답한다.
+ */
+public class UsageLimitExceededException extends RuntimeException {
+
+	public UsageLimitExceededException(String message) {
+		super(message);
+	}
+}
@@ -1,46 +1,563 @@
 package com.koreplan.openAi;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.koreplan.openAi.entity.OpenAiUsageEntity;
+import com.koreplan.openAi.repository.OpenAiUsageRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OpenAI 사용 요금 관리 (월 전체 예산 + 사용자별 하루 한도)
+ * - 호출 전: 프롬프트 토큰 추정치 + max_tokens 기준 최대 요금을 먼저 예약 (예산/한도를 넘으면 UsageLimitExceededException)
+ * - 단가는 모델별 (openai.usage.price.{모델}.input-per-1m / output-per-1m, 없으면 기본 단가)
+ * - 응답 후: 응답의 usage.prompt_tokens / completion_tokens 로 실제 요금 정산 (예약과의 차이만큼 되돌림)
+ * - 금액은 마이크로달러(1/1,000,000 달러) 정수를 AtomicLong 에 누적 → 락 없이 CAS 로 예산 확인
+ * - 월 합계와 사용자별 월/하루 합계는 주기적으로 DB(openai_usage)에 증가분만 더해서 저장 → 재시작해도 이어서 계산하고,
+ *   인스턴스가 여러 대여도 서로 덮어쓰지 않음 (다른 인스턴스 사용량은 저장 주기마다 읽어 와서 반영)
+ * - 같은 요청이 GPT 호출 하나를 나눠 받으면(Party) 월 예산은 한 번만, 사용자 합계는 받은 사용자마다 기록
+ * 사용자 키는 로그인 사용자면 이메일, 아니면 접속 IP. 월/하루 기준은 KST
+ */
 @Component
+@Slf4j
+@RequiredArgsConstructor
 public class UsageTracker {
-	private double totalCostThisMonth = 0.0;
-    private YearMonth currentMonth = YearMonth.now();
-    private final double BUDGET_LIMIT = 5.0; // $5 제한
-
-    // 사용 요금 계산: 입력 + 출력 토큰 기반
-    public synchronized boolean canProceed(int inputTokens, int outputTokens) {
-        
-    	YearMonth now = YearMonth.now();
-    	double cost = calculateCost(inputTokens, outputTokens);
-        
-        if (!now.equals(currentMonth)) {
-            // 새로운 달이면 초기화
-            currentMonth = now;
-            totalCostThisMonth = 0.0;
-        }
-
-        if (totalCostThisMonth + cost > BUDGET_LIMIT) {
-            return false;
-        }
-
-        totalCostThisMonth += cost;
-        return true;
-    }
-
-    private double calculateCost(int inputTokens, int outputTokens) {
-    	// 3.5터보
-//        double inputCost = inputTokens / 1000.0 * 0.0005;
-//        double outputCost = outputTokens / 1000.0 * 0.0015;
-//    	4o
-        double inputCost = inputTokens / 1000.0 * 0.005;
-        double outputCost = outputTokens / 1000.0 * 0.015;
-        return inputCost + outputCost;
-    }
-
-    public double getTotalCostThisMonth() {
-        return totalCostThisMonth;
-    }
+
+	private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+	private static final String ALL_USERS = "*";
+	private static final String MONTH = "month";
+	private static final String DAY = "day";
+
+	private final OpenAiUsageRepository openAiUsageRepository;
+	private final Environment environment;
+
+	@Value("${openai.usage.monthly-budget:5.0}")
+	private double monthlyBudget;
+
+	// 0 이하면 사용자별 한도 없음
+	@Value("${openai.usage.user-daily-budget:0.5}")
+	private double userDailyBudget;
+
+	// 100만 토큰당 달러 (모델별 단가가 없을 때 기본값)
+	@Value("${openai.usage.input-price-per-1m:5.0}")
+	private double inputPricePer1m;
+
+	@Value("${openai.usage.output-price-per-1m:15.0}")
+	private double outputPricePer1m;
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final Map<String, Price> prices = new ConcurrentHashMap<>();
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	/**
+	 * 모델 하나의 100만 토큰당 달러 (= 토큰당 마이크로달러)
+	 */
+	private record Price(double inputPer1m, double outputPer1m) {
+		private long costMicros(int promptTokens, int completionTokens) {
+			return (long) Math.ceil(promptTokens * inputPer1m + completionTokens * outputPer1m);
+		}
+	}
+
+	/**
+	 * 기간 + 사용자별 누적값
+	 * committed: 정산된 요금 + 아직 응답이 안 온 예약 (예산 확인용)
+	 * settled: 정산된 요금만 (DB 저장용)
+	 */
+	private static final class Counter {
+		private final String scope;
+		private final String period;
+		private final String userKey;
+		private final AtomicLong committedMicros = new AtomicLong();
+		private final AtomicLong settledMicros = new AtomicLong();
+		private final AtomicLong promptTokens = new AtomicLong();
+		private final AtomicLong completionTokens = new AtomicLong();
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicBoolean dirty = new AtomicBoolean();
+
+		// DB 에 들어 있다고 아는 값 (flushLock 으로 보호). 저장할 때는 이 값과의 차이만 더함
+		private long storedMicros;
+		private long storedPromptTokens;
+		private long storedCompletionTokens;
+		private long storedRequests;
+
+		private Counter(String scope, String period, String userKey) {
+			this.scope = scope;
+			this.period = period;
+			this.userKey = userKey;
+		}
+
+		private String id() {
+			return id(scope, period, userKey);
+		}
+
+		private static String id(String scope, String period, String userKey) {
+			return scope + ":" + period + ":" + userKey;
+		}
+	}
+
+	public record UsageSummary(String month, double spentUsd, double reservedUsd, double budgetUsd,
+			long promptTokens, long completionTokens, long requests, double userDailyBudgetUsd) {
+	}
+
+	/**
+	 * GPT 호출 1건의 예약. 응답을 받으면 settle, 응답 없이 끝나면 abort (여러 번 불러도 한 번만 반영)
+	 * 함께 받는 사용자(Party)가 나중에 합류하면 그 사용자 합계도 대상에 추가
+	 */
+	public final class Reservation {
+		private final List<Counter> targets;
+		private final Price price;
+		private final long reservedMicros;
+		private final int estimatedPromptTokens;
+		private final ReentrantLock lock = new ReentrantLock();
+
+		// 아래는 lock 으로 보호. charged: 정산됨(false 면 전액 반환), 정산 값은 끝난 뒤 합류한 사용자에게도 기록
+		private boolean finished;
+		private boolean charged;
+		private long actualMicros;
+		private int actualPromptTokens;
+		private int actualCompletionTokens;
+
+		private Reservation(List<Counter> targets, Price price, long reservedMicros, int estimatedPromptTokens) {
+			this.targets = new ArrayList<>(targets);
+			this.price = price;
+			this.reservedMicros = reservedMicros;
+			this.estimatedPromptTokens = estimatedPromptTokens;
+		}
+
+		/**
+		 * 응답의 usage 로 정산 (usage 가 없으면 예약 금액 그대로 청구)
+		 */
+		public void settle(JsonNode usage) {
+			int promptTokens = usage == null ? -1 : usage.path("prompt_tokens").asInt(-1);
+			int completionTokens = usage == null ? -1 : usage.path("completion_tokens").asInt(-1);
+			if (promptTokens < 0 || completionTokens < 0) {
+				complete(reservedMicros, estimatedPromptTokens, 0);
+				return;
+			}
+			complete(price.costMicros(promptTokens, completionTokens), promptTokens, completionTokens);
+		}
+
+		/**
+		 * 응답 없이 끝난 호출
+		 * @param chargePrompt 요청이 OpenAI 에 도착했을 수 있으면(시간 초과, 취소) 프롬프트 추정치만 청구, 아니면 전액 반환
+		 */
+		public void abort(boolean chargePrompt) {
+			if (chargePrompt) {
+				complete(price.costMicros(estimatedPromptTokens, 0), estimatedPromptTokens, 0);
+				return;
+			}
+			lock.lock();
+			try {
+				if (finished) {
+					return;
+				}
+				finished = true;
+				for (Counter counter : targets) {
+					counter.committedMicros.addAndGet(-reservedMicros);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void complete(long micros, int promptTokens, int completionTokens) {
+			lock.lock();
+			try {
+				if (finished) {
+					return;
+				}
+				finished = true;
+				charged = true;
+				actualMicros = micros;
+				actualPromptTokens = promptTokens;
+				actualCompletionTokens = completionTokens;
+				for (Counter counter : targets) {
+					record(counter, micros - reservedMicros);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * 사용자 합계를 대상에 추가. 아직 진행 중이면 예약 금액을, 이미 정산됐으면 정산 금액을 바로 기록
+		 */
+		private void addTargets(List<Counter> counters) {
+			lock.lock();
+			try {
+				if (!finished) {
+					counters.forEach(counter -> counter.committedMicros.addAndGet(reservedMicros));
+					targets.addAll(counters);
+				} else if (charged) {
+					counters.forEach(counter -> record(counter, actualMicros));
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void record(Counter counter, long committedDelta) {
+			counter.committedMicros.addAndGet(committedDelta);
+			counter.settledMicros.addAndGet(actualMicros);
+			counter.promptTokens.addAndGet(actualPromptTokens);
+			counter.completionTokens.addAndGet(actualCompletionTokens);
+			counter.requests.incrementAndGet();
+			counter.dirty.set(true);
+		}
+	}
+
+	/**
+	 * 같은 GPT 호출 하나를 함께 받는 사용자들 (ItineraryCache 의 single-flight)
+	 * - join: 합류하는 사용자마다 자기 하루 한도를 확인 → 한도 초과는 그 사용자만 UsageLimitExceededException
+	 * - 월 전체 예산에는 호출 1건으로 한 번만, 사용자별 합계에는 응답을 함께 받은 사용자마다 같은 요금을 기록
+	 * 호출 전에 합류한 사용자는 한도가 조금이라도 남아 있으면 통과 (예약 금액을 아직 모르므로)
+	 */
+	public final class Party {
+		private final Set<String> userKeys = new LinkedHashSet<>();
+		private final ReentrantLock lock = new ReentrantLock();
+		private Reservation reservation;
+
+		private Party() {
+		}
+
+		/**
+		 * @throws UsageLimitExceededException 이 사용자의 하루 한도가 남지 않았을 때
+		 */
+		public void join(String userKey) {
+			lock.lock();
+			try {
+				if (userKeys.contains(userKey)) {
+					return;
+				}
+				Counter userDay = counter(DAY, LocalDate.now(KST).toString(), userKey);
+				long required = reservation == null ? 0 : reservation.reservedMicros;
+				long committed = userDay.committedMicros.get();
+				long limit = toMicros(userDailyBudget);
+				if (userDailyBudget > 0 && (required > 0 ? committed + required > limit : committed >= limit)) {
+					log.warn("OpenAI 사용자 하루 한도 초과 (같은 요청 합류): {} (${} / ${})", userKey,
+							toUsd(committed), userDailyBudget);
+					throw new UsageLimitExceededException("오늘 AI 일정 생성 한도를 초과하였습니다. 내일 다시 시도해주세요.");
+				}
+				userKeys.add(userKey);
+				if (reservation != null) {
+					reservation.addTargets(userCounters(userKey));
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		load();
+		log.info("OpenAI 사용량 복원: {} 월 ${} / 예산 ${}, 사용자 하루 한도 ${}", currentMonth(),
+				toUsd(counter(MONTH, currentMonth(), ALL_USERS).settledMicros.get()), monthlyBudget, userDailyBudget);
+	}
+
+	/**
+	 * 호출 전 최대 요금 예약 (기본 단가)
+	 */
+	public Reservation reserve(String userKey, int estimatedPromptTokens, int maxOutputTokens) {
+		return reserve(userKey, null, estimatedPromptTokens, maxOutputTokens);
+	}
+
+	/**
+	 * 호출 전 최대 요금 예약
+	 * @param userKey currentUserKey() 결과
+	 * @param model 요청 모델 (단가 선택, null 이면 기본 단가)
+	 * @param estimatedPromptTokens estimateTokens(프롬프트)
+	 * @param maxOutputTokens 요청의 max_tokens
+	 * @throws UsageLimitExceededException 사용자 하루 한도나 월 예산을 넘을 때
+	 */
+	public Reservation reserve(String userKey, String model, int estimatedPromptTokens, int maxOutputTokens) {
+		LocalDate today = LocalDate.now(KST);
+		String month = YearMonth.from(today).toString();
+		Counter total = counter(MONTH, month, ALL_USERS);
+		Counter userMonth = counter(MONTH, month, userKey);
+		Counter userDay = counter(DAY, today.toString(), userKey);
+
+		Price price = price(model);
+		long amount = price.costMicros(estimatedPromptTokens, maxOutputTokens);
+		if (userDailyBudget > 0 && !tryCommit(userDay, amount, toMicros(userDailyBudget))) {
+			log.warn("OpenAI 사용자 하루 한도 초과: {} (${} / ${})", userKey,
+					toUsd(userDay.committedMicros.get()), userDailyBudget);
+			throw new UsageLimitExceededException("오늘 AI 일정 생성 한도를 초과하였습니다. 내일 다시 시도해주세요.");
+		}
+		if (!tryCommit(total, amount, toMicros(monthlyBudget))) {
+			if (userDailyBudget > 0) {
+				userDay.committedMicros.addAndGet(-amount);
+			}
+			throw new UsageLimitExceededException("월 사용 예산을 초과하였습니다. (예산: $" + monthlyBudget + ")");
+		}
+		userMonth.committedMicros.addAndGet(amount);
+		if (userDailyBudget <= 0) {
+			userDay.committedMicros.addAndGet(amount);
+		}
+		return new Reservation(List.of(total, userMonth, userDay), price, amount, estimatedPromptTokens);
+	}
+
+	/**
+	 * 같은 GPT 호출을 함께 받을 사용자 모임 (join 으로 사용자 추가 후 reserve(Party, ...))
+	 */
+	public Party party() {
+		return new Party();
+	}
+
+	/**
+	 * 함께 받는 호출의 최대 요금 예약: 월 예산은 한 번만 확인/차감하고, 합류한 사용자마다 사용자 합계에 예약
+	 * @throws UsageLimitExceededException 월 예산을 넘을 때 (모든 사용자에게 같은 이유이므로 함께 실패)
+	 */
+	public Reservation reserve(Party party, String model, int estimatedPromptTokens, int maxOutputTokens) {
+		Counter total = counter(MONTH, currentMonth(), ALL_USERS);
+		Price price = price(model);
+		long amount = price.costMicros(estimatedPromptTokens, maxOutputTokens);
+		if (!tryCommit(total, amount, toMicros(monthlyBudget))) {
+			throw new UsageLimitExceededException("월 사용 예산을 초과하였습니다. (예산: $" + monthlyBudget + ")");
+		}
+		party.lock.lock();
+		try {
+			List<Counter> targets = new ArrayList<>();
+			targets.add(total);
+			for (String userKey : party.userKeys) {
+				List<Counter> counters = userCounters(userKey);
+				counters.forEach(counter -> counter.committedMicros.addAndGet(amount));
+				targets.addAll(counters);
+			}
+			Reservation reservation = new Reservation(targets, price, amount, estimatedPromptTokens);
+			party.reservation = reservation;
+			return reservation;
+		} finally {
+			party.lock.unlock();
+		}
+	}
+
+	/**
+	 * 현재 요청의 사용자 키 (요청 스레드에서 호출)
+	 * 비로그인 사용자는 접속 IP. 로드밸런서 뒤에서는 server.forward-headers-strategy=native 로
+	 * 프록시가 붙인 X-Forwarded-For 의 실제 클라이언트 IP 가 getRemoteAddr() 로 들어옴 (없으면 모두 프록시 IP 하나로 묶임)
+	 */
+	public String currentUserKey() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			return "ip:" + attributes.getRequest().getRemoteAddr();
+		}
+		return "anonymous";
+	}
+
+	/**
+	 * 프롬프트 토큰 추정 (호출 전 예약용, 실제 값은 응답 usage 로 정산)
+	 * 영문/숫자는 4글자당 1토큰, 한글 등 그 외 문자는 글자당 1토큰으로 넉넉하게 계산
+	 */
+	public static int estimateTokens(String text) {
+		int ascii = 0;
+		int other = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) < 128) {
+				ascii++;
+			} else {
+				other++;
+			}
+		}
+		return (ascii + 3) / 4 + other;
+	}
+
+	public double getTotalCostThisMonth() {
+		return toUsd(counter(MONTH, currentMonth(), ALL_USERS).settledMicros.get());
+	}
+
+	public UsageSummary summary() {
+		Counter total = counter(MONTH, currentMonth(), ALL_USERS);
+		long settled = total.settledMicros.get();
+		return new UsageSummary(total.period, toUsd(settled), toUsd(total.committedMicros.get() - settled),
+				monthlyBudget, total.promptTokens.get(), total.completionTokens.get(), total.requests.get(),
+				userDailyBudget);
+	}
+
+	@Scheduled(fixedDelayString = "${openai.usage.flush-interval:PT30S}")
+	public void scheduledFlush() {
+		flush();
+		// 지난 기간은 저장이 끝났고 진행 중인 예약이 없으면 메모리에서 제거
+		String month = currentMonth();
+		String today = LocalDate.now(KST).toString();
+		counters.values().removeIf(counter -> !counter.period.equals(month) && !counter.period.equals(today)
+				&& !counter.dirty.get() && counter.committedMicros.get() == counter.settledMicros.get());
+	}
+
+	/**
+	 * 지난 저장 이후 늘어난 만큼만 DB 에 더하고, 다른 인스턴스가 더한 사용량은 메모리에 반영
+	 * (인스턴스가 여러 대면 월 예산/하루 한도는 저장 주기만큼 늦게 서로 반영됨)
+	 */
+	@PreDestroy
+	public void flush() {
+		flushLock.lock();
+		try {
+			int failed = 0;
+			String lastError = null;
+			for (Counter counter : counters.values()) {
+				if (!counter.dirty.getAndSet(false)) {
+					continue;
+				}
+				try {
+					store(counter);
+				} catch (Exception e) {
+					counter.dirty.set(true);
+					failed++;
+					lastError = e.getMessage();
+				}
+			}
+			if (failed > 0) {
+				log.warn("OpenAI 사용량 저장 실패 {}건 (다음 주기에 재시도): {}", failed, lastError);
+			}
+			syncFromOtherInstances();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void store(Counter counter) {
+		long micros = counter.settledMicros.get();
+		long promptTokens = counter.promptTokens.get();
+		long completionTokens = counter.completionTokens.get();
+		long requests = counter.requests.get();
+
+		long addMicros = micros - counter.storedMicros;
+		long addPromptTokens = promptTokens - counter.storedPromptTokens;
+		long addCompletionTokens = completionTokens - counter.storedCompletionTokens;
+		long addRequests = requests - counter.storedRequests;
+		if (addMicros == 0 && addPromptTokens == 0 && addCompletionTokens == 0 && addRequests == 0) {
+			return;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		if (openAiUsageRepository.addUsage(counter.id(), addPromptTokens, addCompletionTokens, addMicros, addRequests, now) == 0) {
+			try {
+				openAiUsageRepository.insertUsage(counter.id(), counter.scope, counter.period, counter.userKey,
+						addPromptTokens, addCompletionTokens, addMicros, addRequests, now);
+			} catch (DataIntegrityViolationException e) {
+				// 다른 인스턴스가 방금 같은 행을 만듦
+				openAiUsageRepository.addUsage(counter.id(), addPromptTokens, addCompletionTokens, addMicros, addRequests, now);
+			}
+		}
+		counter.storedMicros = micros;
+		counter.storedPromptTokens = promptTokens;
+		counter.storedCompletionTokens = completionTokens;
+		counter.storedRequests = requests;
+	}
+
+	/**
+	 * DB 값이 이 인스턴스가 알고 있는 값보다 크면 그 차이(다른 인스턴스 사용량)를 메모리에 더함
+	 */
+	private void syncFromOtherInstances() {
+		try {
+			for (OpenAiUsageEntity row : openAiUsageRepository.findByPeriodIn(
+					List.of(currentMonth(), LocalDate.now(KST).toString()))) {
+				Counter counter = counter(row.getScope(), row.getPeriod(), row.getUserKey());
+				long addMicros = Math.max(0, row.getCostMicros() - counter.storedMicros);
+				long addPromptTokens = Math.max(0, row.getPromptTokens() - counter.storedPromptTokens);
+				long addCompletionTokens = Math.max(0, row.getCompletionTokens() - counter.storedCompletionTokens);
+				long addRequests = Math.max(0, row.getRequestCount() - counter.storedRequests);
+				if (addMicros == 0 && addPromptTokens == 0 && addCompletionTokens == 0 && addRequests == 0) {
+					continue;
+				}
+				counter.committedMicros.addAndGet(addMicros);
+				counter.settledMicros.addAndGet(addMicros);
+				counter.promptTokens.addAndGet(addPromptTokens);
+				counter.completionTokens.addAndGet(addCompletionTokens);
+				counter.requests.addAndGet(addRequests);
+				counter.storedMicros += addMicros;
+				counter.storedPromptTokens += addPromptTokens;
+				counter.storedCompletionTokens += addCompletionTokens;
+				counter.storedRequests += addRequests;
+			}
+		} catch (Exception e) {
+			log.warn("OpenAI 사용량 동기화 실패 (다음 주기에 재시도): {}", e.getMessage());
+		}
+	}
+
+	private void load() {
+		flushLock.lock();
+		try {
+			syncFromOtherInstances();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private List<Counter> userCounters(String userKey) {
+		LocalDate today = LocalDate.now(KST);
+		return List.of(counter(MONTH, YearMonth.from(today).toString(), userKey), counter(DAY, today.toString(), userKey));
+	}
+
+	private Counter counter(String scope, String period, String userKey) {
+		return counters.computeIfAbsent(Counter.id(scope, period, userKey), id -> new Counter(scope, period, userKey));
+	}
+
+	/**
+	 * limit 을 넘지 않으면 amount 만큼 올리고 true (CAS 반복, 락 없음)
+	 */
+	private static boolean tryCommit(Counter counter, long amount, long limit) {
+		while (true) {
+			long current = counter.committedMicros.get();
+			if (current + amount > limit) {
+				return false;
+			}
+			if (counter.committedMicros.compareAndSet(current, current + amount)) {
+				return true;
+			}
+		}
+	}
+
+	// 모델별 단가 (설정이 없는 항목은 기본 단가)
+	private Price price(String model) {
+		if (model == null) {
+			return new Price(inputPricePer1m, outputPricePer1m);
+		}
+		return prices.computeIfAbsent(model, name -> new Price(
+				environment.getProperty("openai.usage.price." + name + ".input-per-1m", Double.class, inputPricePer1m),
+				environment.getProperty("openai.usage.price." + name + ".output-per-1m", Double.class, outputPricePer1m)));
+	}
+
+	private static long toMicros(double usd) {
+		return Math.round(usd * 1_000_000);
+	}
+
+	private static double toUsd(long micros) {
+		return micros / 1_000_000.0;
+	}
+
+	private static String currentMonth() {
+		return YearMonth.now(KST).toString();
+	}
 }
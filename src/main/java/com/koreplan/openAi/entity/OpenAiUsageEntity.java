@@ -0,0 +1,60 @@
+package com.koreplan.openAi.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * OpenAI 사용량 합계 (재시작해도 이번 달/오늘 사용량을 이어서 계산하기 위해 저장)
+ * - scope=month, period=2025-07: 월 합계 (user_key="*" 는 전체, 그 외 사용자별)
+ * - scope=day, period=2025-07-01: 사용자별 하루 합계 (하루 한도 확인용)
+ * 금액은 마이크로달러(1/1,000,000 달러) 단위 정수
+ */
+@Entity
+@Table(name = "openai_usage")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class OpenAiUsageEntity {
+
+	// scope + ":" + period + ":" + userKey
+	@Id
+	@Column(name = "id", length = 200)
+	private String id;
+
+	@Column(name = "scope", length = 10, nullable = false)
+	private String scope;
+
+	@Column(name = "period", length = 10, nullable = false)
+	private String period;
+
+	@Column(name = "user_key", length = 180, nullable = false)
+	private String userKey;
+
+	@Column(name = "prompt_tokens")
+	private long promptTokens;
+
+	@Column(name = "completion_tokens")
+	private long completionTokens;
+
+	@Column(name = "cost_micros")
+	private long costMicros;
+
+	@Column(name = "request_count")
+	private long requestCount;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
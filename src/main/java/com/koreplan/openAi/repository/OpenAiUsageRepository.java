@@ -0,0 +1,39 @@
+package com.koreplan.openAi.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.koreplan.openAi.entity.OpenAiUsageEntity;
+
+public interface OpenAiUsageRepository extends JpaRepository<OpenAiUsageEntity, String> {
+
+	List<OpenAiUsageEntity> findByPeriodIn(Collection<String> periods);
+
+	// 인스턴스가 여러 대여도 서로 덮어쓰지 않도록 증가분만 더함 (행이 없으면 0 → insertUsage)
+	@Modifying
+	@Transactional
+	@Query("UPDATE OpenAiUsageEntity u SET u.promptTokens = u.promptTokens + :promptTokens, "
+			+ "u.completionTokens = u.completionTokens + :completionTokens, u.costMicros = u.costMicros + :costMicros, "
+			+ "u.requestCount = u.requestCount + :requestCount, u.updatedAt = :updatedAt WHERE u.id = :id")
+	int addUsage(@Param("id") String id, @Param("promptTokens") long promptTokens,
+			@Param("completionTokens") long completionTokens, @Param("costMicros") long costMicros,
+			@Param("requestCount") long requestCount, @Param("updatedAt") LocalDateTime updatedAt);
+
+	// save() 는 다른 인스턴스가 먼저 만든 행을 덮어쓸 수 있으므로 INSERT 만 (이미 있으면 키 중복 예외)
+	@Modifying
+	@Transactional
+	@Query(value = "INSERT INTO openai_usage (id, scope, period, user_key, prompt_tokens, completion_tokens, cost_micros, "
+			+ "request_count, updated_at) VALUES (:id, :scope, :period, :userKey, :promptTokens, :completionTokens, "
+			+ ":costMicros, :requestCount, :updatedAt)", nativeQuery = true)
+	void insertUsage(@Param("id") String id, @Param("scope") String scope, @Param("period") String period,
+			@Param("userKey") String userKey, @Param("promptTokens") long promptTokens,
+			@Param("completionTokens") long completionTokens, @Param("costMicros") long costMicros,
+			@Param("requestCount") long requestCount, @Param("updatedAt") LocalDateTime updatedAt);
+}
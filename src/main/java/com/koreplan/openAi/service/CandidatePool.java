@@ -0,0 +1,251 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.PageRequest;
+
+import com.koreplan.area.entity.RegionCodeEntity;
+import com.koreplan.area.entity.WardCodeEntity;
+import com.koreplan.area.repository.RegionCodeRepository;
+import com.koreplan.area.repository.WardCodeRepository;
+import com.koreplan.common.route.NearestIndex;
+import com.koreplan.data.entity.DataEntity;
+import com.koreplan.data.repository.DataRepository;
+
+/**
+ * AI 일정 1건 동안 쓰는 DB 후보 모음
+ * GPT 장소마다 지역 조회 → 관련 구 조회 → 구별 후보 조회를 반복하던 것을
+ * (지역, 구, 테마) 조합당 한 번만 조회하고 filterExistingPlaces / findAllAccommodationsFromGptOrDb /
+ * fillWithDbPlacesOnly 가 같이 씀
+ *
+ * - 후보는 지역/구까지 JOIN FETCH 로 가져오므로 트랜잭션이 바뀌어도(스트리밍, 날짜별 가상 스레드) 그대로 사용 가능
+ * - 날짜별 매칭이 여러 스레드에서 같이 씀: 같은 키는 먼저 온 스레드가 한 번만 조회하고 나머지는 그 결과를 기다림
+ *   (조회 중에 락을 잡지 않으므로 서로 다른 키는 동시에 조회, 가상 스레드 pinning 없음)
+ */
+public class CandidatePool {
+
+	private record WardKey(Long regionId, String wardName) {
+	}
+
+	private record CandidateKey(Long regionId, String wardName, List<Integer> themeIds) {
+	}
+
+	private record RegionTopKey(Long regionId, List<Integer> themeIds) {
+	}
+
+	private record RegionTop(List<DataEntity> rows, int limit) {
+	}
+
+	private record AccommodationKey(Long regionId, String wardName, double minRating) {
+	}
+
+	private static final int ACCOMMODATION_THEME = 32;
+
+	private final RegionCodeRepository regionCodeRepository;
+	private final WardCodeRepository wardCodeRepository;
+	private final DataRepository dataRepository;
+
+	private final Map<String, CompletableFuture<Optional<RegionCodeEntity>>> regions = new ConcurrentHashMap<>();
+	private final Map<WardKey, CompletableFuture<List<WardCodeEntity>>> relatedWards = new ConcurrentHashMap<>();
+	private final Map<CandidateKey, CompletableFuture<List<DataEntity>>> candidates = new ConcurrentHashMap<>();
+	private final Map<CandidateKey, CompletableFuture<PlaceMatcher>> matchers = new ConcurrentHashMap<>();
+	private final Map<RegionTopKey, RegionTop> regionTop = new ConcurrentHashMap<>();
+	private final Map<AccommodationKey, CompletableFuture<NearestIndex<DataEntity>>> accommodations = new ConcurrentHashMap<>();
+	// 이번 요청에서 불러온 장소 (GROUNDED 일정의 dataId 조회용)
+	private final Map<Long, DataEntity> loaded = new ConcurrentHashMap<>();
+
+	private final AtomicInteger queryCount = new AtomicInteger();
+
+	public CandidatePool(RegionCodeRepository regionCodeRepository, WardCodeRepository wardCodeRepository,
+			DataRepository dataRepository) {
+		this.regionCodeRepository = regionCodeRepository;
+		this.wardCodeRepository = wardCodeRepository;
+		this.dataRepository = dataRepository;
+	}
+
+	/**
+	 * 지역명(normalizeRegionName 결과)으로 지역 조회
+	 */
+	public Optional<RegionCodeEntity> region(String regionName) {
+		return once(regions, regionName, () -> {
+			queryCount.incrementAndGet();
+			return regionCodeRepository.findRegionByNameForAI(regionName);
+		});
+	}
+
+	/**
+	 * 선택된 ward와 관련된 모든 하위 ward들을 찾아서 반환
+	 * 예: "수원시" 선택시 → ["수원시", "수원시 팔달구", "수원시 영통구", ...] 반환
+	 */
+	public List<WardCodeEntity> relatedWards(String selectedWard, RegionCodeEntity regionEntity) {
+		return once(relatedWards, new WardKey(regionEntity.getId(), selectedWard), () -> {
+			List<WardCodeEntity> allWards = new ArrayList<>();
+
+			// 1. 선택된 ward 자체 추가
+			queryCount.addAndGet(2);
+			wardCodeRepository.findWardByNameAndRegionForAI(selectedWard, regionEntity).ifPresent(allWards::add);
+
+			// 2. 선택된 ward의 하위 구들 찾기 (예: "수원시" → "수원시 팔달구", "수원시 영통구")
+			allWards.addAll(wardCodeRepository.findByNameStartingWithAndRegionCodeEntity(selectedWard + " ", regionEntity));
+
+			System.out.println("🏘️ 계층적 검색: " + selectedWard + " → 총 " + allWards.size() + "개 ward 발견");
+			for (WardCodeEntity ward : allWards) {
+				System.out.println("   - " + ward.getName());
+			}
+			return List.copyOf(allWards);
+		});
+	}
+
+	/**
+	 * 관련 구 전체에서 테마에 해당하는 장소 (한 번의 쿼리로 로딩 후 재사용)
+	 */
+	public List<DataEntity> candidates(RegionCodeEntity regionEntity, String wardName, List<Integer> themeIds) {
+		List<Integer> themes = canonical(themeIds);
+		return once(candidates, new CandidateKey(regionEntity.getId(), wardName, themes), () -> {
+			List<WardCodeEntity> wards = relatedWards(wardName, regionEntity);
+			if (wards.isEmpty() || themes.isEmpty()) {
+				return List.of();
+			}
+			queryCount.incrementAndGet();
+			return remember(dataRepository.findCandidatesForAI(regionEntity, wards, themes));
+		});
+	}
+
+	/**
+	 * candidates 로 만든 GPT 장소 매칭 색인 (GPT 장소마다 다시 만들지 않음)
+	 */
+	public PlaceMatcher matcher(RegionCodeEntity regionEntity, String wardName, List<Integer> themeIds) {
+		return once(matchers, new CandidateKey(regionEntity.getId(), wardName, canonical(themeIds)),
+				() -> new PlaceMatcher(candidates(regionEntity, wardName, themeIds)));
+	}
+
+	/**
+	 * candidates 중 구별 score 상위 perWardLimit 개씩 모아서 score 순으로
+	 * (기존 구별 페이지 조회 PageRequest.of(0, n, score DESC) 와 같은 결과)
+	 */
+	public List<DataEntity> topByScorePerWard(RegionCodeEntity regionEntity, String wardName, List<Integer> themeIds,
+			int perWardLimit) {
+		List<DataEntity> sorted = new ArrayList<>(candidates(regionEntity, wardName, themeIds));
+		sorted.sort(Comparator.comparingDouble(DataEntity::getScore).reversed().thenComparing(DataEntity::getId));
+
+		Map<Long, Integer> perWard = new HashMap<>();
+		List<DataEntity> result = new ArrayList<>();
+		for (DataEntity data : sorted) {
+			Long wardId = data.getWardCodeEntity() != null ? data.getWardCodeEntity().getId() : null;
+			if (perWard.merge(wardId, 1, Integer::sum) <= perWardLimit) {
+				result.add(data);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 지역 전체에서 score 상위 limit 개 (더 큰 limit 으로 이미 조회했으면 그 앞부분 사용)
+	 * 후보 목록(buildShortlist)을 만드는 스레드 하나에서만 호출
+	 */
+	public List<DataEntity> regionTopByScore(RegionCodeEntity regionEntity, List<Integer> themeIds, int limit) {
+		RegionTopKey key = new RegionTopKey(regionEntity.getId(), canonical(themeIds));
+		RegionTop top = regionTop.get(key);
+		// 전에 더 작은 limit 으로 조회했고 그만큼 꽉 찼으면 더 있을 수 있으므로 다시 조회
+		if (top == null || (limit > top.limit() && top.rows().size() == top.limit())) {
+			queryCount.incrementAndGet();
+			top = new RegionTop(remember(
+					dataRepository.findTopCandidatesForAI(regionEntity, key.themeIds(), PageRequest.of(0, limit))), limit);
+			regionTop.put(key, top);
+		}
+		return top.rows().subList(0, Math.min(limit, top.rows().size()));
+	}
+
+	/**
+	 * 숙소(32) 가까운 순 조회 색인 (날짜별 장소 중심에서 가장 가까운 숙소 고르기)
+	 * - 광역시(wardName == null): 지역 전체에서 평점 minRating 이상인 숙소를 한 번의 쿼리로
+	 * - 자치도: 선택한 시/군의 숙소 후보(candidates, 숙소 이름 매칭과 같은 목록이라 추가 조회 없음) 중 평점 minRating 이상
+	 * 기준 이상인 숙소가 없으면 평점 상관없이 (광역시는 score 상위 50개)
+	 */
+	public NearestIndex<DataEntity> accommodations(RegionCodeEntity regionEntity, String wardName, double minRating) {
+		return once(accommodations, new AccommodationKey(regionEntity.getId(), wardName, minRating), () -> {
+			List<DataEntity> rows;
+			if (wardName == null) {
+				queryCount.incrementAndGet();
+				rows = remember(dataRepository.findRatedCandidatesForAI(regionEntity, ACCOMMODATION_THEME, minRating));
+				if (rows.isEmpty()) {
+					rows = regionTopByScore(regionEntity, List.of(ACCOMMODATION_THEME), 50);
+				}
+			} else {
+				List<DataEntity> all = candidates(regionEntity, wardName, List.of(ACCOMMODATION_THEME));
+				rows = all.stream().filter(data -> data.getRating() >= minRating).toList();
+				if (rows.isEmpty()) {
+					rows = all;
+				}
+			}
+			return new NearestIndex<>(rows, data -> coordinate(data.getMapx()), data -> coordinate(data.getMapy()));
+		});
+	}
+
+	/**
+	 * 이번 요청에서 이미 불러온 장소면 반환, 아니면 null (추가 조회 없음)
+	 */
+	public DataEntity loadedById(Long id) {
+		return loaded.get(id);
+	}
+
+	/**
+	 * 이번 요청에서 실행한 DB 조회 수 (로그용)
+	 */
+	public int getQueryCount() {
+		return queryCount.get();
+	}
+
+	/**
+	 * key 당 loader 한 번만 실행 (동시에 같은 key 를 요청한 스레드는 결과를 기다림, 실패하면 다음 요청에서 다시 조회)
+	 */
+	private static <K, V> V once(Map<K, CompletableFuture<V>> map, K key, Supplier<V> loader) {
+		CompletableFuture<V> created = new CompletableFuture<>();
+		CompletableFuture<V> existing = map.putIfAbsent(key, created);
+		if (existing != null) {
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+		try {
+			V value = loader.get();
+			created.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			map.remove(key, created);
+			created.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private List<DataEntity> remember(List<DataEntity> rows) {
+		for (DataEntity data : rows) {
+			loaded.put(data.getId(), data);
+		}
+		return List.copyOf(rows);
+	}
+
+	private static double coordinate(String value) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NullPointerException | NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static List<Integer> canonical(List<Integer> themeIds) {
+		return themeIds.stream().distinct().sorted().toList();
+	}
+}
@@ -0,0 +1,135 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.koreplan.data.entity.DataEntity;
+
+/**
+ * GROUNDED 일정 생성용 후보 목록 (테마별 score 상위 장소에 1부터 번호를 붙임)
+ * GPT는 {"day":1,"order":1,"ref":3} 처럼 번호만 돌려주고, resolve 에서 번호 → DB 장소로 바꿔
+ * 기존 파이프라인(getFilteredAndFilledPlaces)이 읽는 GPT 장소 형태 + dataId 로 만들어 줌
+ * → matchPlace / 숙소 검색은 dataId 로 바로 찾고, 번호가 없는 항목은 기존처럼 점수 기반 매칭
+ */
+public class CandidateShortlist {
+
+	private final ObjectMapper mapper;
+	private final String region;
+	private final String ward;
+	// ref → 장소 (1부터, 테마 순서대로)
+	private final List<DataEntity> entries = new ArrayList<>();
+	private final Map<Integer, List<Integer>> refsByTheme = new LinkedHashMap<>();
+	private final Map<Integer, String> themeNames;
+
+	/**
+	 * @param region 요청 지역명 (GPT 장소의 region 값으로 그대로 사용)
+	 * @param ward 자치도 요청의 시/군 (광역시는 null → 장소의 구 이름 사용)
+	 */
+	CandidateShortlist(ObjectMapper mapper, String region, String ward, Map<Integer, String> themeNames) {
+		this.mapper = mapper;
+		this.region = region;
+		this.ward = ward;
+		this.themeNames = themeNames;
+	}
+
+	/**
+	 * 좌표(mapx/mapy)가 숫자로 들어 있는 장소만 후보로 씀 (resolve 에서 좌표를 그대로 넣음)
+	 */
+	static boolean hasCoordinates(DataEntity data) {
+		try {
+			Double.parseDouble(data.getMapx());
+			Double.parseDouble(data.getMapy());
+			return true;
+		} catch (NullPointerException | NumberFormatException e) {
+			return false;
+		}
+	}
+
+	void add(int themeId, DataEntity data) {
+		entries.add(data);
+		refsByTheme.computeIfAbsent(themeId, key -> new ArrayList<>()).add(entries.size());
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * 프롬프트에 넣을 후보 목록 (테마별, "번호|이름|구" 한 줄씩)
+	 */
+	public String promptBlock() {
+		StringBuilder sb = new StringBuilder();
+		refsByTheme.forEach((themeId, refs) -> {
+			sb.append('[').append(themeNames.getOrDefault(themeId, String.valueOf(themeId))).append("]\n");
+			for (int ref : refs) {
+				DataEntity data = entries.get(ref - 1);
+				sb.append(ref).append('|').append(data.getTitle()).append('|')
+						.append(data.getWardCodeEntity() != null ? data.getWardCodeEntity().getName() : "")
+						.append('\n');
+			}
+		});
+		return sb.toString();
+	}
+
+	/**
+	 * GPT 항목 1개 변환
+	 * @return ref 가 있으면 DB 장소로 채운 GPT 장소 노드, 없는 번호면 null, ref 가 없으면 원래 노드
+	 */
+	public JsonNode resolve(JsonNode place) {
+		if (!place.has("ref")) {
+			return place;
+		}
+		int ref = place.path("ref").asInt(-1);
+		if (ref < 1 || ref > entries.size()) {
+			System.out.println("⚠️ 후보 목록에 없는 번호 제외: " + place);
+			return null;
+		}
+		DataEntity data = entries.get(ref - 1);
+
+		ObjectNode node = mapper.createObjectNode();
+		node.put("day", place.path("day").asInt());
+		node.put("order", place.path("order").asInt());
+		node.put("region", region);
+		node.put("ward", ward != null ? ward
+				: data.getWardCodeEntity() != null ? data.getWardCodeEntity().getName() : "");
+		node.put("title", data.getTitle());
+		node.put("address", data.getAddr1());
+		node.put("mapx", Double.parseDouble(data.getMapx()));
+		node.put("mapy", Double.parseDouble(data.getMapy()));
+		node.put("dataId", data.getId());
+		return node;
+	}
+
+	/**
+	 * GPT 응답 전체 변환 (배열이 아니면 그대로 반환 → 호출 측에서 기존처럼 오류 처리)
+	 */
+	public String resolveAll(String content) {
+		try {
+			JsonNode array = mapper.readTree(content);
+			if (!array.isArray()) {
+				return content;
+			}
+			ArrayNode resolved = mapper.createArrayNode();
+			for (JsonNode place : array) {
+				JsonNode node = resolve(place);
+				if (node != null) {
+					resolved.add(node);
+				}
+			}
+			System.out.println("🔢 후보 번호 변환: GPT " + array.size() + "개 → " + resolved.size() + "개");
+			return mapper.writeValueAsString(resolved);
+		} catch (Exception e) {
+			return content;
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.koreplan.openAi.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.openAi.AdmissionRejectedException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI 일정 생성(/api/openai/ask, /ask/stream) 동시 실행 제한
+ * - 동시에 생성 중인 일정은 max-concurrent 개까지, 나머지는 도착 순서(FIFO)대로 대기열에서 기다림
+ * - 대기열이 가득 찼거나 max-wait 안에 차례가 오지 않으면 AdmissionRejectedException → 429 + Retry-After
+ * - 기다리는 동안 스레드를 붙잡지 않음 (차례가 되면 CompletableFuture 로 Permit 전달)
+ *   → 일정 생성이 몰려도 일반 조회 API의 서블릿 스레드/DB 커넥션은 그대로 남음
+ * - Permit 은 일정 생성이 끝나면(성공/실패/시간 초과/연결 끊김) release, 여러 번 불러도 한 번만 반납
+ *
+ * max-concurrent 는 upstream.openai.max-concurrent 이하로 두어야 GPT 호출이 벌크헤드에서 거절되지 않음
+ */
+@Component
+@Slf4j
+public class ItineraryAdmission {
+
+	private static final String REJECT_MESSAGE = "AI 일정 생성 요청이 많아 잠시 후 다시 시도해주세요.";
+
+	@Value("${openai.admission.max-concurrent:6}")
+	private int maxConcurrent;
+
+	@Value("${openai.admission.queue-capacity:20}")
+	private int queueCapacity;
+
+	@Value("${openai.admission.max-wait:PT10S}")
+	private Duration maxWait;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	// 아래 필드는 lock 안에서만 접근
+	private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+	private int active;
+	// 최근 일정 생성 소요 시간 (지수 이동 평균, Retry-After 추정용)
+	private double avgHoldMillis = 10_000;
+
+	private final AtomicLong admitted = new AtomicLong();
+	private final AtomicLong queued = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong expired = new AtomicLong();
+	private final AtomicLong waitedCount = new AtomicLong();
+	private final AtomicLong totalWaitMillis = new AtomicLong();
+	private final AtomicLong maxWaitMillis = new AtomicLong();
+
+	private static final class Waiter {
+		private final CompletableFuture<Permit> future = new CompletableFuture<>();
+		private final long enqueuedAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * 일정 생성 1건의 실행 권한
+	 */
+	public final class Permit {
+		private final long admittedAt = System.currentTimeMillis();
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit() {
+		}
+
+		public void release() {
+			if (released.compareAndSet(false, true)) {
+				handOff(System.currentTimeMillis() - admittedAt);
+			}
+		}
+	}
+
+	/**
+	 * 자리가 있고 먼저 기다리는 요청이 없으면 바로 완료된 Future, 아니면 대기열에 넣고 차례가 되면 완료
+	 * 대기열이 가득 찼으면 AdmissionRejectedException 으로 실패한 Future
+	 * 기다리다 포기하면 Future 를 cancel (대기열에서 빠짐), 이미 받은 Permit 은 release
+	 */
+	public CompletableFuture<Permit> acquire() {
+		Waiter waiter = new Waiter();
+		lock.lock();
+		try {
+			if (active < maxConcurrent && queue.isEmpty()) {
+				active++;
+				admitted.incrementAndGet();
+				return CompletableFuture.completedFuture(new Permit());
+			}
+			if (queue.size() >= queueCapacity) {
+				rejected.incrementAndGet();
+				long retryAfter = retryAfterSeconds();
+				log.warn("AI 일정 대기열 가득 참 ({}/{}) → 거절, Retry-After {}s", queue.size(), queueCapacity, retryAfter);
+				return CompletableFuture.failedFuture(new AdmissionRejectedException(REJECT_MESSAGE, retryAfter));
+			}
+			queue.addLast(waiter);
+			queued.incrementAndGet();
+		} finally {
+			lock.unlock();
+		}
+
+		CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS).execute(() -> expire(waiter));
+		waiter.future.whenComplete((permit, error) -> {
+			if (waiter.future.isCancelled()) {
+				remove(waiter);
+			}
+		});
+		return waiter.future;
+	}
+
+	/**
+	 * 동시 실행/대기열 현황과 대기 시간
+	 */
+	public String stats() {
+		lock.lock();
+		try {
+			long waited = waitedCount.get();
+			return String.format(
+					"itinerary: active=%d/%d, queued=%d/%d, admitted=%d, waited=%d, rejected=%d, expired=%d, avgWaitMs=%d, maxWaitMs=%d, avgRunMs=%d",
+					active, maxConcurrent, queue.size(), queueCapacity, admitted.get(), waited, rejected.get(),
+					expired.get(), waited == 0 ? 0 : totalWaitMillis.get() / waited, maxWaitMillis.get(),
+					Math.round(avgHoldMillis));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 반납된 자리를 대기열 맨 앞 요청에 넘김 (없으면 자리 비움)
+	 * Future 완료 콜백이 락 안에서 실행되지 않도록 꺼낸 뒤 락 밖에서 완료
+	 */
+	private void handOff(long holdMillis) {
+		lock.lock();
+		try {
+			avgHoldMillis = avgHoldMillis * 0.8 + holdMillis * 0.2;
+		} finally {
+			lock.unlock();
+		}
+
+		while (true) {
+			Waiter next;
+			lock.lock();
+			try {
+				next = queue.pollFirst();
+				if (next == null) {
+					active--;
+					return;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			// 이미 취소된 요청이면 다음 요청에게
+			if (next.future.complete(new Permit())) {
+				long waitMillis = System.currentTimeMillis() - next.enqueuedAt;
+				admitted.incrementAndGet();
+				waitedCount.incrementAndGet();
+				totalWaitMillis.addAndGet(waitMillis);
+				maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+				return;
+			}
+		}
+	}
+
+	private void expire(Waiter waiter) {
+		long retryAfter;
+		lock.lock();
+		try {
+			if (!queue.remove(waiter)) {
+				return;
+			}
+			retryAfter = retryAfterSeconds();
+		} finally {
+			lock.unlock();
+		}
+		expired.incrementAndGet();
+		log.warn("AI 일정 대기 시간 초과 ({}ms) → 거절, Retry-After {}s", maxWait.toMillis(), retryAfter);
+		waiter.future.completeExceptionally(new AdmissionRejectedException(REJECT_MESSAGE, retryAfter));
+	}
+
+	private void remove(Waiter waiter) {
+		lock.lock();
+		try {
+			queue.remove(waiter);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 대기열이 빠지는 데 걸릴 시간 추정 (lock 안에서 호출), 1~60초
+	 */
+	private long retryAfterSeconds() {
+		double seconds = avgHoldMillis / 1000.0 * (queue.size() + 1) / Math.max(1, maxConcurrent);
+		return Math.max(1, Math.min(60, (long) Math.ceil(seconds)));
+	}
+}
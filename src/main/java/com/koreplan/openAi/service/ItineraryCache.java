@@ -0,0 +1,354 @@
+package com.koreplan.openAi.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.koreplan.openAi.UsageLimitExceededException;
+import com.koreplan.openAi.UsageTracker;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * AI 일정 GPT 응답 캐시 (정규화된 요청 → GPT 장소 배열 원문)
+ * - 키: 지역/구(normalizeRegionName 기준), 일수, 동행, 테마 ID(정렬) → "서울, 관광지,음식점" 과 "서울특별시, 음식점, 관광지" 는 같은 키
+ * - 같은 키로 동시에 들어온 요청은 GPT 호출 하나에 합류 (single-flight, 스트리밍 요청은 stream() 으로 스트림 하나에 합류)
+ *   합류한 요청이 모두 떠나면(시간 초과, 연결 끊김) GPT 호출도 취소 → 아무도 받지 않는 응답에 요금을 쓰지 않음
+ *   사용자 하루 한도는 합류 전에 요청마다 확인하고, 요금은 응답을 함께 받은 사용자마다 기록 (UsageTracker.Party)
+ * - 캐시하는 건 GPT 원문뿐이고 DB 매칭은 요청마다 다시 실행 → 최신 score/이미지 반영
+ *   (GROUNDED 일정은 후보 번호를 장소로 바꾼 배열을 저장 → 번호는 요청마다 달라질 수 있으므로)
+ * - 장소 배열로 파싱되는 응답만 저장 (오류 문구나 깨진 응답은 캐시하지 않음)
+ *
+ * 가상 스레드에서도 쓰이므로 synchronized 대신 ReentrantLock 사용
+ */
+@Component
+@RequiredArgsConstructor
+public class ItineraryCache {
+
+	public record ItineraryKey(String region, String ward, int days, String companion, List<Integer> themeIds,
+			PlannerMode planner) {
+	}
+
+	private record Entry(String content, long expiresAt) {
+	}
+
+	@Value("${openai.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${openai.cache.ttl:PT6H}")
+	private Duration ttl;
+
+	@Value("${openai.cache.max-entries:500}")
+	private int maxEntries;
+
+	private final UsageTracker usageTracker;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	// accessOrder=true → 가장 오래 안 쓴 항목부터 제거
+	private final LinkedHashMap<ItineraryKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<ItineraryKey, Flight<String>> inFlight = new ConcurrentHashMap<>();
+	private final Map<ItineraryKey, Flight<JsonNode>> inFlightStreams = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * 요청 JSON(region, ward, days, companion)과 테마 ID로 캐시 키 생성
+	 * @param normalizedRegion normalizeRegionName 을 거친 지역명
+	 */
+	public static ItineraryKey key(String normalizedRegion, String ward, int days, String companion, List<Integer> themeIds,
+			PlannerMode planner) {
+		return new ItineraryKey(
+				normalizedRegion.trim(),
+				ward == null ? "" : ward.trim(),
+				days,
+				companion == null ? "" : companion.replaceAll("\\s+", "").toLowerCase(),
+				themeIds.stream().distinct().sorted().toList(),
+				planner);
+	}
+
+	/**
+	 * 캐시에 있으면 바로, 같은 키 호출이 진행 중이면 그 결과를, 아니면 loader 로 GPT 호출
+	 * 합류한 요청 일부가 취소돼도 GPT 호출은 계속되고, 마지막 요청까지 취소하면 GPT 호출도 취소됨
+	 * 사용자 하루 한도는 합류하기 전에 요청마다 확인 → 한도 초과는 그 요청만 실패하고 같은 호출의 다른 요청에는 영향 없음
+	 * @param usageKey 요청한 사용자 (UsageTracker.currentUserKey)
+	 * @param loader 함께 받을 사용자(Party)를 넘겨받아 GPT 호출 (요금은 Party 의 사용자마다 기록)
+	 */
+	public Mono<String> get(ItineraryKey key, String usageKey, Function<UsageTracker.Party, Mono<String>> loader) {
+		return Mono.defer(() -> {
+			String cached = peek(key);
+			if (cached != null) {
+				hits.incrementAndGet();
+				System.out.println("♻️ AI 일정 캐시 사용: " + key);
+				return Mono.just(cached);
+			}
+			return join(inFlight, key, usageKey, party -> loader.apply(party)
+					.doOnNext(content -> put(key, content))
+					.flux())
+					.singleOrEmpty();
+		});
+	}
+
+	/**
+	 * 스트리밍 일정 생성용 get(): GPT 가 완성하는 장소를 하나씩 흘려보냄
+	 * - 캐시에 있으면 저장된 장소 배열을, 같은 키 스트림이 진행 중이면 지금까지 나온 장소부터 이어서 받음
+	 * - 스트림이 끝나면 나온 장소 배열을 캐시에 저장
+	 * /ask 의 get() 과는 진행 중인 호출을 따로 관리 (같은 키라도 /ask 와 스트리밍 요청끼리는 합류하지 않음)
+	 * @param loader 함께 받을 사용자(Party)를 넘겨받아 GPT 스트림을 장소 단위로 (GROUNDED 면 후보 번호를 장소로 바꾼 뒤)
+	 */
+	public Flux<JsonNode> stream(ItineraryKey key, String usageKey, Function<UsageTracker.Party, Flux<JsonNode>> loader) {
+		return Flux.defer(() -> {
+			String cached = peek(key);
+			if (cached != null) {
+				hits.incrementAndGet();
+				System.out.println("♻️ AI 일정 캐시 사용 (스트리밍): " + key);
+				return Flux.fromIterable(readPlaces(cached));
+			}
+			return join(inFlightStreams, key, usageKey, party -> Flux.defer(() -> {
+				ArrayNode places = mapper.createArrayNode();
+				return loader.apply(party)
+						.doOnNext(places::add)
+						.doOnComplete(() -> put(key, places.toString()));
+			}));
+		});
+	}
+
+	/**
+	 * 진행 중인 같은 키 호출에 합류하거나 새로 시작 (캐시가 꺼져 있으면 합류 없이 바로 호출)
+	 */
+	private <T> Flux<T> join(Map<ItineraryKey, Flight<T>> flights, ItineraryKey key, String usageKey,
+			Function<UsageTracker.Party, Flux<T>> source) {
+		if (!enabled) {
+			UsageTracker.Party party = usageTracker.party();
+			party.join(usageKey);
+			return source.apply(party);
+		}
+
+		boolean[] created = new boolean[1];
+		Flight<T> flight = flights.compute(key, (k, running) -> {
+			if (running != null && running.tryJoin()) {
+				return running;
+			}
+			created[0] = true;
+			UsageTracker.Party party = usageTracker.party();
+			Flight<T> started = new Flight<>(k, flights, party, source.apply(party));
+			started.tryJoin();
+			return started;
+		});
+
+		try {
+			flight.party.join(usageKey);
+		} catch (UsageLimitExceededException e) {
+			flight.leave();
+			return Flux.error(e);
+		}
+		if (created[0]) {
+			misses.incrementAndGet();
+		} else {
+			coalesced.incrementAndGet();
+			System.out.println("🔗 진행 중인 같은 AI 일정 요청에 합류: " + key);
+		}
+		return flight.subscribe();
+	}
+
+	/**
+	 * 만료되지 않은 GPT 원문, 없으면 null
+	 */
+	private String peek(ItineraryKey key) {
+		if (!enabled) {
+			return null;
+		}
+		lock.lock();
+		try {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (System.currentTimeMillis() >= entry.expiresAt()) {
+				entries.remove(key);
+				return null;
+			}
+			return entry.content();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * GPT 원문 저장 (장소 배열일 때만)
+	 */
+	private void put(ItineraryKey key, String content) {
+		if (!enabled || !isPlaceArray(content)) {
+			return;
+		}
+		lock.lock();
+		try {
+			entries.put(key, new Entry(content, System.currentTimeMillis() + ttl.toMillis()));
+			evictIfNeeded();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public String stats() {
+		lock.lock();
+		try {
+			return String.format("itinerary: size=%d, hit=%d, miss=%d, coalesced=%d, inFlight=%d",
+					entries.size(), hits.get(), misses.get(), coalesced.get(), inFlight.size() + inFlightStreams.size());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void evictIfNeeded() {
+		long now = System.currentTimeMillis();
+		entries.values().removeIf(entry -> now >= entry.expiresAt());
+
+		Iterator<ItineraryKey> iterator = entries.keySet().iterator();
+		while (entries.size() > maxEntries && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	private List<JsonNode> readPlaces(String content) {
+		try {
+			List<JsonNode> places = new ArrayList<>();
+			mapper.readTree(content).forEach(places::add);
+			return places;
+		} catch (Exception e) {
+			return List.of();
+		}
+	}
+
+	private boolean isPlaceArray(String content) {
+		try {
+			JsonNode node = mapper.readTree(content);
+			return node.isArray() && !node.isEmpty();
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 진행 중인 GPT 호출 하나를 여러 요청이 나눠 받음
+	 * - 첫 구독 때 호출을 시작하고, 받은 값은 모두 저장해 두었다가 늦게 합류한 요청에도 처음부터 보냄
+	 * - 요금은 party 에 합류한 사용자마다 기록
+	 * - 합류한 요청 수를 세어 모두 취소하면 호출도 취소(구독 해제)하고 목록에서 빠짐 → 그 뒤로는 합류 불가
+	 */
+	private static final class Flight<T> {
+
+		private final ItineraryKey key;
+		private final Map<ItineraryKey, Flight<T>> owner;
+		private final UsageTracker.Party party;
+		private final Flux<T> source;
+		private final Sinks.Many<T> sink = Sinks.many().replay().all();
+		private final ReentrantLock lock = new ReentrantLock();
+
+		// lock 으로 보호. subscribers < 0 이면 취소됨
+		private int subscribers;
+		private boolean started;
+		private boolean terminated;
+		private Disposable upstream;
+
+		private Flight(ItineraryKey key, Map<ItineraryKey, Flight<T>> owner, UsageTracker.Party party, Flux<T> source) {
+			this.key = key;
+			this.owner = owner;
+			this.party = party;
+			this.source = source.doFinally(signal -> {
+				lock.lock();
+				try {
+					terminated = true;
+				} finally {
+					lock.unlock();
+				}
+				owner.remove(key, this);
+			});
+		}
+
+		/**
+		 * 합류할 요청 하나 추가 (이미 취소된 호출이면 false → 새로 호출)
+		 */
+		private boolean tryJoin() {
+			lock.lock();
+			try {
+				if (subscribers < 0) {
+					return false;
+				}
+				subscribers++;
+				return true;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private Flux<T> subscribe() {
+			return sink.asFlux()
+					.doOnSubscribe(subscription -> start())
+					.doOnCancel(this::leave);
+		}
+
+		private void start() {
+			lock.lock();
+			try {
+				if (started) {
+					return;
+				}
+				started = true;
+			} finally {
+				lock.unlock();
+			}
+			Disposable disposable = source.subscribe(sink::tryEmitNext, sink::tryEmitError, sink::tryEmitComplete);
+			boolean cancelled;
+			lock.lock();
+			try {
+				upstream = disposable;
+				cancelled = subscribers < 0;
+			} finally {
+				lock.unlock();
+			}
+			if (cancelled) {
+				disposable.dispose();
+			}
+		}
+
+		private void leave() {
+			Disposable disposable;
+			lock.lock();
+			try {
+				if (terminated || subscribers <= 0 || --subscribers > 0) {
+					return;
+				}
+				subscribers = -1;
+				disposable = upstream;
+			} finally {
+				lock.unlock();
+			}
+			System.out.println("🛑 AI 일정 요청이 모두 취소됨 → GPT 호출 취소: " + key);
+			owner.remove(key, this);
+			if (disposable != null) {
+				disposable.dispose();
+			}
+		}
+	}
+}
@@ -0,0 +1,346 @@
+package com.koreplan.openAi.service;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.koreplan.common.api.UpstreamUnavailableException;
+import com.koreplan.openAi.AdmissionRejectedException;
+import com.koreplan.openAi.UsageLimitExceededException;
+import com.koreplan.openAi.UsageTracker;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * AI 일정 생성 스트리밍 (SSE)
+ * GPT 스트림에서 장소 객체가 하나 완성될 때마다 DB 매칭(matchPlace) 후 바로 클라이언트로 보냄
+ *
+ * 이벤트 종류
+ * - place: DB와 매칭된 장소 (day/order 포함)
+ * - unmatched: DB에서 찾지 못한 GPT 장소 → complete 에서 주변 장소로 보완됨
+ * - complete: /ask 와 같은 최종 일정 (숙소 배치, 빈 자리 보완 포함)
+ *   planner=local 이거나 GPT 호출이 사용량 한도/장애/시간 초과로 실패하면 로컬 일정 (앞서 보낸 place 이벤트는 무시)
+ * - error: { status, message }
+ *
+ * 같은 조건의 GPT 응답이 캐시(ItineraryCache)에 있으면 GPT 호출 없이 바로 매칭, 스트림이 끝나면 응답을 캐시에 저장
+ * 같은 조건의 스트리밍 요청이 동시에 들어오면 GPT 스트림 하나를 나눠 받음 (늦게 합류하면 지금까지 나온 장소부터)
+ * GROUNDED 방식이면 GPT가 보내는 후보 번호를 장소가 완성될 때마다 CandidateShortlist 로 바꿔서 매칭
+ * 매칭은 /ask 와 같은 전용 풀(itineraryMatchingExecutor)에서 요청별로 순서대로 실행
+ * (usedIds 중복 체크가 GPT 순서대로 적용되도록)
+ */
+@Service
+public class ItineraryStreamService {
+
+	@Autowired
+	private OpenAiService openAiService;
+
+	@Autowired
+	private ItineraryCache itineraryCache;
+
+	@Autowired
+	private LocalItineraryPlanner localItineraryPlanner;
+
+	@Autowired
+	@Qualifier("itineraryMatchingExecutor")
+	private ThreadPoolTaskExecutor matchingExecutor;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * GPT 스트림 구독을 시작하고 바로 반환 (결과는 emitter로 전송)
+	 * @param usageKey GPT 사용량을 기록할 사용자 (UsageTracker.currentUserKey())
+	 * @param admission ItineraryAdmission 차례 (기다리는 중이면 차례가 된 뒤 시작, 대기 시간 초과면 error 이벤트 429)
+	 */
+	public void stream(SseEmitter emitter, String jsonInput, List<Integer> themeIds, PlannerMode planner, String usageKey,
+			CompletableFuture<ItineraryAdmission.Permit> admission) {
+		StreamSession session = new StreamSession(emitter, jsonInput, themeIds, admission);
+
+		emitter.onTimeout(() -> {
+			System.out.println("⏱️ 스트리밍 일정 생성 시간 초과 → 작업 취소");
+			session.sendError(504, "AI 일정 생성 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+			session.close();
+			emitter.complete();
+		});
+		emitter.onError(error -> {
+			System.out.println("🔌 스트리밍 중 연결 종료 → 작업 취소: " + error.getMessage());
+			session.close();
+		});
+		emitter.onCompletion(session::close);
+
+		if (admission.isDone() && !admission.isCompletedExceptionally()) {
+			begin(session, jsonInput, themeIds, planner, usageKey);
+			return;
+		}
+		admission.whenComplete((permit, error) -> {
+			if (error != null) {
+				if (!(error instanceof CancellationException)) {
+					session.sendError(error);
+					emitter.complete();
+				}
+				return;
+			}
+			if (session.closed.get()) {
+				permit.release();
+				return;
+			}
+			// 차례를 넘겨준 스레드를 붙잡지 않도록 후보 조회부터 매칭 풀에서
+			try {
+				matchingExecutor.execute(() -> begin(session, jsonInput, themeIds, planner, usageKey));
+			} catch (RejectedExecutionException e) {
+				session.sendError(503, "AI 일정 생성 요청이 많아 잠시 후 다시 시도해주세요.");
+				emitter.complete();
+			}
+		});
+	}
+
+	/**
+	 * planner=local: GPT 없이 만든 일정을 complete 이벤트 하나로 보내고 종료
+	 */
+	public void streamLocal(SseEmitter emitter, String jsonInput, List<Integer> themeIds) {
+		StreamSession session = new StreamSession(emitter, jsonInput, themeIds, CompletableFuture.completedFuture(null));
+		session.sendLocal();
+		emitter.complete();
+	}
+
+	private void begin(StreamSession session, String jsonInput, List<Integer> themeIds, PlannerMode planner, String usageKey) {
+		// 캐시된 GPT 응답이 있으면 GPT 호출 없이, 같은 조건의 스트림이 진행 중이면 그 스트림에 합류
+		Flux<JsonNode> places;
+		try {
+			// GROUNDED 후보도 세션 풀로 불러와서 매칭/complete 단계에서 재사용
+			CandidateShortlist shortlist = planner == PlannerMode.GROUNDED
+					? openAiService.buildShortlist(jsonInput, themeIds, session.pool) : null;
+			ItineraryCache.ItineraryKey cacheKey = openAiService.itineraryKey(jsonInput, themeIds,
+					shortlist != null ? PlannerMode.GROUNDED : PlannerMode.FREE);
+			places = itineraryCache.stream(cacheKey, usageKey, party -> placeStream(jsonInput, shortlist, party));
+		} catch (Exception e) {
+			places = Flux.error(e);
+		}
+
+		session.start(places.subscribe(session::onPlace, session::onError, session::onComplete));
+	}
+
+	/**
+	 * GPT 스트림 → 완성된 장소 단위 (GROUNDED 면 후보 번호를 이 요청의 후보 목록으로 바꿔서)
+	 * 번호는 요청마다 달라질 수 있으므로 합류한 요청들에는 바꾼 뒤의 장소를 나눠 줌
+	 */
+	private Flux<JsonNode> placeStream(String jsonInput, CandidateShortlist shortlist, UsageTracker.Party party) {
+		return Flux.defer(() -> {
+			JsonArrayStreamParser parser = new JsonArrayStreamParser(mapper);
+			return openAiService.streamChatWithGpt(jsonInput, shortlist, party)
+					.concatMapIterable(parser::feed)
+					.handle((parsed, sink) -> {
+						JsonNode place = shortlist != null ? shortlist.resolve(parsed) : parsed;
+						if (place != null) {
+							sink.next(place);
+						}
+					});
+		});
+	}
+
+	private class StreamSession {
+
+		private final SseEmitter emitter;
+		private final String jsonInput;
+		private final List<Integer> themeIds;
+		// 숙소(32)는 complete 단계에서 따로 배치하므로 장소 매칭에서는 제외 (getFilteredAndFilledPlaces와 동일)
+		private final List<Integer> placeThemeIds;
+		private final long start = System.currentTimeMillis();
+
+		private final ArrayNode gptPlaces = mapper.createArrayNode();
+
+		// 아래 필드들은 매칭 체인(한 번에 하나씩 실행)에서만 접근
+		private final Set<Long> usedIds = new HashSet<>();
+		private final Set<String> usedAddresses = new HashSet<>();
+		// 장소별 매칭에서 불러온 후보를 complete 단계(숙소/보완)까지 재사용
+		private final CandidatePool pool = openAiService.newCandidatePool();
+
+		// 차례를 기다리는 중이면 close 에서 대기열에서 빼고, 이미 받았으면 반납
+		private final CompletableFuture<ItineraryAdmission.Permit> admission;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private final AtomicReference<Disposable> subscription = new AtomicReference<>();
+
+		// GPT 스트림 콜백(onPlace/onComplete/onError)은 순서대로 한 스레드씩 호출되므로 tail 갱신에 락 불필요
+		private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+		private boolean firstPlaceLogged;
+
+		StreamSession(SseEmitter emitter, String jsonInput, List<Integer> themeIds,
+				CompletableFuture<ItineraryAdmission.Permit> admission) {
+			this.emitter = emitter;
+			this.jsonInput = jsonInput;
+			this.themeIds = themeIds;
+			this.admission = admission;
+			this.placeThemeIds = themeIds.stream().filter(t -> t != 32).toList();
+		}
+
+		void start(Disposable disposable) {
+			subscription.set(disposable);
+			if (closed.get()) {
+				disposable.dispose();
+			}
+		}
+
+		void onPlace(JsonNode shared) {
+			// 같은 스트림을 받는 다른 요청과 노드를 공유하므로 매칭/보완 단계에서 고치기 전에 복사
+			JsonNode place = shared.deepCopy();
+			gptPlaces.add(place);
+			enqueue(() -> matchAndSend(place));
+		}
+
+		void onComplete() {
+			System.out.println("GPT 스트림 완료: 장소 " + gptPlaces.size() + "개, "
+					+ (System.currentTimeMillis() - start) + "ms");
+			enqueue(this::sendFinal);
+			finish();
+		}
+
+		void onError(Throwable error) {
+			if (localItineraryPlanner.canReplace(error)) {
+				System.out.println("🧭 GPT 스트림 실패 → 로컬 일정으로 대체: " + error);
+				enqueue(this::sendLocal);
+				finish();
+				return;
+			}
+			tail.whenComplete((ignored, matchingError) -> {
+				sendError(error);
+				emitter.complete();
+			});
+		}
+
+		private void enqueue(Runnable task) {
+			tail = tail.thenRunAsync(() -> {
+				if (!closed.get()) {
+					task.run();
+				}
+			}, matchingExecutor);
+		}
+
+		private void finish() {
+			tail.whenComplete((ignored, error) -> {
+				if (error != null) {
+					sendError(error);
+				}
+				emitter.complete();
+				System.out.println("스트리밍 전체 처리 시간: " + (System.currentTimeMillis() - start) + "ms");
+			});
+		}
+
+		private void matchAndSend(JsonNode place) {
+			String address = openAiService.normalizeAddress(place.path("address").asText(""));
+			if (!usedAddresses.add(address)) {
+				System.out.println("중복 주소로 제외: " + place.path("title").asText());
+				return;
+			}
+
+			ObjectNode matched = openAiService.matchPlace(place, placeThemeIds, usedIds, pool);
+			if (matched != null) {
+				if (!firstPlaceLogged) {
+					firstPlaceLogged = true;
+					System.out.println("첫 장소 전송까지 소요 시간: " + (System.currentTimeMillis() - start) + "ms");
+				}
+				send("place", matched);
+			} else {
+				ObjectNode unmatched = mapper.createObjectNode();
+				unmatched.put("day", place.path("day").asInt());
+				unmatched.put("order", place.path("order").asInt());
+				unmatched.put("title", place.path("title").asText());
+				send("unmatched", unmatched);
+			}
+		}
+
+		private void sendFinal() {
+			if (gptPlaces.isEmpty()) {
+				sendError(502, "GPT 응답에서 장소를 찾지 못했습니다.");
+				return;
+			}
+			List<JsonNode> finalPlaces = openAiService.getFilteredAndFilledPlaces(gptPlaces, gptPlaces.size(), themeIds, pool);
+			send("complete", finalPlaces);
+		}
+
+		private void sendLocal() {
+			try {
+				List<JsonNode> places = localItineraryPlanner.plan(jsonInput, themeIds);
+				if (places.isEmpty()) {
+					sendError(400, "일정을 만들 장소를 찾지 못했습니다.");
+					return;
+				}
+				send("complete", places);
+			} catch (Exception e) {
+				sendError(e);
+			}
+		}
+
+		private void sendError(Throwable error) {
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+			if (cause instanceof UpstreamUnavailableException) {
+				sendError(503, "AI 일정 생성 요청이 많아 잠시 후 다시 시도해주세요.");
+			} else if (cause instanceof UsageLimitExceededException) {
+				sendError(429, cause.getMessage());
+			} else if (cause instanceof AdmissionRejectedException rejected) {
+				ObjectNode body = mapper.createObjectNode();
+				body.put("status", 429);
+				body.put("message", rejected.getMessage());
+				body.put("retryAfter", rejected.getRetryAfterSeconds());
+				send("error", body);
+			} else if (cause instanceof TimeoutException) {
+				sendError(504, "AI 일정 생성 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+			} else {
+				sendError(500, "GPT 응답 처리 오류: " + cause.getMessage());
+			}
+		}
+
+		private void sendError(int status, String message) {
+			ObjectNode body = mapper.createObjectNode();
+			body.put("status", status);
+			body.put("message", message);
+			send("error", body);
+		}
+
+		private void send(String event, Object data) {
+			if (closed.get()) {
+				return;
+			}
+			try {
+				emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+			} catch (IOException | IllegalStateException e) {
+				// 클라이언트가 이미 떠났으면 남은 작업 중단
+				close();
+			}
+		}
+
+		void close() {
+			if (closed.compareAndSet(false, true)) {
+				Disposable disposable = subscription.get();
+				if (disposable != null) {
+					disposable.dispose();
+				}
+				admission.cancel(false);
+				// planner=local 은 차례 없이 시작 (permit 이 null)
+				ItineraryAdmission.Permit permit = admission.isDone() && !admission.isCompletedExceptionally() ? admission.join() : null;
+				if (permit != null) {
+					permit.release();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * GPT 스트리밍 응답(JSON 배열)을 조각 단위로 받아서 완성된 장소 객체만 꺼내는 파서
+ * - 문자열 안의 중괄호/따옴표는 무시하고 최상위 { ... } 가 닫히는 순간 객체 하나를 돌려줌
+ * - 코드블록(```json)이나 배열 괄호 같은 바깥 문자는 그냥 건너뜀
+ * - JSON 모드 응답 {"places":[ ... ]} 처럼 최상위가 객체이고 첫 키 places 의 배열이 열리면 감싸는 객체로 보고 배열 안의 객체를 꺼냄
+ *   (배열로 시작한 응답은 감싸는 객체가 없으므로 장소의 배열 값(tags 등)은 그대로 장소 객체 안에 둠)
+ * 요청 1건 안에서만 쓰고 스레드 간에 공유하지 않음
+ */
+public class JsonArrayStreamParser {
+
+	// 감싸는 객체의 시작 {"places": [
+	private static final Pattern WRAPPER = Pattern.compile("\\{\\s*\"places\"\\s*:\\s*\\[");
+
+	private final ObjectMapper mapper;
+	private final StringBuilder current = new StringBuilder();
+	private int depth;
+	private boolean inString;
+	private boolean escaped;
+	// 아직 첫 객체를 다 읽지 않음 (감싸는 객체는 첫 객체만 가능)
+	private boolean first = true;
+	// 첫 객체 전에 '[' 가 나옴 → 최상위가 배열 (감싸는 객체 아님)
+	private boolean topLevelArray;
+	private int parsedCount;
+
+	public JsonArrayStreamParser(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	/**
+	 * 조각을 이어 붙이고 이번 조각으로 완성된 객체들을 반환
+	 */
+	public List<JsonNode> feed(String chunk) {
+		List<JsonNode> completed = new ArrayList<>();
+
+		for (int i = 0; i < chunk.length(); i++) {
+			char c = chunk.charAt(i);
+
+			if (depth == 0) {
+				// 객체 바깥: '[', ',', 공백, 코드블록 등은 버림
+				if (c == '{') {
+					depth = 1;
+					current.setLength(0);
+					current.append(c);
+				} else if (c == '[' && first) {
+					topLevelArray = true;
+				}
+				continue;
+			}
+
+			current.append(c);
+			if (inString) {
+				if (escaped) {
+					escaped = false;
+				} else if (c == '\\') {
+					escaped = true;
+				} else if (c == '"') {
+					inString = false;
+				}
+				continue;
+			}
+
+			if (c == '"') {
+				inString = true;
+			} else if (c == '[' && depth == 1 && first && !topLevelArray && WRAPPER.matcher(current).matches()) {
+				// 감싸는 객체: 지금까지 읽은 {"places": 는 버리고 배열 안 객체부터
+				first = false;
+				depth = 0;
+				current.setLength(0);
+			} else if (c == '{') {
+				depth++;
+			} else if (c == '}' && --depth == 0) {
+				first = false;
+				JsonNode node = parse(current.toString());
+				if (node != null) {
+					completed.add(node);
+				}
+				current.setLength(0);
+			}
+		}
+		return completed;
+	}
+
+	public int getParsedCount() {
+		return parsedCount;
+	}
+
+	private JsonNode parse(String json) {
+		try {
+			JsonNode node = mapper.readTree(json);
+			parsedCount++;
+			return node;
+		} catch (Exception e) {
+			// 깨진 객체 하나 때문에 전체 스트림을 버리지 않음
+			System.out.println("⚠️ 스트림 장소 파싱 실패, 건너뜀: " + json);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.koreplan.area.entity.RegionCodeEntity;
+import com.koreplan.common.api.UpstreamUnavailableException;
+import com.koreplan.common.route.DayClusterer;
+import com.koreplan.common.route.RouteOptimizer;
+import com.koreplan.data.entity.DataEntity;
+import com.koreplan.openAi.UsageLimitExceededException;
+
+/**
+ * GPT 없이 DB 장소만으로 만드는 일정 (planner=local, GPT 호출이 실패했을 때 대체 일정)
+ * 1. 요청 테마별 score 상위 장소를 테마가 번갈아 나오도록 (일수 × 하루 장소 수)만큼 고름
+ * 2. 위치 기준으로 날짜별로 나눔 (날짜별 장소 수를 지키는 k-means, DayClusterer)
+ * 3. 날짜별 장소 중심에서 가까운 숙소(32)를 그날 마지막에 배치 (마지막 날 제외, /ask 와 같은 OpenAiService.nearestHotel)
+ * 4. 날짜 안 순서는 전날 숙소에서 출발해 오늘 숙소로 돌아오는 최단 경로 (RouteOptimizer)
+ *
+ * 응답 형태는 /ask 와 같음 (장소는 createPlaceNode, 숙소는 dataEntityToJson)
+ * DB 조회는 CandidatePool 로 지역/테마당 한 번 → 수십 ms 안에 응답
+ */
+@Service
+public class LocalItineraryPlanner {
+
+	// 관광지 (숙박만 선택한 요청의 장소 테마)
+	private static final int DEFAULT_THEME = 12;
+	private static final int ACCOMMODATION_THEME = 32;
+
+	@Autowired
+	private OpenAiService openAiService;
+
+	@Autowired
+	private RouteOptimizer routeOptimizer;
+
+	@Autowired
+	private DayClusterer dayClusterer;
+
+	// 하루 장소 수 (마지막 날은 하나 적게, GPT 프롬프트의 [3,3,2] 와 같음)
+	@Value("${openai.local.places-per-day:3}")
+	private int placesPerDay;
+
+	// GPT 호출이 사용량 한도/장애/시간 초과로 실패하면 이 일정으로 대신 응답
+	@Value("${openai.local.fallback:true}")
+	private boolean fallbackEnabled;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private record Stop(DataEntity data, double x, double y) {
+	}
+
+	/**
+	 * GPT 호출 실패 대신 로컬 일정으로 응답할지 (사용량 한도, 서킷 열림/동시 호출 초과, 시간 초과, OpenAI 오류/연결 실패)
+	 */
+	public boolean canReplace(Throwable error) {
+		if (!fallbackEnabled) {
+			return false;
+		}
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof WebClientResponseException response) {
+			return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+		}
+		return cause instanceof UsageLimitExceededException
+				|| cause instanceof UpstreamUnavailableException
+				|| cause instanceof TimeoutException
+				|| cause instanceof WebClientRequestException;
+	}
+
+	/**
+	 * 요청(region, ward, days) → 일정
+	 * @return 지역이나 장소를 찾지 못하면 빈 목록
+	 */
+	@Transactional(readOnly = true)
+	public List<JsonNode> plan(String userMessage, List<Integer> themeIds) throws Exception {
+		long start = System.currentTimeMillis();
+		JsonNode node = mapper.readTree(userMessage);
+		String ward = node.hasNonNull("ward") ? node.get("ward").asText() : null;
+		int days = Math.max(1, node.path("days").asInt(1));
+
+		CandidatePool pool = openAiService.newCandidatePool();
+		Optional<RegionCodeEntity> regionOpt = pool.region(openAiService.normalizeRegionName(node.path("region").asText().trim()));
+		if (regionOpt.isEmpty()) {
+			System.out.println("❌ 로컬 일정 생성 실패 (지역 미일치): " + node.path("region").asText());
+			return List.of();
+		}
+		RegionCodeEntity regionEntity = regionOpt.get();
+
+		// 1. 날짜별 장소 수 + 테마별 상위 장소
+		int[] capacity = new int[days];
+		for (int d = 0; d < days; d++) {
+			capacity[d] = Math.max(1, days > 1 && d == days - 1 ? placesPerDay - 1 : placesPerDay);
+		}
+		int total = 0;
+		for (int c : capacity) total += c;
+
+		List<Stop> stops = pickPlaces(pool, regionEntity, ward, themeIds, total);
+		if (stops.isEmpty()) {
+			System.out.println("❌ 로컬 일정 생성 실패 (장소 없음): " + regionEntity.getName() + (ward != null ? " " + ward : ""));
+			return List.of();
+		}
+		if (stops.size() < total) {
+			// 장소가 모자라면 앞 날짜부터 채움
+			int remaining = stops.size();
+			for (int d = 0; d < days; d++) {
+				capacity[d] = Math.min(capacity[d], remaining);
+				remaining -= capacity[d];
+			}
+		}
+
+		// 2. 날짜별로 나누기
+		List<List<Stop>> dayStops = dayClusterer.cluster(stops, Stop::x, Stop::y, capacity);
+
+		// 3~4. 숙소 + 날짜 안 순서
+		List<JsonNode> result = new ArrayList<>();
+		Set<Long> hotelIds = new HashSet<>();
+		Stop previousHotel = null;
+		for (int d = 0; d < days; d++) {
+			List<Stop> today = dayStops.get(d);
+			if (today.isEmpty()) continue;
+			int day = d + 1;
+
+			Stop hotel = d < days - 1 ? nearestHotel(pool, regionEntity, ward, today, previousHotel, hotelIds) : null;
+			List<Stop> route = routeOptimizer.order(today, Stop::x, Stop::y, previousHotel, hotel);
+			for (int i = 0; i < route.size(); i++) {
+				result.add(openAiService.createPlaceNode(slot(day, i + 1), route.get(i).data()));
+			}
+
+			if (hotel != null) {
+				ObjectNode ref = slot(day, route.size() + 1);
+				ref.put("region", regionEntity.getName());
+				ref.put("ward", hotel.data().getWardCodeEntity() != null ? hotel.data().getWardCodeEntity().getName() : "");
+				result.add(openAiService.dataEntityToJson(hotel.data(), ref));
+				System.out.println("🛏️ 로컬 일정 숙소: day " + day + " - " + hotel.data().getTitle());
+				previousHotel = hotel;
+			}
+		}
+
+		System.out.println("⚡ 로컬 일정 생성: " + days + "일, " + result.size() + "곳, "
+				+ (System.currentTimeMillis() - start) + "ms (DB 조회 " + pool.getQueryCount() + "회)");
+		return result;
+	}
+
+	/**
+	 * 테마별 score 상위 장소를 테마 순서대로 하나씩 번갈아 total 개 (숙소/좌표 없는 장소/중복 제외)
+	 */
+	private List<Stop> pickPlaces(CandidatePool pool, RegionCodeEntity regionEntity, String ward, List<Integer> themeIds, int total) {
+		List<Integer> placeThemes = themeIds.stream().filter(t -> t != ACCOMMODATION_THEME).distinct().toList();
+		if (placeThemes.isEmpty()) {
+			placeThemes = List.of(DEFAULT_THEME);
+		}
+
+		List<List<DataEntity>> ranked = new ArrayList<>();
+		for (Integer themeId : placeThemes) {
+			// 광역시는 지역 전체, 자치도는 선택한 시/군 안에서 (GROUNDED 후보 목록과 같은 범위)
+			ranked.add(ward != null
+					? pool.topByScorePerWard(regionEntity, ward, List.of(themeId), total)
+					: pool.regionTopByScore(regionEntity, List.of(themeId), total));
+		}
+
+		List<Stop> picked = new ArrayList<>();
+		Set<Long> used = new HashSet<>();
+		int[] cursor = new int[ranked.size()];
+		boolean progressed = true;
+		while (picked.size() < total && progressed) {
+			progressed = false;
+			for (int t = 0; t < ranked.size() && picked.size() < total; t++) {
+				List<DataEntity> rows = ranked.get(t);
+				while (cursor[t] < rows.size()) {
+					DataEntity data = rows.get(cursor[t]++);
+					Stop stop = toStop(data);
+					if (stop != null && !"AC".equals(data.getC1Code()) && used.add(data.getId())) {
+						picked.add(stop);
+						progressed = true;
+						break;
+					}
+				}
+			}
+		}
+		return picked;
+	}
+
+	/**
+	 * 그날 장소 중심에서 가까운 숙소 (전날 숙소가 가까운 후보 안에 있으면 유지)
+	 */
+	private Stop nearestHotel(CandidatePool pool, RegionCodeEntity regionEntity, String ward, List<Stop> today,
+			Stop previousHotel, Set<Long> hotelIds) {
+		double x = 0, y = 0;
+		for (Stop stop : today) {
+			x += stop.x();
+			y += stop.y();
+		}
+		DataEntity data = openAiService.nearestHotel(pool, regionEntity, ward, x / today.size(), y / today.size(),
+				previousHotel != null ? previousHotel.data().getId() : null, hotelIds);
+		if (data == null) {
+			return null;
+		}
+		hotelIds.add(data.getId());
+		return toStop(data);
+	}
+
+	private ObjectNode slot(int day, int order) {
+		ObjectNode node = mapper.createObjectNode();
+		node.put("day", day);
+		node.put("order", order);
+		return node;
+	}
+
+	private static Stop toStop(DataEntity data) {
+		try {
+			return new Stop(data, Double.parseDouble(data.getMapx()), Double.parseDouble(data.getMapy()));
+		} catch (NullPointerException | NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -988,25 +988,35 @@ package com.koreplan.openAi.service;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -1019,12 +1029,20 @@ import com.koreplan.area.entity.RegionCodeEntity;
 import com.koreplan.area.entity.WardCodeEntity;
 import com.koreplan.area.repository.RegionCodeRepository;
 import com.koreplan.area.repository.WardCodeRepository;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.route.DayClusterer;
+import com.koreplan.common.route.GeoUtils;
+import com.koreplan.common.route.RouteOptimizer;
 import com.koreplan.data.entity.DataEntity;
 import com.koreplan.data.repository.DataRepository;
+import com.koreplan.entity.theme.ThemeEntity;
 import com.koreplan.openAi.UsageTracker;
+import com.koreplan.repository.theme.ThemeRepository;
 
 import io.netty.channel.ChannelOption;
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
 @Service
@@ -1035,11 +1053,18 @@ public class OpenAiService {
 	@Value("${openai.api.key}")
 	private String openaiApiKey;
 	
+	// 부하 테스트 시 로컬 스텁 서버로 바꿀 수 있도록 설정값으로 분리
+	@Value("${openai.base-url:https://api.openai.com/v1}")
+	private String openaiBaseUrl;
+	
 	private WebClient webClient;
 	
 	@Autowired
 	private UsageTracker usageTracker;
 	
+	@Autowired
+	private UpstreamGuard upstreamGuard;
+	
 	@Autowired
 	private DataRepository dataRepository;
 	
@@ -1048,6 +1073,74 @@ public class OpenAiService {
 
 	@Autowired
 	private WardCodeRepository wardCodeRepository;
+
+	@Autowired
+	private ThemeRepository themeRepository;
+
+	// 요청에 planner 값이 없을 때 쓰는 일정 생성 방식 (free / grounded)
+	@Value("${openai.planner.default:free}")
+	private String defaultPlanner;
+
+	// GROUNDED 후보 목록 크기: 테마별 최소 개수(일수 * 3 과 큰 쪽), 광역시 구별 최대 개수, 숙소 개수
+	@Value("${openai.grounded.per-theme:12}")
+	private int groundedPerTheme;
+
+	@Value("${openai.grounded.per-ward:3}")
+	private int groundedPerWard;
+
+	@Value("${openai.grounded.hotels:5}")
+	private int groundedHotels;
+
+	// 날짜별 동시 매칭 작업 수 (전체 요청 합계). 작업마다 DB 커넥션을 하나씩 쓰므로
+	// openai.matching.pool-size + 이 값이 DB 커넥션 풀보다 작아야 다른 API가 쓸 커넥션이 남음
+	@Value("${openai.matching.day-parallelism:4}")
+	private int dayParallelism;
+
+	private Semaphore dayTaskPermits;
+
+	// 최종 일정의 날짜별 방문 순서를 경로 최적화로 다시 매김 (false 면 GPT 순서 그대로)
+	@Value("${openai.route.optimize:true}")
+	private boolean optimizeRoutes;
+
+	@Autowired
+	private RouteOptimizer routeOptimizer;
+
+	// 최종 일정의 장소를 위치 기준으로 날짜별로 다시 나눔 (날짜별 장소 수는 GPT 그대로)
+	@Value("${openai.route.cluster-days:true}")
+	private boolean clusterDays;
+
+	@Autowired
+	private DayClusterer dayClusterer;
+
+	// 숙소를 못 정한 날: 그날 장소 중심에서 가까운 숙소 k개 (평점 기준 이상 우선) 중 전날 숙소가 있으면 유지, 없으면 가장 가까운 곳
+	@Value("${openai.hotel.min-rating:3.5}")
+	private double hotelMinRating;
+
+	@Value("${openai.hotel.nearest-k:5}")
+	private int hotelNearestK;
+
+	// 모델 선택: light-max-days 일 이하 일정과 후보 번호 일정(GROUNDED)은 가벼운 모델, 나머지는 기본 모델
+	@Value("${openai.model.default:gpt-4o}")
+	private String defaultModel;
+
+	@Value("${openai.model.light:gpt-4o-mini}")
+	private String lightModel;
+
+	@Value("${openai.model.light-max-days:2}")
+	private int lightMaxDays;
+
+	@Value("${openai.model.light-for-grounded:true}")
+	private boolean lightForGrounded;
+
+	// max_tokens = 일수 × 하루 출력 토큰 (FREE 는 장소 이름/주소/좌표, GROUNDED 는 번호만), 최대 tokens.max
+	@Value("${openai.tokens.per-day:450}")
+	private int tokensPerDay;
+
+	@Value("${openai.tokens.grounded-per-day:150}")
+	private int groundedTokensPerDay;
+
+	@Value("${openai.tokens.max:2250}")
+	private int maxTokensLimit;
 	
     // ObjectMapper 객체 필드로 선언해서 재사용
     private final ObjectMapper mapper = new ObjectMapper();
@@ -1065,7 +1158,7 @@ public class OpenAiService {
 		// WebClient 빌더를 통해 OpenAI API 기본 URL과 헤더 설정
 		// Authorization 헤더에 Bearer + API 키를 넣음.
 		webClient = WebClient.builder()
-				.baseUrl("https://api.openai.com/v1") // OPEN API 기본 URL
+				.baseUrl(openaiBaseUrl) // OPEN API 기본 URL
 				.defaultHeader("Authorization", "Bearer " + openaiApiKey)  // 인증용 헤더
 				.defaultHeader("Content-Type", "application/json") // JSON 형식 명시
 		        .clientConnector(
@@ -1076,135 +1169,404 @@ public class OpenAiService {
 	                )
 	            )
 				.build();
+		dayTaskPermits = new Semaphore(Math.max(1, dayParallelism), true);
 	}
 	
 	
 	/**
-	 * OpenAI Chat Completion API 호출 메서드 (개선됨)
+	 * OpenAI Chat Completion API 호출 메서드 (논블로킹)
+	 * - 응답을 block 하지 않고 Mono로 돌려주므로 GPT 응답을 기다리는 동안 요청 스레드를 붙잡지 않음
+	 * - 구독을 취소하면(클라이언트 연결 끊김, 타임아웃) OpenAI 요청도 함께 취소됨
+	 * - 예산/사용자 하루 한도 초과는 UsageLimitExceededException, 동시 호출/서킷 제한은 UpstreamUnavailableException 으로 실패
+	 * - 호출 전에 최대 요금을 예약하고 응답의 usage(실제 토큰 수)로 정산
      * @param userMessage 사용자가 입력한 질문
-     * @return OpenAI API에서 받은 JSON 응답 문자열
+     * @return GPT가 생성한 장소 JSON 배열 문자열 (JSON 모드 응답 {"places":[...]} 은 배열로 풀어서)
 	 */
-	public String chatWithGpt(String userMessage) {
-	    try {
-            // 1. JSON 파싱
-            JsonNode node = mapper.readTree(userMessage);
-
-            String region = node.get("region").asText();
-            String ward = node.has("ward") ? node.get("ward").asText() : null;
-            int days = node.get("days").asInt();
-            String companion = node.get("companion").asText();
-            String preferences = node.get("preferences").asText();
-
-            // 2. 지역 타입에 따른 프롬프트 선택
-            String gptPrompt;
-            if (ward != null) {
-                // 자치도 + 구/군
-                gptPrompt = buildProvincePrompt(region, ward, days, companion, preferences);
-                System.out.println("🌏 자치도 프롬프트 사용: " + region + " " + ward);
-            } else {
-                // 광역시/특별시
-                gptPrompt = buildMetropolitanPrompt(region, days, companion, preferences);
-                System.out.println("🏙️ 광역시 프롬프트 사용: " + region);
-            }
+	public Mono<String> chatWithGpt(String userMessage) {
+		return chatWithGpt(userMessage, null, usageTracker.currentUserKey());
+	}
 
-            // 3. 사용량 체크
-            int estimatedInputTokens = gptPrompt.length() / 4;
-            int estimatedOutputTokens = 200;
+	/**
+	 * @param shortlist GROUNDED 일정이면 후보 목록 (GPT가 고른 번호를 장소로 바꿔서 반환), FREE 면 null
+	 * @param usageKey 사용량을 기록할 사용자 (요청 스레드에서 UsageTracker.currentUserKey() 로 구함)
+	 */
+	public Mono<String> chatWithGpt(String userMessage, CandidateShortlist shortlist, String usageKey) {
+		return chatWithGpt(userMessage, shortlist,
+				request -> usageTracker.reserve(usageKey, request.model(), request.promptTokens(), request.maxTokens()));
+	}
 
-            if (!usageTracker.canProceed(estimatedInputTokens, estimatedOutputTokens)) {
-                return "월 사용 예산을 초과하였습니다. (예산: $5)";
-            }
+	/**
+	 * 여러 요청이 함께 받는 호출 (ItineraryCache 의 single-flight)
+	 * @param party 합류한 사용자들 (각자 한도 확인은 합류할 때 끝남, 요금은 받은 사용자마다 기록)
+	 */
+	public Mono<String> chatWithGpt(String userMessage, CandidateShortlist shortlist, UsageTracker.Party party) {
+		return chatWithGpt(userMessage, shortlist,
+				request -> usageTracker.reserve(party, request.model(), request.promptTokens(), request.maxTokens()));
+	}
 
-            // 4. JSON 요청 생성
-            ObjectNode requestNode = mapper.createObjectNode();
-            requestNode.put("model", "gpt-4o");
-            requestNode.put("max_tokens", 2250);
+	private Mono<String> chatWithGpt(String userMessage, CandidateShortlist shortlist,
+			Function<ChatRequest, UsageTracker.Reservation> reserve) {
+		return Mono.defer(() -> {
+			try {
+	            ChatRequest request = buildChatRequest(userMessage, false, shortlist);
+	            UsageTracker.Reservation reservation = reserve.apply(request);
+
+	            // WebClient로 OpenAI API 호출 (동시 호출 수/서킷/요청 마감 시각 적용)
+	            Duration timeout = upstreamGuard.timeout(Duration.ofSeconds(60));
+	            return upstreamGuard.callAsync("openai", () -> webClient.post()
+	                    .uri("/chat/completions")
+	                    .bodyValue(request.body())
+	                    .retrieve()
+	                    .bodyToMono(String.class)
+	                    .timeout(timeout))
+	                .map(this::readResponse)
+	                .doOnNext(root -> reservation.settle(root.get("usage")))
+	                // 시간 초과/취소는 OpenAI 가 이미 처리 중일 수 있으므로 프롬프트 비용만 청구
+	                .doOnError(e -> reservation.abort(e instanceof TimeoutException))
+	                .doOnCancel(() -> reservation.abort(true))
+	                .map(this::extractContent)
+	                .map(this::unwrapPlaces)
+	                .map(content -> shortlist != null ? shortlist.resolveAll(content) : content);
+
+	        } catch (Exception e) {
+	            return Mono.error(e);
+	        }
+		});
+	}
 
-            ArrayNode messages = mapper.createArrayNode();
-            ObjectNode userNode = mapper.createObjectNode();
-            userNode.put("role", "user");
-            userNode.put("content", gptPrompt);
-            messages.add(userNode);
+	/**
+	 * 스트리밍 버전 (stream: true)
+	 * GPT가 생성하는 content 조각을 도착하는 대로 흘려보냄 → 호출 측에서 JSON 배열을 조금씩 파싱
+	 * 조각 사이 간격이 30초를 넘으면 TimeoutException
+	 */
+	public Flux<String> streamChatWithGpt(String userMessage) {
+		return streamChatWithGpt(userMessage, null, usageTracker.currentUserKey());
+	}
+
+	/**
+	 * @param shortlist GROUNDED 일정이면 후보 목록 (조각은 번호 그대로 흘려보냄 → 호출 측에서 CandidateShortlist.resolve)
+	 * @param usageKey 사용량을 기록할 사용자
+	 * 실제 토큰 수는 stream_options.include_usage 로 받는 마지막 조각(choices 가 빈 배열)의 usage 로 정산
+	 */
+	public Flux<String> streamChatWithGpt(String userMessage, CandidateShortlist shortlist, String usageKey) {
+		return streamChatWithGpt(userMessage, shortlist,
+				request -> usageTracker.reserve(usageKey, request.model(), request.promptTokens(), request.maxTokens()));
+	}
+
+	/**
+	 * 여러 스트리밍 요청이 함께 받는 호출 (ItineraryCache.stream)
+	 * @param party 합류한 사용자들 (요금은 받은 사용자마다 기록)
+	 */
+	public Flux<String> streamChatWithGpt(String userMessage, CandidateShortlist shortlist, UsageTracker.Party party) {
+		return streamChatWithGpt(userMessage, shortlist,
+				request -> usageTracker.reserve(party, request.model(), request.promptTokens(), request.maxTokens()));
+	}
+
+	private Flux<String> streamChatWithGpt(String userMessage, CandidateShortlist shortlist,
+			Function<ChatRequest, UsageTracker.Reservation> reserve) {
+		return Flux.defer(() -> {
+			try {
+				ChatRequest request = buildChatRequest(userMessage, true, shortlist);
+				UsageTracker.Reservation reservation = reserve.apply(request);
+
+				Duration idleTimeout = upstreamGuard.timeout(Duration.ofSeconds(30));
+				return upstreamGuard.callStream("openai", () -> webClient.post()
+						.uri("/chat/completions")
+						.accept(MediaType.TEXT_EVENT_STREAM)
+						.bodyValue(request.body())
+						.retrieve()
+						.bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+						.timeout(idleTimeout))
+					// 마지막 "[DONE]" 뒤에 서버가 연결을 닫으므로 takeWhile 대신 filter (취소가 아닌 정상 종료로 기록)
+					.map(ServerSentEvent::data)
+					.filter(data -> data != null && !"[DONE]".equals(data))
+					.map(this::readResponse)
+					.doOnNext(chunk -> {
+						if (chunk.hasNonNull("usage")) {
+							reservation.settle(chunk.get("usage"));
+						}
+					})
+					// usage 조각 없이 끝나면 예약 금액 그대로 청구 (이미 정산했으면 무시됨)
+					.doOnComplete(() -> reservation.settle(null))
+					.doOnError(e -> reservation.abort(e instanceof TimeoutException))
+					.doOnCancel(() -> reservation.abort(true))
+					.map(this::extractDelta)
+					.filter(delta -> !delta.isEmpty());
+
+			} catch (Exception e) {
+				return Flux.error(e);
+			}
+		});
+	}
+
+	/**
+	 * GPT 응답 캐시 키 (지역명은 normalizeRegionName 기준, 테마는 정렬된 ID, 생성 방식별로 따로 저장)
+	 */
+	public ItineraryCache.ItineraryKey itineraryKey(String userMessage, List<Integer> themeIds, PlannerMode planner) throws Exception {
+		JsonNode node = mapper.readTree(userMessage);
+		return ItineraryCache.key(
+				normalizeRegionName(node.path("region").asText().trim()),
+				node.hasNonNull("ward") ? node.get("ward").asText() : null,
+				node.path("days").asInt(),
+				node.path("companion").asText(),
+				themeIds,
+				planner);
+	}
 
-            requestNode.set("messages", messages);
-            String requestBody = mapper.writeValueAsString(requestNode);
+	/**
+	 * 요청의 planner 값 → 일정 생성 방식 (없거나 잘못된 값이면 openai.planner.default)
+	 */
+	public PlannerMode plannerMode(Object requested) {
+		return PlannerMode.of(requested, PlannerMode.of(defaultPlanner, PlannerMode.FREE));
+	}
 
-            System.out.println("GPT 요청 바디: " + requestBody);
+	/**
+	 * GROUNDED 일정용 후보 목록: 테마별 score 상위 장소 (광역시는 구별 groundedPerWard 개까지 → 여러 구에 고르게)
+	 * 불러온 장소는 pool 에 남아서 매칭/숙소/보완 단계에서 그대로 사용
+	 * @return 지역을 못 찾거나 후보가 없으면 null (FREE 방식으로 진행)
+	 */
+	@Transactional(readOnly = true)
+	public CandidateShortlist buildShortlist(String userMessage, List<Integer> themeIds, CandidatePool pool) throws Exception {
+		JsonNode node = mapper.readTree(userMessage);
+		String region = node.path("region").asText().trim();
+		String ward = node.hasNonNull("ward") ? node.get("ward").asText() : null;
+		int days = node.path("days").asInt(1);
+
+		Optional<RegionCodeEntity> regionOpt = pool.region(normalizeRegionName(region));
+		if (regionOpt.isEmpty()) {
+			System.out.println("❌ 후보 목록 생성 실패 (지역 미일치): " + region);
+			return null;
+		}
+		RegionCodeEntity regionEntity = regionOpt.get();
+
+		Map<Integer, String> themeNames = new HashMap<>();
+		for (ThemeEntity theme : themeRepository.findAllById(themeIds)) {
+			themeNames.put(theme.getContentTypeId(), theme.getThemeName());
+		}
+
+		CandidateShortlist shortlist = new CandidateShortlist(mapper, region, ward, themeNames);
+		Set<Long> added = new HashSet<>();
+		int perTheme = Math.max(groundedPerTheme, days * 3);
+
+		for (Integer themeId : themeIds.stream().distinct().toList()) {
+			boolean accommodation = themeId == 32;
+			int limit = accommodation ? groundedHotels : perTheme;
+
+			// score 순 후보 (자치도는 선택한 시/군 안에서만)
+			List<DataEntity> ranked = ward != null
+					? pool.topByScorePerWard(regionEntity, ward, List.of(themeId), limit)
+					: pool.regionTopByScore(regionEntity, List.of(themeId), limit * 4);
+
+			// 광역시는 한 구에 몰리지 않도록 구별 개수 제한 후 남은 자리는 score 순으로
+			List<DataEntity> picked = new ArrayList<>();
+			List<DataEntity> overflow = new ArrayList<>();
+			Map<String, Integer> perWard = new HashMap<>();
+			for (DataEntity data : ranked) {
+				if (picked.size() >= limit) break;
+				if (added.contains(data.getId()) || (!accommodation && "AC".equals(data.getC1Code()))) continue;
+				// 좌표 없는 장소는 일정 경로/숙소 거리 계산에 못 쓰므로 후보에서 제외
+				if (!CandidateShortlist.hasCoordinates(data)) continue;
+
+				String wardName = data.getWardCodeEntity() != null ? data.getWardCodeEntity().getName() : "";
+				if (ward == null && perWard.merge(wardName, 1, Integer::sum) > groundedPerWard) {
+					overflow.add(data);
+					continue;
+				}
+				picked.add(data);
+			}
+			for (DataEntity data : overflow) {
+				if (picked.size() >= limit) break;
+				picked.add(data);
+			}
+
+			for (DataEntity data : picked) {
+				added.add(data.getId());
+				shortlist.add(themeId, data);
+			}
+		}
+
+		System.out.println("📋 GROUNDED 후보 목록: " + shortlist.size() + "개 (DB 조회 " + pool.getQueryCount() + "회)");
+		return shortlist.isEmpty() ? null : shortlist;
+	}
 
-            // 5. WebClient로 OpenAI API 호출
-            String rawJson = webClient.post()
-                    .uri("/chat/completions")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
+	/**
+	 * Chat Completion 요청 바디 + 요금 예약용 모델/토큰 수 (프롬프트 추정치, max_tokens)
+	 */
+	private record ChatRequest(String body, String model, int promptTokens, int maxTokens) {
+	}
 
-            JsonNode root = mapper.readTree(rawJson);
-            return root.path("choices").get(0).path("message").path("content").asText();
+	/**
+	 * 사용자 요청 → 모델/프롬프트 선택 → Chat Completion 요청 바디
+	 * - 고정 지시문(FREE/GROUNDED 별 상수)을 system 메시지로 맨 앞에 두고, 요청마다 바뀌는 조건/후보 목록만 user 메시지로
+	 * - response_format json_object 로 항상 JSON 객체 {"places":[...]} 를 받음 (unwrapPlaces / JsonArrayStreamParser 가 배열로 풀어줌)
+	 */
+	private ChatRequest buildChatRequest(String userMessage, boolean stream, CandidateShortlist shortlist) throws Exception {
+        // 1. JSON 파싱
+        JsonNode node = mapper.readTree(userMessage);
+
+        String region = node.get("region").asText();
+        String ward = node.has("ward") ? node.get("ward").asText() : null;
+        int days = node.get("days").asInt();
+        String companion = node.get("companion").asText();
+        String preferences = node.get("preferences").asText();
+
+        // 2. 지역 타입에 따른 프롬프트 선택
+        String instructions;
+        String gptPrompt;
+        if (shortlist != null) {
+            // DB 후보 번호로 일정 구성
+            instructions = GROUNDED_INSTRUCTIONS;
+            gptPrompt = buildGroundedPrompt(region, ward, days, companion, preferences, shortlist);
+            System.out.println("🔢 후보 목록 프롬프트 사용: " + region + (ward != null ? " " + ward : "") + " (후보 " + shortlist.size() + "개)");
+        } else if (ward != null) {
+            // 자치도 + 구/군
+            instructions = FREE_INSTRUCTIONS;
+            gptPrompt = buildProvincePrompt(region, ward, days, companion, preferences);
+            System.out.println("🌏 자치도 프롬프트 사용: " + region + " " + ward);
+        } else {
+            // 광역시/특별시
+            instructions = FREE_INSTRUCTIONS;
+            gptPrompt = buildMetropolitanPrompt(region, days, companion, preferences);
+            System.out.println("🏙️ 광역시 프롬프트 사용: " + region);
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "OPEN AI 응답 처리 중 오류 내용: " + e.toString();
+        // 3. 모델 + 출력 토큰: 짧거나 번호만 고르는 일정은 가벼운 모델, max_tokens 는 일수에 맞춰서
+        boolean light = days <= lightMaxDays || (shortlist != null && lightForGrounded);
+        String model = light ? lightModel : defaultModel;
+        int maxTokens = Math.min(maxTokensLimit,
+                RESPONSE_OVERHEAD_TOKENS + Math.max(1, days) * (shortlist != null ? groundedTokensPerDay : tokensPerDay));
+        System.out.println("🤖 모델: " + model + ", max_tokens: " + maxTokens + " (" + days + "일)");
+
+        // 4. JSON 요청 생성
+        ObjectNode requestNode = mapper.createObjectNode();
+        requestNode.put("model", model);
+        requestNode.put("max_tokens", maxTokens);
+        requestNode.putObject("response_format").put("type", "json_object");
+        if (stream) {
+            requestNode.put("stream", true);
+            // 마지막 조각으로 실제 토큰 사용량 받기
+            requestNode.putObject("stream_options").put("include_usage", true);
         }
+
+        ArrayNode messages = mapper.createArrayNode();
+        messages.addObject().put("role", "system").put("content", instructions);
+        messages.addObject().put("role", "user").put("content", gptPrompt);
+
+        requestNode.set("messages", messages);
+        String requestBody = mapper.writeValueAsString(requestNode);
+
+        System.out.println("GPT 요청 바디: " + requestBody);
+        return new ChatRequest(requestBody, model,
+                UsageTracker.estimateTokens(instructions) + UsageTracker.estimateTokens(gptPrompt), maxTokens);
 	}
-	
+
 	/**
-     * 광역시/특별시용 프롬프트
+	 * JSON 모드 응답 {"places":[...]} → 장소 배열 문자열 (이미 배열이거나 파싱할 수 없으면 그대로 → 호출 측에서 처리)
+	 */
+	private String unwrapPlaces(String content) {
+		try {
+			JsonNode root = mapper.readTree(content);
+			if (root != null && root.isObject()) {
+				JsonNode places = root.path("places");
+				if (!places.isArray()) {
+					// 키 이름을 다르게 쓴 경우: 첫 번째 배열 값
+					places = null;
+					for (JsonNode value : root) {
+						if (value.isArray()) {
+							places = value;
+							break;
+						}
+					}
+				}
+				if (places != null) {
+					return mapper.writeValueAsString(places);
+				}
+			}
+		} catch (Exception e) {
+			System.out.println("⚠️ GPT 응답 JSON 파싱 실패: " + e.getMessage());
+		}
+		return content;
+	}
+
+	private JsonNode readResponse(String rawJson) {
+		try {
+			return mapper.readTree(rawJson);
+		} catch (Exception e) {
+			throw new IllegalStateException("OPEN AI 응답 처리 중 오류 내용: " + e, e);
+		}
+	}
+
+	// usage 만 담긴 마지막 조각은 choices 가 빈 배열 → 빈 문자열
+	private String extractDelta(JsonNode chunk) {
+		return chunk.path("choices").path(0).path("delta").path("content").asText("");
+	}
+
+	private String extractContent(JsonNode root) {
+		JsonNode choice = root.path("choices").path(0);
+		if (choice.isMissingNode()) {
+			throw new IllegalStateException("OPEN AI 응답 처리 중 오류 내용: choices 없음");
+		}
+		return choice.path("message").path("content").asText();
+	}
+	
+    // JSON 모드 응답 감싸기/닫는 괄호 등 일수와 상관없는 출력 토큰
+    private static final int RESPONSE_OVERHEAD_TOKENS = 60;
+
+    /**
+     * FREE 일정 고정 지시문 (system 메시지, 모든 요청에서 같은 문자열 → 앞부분이 같은 프롬프트)
+     */
+    private static final String FREE_INSTRUCTIONS = """
+            여행 일정 플래너. 조건에 맞는 일정을 JSON 객체 하나로만 출력:
+            {"places":[{"day":1,"order":1,"region":"지역","ward":"구/시/군","title":"장소명","address":"정확한 주소","mapx":127.xxx,"mapy":37.xxx}, ...]}
+            - 날짜별 최대 장소 수: 1박2일[3,2], 2박3일[3,3,2], 3박4일[3,3,3,2]
+            - 하루 일정은 같은 구/시 또는 인접한 곳, 대중교통으로 이동 가능한 거리
+            - 실제 장소와 정확한 주소, 같은 주소 중복 금지
+            - 날짜 안에서는 추천도 순
+            """;
+
+    /**
+     * GROUNDED 일정 고정 지시문 (system 메시지)
+     */
+    private static final String GROUNDED_INSTRUCTIONS = """
+            여행 일정 플래너. 후보 목록의 번호(ref)로 일정을 JSON 객체 하나로만 출력:
+            {"places":[{"day":1,"order":1,"ref":1}, ...]}
+            - 후보 목록의 번호만 사용, 목록에 없는 장소와 같은 번호 중복 금지
+            - 날짜별 최대 장소 수: 1박2일[3,2], 2박3일[3,3,2], 3박4일[3,3,3,2]
+            - 같은 구 또는 인접한 구의 장소로 하루 일정, 하루 동선이 짧도록 order 배치
+            """;
+
+    /**
+     * 광역시/특별시용 조건 (user 메시지)
      */
     private String buildMetropolitanPrompt(String region, int days, String companion, String preferences) {
         return String.format("""
-            여행 일정 플래너 - %s 전체 지역 여행
-            
-            조건: 지역=%s, 일수=%d, 동행=%s, 선호=%s
-            
-            요구사항:
-            - %s 전체에서 다양한 구/군의 유명 장소들을 추천
-            - 각 날짜별 최대 장소 수: 1박2일[3,2], 2박3일[3,3,2], 3박 4일[3,3,3,2]
-            - 같은 구(ward) 내 또는 인접한 구에서 하루 일정 구성
-            - 대중교통으로 이동 가능한 거리로 배치
-            - 정확한 주소 포함, 같은 주소 중복 금지
-            - 추천도 순 정렬
-            
-            지역 특성:
-            - %s는 대중교통이 잘 발달된 도시형 지역
-            - 구별로 특색있는 관광지와 맛집이 분포
-            - 하루 이동거리는 30km 이내로 제한
-            
-            JSON 배열만 출력, 코드블록 금지:
-            [{"day":1,"order":1,"region":"%s","ward":"종로구","title":"경복궁","address":"서울특별시 종로구 세종대로 175","mapx":127.xxx,"mapy":37.xxx}, ...]
-            """, region, region, days, companion, preferences, region, region, region);
+            지역=%s 전체 (여러 구의 유명 장소, 하루 이동 30km 이내), 일수=%d, 동행=%s, 선호=%s
+            """, region, days, companion, preferences);
     }
     
     /**
-     * 자치도용 프롬프트
+     * 후보 목록(번호) 기반 조건 - 장소 이름/주소 대신 번호만 출력
+     */
+    private String buildGroundedPrompt(String region, String ward, int days, String companion, String preferences,
+            CandidateShortlist shortlist) {
+        String area = ward != null ? region + " " + ward : region;
+        return String.format("""
+            지역=%s, 일수=%d, 동행=%s, 선호=%s
+            후보 (번호|이름|구):
+            %s""", area, days, companion, preferences, shortlist.promptBlock());
+    }
+    
+    /**
+     * 자치도용 조건 (user 메시지)
      */
     private String buildProvincePrompt(String region, String ward, int days, String companion, String preferences) {
         return String.format("""
-            여행 일정 플래너 - %s %s 집중 여행
-            
-            조건: 지역=%s %s, 일수=%d, 동행=%s, 선호=%s
-            
-            요구사항:
-            - %s 내에서만 장소들을 추천 (다른 시/군으로 이동 금지)
-            - 각 날짜별 최대 장소 수: 1박2일[3,2], 2박3일[3,3,2], 3박 4일[3,3,3,2]
-            - 같은 도시 내 이동으로 효율적인 동선 구성
-            - 도보 또는 시내 대중교통으로 이동 가능한 거리
-            - 정확한 주소 포함, 같은 주소 중복 금지
-            - 추천도 순 정렬
-            
-            지역 특성:
-            - %s는 %s 지역의 특색있는 도시
-            - 지역 내 대표 관광지와 로컬 맛집 위주
-            - 하루 이동거리는 20km 이내로 제한
-            - 지역 고유의 문화와 특산물 체험 포함
-            
-            JSON 배열만 출력, 코드블록 금지:
-            [{"day":1,"order":1,"region":"%s","ward":"%s","title":"지역명소","address":"%s %s 구체적주소","mapx":127.xxx,"mapy":37.xxx}, ...]
-            """, region, ward, region, ward, days, companion, preferences, ward, ward, region, region, ward, region, ward);
+            지역=%s %s (%s 안에서만, 다른 시/군 이동 금지, 대표 관광지/로컬 맛집/문화·특산물 체험, 하루 이동 20km 이내), 일수=%d, 동행=%s, 선호=%s
+            """, region, ward, ward, days, companion, preferences);
     }
 	
 	// 지피티에서 보내온 거 보정하기
-	private String normalizeRegionName(String region) {
+	String normalizeRegionName(String region) {
         return switch (region) {
         case "서울", "서울특별시" -> "서울특별시";
         case "부산", "부산광역시" -> "부산광역시";
@@ -1228,160 +1590,14 @@ public class OpenAiService {
 	}
 	
 	 //주소 정규화 (구 + 주요 도로명 추출)
-	private String normalizeAddress(String address) {
-	    if (address == null) return "";
-	    
-	    // "서울특별시 종로구 세종대로 175" → "종로구 세종대로"
-	    Pattern pattern = Pattern.compile("(\\w+구)\\s+([\\w\\d]+[로길동가])");
-	    Matcher matcher = pattern.matcher(address);
-	    
-	    if (matcher.find()) {
-	        return matcher.group(1) + " " + matcher.group(2);
-	    }
-	    
-	    // 패턴이 안 맞으면 원본 반환
-	    return address.toLowerCase().replaceAll("\\s+", "");
-	}
-
-	/**
-	 * GPT 장소와 DB 장소 간의 매칭 점수 계산 (0~100점)
-	 */
-	private int calculateMatchingScore(String gptTitle, String gptAddress, String dbTitle, String dbAddr1) {
-	    int score = 0;
-	    
-	    // 1. 주소 매칭 점수 (0~50점)
-	    int addressScore = calculateAddressScore(gptAddress, dbAddr1);
-	    
-	    // 2. 타이틀 매칭 점수 (0~50점)  
-	    int titleScore = calculateTitleScore(gptTitle, dbTitle);
-	    
-	    score = addressScore + titleScore;
-	    
-	    System.out.println("매칭 점수: " + gptTitle + " ↔ " + dbTitle + " = " + score + "점 (주소:" + addressScore + ", 타이틀:" + titleScore + ")");
-	    return score;
-	}
-
-	/**
-	 * 주소 매칭 점수 계산
-	 */
-	private int calculateAddressScore(String gptAddress, String dbAddr1) {
-	    if (gptAddress == null || dbAddr1 == null) return 0;
-	    
-	    String norm1 = normalizeAddress(gptAddress);
-	    String norm2 = normalizeAddress(dbAddr1);
-	    
-	    if (norm1.equals(norm2)) return 50;           // 완전 일치
-	    if (norm1.contains(norm2) || norm2.contains(norm1)) return 35; // 포함 관계
-	    
-	    // 부분 유사도 계산 (공통 키워드 개수)
-	    String[] words1 = norm1.split("\\s+");
-	    String[] words2 = norm2.split("\\s+");
-	    int commonWords = 0;
-	    
-	    for (String word1 : words1) {
-	        for (String word2 : words2) {
-	            if (word1.equals(word2) && word1.length() > 1) {
-	                commonWords++;
-	            }
-	        }
-	    }
-	    
-	    return Math.min(25, commonWords * 10); // 공통 단어당 10점, 최대 25점
-	}
-
-	/**
-	 * 타이틀 매칭 점수 계산
-	 */
-	private int calculateTitleScore(String gptTitle, String dbTitle) {
-	    if (gptTitle == null || dbTitle == null) return 0;
-	    
-	    String norm1 = gptTitle.replaceAll("[\\s\\-\\(\\)\\[\\]\\p{Punct}]", "").toLowerCase();
-	    String norm2 = dbTitle.replaceAll("[\\s\\-\\(\\)\\[\\]\\p{Punct}]", "").toLowerCase();
-	    
-	    if (norm1.equals(norm2)) return 50;           // 완전 일치
-	    if (norm1.contains(norm2) || norm2.contains(norm1)) return 35; // 포함 관계
-	    
-	    // 문자열 유사도 기반 점수
-	    double similarity = calculateStringSimilarity(norm1, norm2);
-	    return (int)(similarity * 25); // 유사도에 따라 0~25점
-	}
-
-	/**
-	 * 문자열 유사도 계산 (0.0~1.0)
-	 */
-	private double calculateStringSimilarity(String s1, String s2) {
-	    int maxLen = Math.max(s1.length(), s2.length());
-	    if (maxLen == 0) return 1.0;
-	    
-	    int distance = levenshteinDistance(s1, s2);
-	    return 1.0 - (double)distance / maxLen;
-	}
-
-	/**
-	 * Levenshtein Distance 계산
-	 */
-	private int levenshteinDistance(String s1, String s2) {
-	    int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-	    
-	    for (int i = 0; i <= s1.length(); i++) {
-	        dp[i][0] = i;
-	    }
-	    for (int j = 0; j <= s2.length(); j++) {
-	        dp[0][j] = j;
-	    }
-	    
-	    for (int i = 1; i <= s1.length(); i++) {
-	        for (int j = 1; j <= s2.length(); j++) {
-	            if (s1.charAt(i-1) == s2.charAt(j-1)) {
-	                dp[i][j] = dp[i-1][j-1];
-	            } else {
-	                dp[i][j] = Math.min(Math.min(dp[i-1][j], dp[i][j-1]), dp[i-1][j-1]) + 1;
-	            }
-	        }
-	    }
-	    
-	    return dp[s1.length()][s2.length()];
-	}
-
-	/**
-	 * 최고 점수의 매칭 후보 찾기
-	 */
-	private DataEntity findBestMatch(String gptTitle, String gptAddress, List<DataEntity> candidates, Set<Long> usedIds) {
-	    DataEntity bestMatch = null;
-	    int bestScore = 0;
-	    int minScoreThreshold = 30; // 최소 30점 이상만 매칭
-	    
-	    System.out.println("🎯 " + candidates.size() + "개 후보에서 최적 매칭 찾기: " + gptTitle);
-	    
-	    for (DataEntity candidate : candidates) {
-	        if (usedIds.contains(candidate.getId()) && !"AC".equals(candidate.getC1Code())) {
-	            continue;
-	        }
-	        if ("AC".equals(candidate.getC1Code())) {
-	            continue; // 숙소 제외
-	        }
-	        
-	        int score = calculateMatchingScore(gptTitle, gptAddress, candidate.getTitle(), candidate.getAddr1());
-	        
-	        if (score > bestScore && score >= minScoreThreshold) {
-	            bestScore = score;
-	            bestMatch = candidate;
-	        }
-	    }
-	    
-	    if (bestMatch != null) {
-	        System.out.println("🏆 최고 점수 매칭: " + bestMatch.getTitle() + " (점수: " + bestScore + ")");
-	    } else {
-	        System.out.println("❌ 임계점(" + minScoreThreshold + "점) 이상 매칭 없음");
-	    }
-	    
-	    return bestMatch;
+	public String normalizeAddress(String address) {
+	    return PlaceMatcher.normalizeAddress(address);
 	}
 
 	/**
 	 * Place JsonNode 생성
 	 */
-	private ObjectNode createPlaceNode(JsonNode originalPlace, DataEntity data) {
+	ObjectNode createPlaceNode(JsonNode originalPlace, DataEntity data) {
 	    ObjectNode node = mapper.createObjectNode();
 	    node.put("day", originalPlace.get("day").asInt());
 	    node.put("order", originalPlace.get("order").asInt());
@@ -1422,16 +1638,9 @@ public class OpenAiService {
 	    return URBAN_AREAS.contains(regionName);
 	}
 
-	// 하버사인 공식으로 두 좌표 간 거리 계산 (km 단위)
+	// 하버사인 공식으로 두 좌표 간 거리 계산 (km 단위, GeoUtils 공용 식)
 	public static double haversine(double lon1, double lat1, double lon2, double lat2) {
-	    final int R = 6371; // 지구 반경 (km)
-	    double dLat = Math.toRadians(lat2 - lat1);
-	    double dLon = Math.toRadians(lon2 - lon1);
-	    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-	             + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-	             * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-	    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-	    return R * c;
+	    return GeoUtils.haversine(lon1, lat1, lon2, lat2);
 	}
 	
 	// GPT 응답에서 중복 주소 제거
@@ -1455,28 +1664,10 @@ public class OpenAiService {
 	}
 	
 	/**
-	 * 선택된 ward와 관련된 모든 하위 ward들을 찾아서 반환
-	 * 예: "수원시" 선택시 → ["수원시", "수원시 팔달구", "수원시 영통구", ...] 반환
+	 * AI 일정 1건 동안 지역/구/후보 조회 결과를 공유하는 풀 (CandidatePool)
 	 */
-	private List<WardCodeEntity> findAllRelatedWards(String selectedWard, RegionCodeEntity regionEntity) {
-	    List<WardCodeEntity> allWards = new ArrayList<>();
-	    
-	    // 1. 선택된 ward 자체 추가
-	    Optional<WardCodeEntity> selectedWardEntity = wardCodeRepository.findWardByNameAndRegionForAI(selectedWard, regionEntity);
-	    if (selectedWardEntity.isPresent()) {
-	        allWards.add(selectedWardEntity.get());
-	    }
-	    
-	    // 2. 선택된 ward의 하위 구들 찾기 (예: "수원시" → "수원시 팔달구", "수원시 영통구")
-	    List<WardCodeEntity> subWards = wardCodeRepository.findByNameStartingWithAndRegionCodeEntity(selectedWard + " ", regionEntity);
-	    allWards.addAll(subWards);
-	    
-	    System.out.println("🏘️ 계층적 검색: " + selectedWard + " → 총 " + allWards.size() + "개 ward 발견");
-	    for (WardCodeEntity ward : allWards) {
-	        System.out.println("   - " + ward.getName());
-	    }
-	    
-	    return allWards;
+	public CandidatePool newCandidatePool() {
+		return new CandidatePool(regionCodeRepository, wardCodeRepository, dataRepository);
 	}
 	
 	/**
@@ -1484,6 +1675,11 @@ public class OpenAiService {
 	 */
 	@Transactional(readOnly = true)
 	public List<JsonNode> filterExistingPlaces(JsonNode gptArray, List<Integer> themeIds, Set<Long> usedIds) {
+	    return filterExistingPlaces(gptArray, themeIds, usedIds, newCandidatePool());
+	}
+
+	@Transactional(readOnly = true)
+	public List<JsonNode> filterExistingPlaces(JsonNode gptArray, List<Integer> themeIds, Set<Long> usedIds, CandidatePool pool) {
 	    List<JsonNode> result = new ArrayList<>();
 	    
 	    // 먼저 중복 주소 제거
@@ -1492,57 +1688,84 @@ public class OpenAiService {
 	    System.out.println("📌 점수 기반 필터링 시작: GPT 원본=" + gptArray.size() + " / 중복 제거 후=" + uniquePlaces.size());
 
 	    for (JsonNode place : uniquePlaces) {
-	        String regionName = normalizeRegionName(place.get("region").asText());
-	        String wardName = place.has("ward") ? place.get("ward").asText() : null;
-	        String placeName = place.has("title") ? place.get("title").asText() : null;
-	        String placeAddress = place.has("address") ? place.get("address").asText() : null;
-	        
-	        System.out.println("🔎 매칭 시도: " + placeName + " (" + regionName + " " + wardName + ")");
-
-	        if (wardName == null || placeName == null) {
-	            System.out.println("❌ ward/title null로 스킵됨");
-	            continue;
+	        ObjectNode node = matchPlace(place, themeIds, usedIds, pool);
+	        if (node != null) {
+	            result.add(node);
 	        }
+	    }
+	    System.out.println("✅ 최종 점수 기반 필터링 결과: " + result.size() + "개 매칭됨");
+	    return result;
+	}
 
-	        // 1. regioncode 조회
-	        Optional<RegionCodeEntity> regionOpt = regionCodeRepository.findRegionByNameForAI(regionName);
-	        if (regionOpt.isEmpty()) {
-	            System.out.println("❌ 지역 미일치: " + regionName);
-	            continue;
-	        }
-	        RegionCodeEntity regionEntity = regionOpt.get();
-	      
-	        // 2. 계층적 ward 검색
-	        List<WardCodeEntity> relatedWards = findAllRelatedWards(wardName, regionEntity);
-	        if (relatedWards.isEmpty()) {
-	            System.out.println("❌ 관련 구 미발견: " + wardName);
-	            continue;
-	        }
+	/**
+	 * GPT 장소 1개를 DB 장소와 점수 기반으로 매칭 (filterExistingPlaces, 스트리밍 일정 생성에서 사용)
+	 * @return 매칭된 장소 노드, 없으면 null. 매칭되면 usedIds에 추가됨
+	 */
+	@Transactional(readOnly = true)
+	public ObjectNode matchPlace(JsonNode place, List<Integer> themeIds, Set<Long> usedIds) {
+	    return matchPlace(place, themeIds, usedIds, newCandidatePool());
+	}
 
-	        // 3. 모든 관련 ward에서 후보 검색
-	        List<DataEntity> candidates = new ArrayList<>();
-	        for (WardCodeEntity wardEntity : relatedWards) {
-	            List<DataEntity> wardCandidates = dataRepository.findByRegionCodeEntityAndWardCodeEntityAndThemeIn(regionEntity, wardEntity, themeIds);
-	            candidates.addAll(wardCandidates);
+	@Transactional(readOnly = true)
+	public ObjectNode matchPlace(JsonNode place, List<Integer> themeIds, Set<Long> usedIds, CandidatePool pool) {
+	    String regionName = normalizeRegionName(place.path("region").asText());
+	    String wardName = place.has("ward") ? place.get("ward").asText() : null;
+	    String placeName = place.has("title") ? place.get("title").asText() : null;
+	    String placeAddress = place.has("address") ? place.get("address").asText() : null;
+	    
+	    System.out.println("🔎 매칭 시도: " + placeName + " (" + regionName + " " + wardName + ")");
+
+	    if (wardName == null || placeName == null) {
+	        System.out.println("❌ ward/title null로 스킵됨");
+	        return null;
+	    }
+
+	    // GROUNDED 일정: 후보 번호로 고른 장소는 이미 불러온 DB 장소로 바로 연결
+	    // (숙소/중복은 점수 매칭으로 다른 장소를 찾지 않고 제외, 풀에 없으면(캐시된 응답) 아래 점수 매칭)
+	    DataEntity picked = place.has("dataId") ? pool.loadedById(place.get("dataId").asLong()) : null;
+	    if (picked != null) {
+	        if (usedIds.contains(picked.getId()) || "AC".equals(picked.getC1Code()) || !themeIds.contains(picked.getTheme())) {
+	            System.out.println("❌ 후보 번호 제외 (숙소/중복/테마 불일치): " + placeName);
+	            return null;
 	        }
-	        
-	        System.out.println("🎯 총 후보 개수: " + candidates.size() + " (관련 ward: " + relatedWards.size() + "개)");
-	        
-	        // ⭐ 점수 기반 최적 매칭
-	        DataEntity bestMatch = findBestMatch(placeName, placeAddress, candidates, usedIds);
-	        
-	        if (bestMatch != null) {
-	            ObjectNode node = createPlaceNode(place, bestMatch);
-	            result.add(node);
-	            usedIds.add(bestMatch.getId());
-	            System.out.println("✅ 점수 기반 매칭 성공: " + placeName + " ↔ " + bestMatch.getTitle() + " (ward: " + bestMatch.getWardCodeEntity().getName() + ")");
-        } else {
-            System.out.println("❌ 점수 기반 매칭 실패: " + placeName);
-        }
-    }
-    System.out.println("✅ 최종 점수 기반 필터링 결과: " + result.size() + "개 매칭됨");
-    return result;
-}
+	        usedIds.add(picked.getId());
+	        System.out.println("✅ 후보 번호 매칭: " + placeName);
+	        return createPlaceNode(place, picked);
+	    }
+
+	    // 1. regioncode 조회
+	    Optional<RegionCodeEntity> regionOpt = pool.region(regionName);
+	    if (regionOpt.isEmpty()) {
+	        System.out.println("❌ 지역 미일치: " + regionName);
+	        return null;
+	    }
+	    RegionCodeEntity regionEntity = regionOpt.get();
+	  
+	    // 2. 계층적 ward 검색
+	    List<WardCodeEntity> relatedWards = pool.relatedWards(wardName, regionEntity);
+	    if (relatedWards.isEmpty()) {
+	        System.out.println("❌ 관련 구 미발견: " + wardName);
+	        return null;
+	    }
+
+	    // 3. 모든 관련 ward의 후보로 만든 매칭 색인 (같은 지역/구/테마는 요청 안에서 한 번만 조회/색인)
+	    PlaceMatcher matcher = pool.matcher(regionEntity, wardName, themeIds);
+	    
+	    System.out.println("🎯 총 후보 개수: " + matcher.size() + " (관련 ward: " + relatedWards.size() + "개)");
+	    
+	    // ⭐ 점수 기반 최적 매칭 (30점 이상)
+	    PlaceMatcher.Match match = matcher.findBest(placeName, placeAddress, usedIds);
+	    
+	    if (match == null) {
+	        System.out.println("❌ 점수 기반 매칭 실패: " + placeName);
+	        return null;
+	    }
+	    DataEntity bestMatch = match.data();
+	    ObjectNode node = createPlaceNode(place, bestMatch);
+	    usedIds.add(bestMatch.getId());
+	    System.out.println("✅ 점수 기반 매칭 성공: " + placeName + " ↔ " + bestMatch.getTitle() + " (점수: " + match.score() + ", ward: " + bestMatch.getWardCodeEntity().getName() + ")");
+	    return node;
+	}
 	
 	/**
 	 * 개선된 보완 로직 - 점수 기반 매칭 적용
@@ -1550,15 +1773,21 @@ public class OpenAiService {
 	@Transactional(readOnly = true)
 	public List<JsonNode> fillWithDbPlacesOnly(List<String> missingKeys, String region, String ward, List<Integer> themeIds,
 	         double baseMapx, double baseMapy, Set<Long> usedIds) {
+	    return fillWithDbPlacesOnly(missingKeys, region, ward, themeIds, baseMapx, baseMapy, usedIds, newCandidatePool());
+	}
+
+	@Transactional(readOnly = true)
+	public List<JsonNode> fillWithDbPlacesOnly(List<String> missingKeys, String region, String ward, List<Integer> themeIds,
+	         double baseMapx, double baseMapy, Set<Long> usedIds, CandidatePool pool) {
 	    
-	    RegionCodeEntity regionEntity = regionCodeRepository.findRegionByNameForAI(region).orElse(null);
+	    RegionCodeEntity regionEntity = pool.region(region).orElse(null);
 	    if (regionEntity == null) {
 	        System.out.println("❌ 지역 매칭 실패: " + region);
 	        return List.of();
 	    }
 
 	    // 계층적 ward 검색 적용
-	    List<WardCodeEntity> relatedWards = findAllRelatedWards(ward, regionEntity);
+	    List<WardCodeEntity> relatedWards = pool.relatedWards(ward, regionEntity);
 	    if (relatedWards.isEmpty()) {
 	        System.out.println("❌ 관련 구 매칭 실패: " + ward);
 	        return List.of();
@@ -1568,18 +1797,8 @@ public class OpenAiService {
 	    double maxDistanceKm = isUrbanArea(region) ? 20.0 : 70.0;
 	    int fetchSize = needed * 3;
 	    
-	    // 모든 관련 ward에서 데이터 수집
-	    List<DataEntity> allCandidates = new ArrayList<>();
-	    for (WardCodeEntity wardEntity : relatedWards) {
-	        Pageable pageable = PageRequest.of(0, fetchSize, Sort.by(Sort.Direction.DESC, "score"));
-	        List<DataEntity> wardCandidates = dataRepository.findByRegionCodeEntityAndWardCodeEntityAndThemeIn(
-	            regionEntity, wardEntity, themeIds, pageable
-	        ).getContent();
-	        allCandidates.addAll(wardCandidates);
-	    }
-	    
-	    // score 순으로 재정렬
-	    allCandidates.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+	    // 모든 관련 ward에서 구별 score 상위 fetchSize개씩 (매칭 때 불러온 후보 재사용), score 순 정렬
+	    List<DataEntity> allCandidates = pool.topByScorePerWard(regionEntity, ward, themeIds, fetchSize);
 	    
 	    System.out.println("점수 기반 보완 검색: " + ward + " → 총 " + allCandidates.size() + "개 후보");
 	    System.out.println("최대 거리 제한: " + maxDistanceKm + " km");
@@ -1655,118 +1874,53 @@ public class OpenAiService {
 
     @Transactional(readOnly = true)
     public List<JsonNode> getFilteredAndFilledPlaces(JsonNode gptArray, int gptCount, List<Integer> themeIds) {
+        return getFilteredAndFilledPlaces(gptArray, gptCount, themeIds, newCandidatePool());
+    }
+
+    /**
+     * @param pool 숙소 검색, GPT 장소 매칭, 빈 자리 보완이 같이 쓰는 후보 풀 (스트리밍은 앞서 매칭하며 채운 풀을 넘김)
+     */
+    @Transactional(readOnly = true)
+    public List<JsonNode> getFilteredAndFilledPlaces(JsonNode gptArray, int gptCount, List<Integer> themeIds, CandidatePool pool) {
         System.out.println("=== GPT 원본 일정 개수: " + gptArray.size() + " ===");
 
         // 1. 중복 체크용 ID 집합
         Set<Long> usedIds = new HashSet<>();
 
         // 2. 숙소 여러 개 찾기
-        List<JsonNode> hotels = findAllAccommodationsFromGptOrDb(gptArray, usedIds);
+        List<JsonNode> hotels = findAllAccommodationsFromGptOrDb(gptArray, usedIds, pool);
         Map<String, JsonNode> hotelMap = new HashMap<>();
         for (JsonNode hotel : hotels) {
             String key = hotel.get("day").asInt() + "-" + hotel.get("order").asInt();
             hotelMap.put(key, hotel);
         }
         
-        // 날짜별 대표 숙소 저장
-        Map<Integer, JsonNode> dayToHotel = new HashMap<>();
-        for (JsonNode hotel : hotelMap.values()) {
-            int day = hotel.get("day").asInt();
-            if (!dayToHotel.containsKey(day)) {
-                dayToHotel.put(day, hotel);  // 날짜별 대표 숙소 1개만 저장
-            }
-        }
-
         // 3. 숙소 테마(32) 제외하고 themeIds 필터링 (숙소는 따로 처리)
         List<Integer> filteredThemeIds = new ArrayList<>();
         for (Integer t : themeIds) {
             if (t != 32) filteredThemeIds.add(t);
         }
 
-        // 4. GPT 일정에서 숙소 제외하고 DB 필터링 장소 가져오기
-        List<JsonNode> filtered = filterExistingPlaces(gptArray, filteredThemeIds, usedIds);
-        for (JsonNode node : filtered) {
-            if (node.has("id")) usedIds.add(node.get("id").asLong());
-        }
-        
-        // 숙소 ID 추가
-        for (JsonNode hotel : hotelMap.values()) {
-            if (hotel.has("id")) usedIds.add(hotel.get("id").asLong());
-        }
-        
-        // 5. 결과 담을 LinkedHashMap (day-order 순서 보장)
-        Map<String, ObjectNode> finalMap = new LinkedHashMap<>();
-
-        // 6. GPT 원본 전체 순회하며 최종 장소 선택
-        for (int i = 0; i < gptArray.size(); i++) {
-            JsonNode gptPlace = gptArray.get(i);
-            int day = gptPlace.get("day").asInt();
-            int order = gptPlace.get("order").asInt();
-            String key = day + "-" + order;
-
-            // 6-1. 숙소가 있다면 해당 key에 숙소 넣기
-            if (hotelMap.containsKey(key)) {
-                finalMap.put(key, (ObjectNode) hotelMap.get(key));
-                continue;
-            }
-
-            // 6-2. 중복 id 체크 (단, 숙소 id는 중복 허용)
-            if (gptPlace.has("id")) {
-                long gptId = gptPlace.get("id").asLong();
-                boolean isHotelId = hotelMap.values().stream()
-                    .anyMatch(h -> h.has("id") && h.get("id").asLong() == gptId);
-                if (!isHotelId && usedIds.contains(gptId)) {
-                    System.out.println("⚠️ 중복 장소 ID 스킵됨: " + gptPlace.get("title").asText());
-                    continue;
-                }
-            }
+        // 4~6. GPT 장소 DB 매칭 + DB에서 못 찾은 자리 위치 기반 보완 (날짜별 동시 실행 후 GPT 순서대로 합침)
+        Map<String, ObjectNode> finalMap = matchAndFillByDay(gptArray, hotelMap, filteredThemeIds, usedIds, pool);
 
-            // 6-3. filtered 리스트에서 day-order 일치하는 장소 찾기 (DB 매칭)
-            ObjectNode matchedNode = null;
-            for (JsonNode fnode : filtered) {
-                if (fnode.get("day").asInt() == day && fnode.get("order").asInt() == order) {
-                    matchedNode = (ObjectNode) fnode;
-                    break;
-                }
-            }
+        // 6-5. 위치 기준으로 날짜 다시 나누기 (숙소 배치/복귀가 바뀐 날짜의 장소 기준으로 되도록 먼저)
+        if (clusterDays) {
+            finalMap = toDayOrderMap(clusterDays(sortByDayAndOrder(finalMap.values())));
+        }
 
-            if (matchedNode != null) {
-                finalMap.put(key, matchedNode);
-                if (gptPlace instanceof ObjectNode && matchedNode.has("id")) {
-                    ((ObjectNode) gptPlace).put("id", matchedNode.get("id").asLong());
-                    usedIds.add(matchedNode.get("id").asLong());
-                }
-            } else {
-                // 6-4. DB에서 못 찾으면 위치 기반으로 채우기
-                String region = normalizeRegionName(gptPlace.get("region").asText());
-                String ward = gptPlace.get("ward").asText();
-                double mapx = gptPlace.get("mapx").asDouble();
-                double mapy = gptPlace.get("mapy").asDouble();
-
-                List<JsonNode> filledList = fillWithDbPlacesOnly(
-                    List.of(key),
-                    region,
-                    ward,
-                    filteredThemeIds,
-                    mapx,
-                    mapy,
-                    usedIds
-                );
-
-                if (filledList != null && !filledList.isEmpty()) {
-                    ObjectNode filled = (ObjectNode) filledList.get(0);
-                    filled.put("day", day);
-                    filled.put("order", order);
-                    if (filled.has("id")) usedIds.add(filled.get("id").asLong());
-                    finalMap.put(key, filled);
+        // 6-6. 숙소가 없는 날짜는 그날 장소 중심에서 가까운 숙소로 (마지막 날 제외)
+        assignNearestHotels(gptArray, finalMap, hotelMap, usedIds, pool);
 
-                    System.out.println("보완 매칭: " + key + " → " + filled.get("title").asText());
-                } else {
-                    System.err.println("❌ 보완 실패: " + key + " - region: " + region + ", ward: " + ward);
-                }
+        // 날짜별 대표 숙소 저장 (GPT 매칭 숙소가 있으면 그 숙소, 없으면 가까운 숙소)
+        Map<Integer, JsonNode> dayToHotel = new TreeMap<>();
+        for (JsonNode hotel : hotelMap.values()) {
+            int day = hotel.get("day").asInt();
+            if (!dayToHotel.containsKey(day) || hotel.get("order").asInt() > dayToHotel.get(day).get("order").asInt()) {
+                dayToHotel.put(day, hotel);  // 날짜별 대표 숙소 1개만 저장 (마지막 order)
             }
         }
-        
+
         // 7. 각 day 마지막에 숙소 복귀 추가 (마지막 날 제외, 중간 숙소 제거)
         if (!hotelMap.isEmpty()) {
         	// 7-1. 날짜별 max order 계산
@@ -1809,12 +1963,13 @@ public class OpenAiService {
         	    }
         	}
         	
-        	// 7-4. 마지막 날 제외하고 각 날짜 마지막에 숙소 추가
+        	// 7-4. 마지막 날 제외하고 각 날짜 마지막에 그날 숙소 추가 (그날 숙소가 없으면 대표 숙소)
         	int lastDay = Collections.max(maxOrderByDay.keySet());
 
         	for (int day : maxOrderByDay.keySet()) {
         	    if (day == lastDay) continue;
 
+        	    JsonNode dayHotel = dayToHotel.getOrDefault(day, commonHotel);
         	    int maxOrder = maxOrderByDay.get(day);
         	    String lastKey = day + "-" + maxOrder;
         	    JsonNode lastNode = finalMap.get(lastKey);
@@ -1827,15 +1982,15 @@ public class OpenAiService {
 
         	        alreadyLastIsHotel =
         	            (title.contains("호텔") || title.contains("숙소") || title.contains("리조트")) &&
-        	            addr.equals(commonHotel.has("addr1") ? commonHotel.get("addr1").asText() : "");
+        	            addr.equals(dayHotel.has("addr1") ? dayHotel.get("addr1").asText() : "");
         	    }
 
         	    if (!alreadyLastIsHotel) {
-        	        ObjectNode newHotelNode = ((ObjectNode) commonHotel).deepCopy();
+        	        ObjectNode newHotelNode = ((ObjectNode) dayHotel).deepCopy();
         	        newHotelNode.put("day", day);
         	        newHotelNode.put("order", maxOrder + 1);
         	        finalMap.put(day + "-" + (maxOrder + 1), newHotelNode);
-        	        System.out.println("🛏️ 숙소 추가됨: day " + day + ", order " + (maxOrder + 1));
+        	        System.out.println("🛏️ 숙소 추가됨: day " + day + ", order " + (maxOrder + 1) + " - " + dayHotel.get("title").asText());
         	    } else {
         	        System.out.println("✅ 이미 마지막이 숙소: day " + day);
         	    }
@@ -1843,14 +1998,13 @@ public class OpenAiService {
         }
 
         // 8. 정렬 후 결과 반환
-        List<JsonNode> finalList = new ArrayList<>(finalMap.values());
-        finalList.sort((o1, o2) -> {
-            int day1 = o1.get("day").asInt();
-            int day2 = o2.get("day").asInt();
-            if (day1 != day2) return day1 - day2;
-            return o1.get("order").asInt() - o2.get("order").asInt();
-        });
-        System.out.println("=== 최종 반환 장소 개수: " + finalList.size() + " ===");
+        List<JsonNode> finalList = sortByDayAndOrder(finalMap.values());
+
+        // 9. 날짜별 방문 순서 최적화 (숙소 → 장소들 → 숙소)
+        if (optimizeRoutes) {
+            finalList = optimizeDayRoutes(finalList);
+        }
+        System.out.println("=== 최종 반환 장소 개수: " + finalList.size() + " (DB 조회 " + pool.getQueryCount() + "회) ===");
         for (JsonNode place : finalList) {
             System.out.println("최종: " + place.get("day").asInt() + "-" + place.get("order").asInt()
                 + " -> " + place.get("title").asText());
@@ -1858,18 +2012,247 @@ public class OpenAiService {
         return finalList;
     }
     
+    private static List<JsonNode> sortByDayAndOrder(Collection<? extends JsonNode> places) {
+        List<JsonNode> sorted = new ArrayList<>(places);
+        sorted.sort(Comparator.<JsonNode>comparingInt(place -> place.get("day").asInt())
+                .thenComparingInt(place -> place.get("order").asInt()));
+        return sorted;
+    }
+
+    private static Map<String, ObjectNode> toDayOrderMap(List<JsonNode> places) {
+        Map<String, ObjectNode> map = new LinkedHashMap<>();
+        for (JsonNode place : places) {
+            map.put(place.get("day").asInt() + "-" + place.get("order").asInt(), (ObjectNode) place);
+        }
+        return map;
+    }
+
+    /**
+     * 날짜 하나의 매칭/보완 결과 (GPT 배열 index → 노드). 그 날짜 안에서만 중복을 피해서 고른 값
+     */
+    private record DaySpeculation(Map<Integer, ObjectNode> matched, Map<Integer, ObjectNode> filled) {
+    }
+
+    /**
+     * GPT 장소 DB 매칭(filterExistingPlaces 와 같은 점수 매칭) + 못 찾은 자리 위치 기반 보완
+     * - 2일 이상이면 날짜마다 가상 스레드에서 동시에 매칭/보완 (숙소 ID + 그날 고른 장소만 제외하고 고름)
+     * - 합치기는 이 스레드에서 GPT 순서대로: 앞 날짜가 이미 쓴 장소를 고른 자리만 전체 usedIds 로 다시 매칭/보완
+     *   날짜별로 제외한 장소는 항상 전체 usedIds 안에 있으므로, 겹치지 않은 결과는 순서대로 처리했을 때와 같음
+     *   → 실행 순서와 상관없이 항상 같은 일정
+     */
+    private Map<String, ObjectNode> matchAndFillByDay(JsonNode gptArray, Map<String, JsonNode> hotelMap,
+            List<Integer> themeIds, Set<Long> usedIds, CandidatePool pool) {
+        // 중복 주소는 DB 매칭에서 제외 (보완 대상)
+        Set<JsonNode> uniquePlaces = Collections.newSetFromMap(new IdentityHashMap<>());
+        uniquePlaces.addAll(removeDuplicateAddresses(gptArray));
+        System.out.println("📌 점수 기반 필터링 시작: GPT 원본=" + gptArray.size() + " / 중복 제거 후=" + uniquePlaces.size());
+
+        Map<Integer, List<Integer>> indicesByDay = new TreeMap<>();
+        for (int i = 0; i < gptArray.size(); i++) {
+            indicesByDay.computeIfAbsent(gptArray.get(i).path("day").asInt(), day -> new ArrayList<>()).add(i);
+        }
+
+        // 날짜별 동시 실행 (하루짜리는 바로 아래에서 순서대로)
+        Map<Integer, DaySpeculation> speculation = new HashMap<>();
+        if (indicesByDay.size() > 1) {
+            long start = System.currentTimeMillis();
+            Set<Long> hotelIds = Set.copyOf(usedIds);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                Map<Integer, Future<DaySpeculation>> futures = new LinkedHashMap<>();
+                indicesByDay.forEach((day, indices) -> futures.put(day, executor.submit(
+                        () -> speculateDay(gptArray, indices, uniquePlaces, hotelMap, themeIds, hotelIds, pool))));
+                for (Map.Entry<Integer, Future<DaySpeculation>> entry : futures.entrySet()) {
+                    try {
+                        speculation.put(entry.getKey(), entry.getValue().get());
+                    } catch (ExecutionException e) {
+                        // 실패한 날짜는 합치기 단계에서 순서대로 다시 처리
+                        System.err.println("⚠️ " + entry.getKey() + "일차 동시 매칭 실패 → 순서대로 처리: " + e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("일정 매칭 취소");
+            }
+            System.out.println("⚡ 날짜별 동시 매칭: " + indicesByDay.size() + "일, "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
+
+        // 4. 매칭 확정 (GPT 순서, 앞 날짜와 겹치면 다시 매칭)
+        Map<String, ObjectNode> matchedByKey = new HashMap<>();
+        int matchedCount = 0;
+        for (int i = 0; i < gptArray.size(); i++) {
+            JsonNode place = gptArray.get(i);
+            if (!uniquePlaces.contains(place)) continue;
+
+            DaySpeculation day = speculation.get(place.path("day").asInt());
+            ObjectNode node;
+            if (day == null) {
+                node = matchPlace(place, themeIds, usedIds, pool);
+            } else {
+                node = day.matched().get(i);
+                if (node != null && !usedIds.add(node.get("id").asLong())) {
+                    System.out.println("🔁 다른 날짜와 겹쳐 다시 매칭: " + place.path("title").asText());
+                    node = matchPlace(place, themeIds, usedIds, pool);
+                }
+            }
+            if (node != null) {
+                matchedByKey.putIfAbsent(place.path("day").asInt() + "-" + place.path("order").asInt(), node);
+                matchedCount++;
+            }
+        }
+        System.out.println("✅ 최종 점수 기반 필터링 결과: " + matchedCount + "개 매칭됨");
+
+        // 숙소 ID 추가
+        for (JsonNode hotel : hotelMap.values()) {
+            if (hotel.has("id")) usedIds.add(hotel.get("id").asLong());
+        }
+
+        // 5. 결과 담을 LinkedHashMap (day-order 순서 보장)
+        Map<String, ObjectNode> finalMap = new LinkedHashMap<>();
+        // 날짜별 보완 결과를 쓰지 않은 자리가 생긴 날짜는 이후 보완을 순서대로 다시 계산
+        Set<Integer> divergedDays = new HashSet<>();
+
+        // 6. GPT 원본 전체 순회하며 최종 장소 선택
+        for (int i = 0; i < gptArray.size(); i++) {
+            JsonNode gptPlace = gptArray.get(i);
+            int day = gptPlace.get("day").asInt();
+            int order = gptPlace.get("order").asInt();
+            String key = day + "-" + order;
+            DaySpeculation daySpeculation = divergedDays.contains(day) ? null : speculation.get(day);
+            ObjectNode speculatedFill = daySpeculation != null ? daySpeculation.filled().get(i) : null;
+
+            // 6-1. 숙소가 있다면 해당 key에 숙소 넣기
+            if (hotelMap.containsKey(key)) {
+                finalMap.put(key, (ObjectNode) hotelMap.get(key));
+                continue;
+            }
+
+            // 6-2. 중복 id 체크 (단, 숙소 id는 중복 허용)
+            if (gptPlace.has("id")) {
+                long gptId = gptPlace.get("id").asLong();
+                boolean isHotelId = hotelMap.values().stream()
+                    .anyMatch(h -> h.has("id") && h.get("id").asLong() == gptId);
+                if (!isHotelId && usedIds.contains(gptId)) {
+                    System.out.println("⚠️ 중복 장소 ID 스킵됨: " + gptPlace.get("title").asText());
+                    if (speculatedFill != null) divergedDays.add(day);
+                    continue;
+                }
+            }
+
+            // 6-3. day-order 일치하는 DB 매칭 장소
+            ObjectNode matchedNode = matchedByKey.get(key);
+
+            if (matchedNode != null) {
+                finalMap.put(key, matchedNode);
+                if (gptPlace instanceof ObjectNode && matchedNode.has("id")) {
+                    ((ObjectNode) gptPlace).put("id", matchedNode.get("id").asLong());
+                    usedIds.add(matchedNode.get("id").asLong());
+                }
+            } else {
+                // 6-4. DB에서 못 찾으면 위치 기반으로 채우기 (날짜별 결과가 앞 날짜와 겹치면 다시 계산)
+                ObjectNode filled = speculatedFill != null && usedIds.add(speculatedFill.get("id").asLong())
+                        ? speculatedFill
+                        : fillSlot(gptPlace, key, themeIds, usedIds, pool);
+
+                if (filled != null) {
+                    finalMap.put(key, filled);
+                    System.out.println("보완 매칭: " + key + " → " + filled.get("title").asText());
+                } else {
+                    System.err.println("❌ 보완 실패: " + key + " - region: " + normalizeRegionName(gptPlace.get("region").asText())
+                        + ", ward: " + gptPlace.get("ward").asText());
+                }
+            }
+        }
+        return finalMap;
+    }
+
+    /**
+     * 날짜 하나의 GPT 장소 매칭 → 못 찾은 자리 보완 (가상 스레드에서 실행, 날짜 안에서만 중복 제외)
+     */
+    private DaySpeculation speculateDay(JsonNode gptArray, List<Integer> indices, Set<JsonNode> uniquePlaces,
+            Map<String, JsonNode> hotelMap, List<Integer> themeIds, Set<Long> hotelIds, CandidatePool pool) throws InterruptedException {
+        dayTaskPermits.acquire();
+        try {
+            Set<Long> dayIds = new HashSet<>(hotelIds);
+            Map<Integer, ObjectNode> matched = new HashMap<>();
+            Set<String> matchedKeys = new HashSet<>();
+            for (int i : indices) {
+                JsonNode place = gptArray.get(i);
+                if (!uniquePlaces.contains(place)) continue;
+                ObjectNode node = matchPlace(place, themeIds, dayIds, pool);
+                if (node != null) {
+                    matched.put(i, node);
+                    matchedKeys.add(place.path("day").asInt() + "-" + place.path("order").asInt());
+                }
+            }
+
+            Map<Integer, ObjectNode> filled = new HashMap<>();
+            for (int i : indices) {
+                JsonNode place = gptArray.get(i);
+                String key = place.path("day").asInt() + "-" + place.path("order").asInt();
+                if (hotelMap.containsKey(key) || matchedKeys.contains(key)) continue;
+                if (place.has("id") && dayIds.contains(place.get("id").asLong())) continue;
+                ObjectNode node = fillSlot(place, key, themeIds, dayIds, pool);
+                if (node != null) filled.put(i, node);
+            }
+            return new DaySpeculation(matched, filled);
+        } finally {
+            dayTaskPermits.release();
+        }
+    }
+
+    /**
+     * GPT 자리 하나를 GPT 좌표 근처 DB 장소로 보완 (고른 장소는 usedIds 에 추가됨), 없으면 null
+     */
+    private ObjectNode fillSlot(JsonNode gptPlace, String key, List<Integer> themeIds, Set<Long> usedIds, CandidatePool pool) {
+        String region = normalizeRegionName(gptPlace.get("region").asText());
+        String ward = gptPlace.get("ward").asText();
+        double mapx = gptPlace.get("mapx").asDouble();
+        double mapy = gptPlace.get("mapy").asDouble();
+
+        List<JsonNode> filledList = fillWithDbPlacesOnly(List.of(key), region, ward, themeIds, mapx, mapy, usedIds, pool);
+        if (filledList == null || filledList.isEmpty()) {
+            return null;
+        }
+        ObjectNode filled = (ObjectNode) filledList.get(0);
+        filled.put("day", gptPlace.get("day").asInt());
+        filled.put("order", gptPlace.get("order").asInt());
+        return filled;
+    }
+
     @Transactional(readOnly = true)
     public List<JsonNode> findAllAccommodationsFromGptOrDb(JsonNode gptArray, Set<Long> usedIds) {
+        return findAllAccommodationsFromGptOrDb(gptArray, usedIds, newCandidatePool());
+    }
+
+    /**
+     * GPT 일정에 나온 숙소를 DB 숙소와 매칭 (후보 번호 또는 이름+주소)
+     * 숙소가 없는 날짜는 장소 매칭 후 assignNearestHotels 에서 그날 장소 근처 숙소로 채움
+     */
+    @Transactional(readOnly = true)
+    public List<JsonNode> findAllAccommodationsFromGptOrDb(JsonNode gptArray, Set<Long> usedIds, CandidatePool pool) {
         List<JsonNode> matchedHotels = new ArrayList<>();
         Set<Integer> existingHotelDays = new HashSet<>();
 
         for (JsonNode place : gptArray) {
+            // GROUNDED 일정: 후보 번호로 고른 장소는 숙소인지 바로 확인 (숙소가 아니면 이름 비교 불필요)
+            DataEntity picked = place.has("dataId") ? pool.loadedById(place.get("dataId").asLong()) : null;
+            if (picked != null) {
+                if (picked.getTheme() == 32 && !usedIds.contains(picked.getId())) {
+                    usedIds.add(picked.getId());
+                    matchedHotels.add(dataEntityToJson(picked, place));
+                    if (place.has("day")) existingHotelDays.add(place.get("day").asInt());
+                    System.out.println("✅ 숙소 후보 번호 매칭: " + picked.getTitle());
+                }
+                continue;
+            }
+
             String gptTitle = place.get("title").asText().replaceAll("\\s+", "").toLowerCase();
             String regionName = normalizeRegionName(place.get("region").asText());
             String wardName = place.get("ward").asText();
             String address = place.has("address") ? place.get("address").asText() : "";
 
-            Optional<RegionCodeEntity> regionOpt = regionCodeRepository.findRegionByNameForAI(regionName);
+            Optional<RegionCodeEntity> regionOpt = pool.region(regionName);
             if (regionOpt.isEmpty()) continue;
             RegionCodeEntity regionEntity = regionOpt.get();
 
@@ -1879,21 +2262,12 @@ public class OpenAiService {
             if (METROPOLITAN_AREAS.contains(regionName)) {
                 // 🏙️ 광역시/특별시: 전체 지역에서 숙소 검색
                 System.out.println("🏙️ 광역시 숙소 검색: " + regionName + " 전체");
-                candidates = dataRepository.findByRegionCodeEntityAndThemeIn(
-                    regionEntity, List.of(32),
-                    PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "score"))
-                ).getContent();
+                candidates = pool.regionTopByScore(regionEntity, List.of(32), 10);
             } else {
                 // 🌏 자치도: ward 계층적 검색만 적용
                 System.out.println("🌏 자치도 숙소 검색: " + regionName + " " + wardName + " 내에서만");
-                List<WardCodeEntity> relatedWards = findAllRelatedWards(wardName, regionEntity);
-                
-                for (WardCodeEntity wardEntity : relatedWards) {
-                    List<DataEntity> wardCandidates = dataRepository.findByRegionCodeEntityAndWardCodeEntityAndThemeIn(
-                        wardEntity.getRegionCodeEntity(), wardEntity, List.of(32)
-                    );
-                    candidates.addAll(wardCandidates);
-                }
+                List<WardCodeEntity> relatedWards = pool.relatedWards(wardName, regionEntity);
+                candidates = pool.candidates(regionEntity, wardName, List.of(32));
                 
                 System.out.println("🏨 자치도 숙소 후보: " + candidates.size() + "개 (관련 ward: " + relatedWards.size() + "개)");
             }
@@ -1917,69 +2291,89 @@ public class OpenAiService {
             }
         }
         
-        // day별 fallback 숙소 보장도 지역 타입별로 분리
-        Set<Integer> allDays = new HashSet<>();
-        for (int i = 0; i < gptArray.size(); i++) {
-            JsonNode node = gptArray.get(i);
-            if (node.has("day")) allDays.add(node.get("day").asInt());
+        return matchedHotels;
+    }
+
+    /**
+     * 숙소가 없는 날짜(마지막 날 제외)에 그날 매칭된 장소 중심에서 가까운 숙소 배치 (hotelMap 에 day-99 로 추가)
+     * 장소 좌표가 없는 날은 전체 일정 중심 기준
+     */
+    private void assignNearestHotels(JsonNode gptArray, Map<String, ObjectNode> finalMap, Map<String, JsonNode> hotelMap,
+            Set<Long> usedIds, CandidatePool pool) {
+        Map<Integer, JsonNode> refByDay = new TreeMap<>();
+        for (JsonNode place : gptArray) {
+            if (place.has("day")) refByDay.putIfAbsent(place.get("day").asInt(), place);
+        }
+        if (refByDay.size() < 2) return;
+        int lastDay = Collections.max(refByDay.keySet());
+
+        Map<Integer, Long> hotelIdByDay = new HashMap<>();
+        for (JsonNode hotel : hotelMap.values()) {
+            hotelIdByDay.put(hotel.get("day").asInt(), hotel.get("id").asLong());
         }
 
-        for (Integer day : allDays) {
-            if (existingHotelDays.contains(day)) continue;
+        // 날짜별 / 전체 장소 중심 (숙소 제외)
+        Map<Integer, double[]> sums = new HashMap<>();
+        double[] total = new double[3];
+        for (ObjectNode node : finalMap.values()) {
+            double lon = longitude(node);
+            double lat = latitude(node);
+            if (node.path("theme").asInt() == 32 || Double.isNaN(lon) || Double.isNaN(lat)) continue;
+            double[] sum = sums.computeIfAbsent(node.get("day").asInt(), day -> new double[3]);
+            sum[0] += lon;
+            sum[1] += lat;
+            sum[2]++;
+            total[0] += lon;
+            total[1] += lat;
+            total[2]++;
+        }
 
-            JsonNode ref = null;
-            for (int i = 0; i < gptArray.size(); i++) {
-                JsonNode p = gptArray.get(i);
-                if (p.has("day") && p.get("day").asInt() == day) {
-                    ref = p;
-                    break;
-                }
+        Long previousId = null;
+        for (Map.Entry<Integer, JsonNode> entry : refByDay.entrySet()) {
+            int day = entry.getKey();
+            if (day == lastDay) break;
+            if (hotelIdByDay.containsKey(day)) {
+                previousId = hotelIdByDay.get(day);
+                continue;
             }
-            if (ref == null) continue;
 
+            double[] center = sums.getOrDefault(day, total);
+            JsonNode ref = entry.getValue();
             String regionName = normalizeRegionName(ref.get("region").asText());
-            String wardName = ref.get("ward").asText();
-            Optional<RegionCodeEntity> regionOpt = regionCodeRepository.findRegionByNameForAI(regionName);
-            if (regionOpt.isEmpty()) continue;
-            RegionCodeEntity regionEntity = regionOpt.get();
-
-            List<DataEntity> fallbackList = new ArrayList<>();
-
-            // ⭐ fallback도 지역 타입별로 분리
-            if (METROPOLITAN_AREAS.contains(regionName)) {
-                // 🏙️ 광역시: region 전체에서 fallback
-                fallbackList = dataRepository.findByRegionCodeEntityAndThemeIn(
-                    regionEntity, List.of(32),
-                    PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "score"))
-                ).getContent();
-                System.out.println("🏙️ 광역시 fallback 숙소: " + regionName + " 전체에서 " + fallbackList.size() + "개");
-            } else {
-                // 🌏 자치도: ward 내에서만 fallback
-                List<WardCodeEntity> relatedWards = findAllRelatedWards(wardName, regionEntity);
-                for (WardCodeEntity wardEntity : relatedWards) {
-                    List<DataEntity> wardCandidates = dataRepository.findByRegionCodeEntityAndWardCodeEntityAndThemeIn(
-                        regionEntity, wardEntity, List.of(32),
-                        PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "score"))
-                    ).getContent();
-                    fallbackList.addAll(wardCandidates);
-                }
-                System.out.println("🌏 자치도 fallback 숙소: " + wardName + " 내에서만 " + fallbackList.size() + "개");
-            }
+            Optional<RegionCodeEntity> regionOpt = pool.region(regionName);
+            if (center[2] == 0 || regionOpt.isEmpty()) continue;
+
+            // 🏙️ 광역시는 지역 전체, 🌏 자치도는 선택한 시/군 안에서
+            String ward = METROPOLITAN_AREAS.contains(regionName) ? null : ref.get("ward").asText();
+            DataEntity data = nearestHotel(pool, regionOpt.get(), ward, center[0] / center[2], center[1] / center[2],
+                    previousId, usedIds);
+            if (data == null) continue;
+
+            ObjectNode hotel = (ObjectNode) dataEntityToJson(data, ref);
+            hotel.put("day", day);
+            hotel.put("order", 99);
+            hotelMap.put(day + "-99", hotel);
+            usedIds.add(data.getId());
+            System.out.println("🏨 " + (data.getId().equals(previousId) ? "전날 숙소 유지" : "가까운 숙소 추가") + ": day " + day
+                    + " - " + data.getTitle() + " (ward: " + data.getWardCodeEntity().getName() + ", rating: " + data.getRating() + ")");
+            previousId = data.getId();
+        }
+    }
 
-            for (DataEntity data : fallbackList) {
-                if (usedIds.contains(data.getId())) continue;
-                JsonNode fallbackHotel = dataEntityToJson(data, ref);
-                if (fallbackHotel instanceof ObjectNode) {
-                    ((ObjectNode) fallbackHotel).put("day", day);
-                    ((ObjectNode) fallbackHotel).put("order", 99);
-                }
-                usedIds.add(data.getId());
-                matchedHotels.add(fallbackHotel);
-                System.out.println("🏨 fallback 숙소 추가: day " + day + " - " + data.getTitle() + " (ward: " + data.getWardCodeEntity().getName() + ")");
-                break;
-            }
+    /**
+     * (lon, lat) 에서 가까운 숙소 hotelNearestK 개 (평점 hotelMinRating 이상, 다른 날짜/장소로 쓴 곳 제외) 중
+     * 전날 숙소가 있으면 그대로 (매일 숙소를 옮기지 않도록), 없으면 가장 가까운 곳
+     * @param ward 자치도면 선택한 시/군, 광역시면 null (지역 전체)
+     * @return 숙소 후보가 없으면 null
+     */
+    DataEntity nearestHotel(CandidatePool pool, RegionCodeEntity regionEntity, String ward, double lon, double lat,
+            Long previousId, Set<Long> usedIds) {
+        List<DataEntity> nearest = pool.accommodations(regionEntity, ward, hotelMinRating).nearest(lon, lat, hotelNearestK,
+                data -> data.getId().equals(previousId) || !usedIds.contains(data.getId()));
+        for (DataEntity data : nearest) {
+            if (data.getId().equals(previousId)) return data;
         }
-        return matchedHotels;
+        return nearest.isEmpty() ? null : nearest.get(0);
     }
 
     // DataEntity → JsonNode 변환
@@ -2015,42 +2409,102 @@ public class OpenAiService {
         return grouped;
     }
     
+    /**
+     * 첫 장소를 고정하고 나머지 방문 순서를 경로 최적화 (RouteOptimizer: 최근접 이웃 + 2-opt/Or-opt)
+     */
     public List<ObjectNode> sortByDistance(List<ObjectNode> places) {
         if (places.size() <= 1) return places;
 
         List<ObjectNode> sorted = new ArrayList<>();
-        Set<Integer> visited = new HashSet<>();
         sorted.add(places.get(0)); // 첫 장소 고정
-        visited.add(0);
-
-        while (sorted.size() < places.size()) {
-            ObjectNode last = sorted.get(sorted.size() - 1);
-            double lastX = last.get("mapx").asDouble();
-            double lastY = last.get("mapy").asDouble();
+        sorted.addAll(routeOptimizer.order(places.subList(1, places.size()), OpenAiService::longitude,
+                OpenAiService::latitude, places.get(0), null));
+        return sorted;
+    }
 
-            int nearestIdx = -1;
-            double nearestDist = Double.MAX_VALUE;
+    /**
+     * 최종 일정의 날짜별 방문 순서 최적화 (day/order 순 정렬된 목록, order 는 1부터 다시 매김)
+     * 그날 마지막이 숙소면 끝으로 고정하고 전날 숙소에서 출발 (RouteOptimizer.orderDays)
+     */
+    public List<JsonNode> optimizeDayRoutes(List<JsonNode> places) {
+        Map<Integer, List<JsonNode>> byDay = new TreeMap<>();
+        for (JsonNode place : places) {
+            byDay.computeIfAbsent(place.get("day").asInt(), day -> new ArrayList<>()).add(place);
+        }
 
-            for (int i = 0; i < places.size(); i++) {
-                if (visited.contains(i)) continue;
+        List<JsonNode> result = new ArrayList<>(places.size());
+        for (List<JsonNode> day : routeOptimizer.orderDays(new ArrayList<>(byDay.values()), OpenAiService::longitude,
+                OpenAiService::latitude, place -> place.path("theme").asInt() == 32)) {
+            for (int i = 0; i < day.size(); i++) {
+                ((ObjectNode) day.get(i)).put("order", i + 1);
+                result.add(day.get(i));
+            }
+        }
+        return result;
+    }
 
-                ObjectNode candidate = places.get(i);
-                double x = candidate.get("mapx").asDouble();
-                double y = candidate.get("mapy").asDouble();
+    /**
+     * 최종 일정의 장소(숙소 제외)를 위치 기준으로 날짜별로 다시 나눔 (DayClusterer, 날짜별 장소 수는 그대로)
+     * GPT 날짜별 중심에서 시작하므로 이미 모여 있는 날짜는 그대로, 멀리 떨어진 장소만 가까운 날짜로 옮겨짐
+     * 숙소는 원래 날짜 끝에 그대로 두고, order 는 1부터 다시 매김
+     * @param places day/order 순 정렬된 목록
+     */
+    public List<JsonNode> clusterDays(List<JsonNode> places) {
+        List<Integer> dayNumbers = places.stream().map(place -> place.get("day").asInt()).distinct().sorted().toList();
+        if (dayNumbers.size() < 2) {
+            return places;
+        }
 
-                double dist = haversine(lastX, lastY, x, y);
-                if (dist < nearestDist) {
-                    nearestDist = dist;
-                    nearestIdx = i;
-                }
+        List<JsonNode> stops = new ArrayList<>();
+        Map<Integer, List<JsonNode>> lodgingByDay = new HashMap<>();
+        for (JsonNode place : places) {
+            if (place.path("theme").asInt() == 32) {
+                lodgingByDay.computeIfAbsent(place.get("day").asInt(), day -> new ArrayList<>()).add(place);
+            } else {
+                stops.add(place);
             }
+        }
+        if (stops.stream().anyMatch(place -> Double.isNaN(longitude(place)) || Double.isNaN(latitude(place)))) {
+            return places;
+        }
 
-            if (nearestIdx != -1) {
-                visited.add(nearestIdx);
-                sorted.add(places.get(nearestIdx));
+        int[] capacity = new int[dayNumbers.size()];
+        int[] initialDay = new int[stops.size()];
+        for (int i = 0; i < stops.size(); i++) {
+            initialDay[i] = dayNumbers.indexOf(stops.get(i).get("day").asInt());
+            capacity[initialDay[i]]++;
+        }
+        List<List<JsonNode>> groups = dayClusterer.cluster(stops, OpenAiService::longitude, OpenAiService::latitude,
+                capacity, initialDay);
+
+        List<JsonNode> result = new ArrayList<>(places.size());
+        int moved = 0;
+        for (int d = 0; d < dayNumbers.size(); d++) {
+            int day = dayNumbers.get(d);
+            int order = 0;
+            for (JsonNode place : groups.get(d)) {
+                if (place.get("day").asInt() != day) moved++;
+                ((ObjectNode) place).put("day", day);
+                ((ObjectNode) place).put("order", ++order);
+                result.add(place);
             }
+            for (JsonNode hotel : lodgingByDay.getOrDefault(day, List.of())) {
+                ((ObjectNode) hotel).put("order", ++order);
+                result.add(hotel);
+            }
+        }
+        if (moved > 0) {
+            System.out.println("🗺️ 위치 기준 날짜 재배치: " + moved + "곳 이동");
         }
+        return result;
+    }
 
-        return sorted;
+    // mapx/mapy 는 문자열(DB) 또는 숫자(GPT), 없으면 NaN → 그날은 순서 유지
+    private static double longitude(JsonNode place) {
+        return place.hasNonNull("mapx") ? place.get("mapx").asDouble(Double.NaN) : Double.NaN;
+    }
+
+    private static double latitude(JsonNode place) {
+        return place.hasNonNull("mapy") ? place.get("mapy").asDouble(Double.NaN) : Double.NaN;
     }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.koreplan.data.entity.DataEntity;
+
+/**
+ * GPT 장소(이름, 주소) → DB 후보 중 최고 점수 장소 찾기
+ * 점수는 기존 calculateMatchingScore 와 같음: 주소 0~50 + 타이틀 0~50, 30점 이상만 매칭, 동점이면 앞의 후보
+ *
+ * - 후보의 정규화 타이틀/주소/주소 단어와 타이틀 2-gram 색인은 생성할 때 한 번만 만들고 GPT 장소마다 재사용
+ * - 지금까지의 최고 점수를 넘을 수 없는 후보는 편집 거리 계산 전에 제외
+ *   (주소 점수로 필요한 타이틀 점수 → 허용 편집 거리 k → 길이 차이, 공통 2-gram 수로 거르고 대각선 폭 k 안에서만 계산)
+ * - 편집 거리 행 버퍼는 findBest 한 번 동안 모든 후보에 재사용
+ * - 생성 후에는 읽기만 하므로 여러 스레드에서 같이 써도 됨
+ */
+public final class PlaceMatcher {
+
+	public static final int MIN_SCORE = 30;
+
+	public record Match(DataEntity data, int score) {
+	}
+
+	// normalizeAddress: "서울특별시 종로구 세종대로 175" → "종로구 세종대로"
+	private static final Pattern ADDRESS_PATTERN = Pattern.compile("(\\w+구)\\s+([\\w\\d]+[로길동가])");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	// 타이틀 정규화에서 지우는 문자: \s 와 \p{Punct} (ASCII 문장부호)
+	private static final boolean[] SEPARATORS = new boolean[128];
+	static {
+		for (char c : " \t\n\u000B\f\r!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".toCharArray()) {
+			SEPARATORS[c] = true;
+		}
+	}
+
+	private final DataEntity[] entities;
+	private final String[] titles;
+	private final String[] addresses;
+	private final Map<String, Integer>[] addressWords;
+	// 2-gram → [후보 index, 개수, 후보 index, 개수, ...]
+	private final Map<Integer, int[]> postings;
+	private final int maxTitleLength;
+
+	@SuppressWarnings("unchecked")
+	public PlaceMatcher(List<DataEntity> candidates) {
+		// 숙소(AC)는 장소 매칭 대상이 아님 (숙소는 findAllAccommodationsFromGptOrDb 에서 따로 배치)
+		List<DataEntity> places = candidates.stream().filter(data -> !"AC".equals(data.getC1Code())).toList();
+		int n = places.size();
+
+		this.entities = places.toArray(new DataEntity[0]);
+		this.titles = new String[n];
+		this.addresses = new String[n];
+		this.addressWords = new Map[n];
+
+		Map<Integer, List<Integer>> index = new HashMap<>();
+		int longest = 0;
+		for (int i = 0; i < n; i++) {
+			DataEntity data = entities[i];
+			if (data.getTitle() != null) {
+				titles[i] = normalizeTitle(data.getTitle());
+				longest = Math.max(longest, titles[i].length());
+				for (Map.Entry<Integer, Integer> gram : bigrams(titles[i]).entrySet()) {
+					List<Integer> posting = index.computeIfAbsent(gram.getKey(), key -> new ArrayList<>());
+					posting.add(i);
+					posting.add(gram.getValue());
+				}
+			}
+			if (data.getAddr1() != null) {
+				addresses[i] = normalizeAddress(data.getAddr1());
+				addressWords[i] = wordCounts(addresses[i]);
+			}
+		}
+
+		this.postings = new HashMap<>(index.size() * 2);
+		index.forEach((gram, posting) -> postings.put(gram, posting.stream().mapToInt(Integer::intValue).toArray()));
+		this.maxTitleLength = longest;
+	}
+
+	public int size() {
+		return entities.length;
+	}
+
+	/**
+	 * usedIds 에 없는 후보 중 최고 점수 장소, 30점 미만이면 null
+	 */
+	public Match findBest(String gptTitle, String gptAddress, Set<Long> usedIds) {
+		String title = gptTitle == null ? null : normalizeTitle(gptTitle);
+		String address = gptAddress == null ? null : normalizeAddress(gptAddress);
+		String[] words = address == null ? null : WHITESPACE.split(address);
+		int[] overlap = title == null ? null : bigramOverlap(title);
+
+		// 편집 거리 행 버퍼 (후보 타이틀 길이 기준)
+		int[] prev = new int[maxTitleLength + 2];
+		int[] curr = new int[maxTitleLength + 2];
+
+		DataEntity best = null;
+		int bestScore = 0;
+		for (int i = 0; i < entities.length; i++) {
+			if (usedIds.contains(entities[i].getId())) {
+				continue;
+			}
+			int addressScore = addressScore(address, words, i);
+			int need = Math.max(MIN_SCORE, bestScore + 1) - addressScore;
+			if (need > 50) {
+				continue;
+			}
+			int score = addressScore + titleScore(title, i, need, overlap, prev, curr);
+			if (score > bestScore && score >= MIN_SCORE) {
+				bestScore = score;
+				best = entities[i];
+			}
+		}
+		return best == null ? null : new Match(best, bestScore);
+	}
+
+	/**
+	 * 주소 정규화 (구 + 주요 도로명 추출), 패턴이 안 맞으면 소문자 + 공백 제거
+	 */
+	public static String normalizeAddress(String address) {
+		if (address == null) return "";
+
+		Matcher matcher = ADDRESS_PATTERN.matcher(address);
+		if (matcher.find()) {
+			return matcher.group(1) + " " + matcher.group(2);
+		}
+		return WHITESPACE.matcher(address.toLowerCase()).replaceAll("");
+	}
+
+	/**
+	 * 타이틀 정규화 (공백, 괄호, 문장부호 제거 + 소문자)
+	 */
+	static String normalizeTitle(String title) {
+		StringBuilder sb = new StringBuilder(title.length());
+		for (int i = 0; i < title.length(); i++) {
+			char c = title.charAt(i);
+			if (c >= 128 || !SEPARATORS[c]) {
+				sb.append(c);
+			}
+		}
+		return sb.toString().toLowerCase();
+	}
+
+	/**
+	 * 주소 점수: 완전 일치 50, 포함 관계 35, 공통 단어(2글자 이상)당 10점 최대 25
+	 */
+	private int addressScore(String address, String[] words, int i) {
+		String dbAddress = addresses[i];
+		if (address == null || dbAddress == null) return 0;
+
+		if (address.equals(dbAddress)) return 50;
+		if (address.contains(dbAddress) || dbAddress.contains(address)) return 35;
+
+		Map<String, Integer> dbWords = addressWords[i];
+		int commonWords = 0;
+		for (String word : words) {
+			if (word.length() > 1) {
+				commonWords += dbWords.getOrDefault(word, 0);
+			}
+		}
+		return Math.min(25, commonWords * 10);
+	}
+
+	/**
+	 * 타이틀 점수: 완전 일치 50, 포함 관계 35, 그 외 편집 거리 유사도 0~25
+	 * need 이상이 될 수 없으면 정확한 점수 대신 0 반환
+	 */
+	private int titleScore(String title, int i, int need, int[] overlap, int[] prev, int[] curr) {
+		String dbTitle = titles[i];
+		if (title == null || dbTitle == null) return 0;
+
+		if (title.equals(dbTitle)) return 50;
+		if (need > 35) return 0;
+		if (title.contains(dbTitle) || dbTitle.contains(title)) return 35;
+		if (need > 25) return 0;
+
+		// 여기까지 오면 둘 다 비어 있지 않음 (빈 문자열은 포함 관계에서 걸림)
+		int maxLen = Math.max(title.length(), dbTitle.length());
+		int k = maxDistance(maxLen, need);
+		if (k < 0 || Math.abs(title.length() - dbTitle.length()) > k) {
+			return 0;
+		}
+		// 편집 거리 k 이하면 공통 2-gram 이 최소 maxLen - 1 - 2k 개
+		if (overlap[i] < maxLen - 1 - 2 * k) {
+			return 0;
+		}
+		int distance = boundedDistance(title, dbTitle, k, prev, curr);
+		return distance > k ? 0 : similarityScore(distance, maxLen);
+	}
+
+	private static int similarityScore(int distance, int maxLen) {
+		double similarity = 1.0 - (double) distance / maxLen;
+		return (int) (similarity * 25);
+	}
+
+	/**
+	 * 유사도 점수가 need 이상이 되는 최대 편집 거리 (없으면 -1)
+	 */
+	private static int maxDistance(int maxLen, int need) {
+		if (need <= 0) return maxLen;
+
+		int k = (int) Math.floor(maxLen * (25 - need) / 25.0);
+		while (k >= 0 && similarityScore(k, maxLen) < need) k--;
+		while (k < maxLen && similarityScore(k + 1, maxLen) >= need) k++;
+		return k;
+	}
+
+	/**
+	 * 편집 거리가 k 이하면 그 값, 아니면 k + 1
+	 * 대각선에서 k 칸 이내만 계산하고 한 행의 최솟값이 k 를 넘으면 바로 중단
+	 * (|s| - |t| <= k 인 경우에만 호출)
+	 */
+	static int boundedDistance(String s, String t, int k, int[] prev, int[] curr) {
+		int n = s.length();
+		int m = t.length();
+		int over = k + 1;
+
+		for (int j = 0; j <= Math.min(m, k); j++) {
+			prev[j] = j;
+		}
+
+		for (int i = 1; i <= n; i++) {
+			int from = Math.max(1, i - k);
+			int to = Math.min(m, i + k);
+			curr[from - 1] = from == 1 ? i : over;
+			int rowMin = curr[from - 1];
+
+			char c = s.charAt(i - 1);
+			for (int j = from; j <= to; j++) {
+				int value = prev[j - 1] + (c == t.charAt(j - 1) ? 0 : 1);
+				// 윗 행은 i - 1 + k 열까지만 계산됨
+				if (j <= i - 1 + k) {
+					value = Math.min(value, prev[j] + 1);
+				}
+				value = Math.min(value, curr[j - 1] + 1);
+				curr[j] = value;
+				rowMin = Math.min(rowMin, value);
+			}
+			if (rowMin > k) {
+				return over;
+			}
+
+			int[] swap = prev;
+			prev = curr;
+			curr = swap;
+		}
+		return Math.min(prev[m], over);
+	}
+
+	/**
+	 * 후보별 query 와의 공통 2-gram 수 (중복 포함)
+	 */
+	private int[] bigramOverlap(String title) {
+		int[] overlap = new int[entities.length];
+		for (Map.Entry<Integer, Integer> gram : bigrams(title).entrySet()) {
+			int[] posting = postings.get(gram.getKey());
+			if (posting == null) {
+				continue;
+			}
+			int count = gram.getValue();
+			for (int p = 0; p < posting.length; p += 2) {
+				overlap[posting[p]] += Math.min(count, posting[p + 1]);
+			}
+		}
+		return overlap;
+	}
+
+	private static Map<Integer, Integer> bigrams(String text) {
+		Map<Integer, Integer> grams = new HashMap<>();
+		for (int i = 0; i + 1 < text.length(); i++) {
+			grams.merge((text.charAt(i) << 16) | text.charAt(i + 1), 1, Integer::sum);
+		}
+		return grams;
+	}
+
+	private static Map<String, Integer> wordCounts(String address) {
+		Map<String, Integer> counts = new HashMap<>();
+		for (String word : WHITESPACE.split(address)) {
+			counts.merge(word, 1, Integer::sum);
+		}
+		return Map.copyOf(counts);
+	}
+}
@@ -0,0 +1,23 @@
+package com.koreplan.openAi.service;
+
+/**
+ * AI 일정 생성 방식 (요청의 "planner" 값, 없으면 openai.planner.default)
+ * - FREE: GPT가 장소 이름/주소를 자유롭게 생성 → DB 장소와 점수 기반 매칭
+ * - GROUNDED: DB 상위 후보를 번호(ref)와 함께 주고 GPT는 번호만 골라 일정 구성 → 번호로 바로 조회
+ * - LOCAL: GPT 없이 DB 장소만으로 일정 구성 (LocalItineraryPlanner, 바로 응답)
+ */
+public enum PlannerMode {
+	FREE, GROUNDED, LOCAL;
+
+	public static PlannerMode of(Object value, PlannerMode fallback) {
+		if (value == null || value.toString().isBlank()) {
+			return fallback;
+		}
+		try {
+			return valueOf(value.toString().trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			System.out.println("⚠️ 알 수 없는 planner 값: " + value + " → " + fallback);
+			return fallback;
+		}
+	}
+}
@@ -23,6 +23,10 @@ public interface FestivalRepository extends JpaRepository<FestivalEntity, String
     // contentId로 존재 여부 확인 (중복 체크용 - SaveFestivalService에서 사용)
     boolean existsByContentId(String contentId);
     
+    // 전체 contentId (이미지 조회 시 존재 여부 확인용 메모리 목록)
+    @Query("SELECT f.contentId FROM FestivalEntity f")
+    List<String> findAllContentIds();
+    
     //조회수 증가
     @Modifying
     @Query("UPDATE FestivalEntity f SET f.viewCount = f.viewCount + 1 WHERE f.contentId = :contentId")
@@ -4,11 +4,16 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.cache.DiskPayloadStore;
 import com.koreplan.dto.comment.CommentDto;
 import com.koreplan.dto.comment.CommentResponseDto;
 import com.koreplan.dto.image.ImageApiResponseDto;
@@ -21,15 +26,36 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CommentService {
 	private final ObjectMapper objectMapper;
+	private final DiskPayloadStore diskPayloadStore;
+	private final UpstreamGuard upstreamGuard;
+	private final ServiceKeyScheduler serviceKeyScheduler;
+	
+	// 디스크 캐시의 응답을 API 재호출 없이 쓰는 기간
+	@Value("${cache.disk.fresh-for:PT24H}")
+	private Duration cacheTtl;
 	
-    @Value("${publicDataKey}")
-    private String key;
     
-    private final String apiUrl = "https://apis.data.go.kr/B551011/KorService2/detailCommon2";
+    @Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/detailCommon2")
+    private String apiUrl;
     
     public CommentResponseDto getInfomation(String contentId) throws Exception {
+    	// 디스크 캐시 → 없거나 오래됐으면 API
+    	String responseBody = diskPayloadStore.fetch("detailCommon2", contentId, cacheTtl,
+    			() -> serviceKeyScheduler.call("detailCommon2", KeyTraffic.SERVING, serviceKey -> requestBody(contentId, serviceKey)));
+		try {
+		    // 문자열을 ImageApiResponseDto 객체로 변환
+		    CommentResponseDto commentResponse = objectMapper.readValue(responseBody, CommentResponseDto.class);
+		    return commentResponse;  // ResponseEntity가 아닌 ImageApiResponseDto 직접 반환
+		} catch (Exception e) {
+		    System.err.println("JSON 변환 중 오류 발생: " + responseBody);
+		    e.printStackTrace();
+		    throw new RuntimeException("JSON 변환 중 오류 발생: " + e.getMessage());
+		}
+    }
+    
+    private String requestBody(String contentId, String serviceKey) throws Exception {
     	String fullUrl = apiUrl 
-                + "?serviceKey=" + key
+                + "?serviceKey=" + serviceKey
                 + "&MobileOS=WEB"
                 + "&MobileApp=Koreplan"
                 + "&_type=json"
@@ -39,8 +65,7 @@ public class CommentService {
 		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 		conn.setRequestMethod("GET");
 		conn.setRequestProperty("Content-type", "application/json");
-		conn.setConnectTimeout(1000000000);
-		conn.setReadTimeout(1000000000);
+		upstreamGuard.applyTimeouts(conn, 3000, 5000);
 
 		BufferedReader rd;
 		if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -59,14 +84,6 @@ public class CommentService {
 		conn.disconnect();
 		String responseBody = sb.toString();
 		log.info(responseBody);
-		try {
-		    // 문자열을 ImageApiResponseDto 객체로 변환
-		    CommentResponseDto commentResponse = objectMapper.readValue(responseBody, CommentResponseDto.class);
-		    return commentResponse;  // ResponseEntity가 아닌 ImageApiResponseDto 직접 반환
-		} catch (Exception e) {
-		    System.err.println("JSON 변환 중 오류 발생: " + responseBody);
-		    e.printStackTrace();
-		    throw new RuntimeException("JSON 변환 중 오류 발생: " + e.getMessage());
-		}
+		return responseBody;
     }
 }
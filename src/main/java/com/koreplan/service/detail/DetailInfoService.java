@@ -1,9 +1,16 @@
 package com.koreplan.service.detail;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.cache.DiskPayloadStore;
+import com.koreplan.common.cache.RefreshingCache;
 import com.koreplan.dto.ApiResponseDto;
 import com.koreplan.dto.detail.*;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,27 +21,89 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
+import java.util.Set;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class DetailInfoService {
     
-    @Value("${publicDataKey}")
-    private String serviceKey;
     
-    private final String API_BASE_URL = "https://apis.data.go.kr/B551011/KorService2/detailIntro2";
+    @Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/detailIntro2")
+    private String API_BASE_URL;
     private final ObjectMapper objectMapper;
+    private final DiskPayloadStore diskPayloadStore;
+    private final UpstreamGuard upstreamGuard;
+    private final ServiceKeyScheduler serviceKeyScheduler;
+    
+    // 상세정보 캐시 (공공데이터는 보통 주 단위로 바뀜)
+    @Value("${cache.detail-intro.max-size:5000}")
+    private int cacheMaxSize;
+    @Value("${cache.detail-intro.ttl:PT24H}")
+    private Duration cacheTtl;
+    @Value("${cache.detail-intro.max-stale:P7D}")
+    private Duration cacheMaxStale;
+    @Value("${cache.detail-intro.negative-ttl:PT1H}")
+    private Duration cacheNegativeTtl;
+    
+    private static final Set<String> SUPPORTED_TYPES = Set.of("12", "14", "15", "28", "32", "38", "39");
+    
+    private record IntroKey(String contentId, String contentTypeId) {
+    }
     
+    private RefreshingCache<IntroKey, Object> introCache;
+    // 데이터가 없을 때 items가 빈 문자열("")로 내려오므로 null로 받아주는 ObjectMapper
+    private ObjectMapper introObjectMapper;
     
+    @PostConstruct
+    public void initCache() {
+        introObjectMapper = objectMapper.copy()
+                .configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+        introCache = new RefreshingCache<>("detailIntro2", cacheMaxSize, cacheTtl, cacheMaxStale, cacheNegativeTtl,
+                dto -> getFirstItem((ApiResponseDto<?>) dto) == null);
+    }
     
     /**
-     * contentId와 contentTypeId에 따른 상세 정보 조회
+     * contentId와 contentTypeId에 따른 상세 정보 조회 (캐시 → 없거나 오래됐으면 API)
      */
     public ResponseEntity<Object> getDetailIntro(String contentId, String contentTypeId) throws Exception {
+        if (!SUPPORTED_TYPES.contains(contentTypeId)) {
+            log.warn("지원하지 않는 contentTypeId: {}", contentTypeId);
+            throw new IllegalArgumentException("지원하지 않는 contentTypeId: " + contentTypeId);
+        }
+        Object responseDto = introCache.get(new IntroKey(contentId, contentTypeId),
+                () -> requestDetailIntro(contentId, contentTypeId));
+        return ResponseEntity.ok(responseDto);
+    }
+    
+    public String cacheStats() {
+        return introCache.stats();
+    }
+    
+    /**
+     * detailIntro2 호출 후 contentTypeId에 맞는 DTO로 변환
+     */
+    private Object requestDetailIntro(String contentId, String contentTypeId) throws Exception {
+        // 디스크 캐시 → 없거나 오래됐으면 API
+        String responseBody = diskPayloadStore.fetch("detailIntro2", contentId + ":" + contentTypeId, cacheTtl,
+                () -> serviceKeyScheduler.call("detailIntro2", KeyTraffic.SERVING,
+                        serviceKey -> requestBody(contentId, contentTypeId, serviceKey)));
+        
+        try {
+            // contentTypeId에 따라 적절한 DTO로 변환
+            return parseResponse(responseBody, contentTypeId);
+        } catch (Exception e) {
+            log.error("JSON 변환 중 오류 발생: {}", responseBody, e);
+            throw new RuntimeException("JSON 변환 중 오류 발생", e);
+        }
+    }
+    
+    private String requestBody(String contentId, String contentTypeId, String serviceKey) throws Exception {
         log.info("상세정보 조회 시작 - contentId: {}, contentTypeId: {}", contentId, contentTypeId);
         
         // API URL 구성
-        String fullUrl = buildApiUrl(contentId, contentTypeId);
+        String fullUrl = buildApiUrl(contentId, contentTypeId, serviceKey);
         log.info("API 호출 URL: {}", fullUrl);
         
         // HTTP 연결 설정
@@ -43,8 +112,7 @@ public class DetailInfoService {
         
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Content-type", "application/json");
-        conn.setConnectTimeout(5000);
-        conn.setReadTimeout(5000);
+        upstreamGuard.applyTimeouts(conn, 3000, 5000);
         
         log.info("Response code: " + conn.getResponseCode());
         
@@ -68,21 +136,13 @@ public class DetailInfoService {
         // 디버깅용: API 응답 로깅
         String responseBody = sb.toString();
         log.debug("API 응답 원본: {}", responseBody);
-        
-        try {
-            // contentTypeId에 따라 적절한 DTO로 변환
-            Object responseDto = parseResponse(responseBody, contentTypeId);
-            return ResponseEntity.ok(responseDto);
-        } catch (Exception e) {
-            log.error("JSON 변환 중 오류 발생: {}", responseBody, e);
-            throw new RuntimeException("JSON 변환 중 오류 발생", e);
-        }
+        return responseBody;
     }
     
     /**
      * API URL 구성
      */
-    private String buildApiUrl(String contentId, String contentTypeId) {
+    private String buildApiUrl(String contentId, String contentTypeId, String serviceKey) {
         return API_BASE_URL + 
                "?serviceKey=" + serviceKey +
                "&MobileOS=WEB" +
@@ -100,36 +160,36 @@ public class DetailInfoService {
     private Object parseResponse(String responseBody, String contentTypeId) throws Exception {
         switch (contentTypeId) {
             case "12": // 관광지
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, TourismInfoDto.class));
                 
             case "14": // 문화시설
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, CultureInfoDto.class));
             case "15": //축제
-            	return objectMapper.readValue(responseBody, 
-                        objectMapper.getTypeFactory().constructParametricType(
+            	return introObjectMapper.readValue(responseBody, 
+                        introObjectMapper.getTypeFactory().constructParametricType(
                             ApiResponseDto.class, FestivalInfoDto.class));
             case "28": // 레포츠
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, LeportsInfoDto.class));
                 
             case "32": // 숙박
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, AccommodationInfoDto.class));
                 
             case "38": // 쇼핑
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, ShoppingInfoDto.class));
                 
             case "39": // 음식점
-                return objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
+                return introObjectMapper.readValue(responseBody, 
+                    introObjectMapper.getTypeFactory().constructParametricType(
                         ApiResponseDto.class, FoodInfoDto.class));
                 
             default:
@@ -0,0 +1,139 @@
+package com.koreplan.service.detail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.koreplan.common.api.RequestDeadline;
+import com.koreplan.dto.comment.CommentResponseDto;
+import com.koreplan.dto.detail.PlaceDetailResponseDto;
+import com.koreplan.dto.image.ImageApiResponseDto;
+import com.koreplan.dto.search.DataResponseDto;
+import com.koreplan.data.service.SearchDataService;
+import com.koreplan.service.comment.CommentService;
+import com.koreplan.service.image.ImagesLoadService;
+import com.koreplan.service.review.ReviewService;
+import com.koreplan.service.review.ReviewService.ReviewStats;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 상세 페이지에 필요한 데이터(기본 정보, 상세정보, 이미지, 개요, 리뷰 통계)를 한 번에 조회
+ * - 각 항목을 가상 스레드에서 동시에 조회하고 요청 전체에 하나의 마감 시간을 적용
+ * - 실패하거나 마감 시간을 넘긴 항목은 null로 두고 missing에 기록 (나머지는 그대로 응답)
+ * → 응답 시간이 항목별 시간의 합이 아니라 가장 느린 항목의 시간
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PlaceDetailService {
+
+	private final SearchDataService searchDataService;
+	private final DetailInfoService detailInfoService;
+	private final ImagesLoadService imagesLoadService;
+	private final CommentService commentService;
+	private final ReviewService reviewService;
+
+	@Value("${detail.aggregate.timeout:PT3S}")
+	private Duration timeout;
+
+	// 마감 시간이 지나면 남은 작업은 취소하고 바로 응답해야 하므로 요청마다 닫지 않는 공용 실행기 사용
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public PlaceDetailResponseDto getPlaceDetail(String contentId, String contentTypeId) {
+		long startedAt = System.currentTimeMillis();
+		// 요청 마감 시각을 좁혀서 아래 가상 스레드들에 넘기면 외부 API 타임아웃도 그 안으로 맞춰짐
+		long deadline = RequestDeadline.narrow(timeout);
+		List<String> missing = new ArrayList<>();
+
+		// DB 기본 정보(→ 리뷰 통계, contentTypeId)와 외부 API 항목을 동시에 시작
+		Future<DataResponseDto> dataFuture = submit(deadline, () -> searchDataService.getDataResponseDtoByContentId(contentId));
+		Future<ImageApiResponseDto> imagesFuture = submit(deadline, () -> imagesLoadService.getImages(contentId));
+		Future<CommentResponseDto> commentFuture = submit(deadline, () -> commentService.getInfomation(contentId));
+		Future<Object> introFuture = contentTypeId != null ? submitIntro(contentId, contentTypeId, deadline) : null;
+
+		DataResponseDto data = await("data", dataFuture, deadline, missing);
+
+		// contentTypeId를 안 넘겼으면 DB의 테마로 상세정보 조회
+		String typeId = contentTypeId;
+		if (introFuture == null && data != null) {
+			typeId = String.valueOf(data.getTheme());
+			introFuture = submitIntro(contentId, typeId, deadline);
+		}
+		Future<ReviewStats> statsFuture = data != null
+				? submit(deadline, () -> reviewService.getReviewStats(data.getId()))
+				: null;
+
+		Object intro = introFuture != null ? await("intro", introFuture, deadline, missing) : markMissing("intro", missing);
+		ImageApiResponseDto images = await("images", imagesFuture, deadline, missing);
+		CommentResponseDto comment = await("comment", commentFuture, deadline, missing);
+		ReviewStats reviewStats = statsFuture != null ? await("reviewStats", statsFuture, deadline, missing) : markMissing("reviewStats", missing);
+
+		long elapsed = System.currentTimeMillis() - startedAt;
+		if (!missing.isEmpty()) {
+			log.warn("상세 페이지 일부 항목 누락 - contentId: {}, missing: {}, {}ms", contentId, missing, elapsed);
+		}
+
+		return PlaceDetailResponseDto.builder()
+				.contentId(contentId)
+				.contentTypeId(typeId)
+				.data(data)
+				.intro(intro)
+				.images(images)
+				.comment(comment)
+				.reviewStats(reviewStats)
+				.missing(missing)
+				.elapsedMs(elapsed)
+				.build();
+	}
+
+	private Future<Object> submitIntro(String contentId, String contentTypeId, long deadline) {
+		Callable<Object> call = () -> detailInfoService.getDetailIntro(contentId, contentTypeId).getBody();
+		return submit(deadline, call);
+	}
+
+	private <T> Future<T> submit(long deadline, Callable<T> call) {
+		return executor.submit(RequestDeadline.within(deadline, call));
+	}
+
+	/**
+	 * 공동 마감 시간까지 결과를 기다리고, 실패/시간 초과면 취소 후 null
+	 */
+	private <T> T await(String part, Future<T> future, long deadline, List<String> missing) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			log.warn("상세 페이지 항목 시간 초과: {}", part);
+		} catch (ExecutionException e) {
+			log.warn("상세 페이지 항목 조회 실패: {} - {}", part, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+		}
+		missing.add(part);
+		return null;
+	}
+
+	private <T> T markMissing(String part, List<String> missing) {
+		missing.add(part);
+		return null;
+	}
+}
@@ -4,15 +4,23 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.cache.DiskPayloadStore;
+import com.koreplan.common.cache.RefreshingCache;
 import com.koreplan.dto.ApiResponseDto;
 import com.koreplan.dto.festival.FestivalDetailInfoDto;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,12 +28,67 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Slf4j
 public class DetailFestivalService {
-	@Value("${publicDataKey}")
-    private String serviceKey;
-	private final String API_BASE_URL = "https://apis.data.go.kr/B551011/KorService2/detailInfo2";
+	@Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/detailInfo2")
+	private String API_BASE_URL;
     private final ObjectMapper objectMapper;
+    private final DiskPayloadStore diskPayloadStore;
+    private final UpstreamGuard upstreamGuard;
+    private final ServiceKeyScheduler serviceKeyScheduler;
+    
+    // 축제 상세정보 캐시 (detailInfo2, contentTypeId는 항상 15)
+    @Value("${cache.detail-intro.max-size:5000}")
+    private int cacheMaxSize;
+    @Value("${cache.detail-intro.ttl:PT24H}")
+    private Duration cacheTtl;
+    @Value("${cache.detail-intro.max-stale:P7D}")
+    private Duration cacheMaxStale;
+    @Value("${cache.detail-intro.negative-ttl:PT1H}")
+    private Duration cacheNegativeTtl;
+    
+    private RefreshingCache<String, Object> festivalCache;
+    // 데이터가 없을 때 items가 빈 문자열("")로 내려오므로 null로 받아주는 ObjectMapper
+    private ObjectMapper festivalObjectMapper;
+    
+    @PostConstruct
+    public void initCache() {
+    	festivalObjectMapper = objectMapper.copy()
+    			.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+    	festivalCache = new RefreshingCache<>("detailInfo2", cacheMaxSize, cacheTtl, cacheMaxStale, cacheNegativeTtl,
+    			dto -> isEmpty((ApiResponseDto<?>) dto));
+    }
     
     public ResponseEntity<Object> getDetailIntro(String contentId) throws Exception {
+    	return ResponseEntity.ok(festivalCache.get(contentId, () -> requestDetailInfo(contentId)));
+    }
+    
+    public String cacheStats() {
+    	return festivalCache.stats();
+    }
+    
+    private boolean isEmpty(ApiResponseDto<?> dto) {
+    	return dto == null || dto.getResponse() == null || dto.getResponse().getBody() == null
+    			|| dto.getResponse().getBody().getItems() == null
+    			|| dto.getResponse().getBody().getItems().getItem() == null
+    			|| dto.getResponse().getBody().getItems().getItem().isEmpty();
+    }
+    
+    private Object requestDetailInfo(String contentId) throws Exception {
+    	// 디스크 캐시 → 없거나 오래됐으면 API
+    	String responseBody = diskPayloadStore.fetch("detailInfo2", contentId, cacheTtl,
+    			() -> serviceKeyScheduler.call("detailInfo2", KeyTraffic.SERVING, serviceKey -> requestBody(contentId, serviceKey)));
+		try {
+		    
+			return festivalObjectMapper.readValue(responseBody, 
+                    festivalObjectMapper.getTypeFactory().constructParametricType(
+                        ApiResponseDto.class, FestivalDetailInfoDto.class));
+		} catch (Exception e) {
+		    System.err.println("JSON 변환 중 오류 발생: " + responseBody);
+		    e.printStackTrace();
+		    throw new RuntimeException("JSON 변환 중 오류 발생: " + e.getMessage());
+		}
+    }
+    
+    private String requestBody(String contentId, String serviceKey) throws Exception {
     	String fullUrl = API_BASE_URL 
                 + "?serviceKey=" + serviceKey
                 + "&MobileOS=WEB"
@@ -39,8 +102,7 @@ public class DetailFestivalService {
 		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 		conn.setRequestMethod("GET");
 		conn.setRequestProperty("Content-type", "application/json");
-		conn.setConnectTimeout(1000000000);
-		conn.setReadTimeout(1000000000);
+		upstreamGuard.applyTimeouts(conn, 3000, 5000);
 
 		BufferedReader rd;
 		if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -57,18 +119,6 @@ public class DetailFestivalService {
 		}
 		rd.close();
 		conn.disconnect();
-		String responseBody = sb.toString();
-		try {
-		    
-			Object detailFestival = objectMapper.readValue(responseBody, 
-                    objectMapper.getTypeFactory().constructParametricType(
-                        ApiResponseDto.class, FestivalDetailInfoDto.class));
-		    return ResponseEntity.ok(detailFestival); 
-		} catch (Exception e) {
-		    System.err.println("JSON 변환 중 오류 발생: " + responseBody);
-		    e.printStackTrace();
-		    throw new RuntimeException("JSON 변환 중 오류 발생: " + e.getMessage());
-		}
-	
+		return sb.toString();
     }
 }
@@ -1,31 +1,45 @@
 package com.koreplan.service.festival;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.koreplan.area.entity.RegionCodeEntity;
-import com.koreplan.area.entity.WardCodeEntity;
 import com.koreplan.area.repository.RegionCodeRepository;
 import com.koreplan.area.repository.WardCodeRepository;
+import com.koreplan.area.service.RegionCodeLookup;
+import com.koreplan.common.api.QuotaExceededException;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.api.UpstreamUnavailableException;
 import com.koreplan.dto.ApiResponseDto;
 import com.koreplan.dto.festival.FestivalCommonDto;
 import com.koreplan.dto.festival.FestivalContentIdDto;
 import com.koreplan.dto.festival.FestivalTermDto;
 import com.koreplan.entity.festival.FestivalEntity;
+import com.koreplan.job.service.JobContext;
 import com.koreplan.repository.festival.FestivalRepository;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,16 +47,18 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class SaveFestivalService {
-	@Value("${publicDataKey}")
-	private String serviceKey1;  // 첫 번째 서비스키
-	
-	@Value("${publicDataKey2}")  // 두 번째 서비스키 추가
-	private String serviceKey2;
+	public static final String JOB_NAME = "festival";
+
+	// 상세 API 동시 처리 개수 (가상 스레드)
+	@Value("${festival.ingest.concurrency:16}")
+	private int concurrency;
 	
-	@Value("${publicDataKey3}") // 세 번째 서비스키 
-	private String serviceKey3;
+	// 한 번에 커밋하는 축제 수 (체크포인트 단위)
+	@Value("${festival.ingest.chunk-size:200}")
+	private int chunkSize;
 	
-	private final String API_BASE_URL = "https://apis.data.go.kr/B551011/KorService2/";
+	@Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/")
+	private String API_BASE_URL;
 	private final String First_API_URL = "areaBasedList2";
 	private final String Second_API_URL = "detailIntro2";
 	private final String Third_API_URL = "detailCommon2";
@@ -52,40 +68,19 @@ public class SaveFestivalService {
 	private final RegionCodeRepository regionCodeRepository;
 	private final WardCodeRepository wardCodeRepository;
     private final FestivalRepository festivalRepository;
-    
-    private String getCurrentServiceKey(int index) {
-        String key;
-        int keyIndex = index % 3;
-        
-        switch (keyIndex) {
-            case 0:
-                key = serviceKey1;
-                break;
-            case 1:
-                key = serviceKey2;
-                break;
-            case 2:
-                key = serviceKey3;
-                break;
-            default:
-                key = serviceKey1; // 기본값 (실제로는 도달하지 않음)
-        }
-        
-        log.debug("사용할 서비스키 (인덱스 {}): {}", index, key.substring(0, 10) + "...");
-        return key;
-    }
+    private final ServiceKeyScheduler serviceKeyScheduler;
+    private final UpstreamGuard upstreamGuard;
     
 	// 제일 먼저 축제 타입인 모든 데이터 갖고오기.
-	public ResponseEntity<ApiResponseDto<FestivalContentIdDto>> requestFirst() throws Exception {
+	public ResponseEntity<ApiResponseDto<FestivalContentIdDto>> requestFirst(String serviceKey) throws Exception {
 		int rows = 10000;
-		String fullUrl = API_BASE_URL + First_API_URL + "?serviceKey=" + serviceKey1 + "&numOfRows=" + rows
+		String fullUrl = API_BASE_URL + First_API_URL + "?serviceKey=" + serviceKey + "&numOfRows=" + rows
 				+ "&MobileOS=WEB&MobileApp=Koreplan&_type=json&contentTypeId=15";
 		URL url = new URL(fullUrl);
 		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 		conn.setRequestMethod("GET");
 		conn.setRequestProperty("Content-type", "application/json");
-		conn.setConnectTimeout(1000000000);
-		conn.setReadTimeout(1000000000);
+		upstreamGuard.applyTimeouts(conn, 10000, 120000);
 		BufferedReader rd;
 		if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
 			rd = new BufferedReader(new InputStreamReader(conn.getInputStream()));
@@ -130,22 +125,18 @@ public class SaveFestivalService {
 	// requestFirst로 갖고온 Dto의 contentID로 축제의 기간정보 불러오기. (서비스키 매개변수 추가)
 	public ResponseEntity<ApiResponseDto<FestivalTermDto>> requestSecond(FestivalContentIdDto dto, String serviceKey) throws Exception {
 	    String contentID = dto.getContentId();
-	    log.debug("requestSecond 호출 - 입력 매개변수: {}, 서비스키: {}", dto, serviceKey.substring(0,10) + "...");
+	    log.debug("requestSecond 호출 - 입력 매개변수: {}, 서비스키: {}", dto, ServiceKeyScheduler.mask(serviceKey));
 	    log.debug("requestSecond - contentID: {}", contentID);
 	    
 	    String fullUrl = API_BASE_URL + Second_API_URL + "?serviceKey=" + serviceKey
 	            + "&MobileOS=WEB&MobileApp=Koreplan&_type=json&contentId=" + contentID + "&contentTypeId=15";
 	    log.debug("requestSecond - 호출 URL: {}", fullUrl);
 	    
-	    // API 호출 제한을 위한 딜레이 추가
-	    Thread.sleep(50); // 0.05초 대기
-	    
 	    URL url = new URL(fullUrl);
 	    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 	    conn.setRequestMethod("GET");
 	    conn.setRequestProperty("Content-type", "application/json");
-	    conn.setConnectTimeout(10000); // 10초로 단축
-	    conn.setReadTimeout(10000);    // 10초로 단축
+	    upstreamGuard.applyTimeouts(conn, 10000, 10000);
 	    
 	    BufferedReader rd;
 	    if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -169,13 +160,11 @@ public class SaveFestivalService {
 	    try {
 	        // XML 에러 응답 체크
 	        if (responseBody.trim().startsWith("<")) {
-	            log.error("API에서 XML 에러 응답 수신. contentId: {}, response: {}", contentID, responseBody);
-	            
-	            // 호출 제한 에러인 경우 더 긴 대기
-	            if (responseBody.contains("LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR")) {
-	                log.warn("API 호출 제한 초과! 10초 대기 후 재시도...");
-	                Thread.sleep(10000);
+	            // 호출 제한 에러는 스케줄러가 백오프 후 다른 키로 재시도
+	            if (QuotaExceededException.isQuotaError(responseBody)) {
+	                throw new QuotaExceededException("API 호출 제한 초과. contentId: " + contentID);
 	            }
+	            log.error("API에서 XML 에러 응답 수신. contentId: {}, response: {}", contentID, responseBody);
 	            return null;
 	        }
 	        
@@ -199,6 +188,8 @@ public class SaveFestivalService {
 	        }
 	        
 	        return ResponseEntity.ok(responseDto);
+	    } catch (QuotaExceededException e) {
+	        throw e;
 	    } catch (Exception e) {
 	        log.error("JSON 변환 중 오류 발생. contentId: {}, response: {}", contentID, responseBody, e);
 	        return null; // 예외 발생시 null 반환
@@ -207,20 +198,16 @@ public class SaveFestivalService {
 
 	public ResponseEntity<ApiResponseDto<FestivalCommonDto>> requestThird(FestivalContentIdDto dto, String serviceKey) throws Exception{
 	    String contentID = dto.getContentId();
-	    log.debug("requestThird 호출 - contentID: {}, 서비스키: {}", contentID, serviceKey.substring(0,10) + "...");
+	    log.debug("requestThird 호출 - contentID: {}, 서비스키: {}", contentID, ServiceKeyScheduler.mask(serviceKey));
 	    
 	    String fullUrl = API_BASE_URL + Third_API_URL + "?serviceKey=" + serviceKey
 	            + "&MobileOS=WEB&MobileApp=Koreplan&_type=json&contentId=" + contentID;
 	    
-	    // API 호출 제한을 위한 딜레이 추가
-	    Thread.sleep(30); // 0.03초 대기
-	    
 	    URL url = new URL(fullUrl);
 	    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
 	    conn.setRequestMethod("GET");
 	    conn.setRequestProperty("Content-type", "application/json");
-	    conn.setConnectTimeout(10000);
-	    conn.setReadTimeout(10000);
+	    upstreamGuard.applyTimeouts(conn, 10000, 10000);
 	    
 	    BufferedReader rd;
 	    if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -244,13 +231,11 @@ public class SaveFestivalService {
 	    try {
 	        // XML 에러 응답 체크
 	        if (responseBody.trim().startsWith("<")) {
-	            log.error("API에서 XML 에러 응답 수신. contentId: {}, response: {}", contentID, responseBody);
-	            
-	            // 호출 제한 에러인 경우 더 긴 대기
-	            if (responseBody.contains("LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR")) {
-	                log.warn("API 호출 제한 초과! 10초 대기 후 재시도...");
-	                Thread.sleep(10000);
+	            // 호출 제한 에러는 스케줄러가 백오프 후 다른 키로 재시도
+	            if (QuotaExceededException.isQuotaError(responseBody)) {
+	                throw new QuotaExceededException("API 호출 제한 초과. contentId: " + contentID);
 	            }
+	            log.error("API에서 XML 에러 응답 수신. contentId: {}, response: {}", contentID, responseBody);
 	            return null;
 	        }
 	        
@@ -264,152 +249,171 @@ public class SaveFestivalService {
 	        ApiResponseDto responseDto = objectMapper.readValue(responseBody, objectMapper.getTypeFactory()
 	                .constructParametricType(ApiResponseDto.class, FestivalCommonDto.class));
 	        return ResponseEntity.ok(responseDto);
+	    } catch (QuotaExceededException e) {
+	        throw e;
 	    } catch (Exception e) {
 	        log.error("JSON 변환 중 오류 발생. contentId: {}, response: {}", contentID, responseBody, e);
 	        return null;
 	    }
 	}
 
-	// 재시도 로직이 포함된 메서드들 (서비스키 매개변수 추가)
-	private ResponseEntity<ApiResponseDto<FestivalTermDto>> requestSecondWithRetry(FestivalContentIdDto dto, String serviceKey) throws Exception {
-	    int maxRetries = 3;
-	    for (int i = 0; i < maxRetries; i++) {
-	        try {
-	            ResponseEntity<ApiResponseDto<FestivalTermDto>> result = requestSecond(dto, serviceKey);
-	            if (result != null) {
-	                return result;
-	            }
-	            if (i < maxRetries - 1) {
-	                Thread.sleep(5000); // 5초 대기 후 재시도
-	            }
-	        } catch (Exception e) {
-	            if (i == maxRetries - 1) {
-	                log.error("재시도 실패: contentId={}, 키={}", dto.getContentId(), serviceKey.substring(0,10) + "...", e);
-	                return null;
-	            }
-	            Thread.sleep(5000);
-	        }
-	    }
-	    return null;
+	// 축제 하나의 상세 정보(기간 + 공통) 조회 결과
+	private record FestivalDetail(FestivalTermDto term, FestivalCommonDto common) {
 	}
 
-	private ResponseEntity<ApiResponseDto<FestivalCommonDto>> requestThirdWithRetry(FestivalContentIdDto dto, String serviceKey) throws Exception {
-	    int maxRetries = 3;
-	    for (int i = 0; i < maxRetries; i++) {
-	        try {
-	            ResponseEntity<ApiResponseDto<FestivalCommonDto>> result = requestThird(dto, serviceKey);
-	            if (result != null) {
-	                return result;
-	            }
-	            if (i < maxRetries - 1) {
-	                Thread.sleep(5000);
-	            }
-	        } catch (Exception e) {
-	            if (i == maxRetries - 1) {
-	                log.error("재시도 실패: contentId={}, 키={}", dto.getContentId(), serviceKey.substring(0,10) + "...", e);
-	                return null;
-	            }
-	            Thread.sleep(5000);
-	        }
-	    }
-	    return null;
-	}
-
-	// saveFestival 메서드 - 서비스키 교대 사용 (전체 데이터 처리)
-	public void saveFestival(ApiResponseDto<FestivalContentIdDto> dto) throws Exception {
+	// saveFestival 메서드 - 키별 토큰 버킷 + 가상 스레드로 상세 API 동시 호출
+	// 청크 단위로 저장하고 커밋될 때마다 커서를 기록 → 재시작 시 다음 청크부터 이어서 처리
+	// 호출 예산 소진/서킷 열림/네트워크 오류/인터럽트로 가져오지 못한 축제가 있으면
+	// 커서는 그 축제 앞까지만 기록하고 작업을 실패시킴 (재시작 시 그 축제부터 다시 처리)
+	public void saveFestival(ApiResponseDto<FestivalContentIdDto> dto, JobContext ctx) throws Exception {
 	    List<FestivalContentIdDto> allFestival = dto.getResponse().getBody().getItems().getItem();
-	    List<FestivalEntity> entities = new ArrayList<>();
 	    
-	    int successCount = 0;
-	    int errorCount = 0;
-	    int processedCount = 0;
+	    AtomicInteger successCount = new AtomicInteger();
+	    AtomicInteger errorCount = new AtomicInteger();
+	    AtomicInteger expiredCount = new AtomicInteger();
+	    AtomicInteger processedCount = new AtomicInteger(ctx.getStartCursor());
 	    int totalCount = allFestival.size();
+	    long startedAt = System.currentTimeMillis();
+	    ctx.setTotal(totalCount);
 	    
-	    log.info("전체 축제 데이터 처리 시작: 총 {}개 (서비스키 2개 교대 사용)", totalCount);
+	    log.info("전체 축제 데이터 처리 시작: 총 {}개, {}번째부터 (서비스키 {}개, 동시 처리 {}개, 청크 {}개)", 
+	        totalCount, ctx.getStartCursor(), serviceKeyScheduler.keyCount(), concurrency, chunkSize);
 	    
-	    for(int i = 0; i < allFestival.size(); i++) {
-	        FestivalContentIdDto festival = allFestival.get(i);
-	        String currentKey = getCurrentServiceKey(i); // 교대로 키 사용
-	        
-	        processedCount++;
+	    // 지역/구 코드는 미리 메모리에 올려서 축제마다 DB 조회하지 않도록
+	    RegionCodeLookup regionLookup = RegionCodeLookup.load(regionCodeRepository, wardCodeRepository);
+	    
+	    Semaphore permits = new Semaphore(concurrency);
+	    int savedCount = 0;
+	    for (int from = ctx.getStartCursor(); from < totalCount; from += chunkSize) {
+	        List<FestivalContentIdDto> chunk = allFestival.subList(from, Math.min(from + chunkSize, totalCount));
+	        Queue<FestivalEntity> entities = new ConcurrentLinkedQueue<>();
+	        // 청크 내 위치별 처리 완료 여부 (1이면 저장/만료/데이터 없음으로 끝난 축제)
+	        AtomicIntegerArray done = new AtomicIntegerArray(chunk.size());
+	        AtomicReference<Exception> fatal = new AtomicReference<>();
 	        
-	        try {
-	            // 중복 체크 (주석 처리됨)
-	            // if (festivalRepository.existsByContentId(festival.getContentId())) {
-	            //     log.info("이미 존재하는 축제 (스킵): contentId={}", festival.getContentId());
-	            //     continue;
-	            // }
-	            
-	            // 진행률 로그 (100개마다 출력)
-	            if (processedCount % 100 == 0) {
-	                log.info("처리 진행률: {}/{} ({:.1f}%) - 현재 contentId: {}, 사용키: {}", 
-	                    processedCount, totalCount, (processedCount * 100.0 / totalCount), 
-	                    festival.getContentId(), currentKey.substring(0,10) + "...");
-	            }
-	            
-	            // 두번째 API 호출 (재시도 로직 포함)
-	            ResponseEntity<ApiResponseDto<FestivalTermDto>> termDto = requestSecondWithRetry(festival, currentKey);
-	            
-	            // null 체크 추가
-	            if (termDto == null || termDto.getBody() == null || 
-	                termDto.getBody().getResponse().getBody().getItems() == null ||
-	                termDto.getBody().getResponse().getBody().getItems().getItem().isEmpty()) {
-	                log.warn("축제 기간 정보가 없습니다. contentId: {}", festival.getContentId());
-	                errorCount++;
-	                continue;
-	            }
-	            
-	            FestivalTermDto check = termDto.getBody().getResponse().getBody().getItems().getItem().getFirst();
-	            
-	            // 축제 종료 날짜 체크
-	            if(isExpiredFestival(check.getEventEndDate())) {
-	                log.debug("만료된 축제 (스킵): contentId={}, 종료일={}", 
-	                    festival.getContentId(), check.getEventEndDate());
-	                continue;
+	        // 축제 단위 작업과 상세 API 호출 작업은 별도 실행기 (축제 실행기가 먼저 닫힌 뒤 호출 실행기가 닫힘)
+	        try (ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+	            for (int i = 0; i < chunk.size() && fatal.get() == null; i++) {
+	                FestivalContentIdDto festival = chunk.get(i);
+	                int index = i;
+	                permits.acquire();
+	                executor.submit(() -> {
+	                    try {
+	                        FestivalDetail detail = fetchDetail(festival, callExecutor);
+	                        if (detail == null) {
+	                            errorCount.incrementAndGet();
+	                        } else if (isExpiredFestival(detail.term().getEventEndDate())) {
+	                            log.debug("만료된 축제 (스킵): contentId={}, 종료일={}", 
+	                                festival.getContentId(), detail.term().getEventEndDate());
+	                            expiredCount.incrementAndGet();
+	                        } else {
+	                            entities.add(createFestivalEntity(detail.term(), detail.common(), regionLookup));
+	                            successCount.incrementAndGet();
+	                            log.debug("축제 저장 준비: {}", detail.common().getTitle());
+	                        }
+	                        done.set(index, 1);
+	                    } catch (InterruptedException e) {
+	                        Thread.currentThread().interrupt();
+	                        fatal.compareAndSet(null, e);
+	                    } catch (UpstreamUnavailableException | IOException e) {
+	                        // 다시 시도하면 성공할 수 있는 오류 → 건너뛰지 않고 작업 실패
+	                        log.warn("축제 상세 조회 불가: contentId={}, {}", festival.getContentId(), e.getMessage());
+	                        fatal.compareAndSet(null, e);
+	                    } catch (Exception e) {
+	                        // 응답 형식/데이터 오류는 다시 시도해도 같으므로 실패로 세고 넘어감
+	                        log.error("축제 처리 중 오류: contentId={}", festival.getContentId(), e);
+	                        errorCount.incrementAndGet();
+	                        done.set(index, 1);
+	                    } finally {
+	                        permits.release();
+	                        logProgress(processedCount.incrementAndGet(), totalCount, startedAt);
+	                    }
+	                });
 	            }
-	            
-	            // 세번째 API 호출 (재시도 로직 포함)
-	            ResponseEntity<ApiResponseDto<FestivalCommonDto>> commonDto = requestThirdWithRetry(festival, currentKey);
-	            
-	            // null 체크 추가
-	            if (commonDto == null || commonDto.getBody() == null || 
-	                commonDto.getBody().getResponse().getBody().getItems() == null ||
-	                commonDto.getBody().getResponse().getBody().getItems().getItem().isEmpty()) {
-	                log.warn("축제 공통 정보가 없습니다. contentId: {}", festival.getContentId());
-	                errorCount++;
-	                continue;
-	            }
-	            
-	            FestivalCommonDto last = commonDto.getBody().getResponse().getBody().getItems().getItem().getFirst();
-	            
-	            // Entity 생성 및 설정
-	            FestivalEntity entity = createFestivalEntity(check, last);
-	            entities.add(entity);
-	            successCount++;
-	            
-	            // 성공 로그는 debug로 변경 (너무 많아지지 않도록)
-	            log.debug("축제 저장 준비: {} (키: {})", last.getTitle(), currentKey.substring(0,10) + "...");
-	            
-	        } catch (Exception e) {
-	            log.error("축제 처리 중 오류: contentId={}, 키={}", 
-	                festival.getContentId(), currentKey.substring(0,10) + "...", e);
-	            errorCount++;
+	        } // close()에서 청크의 모든 작업 완료까지 대기
+	        
+	        // 청크 저장 후 체크포인트 (contentId가 PK라 같은 청크를 다시 저장해도 덮어쓰기)
+	        if (!entities.isEmpty()) {
+	            festivalRepository.saveAll(entities);
+	            savedCount += entities.size();
+	        }
+	        int completed = 0;
+	        while (completed < chunk.size() && done.get(completed) == 1) {
+	            completed++;
+	        }
+	        ctx.checkpoint(from + completed);
+	        
+	        if (fatal.get() != null) {
+	            log.warn("축제 적재 중단: {}번째까지 커밋, 이번 실행 저장 {}건", from + completed, savedCount);
+	            throw fatal.get();
 	        }
 	    }
 	    
-	    // 마지막에 모든 데이터 한번에 저장
-	    if (!entities.isEmpty()) {
-	        log.info("DB 저장 시작: {}개 축제 데이터", entities.size());
-	        festivalRepository.saveAll(entities);
-	        log.info("DB 저장 완료: {}개 축제 데이터", entities.size());
-	    }
+	    log.info("전체 데이터 처리 완료! 처리: {}, 성공: {}, 만료: {}, 실패: {}, 이번 실행 저장: {}, 소요: {}초", 
+	        processedCount.get(), successCount.get(), expiredCount.get(), errorCount.get(), savedCount,
+	        (System.currentTimeMillis() - startedAt) / 1000);
+	}
+	
+	/**
+	 * detailIntro2(기간)와 detailCommon2(공통정보)를 동시에 호출
+	 * 둘 중 하나라도 데이터가 없으면 null
+	 */
+	private FestivalDetail fetchDetail(FestivalContentIdDto festival, ExecutorService executor) throws Exception {
+	    Future<ResponseEntity<ApiResponseDto<FestivalTermDto>>> termFuture = executor.submit(
+	        () -> serviceKeyScheduler.call(Second_API_URL, KeyTraffic.INGESTION, key -> requestSecond(festival, key)));
+	    Future<ResponseEntity<ApiResponseDto<FestivalCommonDto>>> commonFuture = executor.submit(
+	        () -> serviceKeyScheduler.call(Third_API_URL, KeyTraffic.INGESTION, key -> requestThird(festival, key)));
 	    
-	    log.info("전체 데이터 처리 완료! 처리: {}, 성공: {}, 실패: {}, 최종 저장: {}", 
-	        processedCount, successCount, errorCount, entities.size());
+	    FestivalTermDto term = firstItem(getResult(termFuture));
+	    FestivalCommonDto common = firstItem(getResult(commonFuture));
+	    
+	    if (term == null) {
+	        log.warn("축제 기간 정보가 없습니다. contentId: {}", festival.getContentId());
+	        return null;
+	    }
+	    if (common == null) {
+	        log.warn("축제 공통 정보가 없습니다. contentId: {}", festival.getContentId());
+	        return null;
+	    }
+	    return new FestivalDetail(term, common);
+	}
+	
+	private <T> T getResult(Future<T> future) throws Exception {
+	    try {
+	        return future.get();
+	    } catch (ExecutionException e) {
+	        if (e.getCause() instanceof Exception cause) {
+	            throw cause;
+	        }
+	        throw e;
+	    }
+	}
+	
+	private <T> T firstItem(ResponseEntity<ApiResponseDto<T>> response) {
+	    if (response == null || response.getBody() == null
+	        || response.getBody().getResponse() == null
+	        || response.getBody().getResponse().getBody() == null
+	        || response.getBody().getResponse().getBody().getItems() == null
+	        || response.getBody().getResponse().getBody().getItems().getItem() == null
+	        || response.getBody().getResponse().getBody().getItems().getItem().isEmpty()) {
+	        return null;
+	    }
+	    return response.getBody().getResponse().getBody().getItems().getItem().getFirst();
+	}
+	
+	// 진행률 로그 (100개마다 출력)
+	private void logProgress(int processed, int total, long startedAt) {
+	    if (processed % 100 != 0 && processed != total) {
+	        return;
+	    }
+	    double elapsedSec = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+	    log.info("처리 진행률: {}/{} ({}%) - {}건/초", 
+	        processed, total, String.format("%.1f", processed * 100.0 / total), String.format("%.1f", processed / elapsedSec));
 	}
 	
 	// Entity 생성 로직 분리
-	private FestivalEntity createFestivalEntity(FestivalTermDto check, FestivalCommonDto last) {
+	private FestivalEntity createFestivalEntity(FestivalTermDto check, FestivalCommonDto last, RegionCodeLookup regionLookup) {
 	    FestivalEntity entity = new FestivalEntity();
 	    entity.setContentId(check.getContentId());
 	    entity.setContentTypeId(15);
@@ -434,112 +438,42 @@ public class SaveFestivalService {
 	    entity.setViewCount(0);
 	    
 	    // 지역 코드 매핑
-	    setRegionInfo(entity, last);
+	    setRegionInfo(entity, last, regionLookup);
 	    
 	    return entity;
 	}
 
-	private void setRegionInfo(FestivalEntity entity, FestivalCommonDto last) {
-	    String regioncodeStr = last.getLDongRegnCd();
-	    String wardcodeStr = last.getLDongSignguCd();
-	    
-	    RegionCodeEntity regionEntity = null;
-	    WardCodeEntity wardEntity = null;
-
-	    if (regioncodeStr != null && !regioncodeStr.trim().isEmpty()) {
-	        try {
-	            Long regioncode = Long.valueOf(regioncodeStr);
-	            regionEntity = regionCodeRepository.findByRegioncode(regioncode).orElse(null);
-
-	            if (wardcodeStr != null && !wardcodeStr.trim().isEmpty()) {
-	                Long wardcode = Long.valueOf(wardcodeStr);
-	                wardEntity = wardCodeRepository.findByWardcodeAndRegionCodeEntity_Regioncode(wardcode, regioncode).orElse(null);
-	            }
-	        } catch (NumberFormatException e) {
-	            log.warn("지역 코드 파싱 오류: region='{}', ward='{}'", regioncodeStr, wardcodeStr);
-	        }
-	    }
-
-	    entity.setRegionCodeEntity(regionEntity);
-	    entity.setWardCodeEntity(wardEntity);
-	}
-	
-//	@PostConstruct  // 주석 처리 - 이미 데이터가 들어있음
-	public void saveFestival() {
-	    try {
-	        log.info("전체 축제 데이터 초기화를 시작합니다... (서비스키 2개 교대 사용)");
-	        
-	        // 첫 번째 API 호출 (모든 축제 목록)
-	        ResponseEntity<ApiResponseDto<FestivalContentIdDto>> response = requestFirst();
-	        ApiResponseDto<FestivalContentIdDto> dto = response.getBody();
-
-	        if (dto == null) {
-	            log.warn("API 응답이 null입니다.");
-	            return;
-	        }
-
-	        List<FestivalContentIdDto> items = dto.getResponse().getBody().getItems().getItem();
-	        
-	        if (items == null || items.isEmpty()) {
-	            log.warn("축제 데이터가 없습니다.");
-	            return;
-	        }
-	        
-	        log.info("총 {}개 축제 데이터를 전체 처리합니다. (서비스키 2개 교대 사용)", items.size());
-
-	        // 축제 데이터 저장
-	        saveFestival(dto);
-	        
-	        log.info("전체 축제 데이터 초기화가 완료되었습니다.");
-
-	    } catch (Exception e) {
-	        log.error("축제 데이터 초기화 중 오류 발생", e);
-	    }
+	private void setRegionInfo(FestivalEntity entity, FestivalCommonDto last, RegionCodeLookup regionLookup) {
+	    entity.setRegionCodeEntity(regionLookup.region(last.getLDongRegnCd()));
+	    entity.setWardCodeEntity(regionLookup.ward(last.getLDongRegnCd(), last.getLDongSignguCd()));
 	}
 	
-	// 배치 처리를 위한 새로운 메서드 (주석 처리됨)
-	/*
-	public void initWithBatch(int startIndex, int batchSize) throws Exception {
-	    log.info("배치 처리 시작: startIndex={}, batchSize={} (서비스키 2개 교대 사용)", startIndex, batchSize);
+	// 축제 적재 작업 (오류는 던져서 작업 상태에 기록)
+	public void saveFestival(JobContext ctx) throws Exception {
+	    log.info("전체 축제 데이터 초기화를 시작합니다...");
 	    
 	    // 첫 번째 API 호출 (모든 축제 목록)
-	    ResponseEntity<ApiResponseDto<FestivalContentIdDto>> response = requestFirst();
+	    ResponseEntity<ApiResponseDto<FestivalContentIdDto>> response = serviceKeyScheduler.call(First_API_URL, KeyTraffic.INGESTION, this::requestFirst);
 	    ApiResponseDto<FestivalContentIdDto> dto = response.getBody();
 
 	    if (dto == null) {
-	        throw new RuntimeException("API 응답이 null입니다.");
+	        throw new IllegalStateException("API 응답이 null입니다.");
 	    }
 
-	    List<FestivalContentIdDto> allItems = dto.getResponse().getBody().getItems().getItem();
+	    List<FestivalContentIdDto> items = dto.getResponse().getBody().getItems().getItem();
 	    
-	    if (allItems == null || allItems.isEmpty()) {
-	        throw new RuntimeException("축제 데이터가 없습니다.");
+	    if (items == null || items.isEmpty()) {
+	        log.warn("축제 데이터가 없습니다.");
+	        return;
 	    }
 	    
-	    // 배치 범위 계산
-	    int endIndex = Math.min(startIndex + batchSize, allItems.size());
-	    List<FestivalContentIdDto> batchItems = allItems.subList(startIndex, endIndex);
-	    
-	    log.info("전체 {}개 중 {}~{} 범위의 {}개 데이터를 처리합니다.", 
-	             allItems.size(), startIndex, endIndex-1, batchItems.size());
-	    
-	    // 배치용 DTO 생성
-	    ApiResponseDto<FestivalContentIdDto> batchDto = new ApiResponseDto<>();
-	    ApiResponseDto.Response<FestivalContentIdDto> batchResponse = new ApiResponseDto.Response<>();
-	    ApiResponseDto.Body<FestivalContentIdDto> batchBody = new ApiResponseDto.Body<>();
-	    ApiResponseDto.Items<FestivalContentIdDto> batchItemsDto = new ApiResponseDto.Items<>();
-	    
-	    batchItemsDto.setItem(batchItems);
-	    batchBody.setItems(batchItemsDto);
-	    batchResponse.setBody(batchBody);
-	    batchDto.setResponse(batchResponse);
-	    
-	    // 배치 데이터 저장
-	    saveFestival(batchDto);
+	    log.info("총 {}개 축제 데이터를 전체 처리합니다.", items.size());
+
+	    // 축제 데이터 저장
+	    saveFestival(dto, ctx);
 	    
-	    log.info("배치 처리 완료: {}개 처리됨", batchItems.size());
+	    log.info("전체 축제 데이터 초기화가 완료되었습니다.");
 	}
-	*/
 	
 	//기간 검사 메서드
 	private boolean isExpiredFestival(String eventEndDate) {
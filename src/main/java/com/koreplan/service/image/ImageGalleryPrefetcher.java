@@ -0,0 +1,78 @@
+package com.koreplan.service.image;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.koreplan.data.repository.DataRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 통합점수 상위 N개 여행지의 이미지 갤러리를 미리 불러와 캐시를 데워 둠
+ * → 가장 많이 보는 상세 페이지는 공공 API를 기다리지 않음
+ * 이미 신선한 캐시는 건너뛰고, 호출은 ServiceKeyScheduler의 키별 한도를 따름
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ImageGalleryPrefetcher {
+
+	private final ImagesLoadService imagesLoadService;
+	private final DataRepository dataRepository;
+
+	@Value("${cache.image.prefetch.enabled:true}")
+	private boolean enabled;
+
+	@Value("${cache.image.prefetch.top-n:300}")
+	private int topN;
+
+	@Value("${cache.image.prefetch.concurrency:4}")
+	private int concurrency;
+
+	@Scheduled(initialDelayString = "${cache.image.prefetch.initial-delay:PT1M}",
+			fixedDelayString = "${cache.image.prefetch.interval:PT6H}")
+	public void prefetchTopGalleries() {
+		if (!enabled) {
+			return;
+		}
+		List<String> contentIds = dataRepository.findContentIdsOrderByScoreDesc(PageRequest.of(0, topN));
+		AtomicInteger fetched = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		long startedAt = System.currentTimeMillis();
+
+		Semaphore permits = new Semaphore(concurrency);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (String contentId : contentIds) {
+				permits.acquire();
+				executor.submit(() -> {
+					try {
+						if (imagesLoadService.prefetch(contentId)) {
+							fetched.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failed.incrementAndGet();
+						log.debug("이미지 미리 불러오기 실패: contentId={}, {}", contentId, e.getMessage());
+					} finally {
+						permits.release();
+					}
+				});
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		log.info("이미지 갤러리 미리 불러오기 완료: 대상 {}개, 호출 {}개, 실패 {}개, {}ms ({})",
+				contentIds.size(), fetched.get(), failed.get(), System.currentTimeMillis() - startedAt,
+				imagesLoadService.cacheStats());
+	}
+}
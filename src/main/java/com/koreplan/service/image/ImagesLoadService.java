@@ -4,18 +4,24 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.time.Duration;
 import java.util.regex.Pattern;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koreplan.common.api.QuotaExceededException;
+import com.koreplan.common.api.KeyTraffic;
+import com.koreplan.common.api.ServiceKeyScheduler;
+import com.koreplan.common.api.UpstreamGuard;
+import com.koreplan.common.cache.DiskPayloadStore;
+import com.koreplan.common.cache.RefreshingCache;
+import com.koreplan.data.service.ContentIdRegistry;
 import com.koreplan.dto.image.ImageApiResponseDto;
-import com.koreplan.repository.festival.FestivalRepository;
-import com.koreplan.data.repository.DataRepository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,15 +30,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ImagesLoadService {
 	
-	// 기본 ObjectMapper는 사용하지 않고, 이미지 API 전용 ObjectMapper 생성
-	@Autowired
-	private DataRepository dataRepository;
-	@Autowired
-	private FestivalRepository festivalRepository;
-    @Value("${publicDataKey}")
-    private String key;
+	private final ContentIdRegistry contentIdRegistry;
+	private final ServiceKeyScheduler serviceKeyScheduler;
+	private final DiskPayloadStore diskPayloadStore;
+	private final UpstreamGuard upstreamGuard;
     
-    private final String apiUrl = "https://apis.data.go.kr/B551011/KorService2/detailImage2";
+    @Value("${publicData.base-url:https://apis.data.go.kr/B551011/KorService2}/detailImage2")
+    private String apiUrl;
     
     // contentId 유효성 검사 패턴 (숫자만 허용)
     private static final Pattern CONTENT_ID_PATTERN = Pattern.compile("^\\d+$");
@@ -42,6 +46,30 @@ public class ImagesLoadService {
             .configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true)
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     
+    // 갤러리 캐시 설정
+    @Value("${cache.image.max-size:5000}")
+    private int cacheMaxSize;
+    @Value("${cache.image.ttl:PT24H}")
+    private Duration cacheTtl;
+    @Value("${cache.image.max-stale:P7D}")
+    private Duration cacheMaxStale;
+    @Value("${cache.image.negative-ttl:PT6H}")
+    private Duration cacheNegativeTtl;
+    
+    private RefreshingCache<String, ImageApiResponseDto> galleryCache;
+    
+    @PostConstruct
+    public void initCache() {
+        galleryCache = new RefreshingCache<>("detailImage2", cacheMaxSize, cacheTtl, cacheMaxStale, cacheNegativeTtl,
+                this::isEmpty);
+    }
+    
+    // 응답/본문이 없거나 이미지가 0개면 "데이터 없음" 캐시 대상
+    private boolean isEmpty(ImageApiResponseDto dto) {
+        return dto == null || dto.getResponse() == null || dto.getResponse().getBody() == null
+                || dto.getResponse().getBody().getTotalCount() == 0;
+    }
+    
     public ImageApiResponseDto getImages(String contentId) throws Exception {
         
         // 1. contentId 기본 유효성 검사
@@ -50,15 +78,43 @@ public class ImagesLoadService {
             throw new IllegalArgumentException("유효하지 않은 contentId 형식입니다");
         }
         
-        // 2. DB에서 여행지 존재 여부 확인 (선택사항)
+        // 2. 여행지 존재 여부 확인 (메모리 목록 → 없으면 DB)
         if (!isSpotExistsInDB(contentId)) {
             log.warn("DB에 존재하지 않는 여행지: {}", contentId);
             throw new IllegalArgumentException("존재하지 않는 여행지입니다");
         }
         
-        // 3. API 호출
+        // 3. 캐시 → 없거나 오래됐으면 API 호출
+        return galleryCache.get(contentId, () -> requestImages(contentId, KeyTraffic.SERVING));
+    }
+    
+    /**
+     * 캐시가 신선하지 않으면 미리 불러오기 (ImageGalleryPrefetcher에서 사용)
+     * @return 실제로 API를 호출했으면 true
+     */
+    public boolean prefetch(String contentId) throws Exception {
+        if (galleryCache.isFresh(contentId)) {
+            return false;
+        }
+        galleryCache.refresh(contentId,
+                () -> requestImages(contentId, KeyTraffic.INGESTION));
+        return true;
+    }
+    
+    public String cacheStats() {
+        return galleryCache.stats();
+    }
+    
+    private ImageApiResponseDto requestImages(String contentId, KeyTraffic traffic) throws Exception {
+        // 디스크 캐시 → 없거나 오래됐으면 API
+        String responseBody = diskPayloadStore.fetch("detailImage2", contentId, cacheTtl,
+                () -> serviceKeyScheduler.call("detailImage2", traffic, serviceKey -> requestBody(contentId, serviceKey)));
+        return parseImages(contentId, responseBody);
+    }
+    
+    private String requestBody(String contentId, String serviceKey) throws Exception {
         String fullUrl = apiUrl 
-                + "?serviceKey=" + key
+                + "?serviceKey=" + serviceKey
                 + "&MobileOS=WEB"
                 + "&MobileApp=Koreplan"
                 + "&_type=json"
@@ -70,8 +126,7 @@ public class ImagesLoadService {
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Content-type", "application/json");
-        conn.setConnectTimeout(10000);
-        conn.setReadTimeout(10000);
+        upstreamGuard.applyTimeouts(conn, 3000, 10000);
         
         BufferedReader rd;
         if (conn.getResponseCode() >= 200 && conn.getResponseCode() <= 300) {
@@ -93,6 +148,14 @@ public class ImagesLoadService {
         String responseBody = sb.toString();
         log.debug("API 응답: {}", responseBody);
         
+        // 호출 한도 초과는 스케줄러가 다른 키로 재시도할 수 있게 별도 예외로
+        if (QuotaExceededException.isQuotaError(responseBody)) {
+            throw new QuotaExceededException("API 호출 제한 초과. contentId: " + contentId);
+        }
+        return responseBody;
+    }
+    
+    private ImageApiResponseDto parseImages(String contentId, String responseBody) {
         try {
             // 4. 이미지 API 전용 ObjectMapper 사용 (빈 문자열 처리 포함)
             ImageApiResponseDto imageResponse = imageApiObjectMapper.readValue(responseBody, ImageApiResponseDto.class);
@@ -141,23 +204,11 @@ public class ImagesLoadService {
     }
     
     /**
-     * DB에서 여행지 존재 여부 확인
-     * (실제 DB 구조에 맞게 수정 필요)
+     * 여행지/축제 존재 여부 확인 (메모리 contentId 목록, 없으면 DB 확인)
      */
     private boolean isSpotExistsInDB(String contentId) {
         try {
-            // 여행지 테이블에서 확인
-            if (dataRepository.existsByContentId(contentId)) {
-                return true;
-            }
-            
-            
-			// 축제 테이블에서 확인
-            if (festivalRepository.existsByContentId(contentId)) {
-                return true;
-            }
-            
-            return false;
+            return contentIdRegistry.exists(contentId);
         } catch (Exception e) {
             log.warn("DB 조회 중 오류: {}", e.getMessage());
             // DB 조회 실패 시에는 API 호출을 허용
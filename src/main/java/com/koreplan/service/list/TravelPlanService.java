@@ -2,13 +2,18 @@ package com.koreplan.service.list;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.koreplan.common.route.DayClusterer;
+import com.koreplan.common.route.RouteOptimizer;
 import com.koreplan.data.entity.DataEntity;
 import com.koreplan.data.repository.DataRepository;
 import com.koreplan.data.service.SearchDataService;
@@ -41,6 +46,12 @@ public class TravelPlanService {
 	@Autowired
 	private SearchDataService searchDataService;
 	
+	@Autowired
+	private RouteOptimizer routeOptimizer;
+	
+	@Autowired
+	private DayClusterer dayClusterer;
+	
     // 나만의 리스트에서 검색 로직
 	public List<DataSearchDto> searchDataByKeyword(String keyword) {
 		
@@ -274,6 +285,90 @@ public class TravelPlanService {
 	
 	
 	
+	// 수정페이지에서 동선 최적화: 날짜별 방문 순서를 최단 경로로 다시 매김
+	// (그날 마지막이 숙소면 끝으로 고정하고 전날 숙소에서 출발)
+	// regroup 이면 먼저 장소(숙소 제외)를 위치 기준으로 날짜별로 다시 나눔 (날짜별 장소 수는 그대로)
+	public SendTravelPlanDto optimizePlanRoute(Integer userId, Long planId, boolean regroup) {
+		TravelPlanEntity plan = travelPlanRepository.findByIdAndUserEntityId(planId, userId)
+				.orElseThrow(() -> new IllegalArgumentException("해당 ID의 여행 계획이 없습니다."));
+
+		Map<Integer, List<TravelDataEntity>> byDay = new TreeMap<>();
+		for (TravelDataEntity td : plan.getTravelDataList()) {
+			byDay.computeIfAbsent(td.getDay(), day -> new ArrayList<>()).add(td);
+		}
+		for (List<TravelDataEntity> day : byDay.values()) {
+			day.sort(Comparator.comparing(TravelDataEntity::getOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+		}
+		if (regroup) {
+			regroupDays(byDay);
+		}
+
+		List<List<TravelDataEntity>> ordered = routeOptimizer.orderDays(new ArrayList<>(byDay.values()),
+				td -> coordinate(td.getDataEntity().getMapx()), td -> coordinate(td.getDataEntity().getMapy()),
+				TravelPlanService::isLodging);
+		for (List<TravelDataEntity> day : ordered) {
+			for (int i = 0; i < day.size(); i++) {
+				day.get(i).setOrder(i + 1);
+			}
+		}
+		travelPlanRepository.save(plan);
+
+		return getPlanDto(userId, planId);
+	}
+
+	// 날짜별 장소(숙소 제외)를 위치 기준으로 다시 나눔 (DayClusterer), 숙소는 원래 날짜 끝에 그대로
+	private void regroupDays(Map<Integer, List<TravelDataEntity>> byDay) {
+		List<Integer> dayNumbers = new ArrayList<>(byDay.keySet());
+		List<TravelDataEntity> stops = new ArrayList<>();
+		Map<Integer, List<TravelDataEntity>> lodgingByDay = new TreeMap<>();
+		for (List<TravelDataEntity> day : byDay.values()) {
+			for (TravelDataEntity td : day) {
+				if (isLodging(td)) {
+					lodgingByDay.computeIfAbsent(td.getDay(), d -> new ArrayList<>()).add(td);
+				} else {
+					stops.add(td);
+				}
+			}
+		}
+		if (dayNumbers.size() < 2 || stops.stream().anyMatch(td -> Double.isNaN(coordinate(td.getDataEntity().getMapx()))
+				|| Double.isNaN(coordinate(td.getDataEntity().getMapy())))) {
+			return;
+		}
+
+		int[] capacity = new int[dayNumbers.size()];
+		int[] initialDay = new int[stops.size()];
+		for (int i = 0; i < stops.size(); i++) {
+			initialDay[i] = dayNumbers.indexOf(stops.get(i).getDay());
+			capacity[initialDay[i]]++;
+		}
+		List<List<TravelDataEntity>> groups = dayClusterer.cluster(stops, td -> coordinate(td.getDataEntity().getMapx()),
+				td -> coordinate(td.getDataEntity().getMapy()), capacity, initialDay);
+
+		byDay.clear();
+		for (int d = 0; d < dayNumbers.size(); d++) {
+			int dayNumber = dayNumbers.get(d);
+			List<TravelDataEntity> day = new ArrayList<>(groups.get(d));
+			day.addAll(lodgingByDay.getOrDefault(dayNumber, List.of()));
+			for (TravelDataEntity td : day) {
+				td.setDay(dayNumber);
+			}
+			byDay.put(dayNumber, day);
+		}
+	}
+
+	private static boolean isLodging(TravelDataEntity td) {
+		return td.getDataEntity().getTheme() == 32;
+	}
+
+	// 좌표 문자열 → double (없으면 NaN → 그날은 순서 유지)
+	private static double coordinate(String value) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NullPointerException | NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+	
 	// 리스트 자체를 삭제
 	public void deleteTravelPlanByPlanId (Long planId) {
 		travelPlanRepository.deleteById(planId);
@@ -0,0 +1,139 @@
+package com.koreplan.common.route;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 하루 방문 순서 벤치마크: 기존 최근접 이웃(sortByDistance) vs RouteOptimizer
+ * 서울 시내 좌표를 구 몇 곳에 모이도록 생성한 일정 64건을 돌아가며 정렬 (첫 장소 고정, 돌아오지 않음)
+ * Setup 에서 두 방식의 평균 경로 길이도 출력
+ *
+ * 실행:
+ * <pre>
+ * mvn -Dmaven.test.skip=false test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.koreplan.common.route.RouteOptimizerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteOptimizerBenchmark {
+
+	private static final int INSTANCES = 64;
+
+	// 장소가 몰리는 구 중심 (종로, 중구, 용산, 마포, 강남, 송파)
+	private static final double[][] CENTERS = { { 126.979, 37.573 }, { 126.997, 37.564 }, { 126.965, 37.532 },
+			{ 126.901, 37.566 }, { 127.047, 37.517 }, { 127.106, 37.514 } };
+
+	public record Stop(double x, double y) {
+	}
+
+	@Param({ "5", "10", "15" })
+	public int stops;
+
+	private List<List<Stop>> days;
+	private RouteOptimizer optimizer;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(7);
+		optimizer = new RouteOptimizer(Duration.ofMillis(5));
+		days = new ArrayList<>(INSTANCES);
+		for (int d = 0; d < INSTANCES; d++) {
+			List<Stop> day = new ArrayList<>(stops);
+			for (int i = 0; i < stops; i++) {
+				double[] center = CENTERS[random.nextInt(CENTERS.length)];
+				day.add(new Stop(center[0] + random.nextGaussian() * 0.02, center[1] + random.nextGaussian() * 0.015));
+			}
+			days.add(day);
+		}
+
+		double greedyKm = 0;
+		double optimizedKm = 0;
+		for (List<Stop> day : days) {
+			greedyKm += RouteOptimizer.length(greedy(day), Stop::x, Stop::y);
+			optimizedKm += RouteOptimizer.length(optimized(day), Stop::x, Stop::y);
+		}
+		System.out.printf("%n[stops=%d] 평균 경로 길이: 최근접 이웃 %.2fkm / 최적화 %.2fkm (%.1f%% 단축)%n", stops,
+				greedyKm / INSTANCES, optimizedKm / INSTANCES, 100 * (1 - optimizedKm / greedyKm));
+	}
+
+	@Benchmark
+	public void nearestNeighbour(Blackhole blackhole) {
+		blackhole.consume(greedy(nextDay()));
+	}
+
+	@Benchmark
+	public void routeOptimizer(Blackhole blackhole) {
+		blackhole.consume(optimized(nextDay()));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RouteOptimizerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	private List<Stop> nextDay() {
+		next = (next + 1) % INSTANCES;
+		return days.get(next);
+	}
+
+	private List<Stop> optimized(List<Stop> day) {
+		List<Stop> route = new ArrayList<>(day.size());
+		route.add(day.get(0));
+		route.addAll(optimizer.order(day.subList(1, day.size()), Stop::x, Stop::y, day.get(0), null));
+		return route;
+	}
+
+	/**
+	 * 기존 OpenAiService.sortByDistance (ObjectNode 대신 좌표 record)
+	 */
+	static List<Stop> greedy(List<Stop> places) {
+		List<Stop> sorted = new ArrayList<>();
+		Set<Integer> visited = new HashSet<>();
+		sorted.add(places.get(0));
+		visited.add(0);
+
+		while (sorted.size() < places.size()) {
+			Stop last = sorted.get(sorted.size() - 1);
+			int nearestIdx = -1;
+			double nearestDist = Double.MAX_VALUE;
+			for (int i = 0; i < places.size(); i++) {
+				if (visited.contains(i)) continue;
+				double dist = GeoUtils.haversine(last.x(), last.y(), places.get(i).x(), places.get(i).y());
+				if (dist < nearestDist) {
+					nearestDist = dist;
+					nearestIdx = i;
+				}
+			}
+			visited.add(nearestIdx);
+			sorted.add(places.get(nearestIdx));
+		}
+		return sorted;
+	}
+}
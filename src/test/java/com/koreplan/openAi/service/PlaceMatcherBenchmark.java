@@ -0,0 +1,219 @@
+package com.koreplan.openAi.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.koreplan.data.entity.DataEntity;
+
+/**
+ * GPT 장소 매칭 벤치마크: 기존 전체 비교(calculateMatchingScore) vs PlaceMatcher
+ * 후보는 구 여러 개를 합친 실제 후보 목록과 비슷하게 생성 (관광지/음식점/카페 이름 + 도로명 주소, 숙소 일부 포함)
+ * GPT 장소는 정확한 이름, 띄어쓰기/지점명이 다른 이름, DB에 없는 이름을 섞어서 일정 1건(15곳)씩 매칭
+ *
+ * 실행:
+ * <pre>
+ * mvn -Dmaven.test.skip=false test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.koreplan.openAi.service.PlaceMatcherBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceMatcherBenchmark {
+
+	private static final String[] WARDS = { "종로구", "중구", "용산구", "마포구", "강남구", "서초구", "송파구", "성동구" };
+	private static final String[] ROADS = { "세종대로", "사직로", "율곡로", "청계천로", "을지로", "명동길", "이태원로",
+			"와우산로", "테헤란로", "강남대로", "올림픽로", "왕십리로", "서빙고로", "창덕궁길", "북촌로" };
+	private static final String[] PREFIXES = { "경복", "창덕", "덕수", "북촌", "서촌", "남산", "한강", "청계", "인사",
+			"삼청", "명동", "을지", "이태원", "연남", "망원", "성수", "압구정", "잠실", "석촌", "여의도" };
+	private static final String[] SUFFIXES = { "궁", "한옥마을", "공원", "미술관", "박물관", "시장", "거리", "전망대",
+			"칼국수", "설렁탕", "갈비", "카페", "베이커리", "서점", "갤러리", "기념관" };
+	private static final String[] BRANCHES = { "", "", "", " 본점", " 2호점", "(구관)", " 직영점" };
+
+	@Param({ "200", "1000", "5000" })
+	public int candidates;
+
+	private List<DataEntity> pool;
+	private PlaceMatcher matcher;
+	private String[][] gptPlaces;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		pool = randomCandidates(random, candidates);
+		matcher = new PlaceMatcher(pool);
+		gptPlaces = randomGptPlaces(random, pool, 15);
+	}
+
+	/**
+	 * 후보 목록 (이름 + 서울 도로명 주소, 10곳 중 1곳은 숙소)
+	 */
+	static List<DataEntity> randomCandidates(Random random, int count) {
+		List<DataEntity> pool = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			DataEntity data = new DataEntity();
+			data.setId((long) i);
+			data.setTitle(pick(random, PREFIXES) + pick(random, SUFFIXES) + pick(random, BRANCHES));
+			data.setAddr1("서울특별시 " + pick(random, WARDS) + " " + pick(random, ROADS) + " " + (1 + random.nextInt(300)));
+			data.setC1Code(random.nextInt(10) == 0 ? "AC" : "HS");
+			pool.add(data);
+		}
+		return pool;
+	}
+
+	/**
+	 * GPT 장소 {이름, 주소}: 정확히 일치, 띄어쓰기/지점명 차이, DB에 없는 장소를 번갈아
+	 */
+	static String[][] randomGptPlaces(Random random, List<DataEntity> pool, int count) {
+		String[][] places = new String[count][];
+		for (int i = 0; i < count; i++) {
+			DataEntity source = pool.get(random.nextInt(pool.size()));
+			String title = switch (i % 3) {
+			case 0 -> source.getTitle();
+			case 1 -> source.getTitle().replace(" 본점", "").replace("(구관)", "") + " " + pick(random, SUFFIXES);
+			default -> "제주 " + pick(random, SUFFIXES) + " 투어";
+			};
+			places[i] = new String[] { title, source.getAddr1() };
+		}
+		return places;
+	}
+
+	@Benchmark
+	public void legacyScan(Blackhole blackhole) {
+		Set<Long> usedIds = new HashSet<>();
+		for (String[] place : gptPlaces) {
+			DataEntity match = LegacyScorer.findBestMatch(place[0], place[1], pool, usedIds);
+			if (match != null) {
+				usedIds.add(match.getId());
+			}
+			blackhole.consume(match);
+		}
+	}
+
+	@Benchmark
+	public void placeMatcher(Blackhole blackhole) {
+		Set<Long> usedIds = new HashSet<>();
+		for (String[] place : gptPlaces) {
+			PlaceMatcher.Match match = matcher.findBest(place[0], place[1], usedIds);
+			if (match != null) {
+				usedIds.add(match.data().getId());
+			}
+			blackhole.consume(match);
+		}
+	}
+
+	@Benchmark
+	public PlaceMatcher buildIndex() {
+		return new PlaceMatcher(pool);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PlaceMatcherBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	/**
+	 * 기존 OpenAiService.findBestMatch / calculateMatchingScore (후보별 로그 출력만 제거)
+	 */
+	static final class LegacyScorer {
+
+		static DataEntity findBestMatch(String gptTitle, String gptAddress, List<DataEntity> candidates, Set<Long> usedIds) {
+			DataEntity bestMatch = null;
+			int bestScore = 0;
+			for (DataEntity candidate : candidates) {
+				if (usedIds.contains(candidate.getId()) || "AC".equals(candidate.getC1Code())) {
+					continue;
+				}
+				int score = score(gptTitle, gptAddress, candidate);
+				if (score > bestScore && score >= PlaceMatcher.MIN_SCORE) {
+					bestScore = score;
+					bestMatch = candidate;
+				}
+			}
+			return bestMatch;
+		}
+
+		static int score(String gptTitle, String gptAddress, DataEntity candidate) {
+			return addressScore(gptAddress, candidate.getAddr1()) + titleScore(gptTitle, candidate.getTitle());
+		}
+
+		private static String normalizeAddress(String address) {
+			java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("(\\w+구)\\s+([\\w\\d]+[로길동가])").matcher(address);
+			if (matcher.find()) {
+				return matcher.group(1) + " " + matcher.group(2);
+			}
+			return address.toLowerCase().replaceAll("\\s+", "");
+		}
+
+		private static int addressScore(String gptAddress, String dbAddr1) {
+			if (gptAddress == null || dbAddr1 == null) return 0;
+			String norm1 = normalizeAddress(gptAddress);
+			String norm2 = normalizeAddress(dbAddr1);
+			if (norm1.equals(norm2)) return 50;
+			if (norm1.contains(norm2) || norm2.contains(norm1)) return 35;
+			int commonWords = 0;
+			for (String word1 : norm1.split("\\s+")) {
+				for (String word2 : norm2.split("\\s+")) {
+					if (word1.equals(word2) && word1.length() > 1) {
+						commonWords++;
+					}
+				}
+			}
+			return Math.min(25, commonWords * 10);
+		}
+
+		private static int titleScore(String gptTitle, String dbTitle) {
+			if (gptTitle == null || dbTitle == null) return 0;
+			String norm1 = gptTitle.replaceAll("[\\s\\-\\(\\)\\[\\]\\p{Punct}]", "").toLowerCase();
+			String norm2 = dbTitle.replaceAll("[\\s\\-\\(\\)\\[\\]\\p{Punct}]", "").toLowerCase();
+			if (norm1.equals(norm2)) return 50;
+			if (norm1.contains(norm2) || norm2.contains(norm1)) return 35;
+			int maxLen = Math.max(norm1.length(), norm2.length());
+			double similarity = maxLen == 0 ? 1.0 : 1.0 - (double) levenshtein(norm1, norm2) / maxLen;
+			return (int) (similarity * 25);
+		}
+
+		private static int levenshtein(String s1, String s2) {
+			int[][] dp = new int[s1.length() + 1][s2.length() + 1];
+			for (int i = 0; i <= s1.length(); i++) dp[i][0] = i;
+			for (int j = 0; j <= s2.length(); j++) dp[0][j] = j;
+			for (int i = 1; i <= s1.length(); i++) {
+				for (int j = 1; j <= s2.length(); j++) {
+					if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
+						dp[i][j] = dp[i - 1][j - 1];
+					} else {
+						dp[i][j] = Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]), dp[i - 1][j - 1]) + 1;
+					}
+				}
+			}
+			return dp[s1.length()][s2.length()];
+		}
+	}
+}
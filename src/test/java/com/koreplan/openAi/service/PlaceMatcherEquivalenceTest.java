@@ -0,0 +1,77 @@
+package com.koreplan.openAi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.koreplan.data.entity.DataEntity;
+
+/**
+ * PlaceMatcher 가 기존 전체 비교(PlaceMatcherBenchmark.LegacyScorer)와 같은 장소/점수를 고르는지 무작위 비교
+ * 벤치마크와 같은 후보/GPT 장소에 주소 없음, 특수문자, 빈 이름을 섞고 일정 1건씩 usedIds 를 누적하며 매칭
+ *
+ * 실행:
+ * <pre>
+ * mvn -Dmaven.test.skip=false test -Dtest=PlaceMatcherEquivalenceTest
+ * </pre>
+ */
+class PlaceMatcherEquivalenceTest {
+
+	private static final int[] CANDIDATE_COUNTS = { 1, 5, 50, 300, 1000 };
+	private static final int SEEDS = 200;
+
+	@Test
+	void matchesLegacyScorer() {
+		int compared = 0;
+		for (int seed = 0; seed < SEEDS; seed++) {
+			Random random = new Random(seed);
+			for (int count : CANDIDATE_COUNTS) {
+				List<DataEntity> pool = PlaceMatcherBenchmark.randomCandidates(random, count);
+				// 주소 없는 후보도 섞음
+				for (DataEntity data : pool) {
+					if (random.nextInt(20) == 0) {
+						data.setAddr1(null);
+					}
+				}
+				PlaceMatcher matcher = new PlaceMatcher(pool);
+
+				Set<Long> legacyUsed = new HashSet<>();
+				Set<Long> matcherUsed = new HashSet<>();
+				for (String[] place : PlaceMatcherBenchmark.randomGptPlaces(random, pool, 15)) {
+					String title = variant(random, place[0]);
+					String address = random.nextInt(8) == 0 ? null : place[1];
+
+					DataEntity expected = PlaceMatcherBenchmark.LegacyScorer.findBestMatch(title, address, pool, legacyUsed);
+					PlaceMatcher.Match actual = matcher.findBest(title, address, matcherUsed);
+
+					String context = "seed=" + seed + ", candidates=" + count + ", title=" + title + ", address=" + address;
+					assertEquals(expected == null ? null : expected.getId(),
+							actual == null ? null : actual.data().getId(), context);
+					if (expected != null) {
+						assertEquals(PlaceMatcherBenchmark.LegacyScorer.score(title, address, expected), actual.score(), context);
+						legacyUsed.add(expected.getId());
+						matcherUsed.add(actual.data().getId());
+					}
+					compared++;
+				}
+			}
+		}
+		System.out.println("PlaceMatcher vs 기존 매칭 비교: " + compared + "건 일치");
+	}
+
+	// GPT 이름 변형: 그대로, 띄어쓰기/괄호/특수문자 추가, 대소문자, 빈 이름
+	private static String variant(Random random, String title) {
+		return switch (random.nextInt(6)) {
+		case 0 -> title.replace("", " ").trim();
+		case 1 -> "[" + title + "]";
+		case 2 -> title + " - Seoul";
+		case 3 -> random.nextInt(4) == 0 ? "" : title.toUpperCase();
+		default -> title;
+		};
+	}
+}
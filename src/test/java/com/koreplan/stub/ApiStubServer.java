@@ -0,0 +1,565 @@
+package com.koreplan.stub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 부하 테스트용 공공데이터(KorService2) + OpenAI 스텁 서버
+ *
+ * 응답 선택 순서
+ * 1. 녹화본: {recordDir}/{API}/{쿼리 파라미터}.json (record 모드에서 실제 API 응답을 저장한 파일)
+ * 2. 템플릿: classpath stub/KorService2/{API}.json, stub/openai/chat-completions.json
+ *    - {{contentId}} 처럼 쿼리 파라미터 이름을 쓰면 요청 값으로 치환
+ *    - {API}@{파라미터}.json 이 있으면 그 파라미터가 있는 요청에 우선 사용 (예: ldongCode2@lDongRegnCd.json)
+ *    - areaBasedList2 는 listSize 를 주면 템플릿 item 을 복제해서 numOfRows/pageNo 대로 페이지를 만들어 줌
+ *
+ * OpenAI 요청에 stream: true 가 있으면 같은 응답을 SSE 조각(openAiChunkMs 간격)으로 나눠서 보냄
+ * 지연(latency + jitter, API별 지정 가능), 오류 주입(HTTP 500, 호출 한도 초과 응답, 응답 없이 대기)을 비율로 설정
+ *
+ * 테스트 안에서 사용:
+ * <pre>
+ * try (ApiStubServer stub = ApiStubServer.builder().latencyMs(50).errorRate(0.01).listSize(50_000).start(0)) {
+ *     // publicData.base-url = stub.publicDataBaseUrl(), openai.base-url = stub.openAiBaseUrl()
+ * }
+ * </pre>
+ *
+ * localhost 에서 단독 실행 (애플리케이션은 local,stub 프로필로 실행):
+ * <pre>
+ * mvn -Dmaven.test.skip=false test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.koreplan.stub.ApiStubServer -Dstub.port=18080 -Dstub.latency-ms=80 -Dstub.list-size=50000
+ * </pre>
+ */
+public class ApiStubServer implements AutoCloseable {
+
+	public static final String PUBLIC_DATA_PATH = "/B551011/KorService2/";
+	public static final String OPENAI_PATH = "/v1/chat/completions";
+	private static final int STREAM_CHUNK_CHARS = 12;
+
+	static final String QUOTA_ERROR_BODY = "<OpenAPI_ServiceResponse><cmmMsgHeader><errMsg>SERVICE ERROR</errMsg>"
+			+ "<returnAuthMsg>LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR</returnAuthMsg>"
+			+ "<returnReasonCode>22</returnReasonCode></cmmMsgHeader></OpenAPI_ServiceResponse>";
+
+	// 녹화 파일 이름과 템플릿 선택에서 제외하는 공통 파라미터 (serviceKey는 절대 파일에 남기지 않음)
+	private static final Set<String> COMMON_PARAMS = Set.of("serviceKey", "MobileOS", "MobileApp", "_type",
+			"numOfRows", "pageNo");
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+	private final Builder settings;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, String> templates = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+	private final HttpClient upstream = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+	private HttpServer server;
+
+	private ApiStubServer(Builder settings) {
+		this.settings = settings;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 시스템 프로퍼티(stub.*)로 설정해서 localhost 에 띄움
+	 */
+	public static void main(String[] args) throws IOException {
+		Builder builder = builder()
+				.latencyMs(Long.getLong("stub.latency-ms", 0))
+				.jitterMs(Long.getLong("stub.jitter-ms", 0))
+				.errorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0")))
+				.quotaErrorRate(Double.parseDouble(System.getProperty("stub.quota-error-rate", "0")))
+				.hangRate(Double.parseDouble(System.getProperty("stub.hang-rate", "0")))
+				.listSize(Integer.getInteger("stub.list-size", 0))
+				.openAiLatencyMs(Long.getLong("stub.openai-latency-ms", -1))
+				.openAiChunkMs(Long.getLong("stub.openai-chunk-ms", 20));
+		if (System.getProperty("stub.record-dir") != null) {
+			builder.recordDir(Paths.get(System.getProperty("stub.record-dir")));
+		}
+		if (Boolean.getBoolean("stub.record")) {
+			builder.record(System.getProperty("stub.upstream.public-data", "https://apis.data.go.kr/B551011/KorService2"),
+					System.getProperty("stub.upstream.openai", "https://api.openai.com/v1"));
+		}
+		ApiStubServer stub = builder.start(Integer.getInteger("stub.port", 18080));
+		System.out.println("스텁 서버 시작: " + stub.publicDataBaseUrl() + " , " + stub.openAiBaseUrl());
+		Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+	}
+
+	public String publicDataBaseUrl() {
+		return "http://localhost:" + port() + PUBLIC_DATA_PATH.substring(0, PUBLIC_DATA_PATH.length() - 1);
+	}
+
+	public String openAiBaseUrl() {
+		return "http://localhost:" + port() + "/v1";
+	}
+
+	public int port() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * API별 받은 요청 수
+	 */
+	public Map<String, Long> requestCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		requestCounts.forEach((name, count) -> counts.put(name, count.get()));
+		return counts;
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.stop(0);
+		}
+	}
+
+	private ApiStubServer start(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", port), 512);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext(PUBLIC_DATA_PATH, this::handlePublicData);
+		server.createContext(OPENAI_PATH, this::handleOpenAi);
+		server.start();
+		return this;
+	}
+
+	private void handlePublicData(HttpExchange exchange) throws IOException {
+		String endpoint = exchange.getRequestURI().getPath().substring(PUBLIC_DATA_PATH.length());
+		Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+		count(endpoint);
+		try {
+			if (injectFailure(exchange, endpoint, settings.latencyFor(endpoint))) {
+				return;
+			}
+			String body = recorded(endpoint, recordKey(params));
+			if (body == null && settings.recordPublicData != null) {
+				body = recordPublicData(endpoint, exchange.getRequestURI().getRawQuery(), recordKey(params));
+			}
+			if (body == null) {
+				body = fill(template(endpoint, params), params);
+				if ("areaBasedList2".equals(endpoint) && settings.listSize > 0) {
+					body = page(body, params);
+				}
+			}
+			if (body == null) {
+				send(exchange, 404, "{\"error\":\"fixture 없음: " + endpoint + "\"}");
+				return;
+			}
+			send(exchange, 200, body);
+		} catch (Exception e) {
+			send(exchange, 500, "{\"error\":\"" + e.getMessage() + "\"}");
+		}
+	}
+
+	private void handleOpenAi(HttpExchange exchange) throws IOException {
+		count("chat/completions");
+		try (InputStream in = exchange.getRequestBody()) {
+			String requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			long latency = settings.openAiLatencyMs >= 0 ? settings.openAiLatencyMs : settings.latencyMs;
+			if (injectFailure(exchange, "chat/completions", latency)) {
+				return;
+			}
+			// stream: true 요청도 녹화본/템플릿은 일반 응답을 쓰고 보낼 때만 SSE 조각으로 나눔
+			ObjectNode request = (ObjectNode) mapper.readTree(requestBody);
+			boolean stream = request.path("stream").asBoolean(false);
+			boolean includeUsage = request.path("stream_options").path("include_usage").asBoolean(false);
+			if (stream) {
+				request.remove("stream");
+				request.remove("stream_options");
+				requestBody = mapper.writeValueAsString(request);
+			}
+			String key = sha256(requestBody);
+			String body = recorded("chat-completions", key);
+			if (body == null && settings.recordOpenAi != null) {
+				body = recordOpenAi(exchange, requestBody, key);
+			}
+			if (body == null) {
+				body = loadTemplate("stub/openai/chat-completions.json");
+			}
+			if (stream) {
+				sendStream(exchange, body, includeUsage);
+				return;
+			}
+			send(exchange, 200, body);
+		} catch (Exception e) {
+			send(exchange, 500, "{\"error\":{\"message\":\"" + e.getMessage() + "\"}}");
+		}
+	}
+
+	/**
+	 * Chat Completion 응답을 OpenAI 스트리밍 형식(data: {chunk} ... data: [DONE])으로 나눠서 전송
+	 * 조각 사이에 openAiChunkMs 만큼 쉬어서 토큰 생성 속도를 흉내냄
+	 * stream_options.include_usage 요청이면 OpenAI 처럼 마지막에 choices 가 빈 usage 조각을 보냄
+	 */
+	private void sendStream(HttpExchange exchange, String completionBody, boolean includeUsage) throws IOException {
+		JsonNode completion = mapper.readTree(completionBody);
+		String content = completion.path("choices").path(0).path("message").path("content").asText("");
+
+		exchange.getResponseHeaders().set("Content-Type", "text/event-stream;charset=UTF-8");
+		exchange.sendResponseHeaders(200, 0);
+		try (OutputStream out = exchange.getResponseBody()) {
+			for (int i = 0; i < content.length(); i += STREAM_CHUNK_CHARS) {
+				String piece = content.substring(i, Math.min(content.length(), i + STREAM_CHUNK_CHARS));
+				ObjectNode chunk = mapper.createObjectNode();
+				chunk.put("object", "chat.completion.chunk");
+				chunk.put("model", completion.path("model").asText("gpt-4o"));
+				ObjectNode choice = chunk.putArray("choices").addObject();
+				choice.put("index", 0);
+				choice.putObject("delta").put("content", piece);
+				out.write(("data: " + mapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				sleep(settings.openAiChunkMs);
+			}
+			if (includeUsage && completion.has("usage")) {
+				ObjectNode chunk = mapper.createObjectNode();
+				chunk.put("object", "chat.completion.chunk");
+				chunk.put("model", completion.path("model").asText("gpt-4o"));
+				chunk.putArray("choices");
+				chunk.set("usage", completion.get("usage"));
+				out.write(("data: " + mapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+			}
+			out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * 지연 후 설정된 비율에 따라 오류 응답. 오류를 보냈으면 true
+	 */
+	private boolean injectFailure(HttpExchange exchange, String endpoint, long latencyMs) throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long delay = latencyMs + (settings.jitterMs > 0 ? random.nextLong(settings.jitterMs + 1) : 0);
+		sleep(delay);
+
+		double roll = random.nextDouble();
+		if (roll < settings.hangRate) {
+			// 응답 없이 붙잡고 있기 → 호출 측 읽기 타임아웃/서킷 브레이커 확인용
+			sleep(settings.hangMs);
+			send(exchange, 504, "");
+			return true;
+		}
+		roll -= settings.hangRate;
+		if (roll < settings.errorRate) {
+			send(exchange, 500, "Internal Server Error");
+			return true;
+		}
+		roll -= settings.errorRate;
+		if (roll < settings.quotaErrorRate && !"chat/completions".equals(endpoint)) {
+			send(exchange, 200, QUOTA_ERROR_BODY);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 템플릿 item 을 복제해서 요청한 페이지를 만듦 (contentid 는 900000000 + 순번)
+	 */
+	private String page(String body, Map<String, String> params) throws IOException {
+		JsonNode root = mapper.readTree(body);
+		ObjectNode bodyNode = (ObjectNode) root.path("response").path("body");
+		JsonNode templateItems = bodyNode.path("items").path("item");
+		if (!templateItems.isArray() || templateItems.isEmpty()) {
+			return body;
+		}
+
+		int rows = Integer.parseInt(params.getOrDefault("numOfRows", "10"));
+		int pageNo = Integer.parseInt(params.getOrDefault("pageNo", "1"));
+		int from = (pageNo - 1) * rows;
+		int to = Math.min(settings.listSize, from + rows);
+
+		ArrayNode items = mapper.createArrayNode();
+		for (int i = from; i < to; i++) {
+			ObjectNode item = ((ObjectNode) templateItems.get(i % templateItems.size())).deepCopy();
+			item.put("contentid", String.valueOf(900_000_000L + i));
+			item.put("title", item.path("title").asText() + " " + (i + 1));
+			items.add(item);
+		}
+
+		ObjectNode itemsNode = mapper.createObjectNode();
+		itemsNode.set("item", items);
+		// 실제 API는 결과가 없으면 items 를 빈 문자열로 보냄
+		if (items.isEmpty()) {
+			bodyNode.put("items", "");
+		} else {
+			bodyNode.set("items", itemsNode);
+		}
+		bodyNode.put("numOfRows", rows);
+		bodyNode.put("pageNo", pageNo);
+		bodyNode.put("totalCount", settings.listSize);
+		return mapper.writeValueAsString(root);
+	}
+
+	private String template(String endpoint, Map<String, String> params) throws IOException {
+		for (String param : params.keySet()) {
+			if (!COMMON_PARAMS.contains(param)) {
+				String variant = loadTemplate("stub/KorService2/" + endpoint + "@" + param + ".json");
+				if (variant != null) {
+					return variant;
+				}
+			}
+		}
+		return loadTemplate("stub/KorService2/" + endpoint + ".json");
+	}
+
+	private String loadTemplate(String resource) throws IOException {
+		String cached = templates.get(resource);
+		if (cached != null) {
+			return cached;
+		}
+		try (InputStream in = ApiStubServer.class.getClassLoader().getResourceAsStream(resource)) {
+			if (in == null) {
+				return null;
+			}
+			String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			templates.put(resource, text);
+			return text;
+		}
+	}
+
+	private String fill(String template, Map<String, String> params) {
+		if (template == null) {
+			return null;
+		}
+		Matcher matcher = PLACEHOLDER.matcher(template);
+		StringBuilder sb = new StringBuilder();
+		while (matcher.find()) {
+			matcher.appendReplacement(sb, Matcher.quoteReplacement(params.getOrDefault(matcher.group(1), "")));
+		}
+		matcher.appendTail(sb);
+		return sb.toString();
+	}
+
+	private String recorded(String endpoint, String key) throws IOException {
+		if (settings.recordDir == null) {
+			return null;
+		}
+		Path file = settings.recordDir.resolve(endpoint).resolve(key + ".json");
+		return Files.exists(file) ? Files.readString(file) : null;
+	}
+
+	private void saveRecording(String endpoint, String key, String body) throws IOException {
+		if (settings.recordDir == null) {
+			return;
+		}
+		Path dir = settings.recordDir.resolve(endpoint);
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve(key + ".json"), body);
+	}
+
+	private String recordPublicData(String endpoint, String rawQuery, String key) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(settings.recordPublicData + "/" + endpoint + "?" + rawQuery))
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+		HttpResponse<String> response = upstream.send(request, HttpResponse.BodyHandlers.ofString());
+		String body = response.body();
+		// 한도 초과/오류 응답은 녹화하지 않음
+		if (response.statusCode() == 200 && body.contains("\"resultCode\":\"0000\"")) {
+			saveRecording(endpoint, key, body);
+		}
+		return body;
+	}
+
+	private String recordOpenAi(HttpExchange exchange, String requestBody, String key) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(settings.recordOpenAi + "/chat/completions"))
+				.timeout(Duration.ofSeconds(120))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(requestBody));
+		String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+		if (authorization != null) {
+			request.header("Authorization", authorization);
+		}
+		HttpResponse<String> response = upstream.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() == 200) {
+			saveRecording("chat-completions", key, response.body());
+		}
+		return response.body();
+	}
+
+	/**
+	 * 공통 파라미터를 뺀 쿼리 파라미터로 녹화 파일 이름 생성 (예: contentId=126508_contentTypeId=12)
+	 */
+	private static String recordKey(Map<String, String> params) {
+		StringBuilder sb = new StringBuilder();
+		new TreeMap<>(params).forEach((name, value) -> {
+			if (!COMMON_PARAMS.contains(name)) {
+				if (sb.length() > 0) {
+					sb.append('_');
+				}
+				sb.append(name).append('=').append(value.replaceAll("[^0-9A-Za-z가-힣-]", ""));
+			}
+		});
+		if (params.containsKey("pageNo")) {
+			sb.append(sb.length() > 0 ? "_" : "").append("page=").append(params.get("pageNo"))
+					.append('x').append(params.getOrDefault("numOfRows", "10"));
+		}
+		return sb.length() == 0 ? "default" : sb.toString();
+	}
+
+	private static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> params = new LinkedHashMap<>();
+		if (rawQuery == null || rawQuery.isEmpty()) {
+			return params;
+		}
+		for (String pair : rawQuery.split("&")) {
+			int eq = pair.indexOf('=');
+			String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+			String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+			params.put(name, value);
+		}
+		return params;
+	}
+
+	private void count(String endpoint) {
+		requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	private static void send(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type",
+				body.startsWith("<") ? "text/xml;charset=UTF-8" : "application/json;charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		if (bytes.length > 0) {
+			exchange.getResponseBody().write(bytes);
+		}
+		exchange.close();
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String sha256(String text) throws Exception {
+		byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+		return HexFormat.of().formatHex(hash, 0, 12);
+	}
+
+	/**
+	 * 스텁 설정 (지연, 오류 비율, 목록 크기, 녹화)
+	 */
+	public static class Builder {
+		private long latencyMs;
+		private long jitterMs;
+		private long openAiLatencyMs = -1;
+		private long openAiChunkMs = 20;
+		private final Map<String, Long> endpointLatencyMs = new ConcurrentHashMap<>();
+		private double errorRate;
+		private double quotaErrorRate;
+		private double hangRate;
+		private long hangMs = 60_000;
+		private int listSize;
+		private Path recordDir;
+		private String recordPublicData;
+		private String recordOpenAi;
+
+		public Builder latencyMs(long latencyMs) {
+			this.latencyMs = latencyMs;
+			return this;
+		}
+
+		public Builder jitterMs(long jitterMs) {
+			this.jitterMs = jitterMs;
+			return this;
+		}
+
+		public Builder latencyMs(String endpoint, long latencyMs) {
+			endpointLatencyMs.put(endpoint, latencyMs);
+			return this;
+		}
+
+		public Builder openAiLatencyMs(long openAiLatencyMs) {
+			this.openAiLatencyMs = openAiLatencyMs;
+			return this;
+		}
+
+		public Builder openAiChunkMs(long openAiChunkMs) {
+			this.openAiChunkMs = openAiChunkMs;
+			return this;
+		}
+
+		public Builder errorRate(double errorRate) {
+			this.errorRate = errorRate;
+			return this;
+		}
+
+		public Builder quotaErrorRate(double quotaErrorRate) {
+			this.quotaErrorRate = quotaErrorRate;
+			return this;
+		}
+
+		public Builder hangRate(double hangRate) {
+			this.hangRate = hangRate;
+			return this;
+		}
+
+		public Builder hangMs(long hangMs) {
+			this.hangMs = hangMs;
+			return this;
+		}
+
+		public Builder listSize(int listSize) {
+			this.listSize = listSize;
+			return this;
+		}
+
+		public Builder recordDir(Path recordDir) {
+			this.recordDir = recordDir;
+			return this;
+		}
+
+		/**
+		 * 녹화본이 없는 요청은 실제 API로 보내고 응답을 recordDir 에 저장 (기본 recordDir: target/stub-recordings)
+		 */
+		public Builder record(String publicDataBaseUrl, String openAiBaseUrl) {
+			this.recordPublicData = publicDataBaseUrl;
+			this.recordOpenAi = openAiBaseUrl;
+			if (recordDir == null) {
+				recordDir = Paths.get("target", "stub-recordings");
+			}
+			return this;
+		}
+
+		private long latencyFor(String endpoint) {
+			return endpointLatencyMs.getOrDefault(endpoint, latencyMs);
+		}
+
+		public ApiStubServer start(int port) throws IOException {
+			return new ApiStubServer(this).start(port);
+		}
+	}
+}